@@ -0,0 +1,92 @@
+package ar.edu.unlu.bdd.benchmarks;
+
+import ar.edu.unlu.bdd.controller.ControllerEmpleado;
+import ar.edu.unlu.bdd.entity.Empleado;
+import ar.edu.unlu.bdd.view.salida.Columnas;
+import ar.edu.unlu.bdd.view.salida.ListadoResultados;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mongodb.client.model.Filters.gte;
+
+/**
+ * Rendimiento y latencia de las operaciones de {@link ControllerEmpleado}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class BenchmarkEmpleado {
+
+    private static final AtomicInteger siguienteDni = new AtomicInteger(EstadoBaseDatos.INICIO_CLAVES_ALTA);
+
+    private ControllerEmpleado controller;
+
+    /**
+     * Inserta, fuera de la medición, el empleado que va a eliminar cada invocación de {@link #baja}.
+     */
+    @State(Scope.Thread)
+    public static class EstadoBaja {
+        int dni;
+
+        @Setup(Level.Invocation)
+        public void preparar(EstadoBaseDatos estado) {
+            dni = siguienteDni.getAndIncrement();
+            estado.repositorios.getEmpleados().insertar(new Empleado(dni, "Baja", "Baja", EstadoBaseDatos.nombreSucursal(0)));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparar(EstadoBaseDatos estado) {
+        controller = new ControllerEmpleado(estado.repositorios);
+    }
+
+    @TearDown(Level.Iteration)
+    public void limpiarAltas(EstadoBaseDatos estado) {
+        if (estado.database != null) {
+            estado.database.getCollection("empleados").deleteMany(gte("dni", EstadoBaseDatos.INICIO_CLAVES_ALTA));
+        } else {
+            EstadoBaseDatos.eliminarCreadas(estado.repositorios.getEmpleados().listar(),
+                    e -> e.getDni() >= EstadoBaseDatos.INICIO_CLAVES_ALTA,
+                    e -> estado.repositorios.getEmpleados().eliminar(e.getDni()));
+        }
+    }
+
+    @Benchmark
+    public void alta(EstadoBaseDatos estado) {
+        controller.alta(siguienteDni.getAndIncrement(), "Nombre", "Apellido",
+                EstadoBaseDatos.nombreSucursal(estado.claveAlAzar() % EstadoBaseDatos.CANTIDAD_SUCURSALES));
+    }
+
+    @Benchmark
+    public void baja(EstadoBaja baja) {
+        controller.baja(baja.dni);
+    }
+
+    @Benchmark
+    public void modificacion(EstadoBaseDatos estado) {
+        int dni = estado.claveAlAzar();
+        controller.modificacion(dni, "Nombre" + dni, "Apellido" + dni,
+                EstadoBaseDatos.nombreSucursal(siguienteDni.get() % EstadoBaseDatos.CANTIDAD_SUCURSALES));
+    }
+
+    @Benchmark
+    public long consulta(EstadoBaseDatos estado) {
+        return ListadoResultados.mostrar(controller.consulta(String.valueOf(estado.claveAlAzar())), Columnas.EMPLEADO);
+    }
+}
@@ -0,0 +1,145 @@
+package ar.edu.unlu.bdd.benchmarks;
+
+import ar.edu.unlu.bdd.database.ConfiguracionMongo;
+import ar.edu.unlu.bdd.database.Indices;
+import ar.edu.unlu.bdd.database.MetricasComandos;
+import ar.edu.unlu.bdd.database.MetricasPool;
+import ar.edu.unlu.bdd.database.MongoDB;
+import ar.edu.unlu.bdd.entity.Producto;
+import ar.edu.unlu.bdd.entity.Sucursal;
+import ar.edu.unlu.bdd.entity.Vende;
+import ar.edu.unlu.bdd.repository.RepositorioVende;
+import ar.edu.unlu.bdd.repository.Repositorios;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara las lecturas y escrituras de vende con las relaciones en su propia colección y
+ * embebidas en cada sucursal ({@code -Dbdd.vende.esquema}). Mide el repositorio directamente,
+ * sin el controller, para que la diferencia sea solo la del esquema.
+ * <p>
+ * Requiere MongoDB: usa la base 'miMongoDB_bench' de {@link EstadoBaseDatos}, que se recrea en
+ * cada trial. Las {@code cantidad} relaciones se reparten entre 10 sucursales, por debajo del
+ * límite de relaciones embebidas por sucursal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class BenchmarkEsquemaVende {
+
+    private static final int TAMANIO_LOTE = 1000;
+    /** Stock inicial de cada relación, suficiente para no agotarse durante las ventas medidas. */
+    private static final int STOCK_INICIAL = 100_000_000;
+
+    @Param({Repositorios.ESQUEMA_COLECCION, Repositorios.ESQUEMA_EMBEBIDO})
+    public String esquema;
+
+    @Param({"1000", "10000"})
+    public int cantidad;
+
+    private MongoClient mongoClient;
+    private MongoDatabase database;
+    private Repositorios repositorios;
+    private RepositorioVende vende;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        ConfiguracionMongo configuracion = ConfiguracionMongo.cargar();
+        mongoClient = MongoClients.create(configuracion.construirSettings(new MetricasPool(), new MetricasComandos()));
+        database = mongoClient.getDatabase(EstadoBaseDatos.DATABASE_NAME).withCodecRegistry(MongoDB.CODEC_REGISTRY);
+
+        database.drop();
+        Indices.crear(database);
+        repositorios = Repositorios.mongo(mongoClient, database, esquema);
+        vende = repositorios.getVende();
+        cargarDatos();
+    }
+
+    @TearDown(Level.Trial)
+    public void finalizar() {
+        repositorios.close();
+        database.drop();
+        mongoClient.close();
+    }
+
+    private void cargarDatos() {
+        List<Sucursal> sucursales = new ArrayList<>();
+        for (int i = 0; i < EstadoBaseDatos.CANTIDAD_SUCURSALES; i++) {
+            sucursales.add(new Sucursal(EstadoBaseDatos.nombreSucursal(i), "Calle " + i));
+        }
+        repositorios.getSucursales().insertarLote(sucursales);
+
+        List<Producto> loteProductos = new ArrayList<>(TAMANIO_LOTE);
+        List<Vende> loteVende = new ArrayList<>(TAMANIO_LOTE);
+        for (int i = 1; i <= cantidad; i++) {
+            loteProductos.add(new Producto(i, "Producto " + i, 100));
+            loteVende.add(new Vende(sucursalDe(i), i, 10.0 + i % 100, STOCK_INICIAL));
+            if (loteVende.size() == TAMANIO_LOTE || i == cantidad) {
+                repositorios.getProductos().insertarLote(loteProductos);
+                vende.insertarLote(loteVende);
+                loteProductos.clear();
+                loteVende.clear();
+            }
+        }
+    }
+
+    private static String sucursalDe(int codigoProducto) {
+        return EstadoBaseDatos.nombreSucursal(codigoProducto % EstadoBaseDatos.CANTIDAD_SUCURSALES);
+    }
+
+    private int codigoAlAzar() {
+        return ThreadLocalRandom.current().nextInt(1, cantidad + 1);
+    }
+
+    @Benchmark
+    public List<Vende> buscarPorSucursal() {
+        return vende.buscarPorSucursal(EstadoBaseDatos.nombreSucursal(
+                ThreadLocalRandom.current().nextInt(EstadoBaseDatos.CANTIDAD_SUCURSALES)));
+    }
+
+    @Benchmark
+    public Vende buscar() {
+        int codigo = codigoAlAzar();
+        return vende.buscar(sucursalDe(codigo), codigo);
+    }
+
+    @Benchmark
+    public List<Vende> buscarPorProducto() {
+        return vende.buscarPorProducto(codigoAlAzar());
+    }
+
+    @Benchmark
+    public ResultadoModificacion modificacion() {
+        int codigo = codigoAlAzar();
+        return vende.modificar(sucursalDe(codigo), codigo, 1.0 + codigo % 50, STOCK_INICIAL);
+    }
+
+    @Benchmark
+    public Vende vender() {
+        int codigo = codigoAlAzar();
+        return vende.vender(sucursalDe(codigo), codigo, 1);
+    }
+}
@@ -0,0 +1,158 @@
+package ar.edu.unlu.bdd.benchmarks;
+
+import ar.edu.unlu.bdd.database.ConfiguracionMongo;
+import ar.edu.unlu.bdd.database.MetricasComandos;
+import ar.edu.unlu.bdd.database.MetricasPool;
+import ar.edu.unlu.bdd.database.PerfilOperacion;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Updates.inc;
+
+/**
+ * Latencia de las mismas escrituras y lecturas de vende con cada {@link PerfilOperacion}:
+ * un lote de inserciones, una venta (findOneAndUpdate), una valoración ($group) y una
+ * búsqueda por clave. Mide la colección directamente, sin repositorio ni controller, para
+ * que la única diferencia entre parámetros sea el write concern y la preferencia de lectura.
+ * <p>
+ * Las diferencias solo aparecen contra un replica set: con un servidor solo, majority equivale
+ * a w=1 y todas las lecturas van al mismo nodo. Por ejemplo, con tres mongod locales:
+ * <pre>
+ * java -Dbdd.mongo.uri="mongodb://localhost:27017,localhost:27018,localhost:27019/?replicaSet=rs0" \
+ *      -jar benchmarks/target/benchmarks.jar BenchmarkPerfilOperacion
+ * </pre>
+ * Usa la base 'miMongoDB_bench' de {@link EstadoBaseDatos}, que se recrea en cada trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class BenchmarkPerfilOperacion {
+
+    private static final int TAMANIO_LOTE = 100;
+    /** Stock inicial de cada relación, suficiente para no agotarse durante las ventas medidas. */
+    private static final int STOCK_INICIAL = 100_000_000;
+
+    @Param({"defecto", "masivo", "venta", "reporte"})
+    public String perfil;
+
+    @Param({"10000"})
+    public int cantidad;
+
+    private final AtomicInteger siguienteCodigo = new AtomicInteger(EstadoBaseDatos.INICIO_CLAVES_ALTA);
+
+    private MongoClient mongoClient;
+    private MongoDatabase database;
+    private MongoCollection<Document> vende;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        ConfiguracionMongo configuracion = ConfiguracionMongo.cargar();
+        mongoClient = MongoClients.create(configuracion.construirSettings(new MetricasPool(), new MetricasComandos()));
+        database = mongoClient.getDatabase(EstadoBaseDatos.DATABASE_NAME);
+        database.drop();
+
+        MongoCollection<Document> coleccion = database.getCollection("vende");
+        coleccion.createIndex(Indexes.ascending("sucursal", "codigoProducto"), new IndexOptions().unique(true));
+        List<Document> lote = new ArrayList<>(1000);
+        for (int i = 1; i <= cantidad; i++) {
+            lote.add(relacion(sucursalDe(i), i));
+            if (lote.size() == 1000 || i == cantidad) {
+                coleccion.insertMany(lote);
+                lote.clear();
+            }
+        }
+        vende = PerfilOperacion.desde(perfil).aplicar(coleccion);
+    }
+
+    @TearDown(Level.Iteration)
+    public void limpiarAltas() {
+        database.getCollection("vende").deleteMany(gte("codigoProducto", EstadoBaseDatos.INICIO_CLAVES_ALTA));
+    }
+
+    @TearDown(Level.Trial)
+    public void finalizar() {
+        database.drop();
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public void insertarLote() {
+        List<Document> lote = new ArrayList<>(TAMANIO_LOTE);
+        for (int i = 0; i < TAMANIO_LOTE; i++) {
+            int codigo = siguienteCodigo.getAndIncrement();
+            lote.add(relacion(sucursalDe(codigo), codigo));
+        }
+        vende.insertMany(lote, new InsertManyOptions().ordered(false));
+    }
+
+    @Benchmark
+    public Document vender() {
+        int codigo = codigoAlAzar();
+        return vende.findOneAndUpdate(and(filtroClave(codigo), gte("stock", 1)), inc("stock", -1));
+    }
+
+    @Benchmark
+    public List<Document> valorar() {
+        List<Bson> pipeline = List.of(
+                new Document("$group", new Document("_id", "$sucursal")
+                        .append("unidades", new Document("$sum", "$stock"))
+                        .append("valor", new Document("$sum", new Document("$multiply", List.of("$precio", "$stock"))))));
+        return vende.aggregate(pipeline).into(new ArrayList<>());
+    }
+
+    @Benchmark
+    public Document buscar() {
+        return vende.find(filtroClave(codigoAlAzar())).first();
+    }
+
+    private int codigoAlAzar() {
+        return ThreadLocalRandom.current().nextInt(1, cantidad + 1);
+    }
+
+    private static Bson filtroClave(int codigo) {
+        return and(eq("sucursal", sucursalDe(codigo)), eq("codigoProducto", codigo));
+    }
+
+    private static Document relacion(String sucursal, int codigo) {
+        return new Document("sucursal", sucursal)
+                .append("codigoProducto", codigo)
+                .append("precio", 10.0 + codigo % 100)
+                .append("stock", STOCK_INICIAL);
+    }
+
+    private static String sucursalDe(int codigoProducto) {
+        return EstadoBaseDatos.nombreSucursal(codigoProducto % EstadoBaseDatos.CANTIDAD_SUCURSALES);
+    }
+}
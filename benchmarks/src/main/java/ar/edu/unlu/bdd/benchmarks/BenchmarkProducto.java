@@ -0,0 +1,89 @@
+package ar.edu.unlu.bdd.benchmarks;
+
+import ar.edu.unlu.bdd.controller.ControllerProducto;
+import ar.edu.unlu.bdd.entity.Producto;
+import ar.edu.unlu.bdd.view.salida.Columnas;
+import ar.edu.unlu.bdd.view.salida.ListadoResultados;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mongodb.client.model.Filters.gte;
+
+/**
+ * Rendimiento y latencia de las operaciones de {@link ControllerProducto}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class BenchmarkProducto {
+
+    private static final AtomicInteger siguienteCodigo = new AtomicInteger(EstadoBaseDatos.INICIO_CLAVES_ALTA);
+
+    private ControllerProducto controller;
+
+    /**
+     * Inserta, fuera de la medición, el producto que va a eliminar cada invocación de {@link #baja}.
+     */
+    @State(Scope.Thread)
+    public static class EstadoBaja {
+        int codigo;
+
+        @Setup(Level.Invocation)
+        public void preparar(EstadoBaseDatos estado) {
+            codigo = siguienteCodigo.getAndIncrement();
+            estado.repositorios.getProductos().insertar(new Producto(codigo, "baja", 0));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparar(EstadoBaseDatos estado) {
+        controller = new ControllerProducto(estado.repositorios);
+    }
+
+    @TearDown(Level.Iteration)
+    public void limpiarAltas(EstadoBaseDatos estado) {
+        if (estado.database != null) {
+            estado.database.getCollection("productos").deleteMany(gte("codigo", EstadoBaseDatos.INICIO_CLAVES_ALTA));
+        } else {
+            EstadoBaseDatos.eliminarCreadas(estado.repositorios.getProductos().listar(),
+                    p -> p.getCodigo() >= EstadoBaseDatos.INICIO_CLAVES_ALTA,
+                    p -> estado.repositorios.getProductos().eliminar(p.getCodigo()));
+        }
+    }
+
+    @Benchmark
+    public void alta() {
+        controller.alta(siguienteCodigo.getAndIncrement(), "Producto alta", 10);
+    }
+
+    @Benchmark
+    public void baja(EstadoBaja baja) {
+        controller.baja(baja.codigo);
+    }
+
+    @Benchmark
+    public void modificacion(EstadoBaseDatos estado) {
+        controller.modificacion(estado.claveAlAzar(), "Producto modificado", 1 + siguienteCodigo.get() % 100);
+    }
+
+    @Benchmark
+    public long consulta(EstadoBaseDatos estado) {
+        return ListadoResultados.mostrar(controller.consulta(String.valueOf(estado.claveAlAzar())), Columnas.PRODUCTO);
+    }
+}
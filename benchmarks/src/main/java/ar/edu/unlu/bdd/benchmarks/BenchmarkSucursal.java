@@ -0,0 +1,88 @@
+package ar.edu.unlu.bdd.benchmarks;
+
+import ar.edu.unlu.bdd.controller.ControllerSucursal;
+import ar.edu.unlu.bdd.entity.Sucursal;
+import ar.edu.unlu.bdd.view.salida.Columnas;
+import ar.edu.unlu.bdd.view.salida.ListadoResultados;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.regex;
+
+/**
+ * Rendimiento y latencia de las operaciones de {@link ControllerSucursal}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class BenchmarkSucursal {
+
+    private ControllerSucursal controller;
+    private int siguienteAlta;
+
+    /**
+     * Inserta, fuera de la medición, la sucursal que va a eliminar cada invocación de {@link #baja}.
+     */
+    @State(Scope.Thread)
+    public static class EstadoBaja {
+        String nombre;
+
+        @Setup(Level.Invocation)
+        public void preparar(EstadoBaseDatos estado) {
+            nombre = "baja-" + Thread.currentThread().getId();
+            estado.repositorios.getSucursales().insertar(new Sucursal(nombre, "x"));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparar(EstadoBaseDatos estado) {
+        controller = new ControllerSucursal(estado.repositorios);
+    }
+
+    @TearDown(Level.Iteration)
+    public void limpiarAltas(EstadoBaseDatos estado) {
+        if (estado.database != null) {
+            estado.database.getCollection("sucursales").deleteMany(regex("nombre", "^(alta|baja)-[0-9]"));
+        } else {
+            EstadoBaseDatos.eliminarCreadas(estado.repositorios.getSucursales().listar(),
+                    s -> s.getNombre().matches("^(alta|baja)-[0-9].*"),
+                    s -> estado.repositorios.getSucursales().eliminar(s.getNombre()));
+        }
+    }
+
+    @Benchmark
+    public void alta() {
+        controller.alta("alta-" + Thread.currentThread().getId() + "-" + siguienteAlta++, "Calle");
+    }
+
+    @Benchmark
+    public void baja(EstadoBaja baja) {
+        controller.baja(baja.nombre);
+    }
+
+    @Benchmark
+    public void modificacion(EstadoBaseDatos estado) {
+        controller.modificacion(EstadoBaseDatos.nombreSucursal(estado.claveAlAzar() % EstadoBaseDatos.CANTIDAD_SUCURSALES),
+                "Calle " + siguienteAlta++);
+    }
+
+    @Benchmark
+    public long consulta(EstadoBaseDatos estado) {
+        return ListadoResultados.mostrar(controller.consulta(EstadoBaseDatos.nombreSucursal(estado.claveAlAzar() % EstadoBaseDatos.CANTIDAD_SUCURSALES)), Columnas.SUCURSAL);
+    }
+}
@@ -0,0 +1,124 @@
+package ar.edu.unlu.bdd.benchmarks;
+
+import ar.edu.unlu.bdd.controller.ControllerVende;
+import ar.edu.unlu.bdd.entity.Vende;
+import ar.edu.unlu.bdd.view.salida.Columnas;
+import ar.edu.unlu.bdd.view.salida.ListadoResultados;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mongodb.client.model.Filters.regex;
+
+/**
+ * Rendimiento y latencia de las operaciones de {@link ControllerVende}.
+ * <p>
+ * Las altas usan las sucursales 'alta-vende-N' de {@link EstadoBaseDatos}, combinadas con
+ * los productos existentes para no repetir pares: N crece sin volver a empezar durante la
+ * iteración, y las sucursales que faltan se crean fuera de la medición.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class BenchmarkVende {
+
+    private static final AtomicInteger siguienteAlta = new AtomicInteger();
+
+    private ControllerVende controller;
+
+    /**
+     * Elige, fuera de la medición, el par sucursal-producto nuevo de cada invocación de {@link #alta}.
+     */
+    @State(Scope.Thread)
+    public static class EstadoAlta {
+        String sucursal;
+        int codigoProducto;
+
+        @Setup(Level.Invocation)
+        public void preparar(EstadoBaseDatos estado) {
+            int n = siguienteAlta.getAndIncrement();
+            sucursal = estado.sucursalAlta(n / estado.cantidad);
+            codigoProducto = n % estado.cantidad + 1;
+        }
+    }
+
+    /**
+     * Inserta, fuera de la medición, la relación que va a eliminar cada invocación de {@link #baja}.
+     */
+    @State(Scope.Thread)
+    public static class EstadoBaja {
+        String sucursal;
+        int codigoProducto;
+
+        @Setup(Level.Invocation)
+        public void preparar(EstadoBaseDatos estado) {
+            int n = siguienteAlta.getAndIncrement();
+            sucursal = estado.sucursalAlta(n / estado.cantidad);
+            codigoProducto = n % estado.cantidad + 1;
+            estado.repositorios.getVende().insertar(new Vende(sucursal, codigoProducto, 1.0, 1));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparar(EstadoBaseDatos estado) {
+        controller = new ControllerVende(estado.repositorios);
+    }
+
+    @TearDown(Level.Iteration)
+    public void limpiarAltas(EstadoBaseDatos estado) {
+        if (estado.database != null) {
+            estado.database.getCollection("vende").deleteMany(regex("sucursal", "^alta-vende-"));
+        } else {
+            EstadoBaseDatos.eliminarCreadas(estado.repositorios.getVende().listar(),
+                    v -> v.getSucursal().startsWith("alta-vende-"),
+                    v -> estado.repositorios.getVende().eliminar(v.getSucursal(), v.getCodigoProducto()));
+        }
+        siguienteAlta.set(0);
+    }
+
+    @Benchmark
+    public void alta(EstadoAlta alta) {
+        controller.alta(alta.sucursal, alta.codigoProducto, 9.99, 5);
+    }
+
+    @Benchmark
+    public void baja(EstadoBaja baja) {
+        controller.baja(baja.sucursal, baja.codigoProducto);
+    }
+
+    @Benchmark
+    public void modificacion(EstadoBaseDatos estado) {
+        int codigo = estado.claveAlAzar();
+        controller.modificacion(EstadoBaseDatos.nombreSucursal(codigo % EstadoBaseDatos.CANTIDAD_SUCURSALES),
+                codigo, 10.0 + siguienteAlta.get() % 100, 50);
+    }
+
+    @Benchmark
+    public long consulta(EstadoBaseDatos estado) {
+        return ListadoResultados.mostrar(controller.consulta(String.valueOf(estado.claveAlAzar())), Columnas.VENDE);
+    }
+
+    /**
+     * Costo de leer la primera página del listado de 'vende' (lo que hace consulta("todas")).
+     */
+    @Benchmark
+    public List<Vende> listarPrimeraPagina(EstadoBaseDatos estado) {
+        return estado.repositorios.getVende().listar().siguientePagina();
+    }
+}
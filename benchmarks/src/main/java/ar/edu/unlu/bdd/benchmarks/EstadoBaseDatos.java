@@ -0,0 +1,169 @@
+package ar.edu.unlu.bdd.benchmarks;
+
+import ar.edu.unlu.bdd.database.ConfiguracionMongo;
+import ar.edu.unlu.bdd.database.Indices;
+import ar.edu.unlu.bdd.database.MetricasComandos;
+import ar.edu.unlu.bdd.database.MetricasPool;
+import ar.edu.unlu.bdd.database.MongoDB;
+import ar.edu.unlu.bdd.entity.Empleado;
+import ar.edu.unlu.bdd.entity.Producto;
+import ar.edu.unlu.bdd.entity.Sucursal;
+import ar.edu.unlu.bdd.entity.Vende;
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import ar.edu.unlu.bdd.repository.Repositorios;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Estado compartido por los benchmarks: los repositorios del motor indicado en {@code motor},
+ * cargados con {@code cantidad} productos, empleados y relaciones vende.
+ * <p>
+ * Con el motor 'mongo' se usa una base de datos 'miMongoDB_bench' separada de la de la
+ * aplicación, con la misma configuración de conexión (mongodb.properties o -Dbdd.mongo.uri).
+ * Con el motor 'memoria' no hace falta un servidor, y la diferencia entre ambos resultados
+ * muestra cuánto del tiempo de cada operación corresponde a MongoDB.
+ * Durante la medición la salida estándar se descarta, para no medir la escritura en consola.
+ */
+@State(Scope.Benchmark)
+public class EstadoBaseDatos {
+
+    public static final String DATABASE_NAME = "miMongoDB_bench";
+    public static final int CANTIDAD_SUCURSALES = 10;
+    public static final int CANTIDAD_SUCURSALES_ALTA = 100;
+    /** Las claves creadas por los benchmarks de alta empiezan acá, lejos de los datos iniciales. */
+    public static final int INICIO_CLAVES_ALTA = 10_000_000;
+    private static final int TAMANIO_LOTE = 1000;
+
+    @Param({"1000", "10000", "100000"})
+    public int cantidad;
+
+    @Param({Repositorios.MOTOR_MONGO, Repositorios.MOTOR_MEMORIA})
+    public String motor;
+
+    public Repositorios repositorios;
+    /** Base de datos del benchmark, o null con el motor en memoria. */
+    public MongoDatabase database;
+    private MongoClient mongoClient;
+    private PrintStream salidaOriginal;
+    private final Map<Integer, Boolean> sucursalesAltaExtra = new ConcurrentHashMap<>();
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        if (Repositorios.MOTOR_MEMORIA.equals(motor)) {
+            repositorios = Repositorios.enMemoria();
+        } else {
+            ConfiguracionMongo configuracion = ConfiguracionMongo.cargar();
+            mongoClient = MongoClients.create(configuracion.construirSettings(new MetricasPool(), new MetricasComandos()));
+            database = mongoClient.getDatabase(DATABASE_NAME).withCodecRegistry(MongoDB.CODEC_REGISTRY);
+
+            database.drop();
+            Indices.crear(database);
+            repositorios = Repositorios.mongo(mongoClient, database);
+        }
+        cargarDatos();
+
+        salidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void finalizar() {
+        System.setOut(salidaOriginal);
+        repositorios.close();
+        if (database != null) {
+            database.drop();
+            mongoClient.close();
+        }
+    }
+
+    private void cargarDatos() {
+        List<Sucursal> sucursales = new ArrayList<>();
+        for (int i = 0; i < CANTIDAD_SUCURSALES; i++) {
+            sucursales.add(new Sucursal(nombreSucursal(i), "Calle " + i));
+        }
+        for (int i = 0; i < CANTIDAD_SUCURSALES_ALTA; i++) {
+            sucursales.add(new Sucursal(nombreSucursalAlta(i), "Calle alta " + i));
+        }
+        repositorios.getSucursales().insertarLote(sucursales);
+
+        List<Producto> loteProductos = new ArrayList<>(TAMANIO_LOTE);
+        List<Empleado> loteEmpleados = new ArrayList<>(TAMANIO_LOTE);
+        List<Vende> loteVende = new ArrayList<>(TAMANIO_LOTE);
+        for (int i = 1; i <= cantidad; i++) {
+            String sucursal = nombreSucursal(i % CANTIDAD_SUCURSALES);
+            loteProductos.add(new Producto(i, "Producto " + i, 100));
+            loteEmpleados.add(new Empleado(i, "Nombre" + i, "Apellido" + i, sucursal));
+            loteVende.add(new Vende(sucursal, i, 10.0 + i % 100, 50));
+
+            if (loteProductos.size() == TAMANIO_LOTE || i == cantidad) {
+                repositorios.getProductos().insertarLote(loteProductos);
+                repositorios.getEmpleados().insertarLote(loteEmpleados);
+                repositorios.getVende().insertarLote(loteVende);
+                loteProductos.clear();
+                loteEmpleados.clear();
+                loteVende.clear();
+            }
+        }
+    }
+
+    /**
+     * @return una clave existente al azar, entre 1 y {@code cantidad}
+     */
+    public int claveAlAzar() {
+        return ThreadLocalRandom.current().nextInt(1, cantidad + 1);
+    }
+
+    /**
+     * Elimina las entidades creadas por un benchmark recorriendo el repositorio. Se usa con
+     * el motor en memoria; en MongoDB alcanza con un deleteMany sobre la colección.
+     */
+    public static <T> void eliminarCreadas(RecorridoPaginado<T> recorrido, Predicate<T> creada, Consumer<T> eliminar) {
+        while (recorrido.hayMasPaginas()) {
+            for (T entidad : recorrido.siguientePagina()) {
+                if (creada.test(entidad)) {
+                    eliminar.accept(entidad);
+                }
+            }
+        }
+    }
+
+    public static String nombreSucursal(int indice) {
+        return "S" + indice;
+    }
+
+    /**
+     * Devuelve la sucursal 'alta-vende-N' de índice dado. Las que superan las
+     * {@link #CANTIDAD_SUCURSALES_ALTA} cargadas al inicio se crean la primera vez que se
+     * piden, así que llamarlo desde un {@code @Setup} deja la creación fuera de la medición.
+     */
+    public String sucursalAlta(int indice) {
+        String nombre = nombreSucursalAlta(indice);
+        if (indice >= CANTIDAD_SUCURSALES_ALTA) {
+            // computeIfAbsent bloquea a los otros hilos que pidan la misma sucursal hasta que exista
+            sucursalesAltaExtra.computeIfAbsent(indice,
+                    i -> repositorios.getSucursales().insertar(new Sucursal(nombre, "Calle alta " + i)));
+        }
+        return nombre;
+    }
+
+    public static String nombreSucursalAlta(int indice) {
+        return "alta-vende-" + indice;
+    }
+}
@@ -1,13 +1,28 @@
 package ar.edu.unlu.bdd;
 
-import ar.edu.unlu.bdd.database.MongoDB;
 import ar.edu.unlu.bdd.menu.Menu;
+import ar.edu.unlu.bdd.repository.Repositorios;
+import ar.edu.unlu.bdd.script.ModoScript;
 
 public class Main {
     public static void main(String[] args) {
-        // Creamos la base de datos
-        MongoDB mongoDB = MongoDB.getInstance();
+        // Con argumentos (--script ...) se ejecuta un script de comandos sin menú
+        if (args.length > 0) {
+            System.exit(ModoScript.ejecutar(args));
+        }
+
+        // Creamos los repositorios del motor configurado (por defecto, MongoDB)
+        Repositorios repositorios;
+        try {
+            repositorios = Repositorios.crearSegunConfiguracion();
+        } catch (IllegalStateException e) {
+            // La base no quedó en condiciones de usarse (el motivo ya se mostró)
+            System.exit(1);
+            return;
+        }
         // Inicializamos el menú
-        new Menu(mongoDB.getDatabase());
+        new Menu(repositorios);
+        // Escribimos las ventas que hayan quedado pendientes
+        repositorios.close();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+package ar.edu.unlu.bdd.concurrencia;
+
+import ar.edu.unlu.bdd.database.HistogramaLatencia;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Ejecuta operaciones de los controllers (alta, modificación, lotes de importación, ...)
+ * en paralelo, con un máximo de operaciones en vuelo.
+ * <p>
+ * {@link #enviar} bloquea al llamador cuando ya hay {@code maxEnVuelo} operaciones sin
+ * terminar (contrapresión), así que quien produce las operaciones nunca acumula una cola
+ * ilimitada en memoria. Con varias operaciones en vuelo se aprovecha el pool de conexiones
+ * del MongoClient y el límite pasa a ser el servidor en lugar de la latencia de ida y vuelta.
+ * <p>
+ * En Java 21 o superior se usan hilos virtuales; en Java 17 un pool fijo de {@code maxEnVuelo} hilos.
+ * <p>
+ * Propiedades del sistema:
+ * - bdd.concurrencia.maxEnVuelo: operaciones simultáneas por defecto (por defecto 32)
+ * - bdd.concurrencia.hilosVirtuales: false para forzar el pool fijo aunque haya hilos virtuales
+ */
+public class EjecutorConcurrente implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EjecutorConcurrente.class);
+
+    public static final int MAX_EN_VUELO_POR_DEFECTO = Integer.getInteger("bdd.concurrencia.maxEnVuelo", 32);
+    private static final int MAX_ERRORES_REGISTRADOS = 5;
+
+    private final int maxEnVuelo;
+    private final Semaphore enVuelo;
+    private final ExecutorService executor;
+    private final boolean hilosVirtuales;
+
+    private final LongAdder exitosas = new LongAdder();
+    private final LongAdder fallidas = new LongAdder();
+    private final LongAdder conExcepcion = new LongAdder();
+    private final AtomicInteger erroresRegistrados = new AtomicInteger();
+    private final HistogramaLatencia latencias = new HistogramaLatencia();
+    private final long inicio = System.nanoTime();
+
+    public EjecutorConcurrente() {
+        this(MAX_EN_VUELO_POR_DEFECTO);
+    }
+
+    /**
+     * @param maxEnVuelo Cantidad máxima de operaciones ejecutándose al mismo tiempo
+     */
+    public EjecutorConcurrente(int maxEnVuelo) {
+        this.maxEnVuelo = maxEnVuelo > 0 ? maxEnVuelo : MAX_EN_VUELO_POR_DEFECTO;
+        this.enVuelo = new Semaphore(this.maxEnVuelo);
+        ExecutorService virtual = crearExecutorVirtual();
+        this.hilosVirtuales = virtual != null;
+        this.executor = virtual != null ? virtual : Executors.newFixedThreadPool(this.maxEnVuelo, new FabricaHilos());
+    }
+
+    /**
+     * Envía una operación para ejecutarla en paralelo. Si ya hay {@code maxEnVuelo}
+     * operaciones en curso, espera a que termine alguna.
+     *
+     * @param operacion Operación a ejecutar; devuelve true si tuvo éxito
+     */
+    public void enviar(BooleanSupplier operacion) {
+        try {
+            enVuelo.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando lugar para una operación", e);
+        }
+
+        try {
+            executor.execute(() -> ejecutar(operacion));
+        } catch (RuntimeException e) {
+            enVuelo.release();
+            throw e;
+        }
+    }
+
+    private void ejecutar(BooleanSupplier operacion) {
+        long comienzo = System.nanoTime();
+        try {
+            if (operacion.getAsBoolean()) {
+                exitosas.increment();
+            } else {
+                fallidas.increment();
+            }
+        } catch (Exception e) {
+            conExcepcion.increment();
+            // Se registran solo las primeras, para no inundar el log si falla todo un lote
+            if (erroresRegistrados.getAndIncrement() < MAX_ERRORES_REGISTRADOS) {
+                logger.error("Error en una operación concurrente: {}", e.getMessage(), e);
+            }
+        } finally {
+            latencias.registrar(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - comienzo));
+            enVuelo.release();
+        }
+    }
+
+    /**
+     * Espera a que terminen todas las operaciones enviadas hasta el momento.
+     *
+     * @return el resultado acumulado desde que se creó el ejecutor
+     */
+    public ResultadoEjecucion esperar() {
+        enVuelo.acquireUninterruptibly(maxEnVuelo);
+        enVuelo.release(maxEnVuelo);
+        return new ResultadoEjecucion(exitosas.sum(), fallidas.sum(), conExcepcion.sum(),
+                System.nanoTime() - inicio, latencias);
+    }
+
+    public int getMaxEnVuelo() {
+        return maxEnVuelo;
+    }
+
+    public boolean usaHilosVirtuales() {
+        return hilosVirtuales;
+    }
+
+    /**
+     * Espera las operaciones pendientes y libera los hilos.
+     */
+    @Override
+    public void close() {
+        esperar();
+        executor.shutdown();
+    }
+
+    /**
+     * Crea un executor de hilos virtuales si la JVM los soporta. Se busca por reflexión
+     * porque el proyecto compila para Java 17, donde el método no existe.
+     */
+    private static ExecutorService crearExecutorVirtual() {
+        if (!Boolean.parseBoolean(System.getProperty("bdd.concurrencia.hilosVirtuales", "true"))) {
+            return null;
+        }
+        try {
+            Method metodo = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) metodo.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Hilos daemon con nombre, para que un ejecutor sin cerrar no impida salir de la aplicación.
+     */
+    private static final class FabricaHilos implements ThreadFactory {
+        private final AtomicInteger numero = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable tarea) {
+            Thread hilo = new Thread(tarea, "bdd-concurrente-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        }
+    }
+}
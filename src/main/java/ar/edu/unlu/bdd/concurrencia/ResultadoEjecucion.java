@@ -0,0 +1,74 @@
+package ar.edu.unlu.bdd.concurrencia;
+
+import ar.edu.unlu.bdd.database.HistogramaLatencia;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resultado agregado de las operaciones ejecutadas por un {@link EjecutorConcurrente}.
+ */
+public class ResultadoEjecucion {
+    private final long exitosas;
+    private final long fallidas;
+    private final long conExcepcion;
+    private final long duracionNanos;
+    private final HistogramaLatencia latencias;
+
+    ResultadoEjecucion(long exitosas, long fallidas, long conExcepcion, long duracionNanos, HistogramaLatencia latencias) {
+        this.exitosas = exitosas;
+        this.fallidas = fallidas;
+        this.conExcepcion = conExcepcion;
+        this.duracionNanos = duracionNanos;
+        this.latencias = latencias;
+    }
+
+    public long getExitosas() {
+        return exitosas;
+    }
+
+    /**
+     * @return operaciones que terminaron sin éxito (duplicado, referencia inexistente, ...)
+     */
+    public long getFallidas() {
+        return fallidas;
+    }
+
+    /**
+     * @return operaciones que terminaron con una excepción
+     */
+    public long getConExcepcion() {
+        return conExcepcion;
+    }
+
+    public long getTotal() {
+        return exitosas + fallidas + conExcepcion;
+    }
+
+    public long getDuracionMilisegundos() {
+        return TimeUnit.NANOSECONDS.toMillis(duracionNanos);
+    }
+
+    public double getOperacionesPorSegundo() {
+        return duracionNanos == 0 ? 0 : getTotal() * 1_000_000_000.0 / duracionNanos;
+    }
+
+    public HistogramaLatencia getLatencias() {
+        return latencias;
+    }
+
+    /**
+     * Muestra el resumen de la ejecución.
+     */
+    public void mostrar() {
+        mostrar(System.out);
+    }
+
+    public void mostrar(PrintStream salida) {
+        salida.println("Operaciones: " + getTotal() + " | Exitosas: " + exitosas
+                + " | Fallidas: " + fallidas + " | Con error: " + conExcepcion);
+        salida.println("Tiempo total: " + getDuracionMilisegundos() + " ms | "
+                + String.format("%.1f", getOperacionesPorSegundo()) + " operaciones/s");
+        salida.println("Latencia por operación: " + latencias.resumen());
+    }
+}
@@ -1,180 +1,151 @@
 package ar.edu.unlu.bdd.controller;
 
+import ar.edu.unlu.bdd.database.CacheReferencias;
+import ar.edu.unlu.bdd.entity.Empleado;
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import ar.edu.unlu.bdd.repository.RepositorioEmpleado;
+import ar.edu.unlu.bdd.repository.RepositorioSucursal;
+import ar.edu.unlu.bdd.repository.Repositorios;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+import ar.edu.unlu.bdd.repository.TiempoAgotadoException;
 import ar.edu.unlu.bdd.view.ViewEmpleado;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoCursor;
-import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.result.DeleteResult;
-import com.mongodb.client.result.UpdateResult;
-import org.bson.Document;
-import org.bson.conversions.Bson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static com.mongodb.client.model.Filters.eq;
-import static com.mongodb.client.model.Updates.combine;
-import static com.mongodb.client.model.Updates.set;
+import java.util.List;
 
 public class ControllerEmpleado {
     private static final Logger logger = LoggerFactory.getLogger(ControllerEmpleado.class);
-    private final MongoCollection<Document> empleadosCollection;
-    private final MongoDatabase database;
+    private final RepositorioEmpleado empleados;
+    private final RepositorioSucursal sucursales;
+    private final CacheReferencias cache = CacheReferencias.getInstance();
 
-    public ControllerEmpleado(MongoDatabase database) {
-        this.database = database;
-        this.empleadosCollection = database.getCollection("empleados");
+    public ControllerEmpleado(Repositorios repositorios) {
+        this.empleados = repositorios.getEmpleados();
+        this.sucursales = repositorios.getSucursales();
     }
 
     public void iniciarVista() {
         new ViewEmpleado(this);
     }
 
-    public void alta(int dni, String nombre, String apellido, String sucursal) {
+    public boolean alta(int dni, String nombre, String apellido, String sucursal) {
         try {
-            // Verificar que el DNI no existe ya
-            if (verificarExistenciaEmpleado(dni)) {
-                System.out.println("Error: Ya existe un empleado con el DNI '" + dni + "'. No se puede crear duplicado.");
-                return;
-            }
-
             // Verificar que la sucursal existe
             if (!verificarExistenciaSucursal(sucursal)) {
                 System.out.println("Error: La sucursal '" + sucursal + "' no existe. No se puede crear el empleado.");
-                return;
+                return false;
             }
 
-            Document nuevoEmpleado = new Document("dni", dni)
-                    .append("nombre", nombre)
-                    .append("apellido", apellido)
-                    .append("sucursal", sucursal);
-
-            empleadosCollection.insertOne(nuevoEmpleado);
+            // El repositorio rechaza los DNI duplicados (índice único en MongoDB)
+            if (!empleados.insertar(new Empleado(dni, nombre, apellido, sucursal))) {
+                System.out.println("Error: Ya existe un empleado con el DNI '" + dni + "'. No se puede crear duplicado.");
+                return false;
+            }
             System.out.println("Empleado '" + nombre + " " + apellido + "' agregado con éxito.");
+            return true;
+        } catch (TiempoAgotadoException e) {
+            System.out.println("Error: " + e.getMessage());
+            return false;
         } catch (Exception e) {
             logger.error("Error al dar de alta el empleado: {}", e.getMessage(), e);
+            return false;
         }
     }
 
-    public void baja(int dni) {
+    public boolean baja(int dni) {
         try {
-            DeleteResult result = empleadosCollection.deleteOne(eq("dni", dni));
+            boolean eliminado = empleados.eliminar(dni);
 
-            if (result.getDeletedCount() > 0) {
-                System.out.println("Empleado con DNI '" + dni + "' eliminado con éxito. Documentos eliminados: " + result.getDeletedCount());
+            if (eliminado) {
+                System.out.println("Empleado con DNI '" + dni + "' eliminado con éxito.");
             } else {
                 logger.warn("No se encontró un empleado con el DNI: {}. No se eliminaron documentos.", dni);
             }
+            return eliminado;
         } catch (Exception e) {
             logger.error("Error al dar de baja el empleado: {}", e.getMessage(), e);
+            return false;
         }
     }
 
-    public void modificacion(int dni, String nombre, String apellido, String sucursal) {
+    public boolean modificacion(int dni, String nombre, String apellido, String sucursal) {
         try {
             // Verificar que la sucursal existe
             if (!verificarExistenciaSucursal(sucursal)) {
                 System.out.println("Error: La sucursal '" + sucursal + "' no existe. No se puede modificar el empleado.");
-                return;
+                return false;
             }
 
-            UpdateResult result = empleadosCollection.updateOne(
-                    eq("dni", dni),
-                    combine(
-                            set("nombre", nombre),
-                            set("apellido", apellido),
-                            set("sucursal", sucursal)
-                    )
-            );
+            ResultadoModificacion resultado = empleados.modificar(dni, nombre, apellido, sucursal);
 
-            if (result.getModifiedCount() > 0) {
-                System.out.println("Empleado con DNI '" + dni + "' modificado con éxito. Campos actualizados: " + result.getModifiedCount());
+            if (resultado == ResultadoModificacion.MODIFICADO) {
+                System.out.println("Empleado con DNI '" + dni + "' modificado con éxito.");
+            } else if (resultado == ResultadoModificacion.SIN_CAMBIOS) {
+                logger.warn("El empleado con DNI {} ya tenía esos valores. No se realizó ninguna modificación.", dni);
             } else {
                 logger.warn("No se encontró un empleado con el DNI: {}. No se realizó ninguna modificación.", dni);
             }
+            return resultado != ResultadoModificacion.NO_ENCONTRADO;
+        } catch (TiempoAgotadoException e) {
+            System.out.println("Error: " + e.getMessage());
+            return false;
         } catch (Exception e) {
             logger.error("Error al modificar el empleado: {}", e.getMessage(), e);
+            return false;
         }
     }
 
     /**
-     * Consulta un empleado por DNI o muestra todos si el parámetro es "todos".
+     * Consulta un empleado por DNI o lista todos, por páginas, si el parámetro es "todas".
+     * Las filas se leen recién cuando la vista las recorre.
      *
-     * @param dni El DNI del empleado a buscar, o "todos" para listar todos.
+     * @param dni El DNI del empleado a buscar, o "todas" para listar todos.
+     * @return el resultado de la consulta (vacío si no existe el empleado), o null si el DNI
+     * no es válido o hubo un error
      */
-    public void consulta(String dni) {
-        Bson filtro;
+    public RecorridoPaginado<Empleado> consulta(String dni) {
+        if ("todas".equalsIgnoreCase(dni)) {
+            return empleados.listar();
+        }
 
         try {
-            if ("todas".equalsIgnoreCase(dni)) {
-                filtro = new Document();
-            } else {
-                int dniInt = Integer.parseInt(dni);
-                filtro = eq("dni", dniInt);
-            }
-
-            try (MongoCursor<Document> cursor = empleadosCollection.find(filtro).iterator()) {
-
-                if (!cursor.hasNext() && !"todas".equalsIgnoreCase(dni)) {
-                    logger.warn("No se encontró ningún empleado con el DNI: {}", dni);
-                    return;
-                } else if (!cursor.hasNext()) {
-                    System.out.println("La colección 'empleados' está vacía.");
-                    return;
-                }
-
-                System.out.println("Resultados de la consulta:");
-                while (cursor.hasNext()) {
-                    Document empleado = cursor.next();
-                    System.out.println(" - DNI: " + empleado.getInteger("dni")
-                            + " | Nombre: " + empleado.getString("nombre")
-                            + " | Apellido: " + empleado.getString("apellido")
-                            + " | Sucursal: " + empleado.getString("sucursal")
-                            + " | ID: " + empleado.getObjectId("_id"));
-                }
-
-                System.out.println("Consulta finalizada.");
-
-            } catch (Exception e) {
-                logger.error("Error al consultar los empleados: {}", e.getMessage(), e);
-            }
+            Empleado empleado = empleados.buscar(Integer.parseInt(dni));
+            return RecorridoPaginado.unaPagina(empleado == null ? List.of() : List.of(empleado));
         } catch (NumberFormatException e) {
             logger.warn("El DNI debe ser un número válido o 'todas' para consultar todos los empleados.");
+            return null;
+        } catch (TiempoAgotadoException e) {
+            System.out.println("Error: " + e.getMessage());
+            return null;
+        } catch (Exception e) {
+            logger.error("Error al consultar los empleados: {}", e.getMessage(), e);
+            return null;
         }
     }
 
     /**
-     * Verifica si una sucursal existe en la base de datos.
+     * Verifica si una sucursal existe, consultando primero el caché de referencias.
      *
      * @param nombreSucursal Nombre de la sucursal a verificar
      * @return true si la sucursal existe, false en caso contrario
+     * @throws TiempoAgotadoException si la lectura superó su tiempo máximo
      */
     private boolean verificarExistenciaSucursal(String nombreSucursal) {
-        try {
-            // Conectar a la colección de sucursales
-            MongoCollection<Document> sucursalesCollection = database.getCollection("sucursales");
-
-            // Buscar la sucursal por nombre
-            Document sucursal = sucursalesCollection.find(eq("nombre", nombreSucursal)).first();
-
-            return sucursal != null;
-        } catch (Exception e) {
-            logger.error("Error al verificar la existencia de la sucursal '{}': {}", nombreSucursal, e.getMessage(), e);
-            return false;
+        if (cache.contieneSucursal(nombreSucursal)) {
+            return true;
         }
-    }
-
-    /**
-     * Verifica si un empleado con el DNI dado ya existe.
-     *
-     * @param dni DNI del empleado a verificar
-     * @return true si ya existe, false en caso contrario
-     */
-    private boolean verificarExistenciaEmpleado(int dni) {
         try {
-            Document empleado = empleadosCollection.find(eq("dni", dni)).first();
-            return empleado != null;
+            boolean existe = sucursales.existe(nombreSucursal);
+            if (existe) {
+                cache.registrarSucursal(nombreSucursal);
+            }
+            return existe;
+        } catch (TiempoAgotadoException e) {
+            // Sin respuesta no se sabe si existe: lo informa el llamador, no como "no existe"
+            throw e;
         } catch (Exception e) {
-            logger.error("Error al verificar la existencia del empleado '{}': {}", dni, e.getMessage(), e);
+            logger.error("Error al verificar la existencia de la sucursal '{}': {}", nombreSucursal, e.getMessage(), e);
             return false;
         }
     }
@@ -0,0 +1,209 @@
+package ar.edu.unlu.bdd.controller;
+
+import ar.edu.unlu.bdd.concurrencia.EjecutorConcurrente;
+import ar.edu.unlu.bdd.concurrencia.ResultadoEjecucion;
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import ar.edu.unlu.bdd.repository.Repositorio;
+import ar.edu.unlu.bdd.repository.Repositorios;
+import ar.edu.unlu.bdd.repository.TiempoAgotadoException;
+import ar.edu.unlu.bdd.view.ViewExportacion;
+import ar.edu.unlu.bdd.view.salida.Columna;
+import ar.edu.unlu.bdd.view.salida.Columnas;
+import ar.edu.unlu.bdd.view.salida.FormatoSalida;
+import ar.edu.unlu.bdd.view.salida.RenderizadorFilas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Controller para exportar colecciones completas a archivos CSV o JSONL.
+ * <p>
+ * La colección se divide en partes (en MongoDB, rangos de '_id') que se leen en paralelo,
+ * cada una con su propio cursor, y se escriben a archivos temporales a través de un
+ * {@link FileChannel}. Al terminar, las partes se concatenan en el archivo final con
+ * {@code transferTo}, sin volver a pasar los datos por la JVM. Si la ruta termina en '.gz'
+ * cada parte se comprime por separado: la concatenación de miembros gzip sigue siendo un
+ * gzip válido (gunzip, zcat y {@link java.util.zip.GZIPInputStream} lo leen completo).
+ * <p>
+ * Los campos son los mismos que espera la importación masiva, así que el archivo exportado
+ * puede volver a importarse. Las partes no guardan un orden entre sí.
+ */
+public class ControllerExportacion {
+    private static final Logger logger = LoggerFactory.getLogger(ControllerExportacion.class);
+    public static final int PARTES_POR_DEFECTO = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final int TAMANIO_BUFFER_GZIP = 64 * 1024;
+
+    private final Repositorios repositorios;
+
+    public ControllerExportacion(Repositorios repositorios) {
+        this.repositorios = repositorios;
+    }
+
+    public void iniciarVista() {
+        new ViewExportacion(this);
+    }
+
+    /**
+     * Exporta una colección completa.
+     *
+     * @param coleccion   Nombre de la colección (sucursales, productos, empleados o vende)
+     * @param rutaArchivo Ruta del archivo destino; con extensión '.gz' se comprime
+     * @param formato     {@link FormatoSalida#CSV} o {@link FormatoSalida#JSONL}
+     * @param partes      Cantidad máxima de partes leídas en paralelo (0 = una por procesador)
+     * @return true si se exportaron todas las partes
+     */
+    public boolean exportar(String coleccion, String rutaArchivo, FormatoSalida formato, int partes) {
+        switch (coleccion) {
+            case "sucursales":
+                return exportar(coleccion, rutaArchivo, formato, partes, repositorios.getSucursales(), Columnas.SUCURSAL);
+            case "productos":
+                return exportar(coleccion, rutaArchivo, formato, partes, repositorios.getProductos(), Columnas.PRODUCTO);
+            case "empleados":
+                return exportar(coleccion, rutaArchivo, formato, partes, repositorios.getEmpleados(), Columnas.EMPLEADO);
+            case "vende":
+                return exportar(coleccion, rutaArchivo, formato, partes, repositorios.getVende(), Columnas.VENDE);
+            default:
+                System.out.println("Error: La colección '" + coleccion + "' no admite exportación.");
+                return false;
+        }
+    }
+
+    private <T> boolean exportar(String coleccion, String rutaArchivo, FormatoSalida formato, int partes,
+                                 Repositorio<T> repositorio, List<Columna<T>> columnas) {
+        if (formato == FormatoSalida.TABLA) {
+            System.out.println("Error: La exportación solo admite los formatos CSV y JSONL.");
+            return false;
+        }
+        Path destino = Path.of(rutaArchivo);
+        boolean comprimir = rutaArchivo.toLowerCase().endsWith(".gz");
+        long inicio = System.nanoTime();
+
+        List<RecorridoPaginado<T>> recorridos;
+        try {
+            recorridos = repositorio.particionar(partes > 0 ? partes : PARTES_POR_DEFECTO);
+        } catch (TiempoAgotadoException e) {
+            System.out.println("Error: " + e.getMessage());
+            return false;
+        } catch (Exception e) {
+            logger.error("Error al dividir la colección '{}' para exportarla: {}", coleccion, e.getMessage(), e);
+            return false;
+        }
+
+        System.out.println("\nExportando la colección '" + coleccion + "' a '" + rutaArchivo + "' (" + formato.name().toLowerCase()
+                + (comprimir ? ", gzip" : "") + ", " + recorridos.size() + " partes en paralelo)...");
+
+        List<Path> archivosPartes = new ArrayList<>(recorridos.size());
+        LongAdder documentos = new LongAdder();
+        LongAdder bytes = new LongAdder();
+        ResultadoEjecucion resultado;
+        try (EjecutorConcurrente ejecutor = new EjecutorConcurrente(recorridos.size())) {
+            for (int i = 0; i < recorridos.size(); i++) {
+                Path archivoParte = destino.resolveSibling(destino.getFileName() + ".parte" + i);
+                archivosPartes.add(archivoParte);
+                RecorridoPaginado<T> recorrido = recorridos.get(i);
+                boolean conEncabezado = i == 0;
+                ejecutor.enviar(() -> escribirParte(recorrido, archivoParte, formato, columnas, comprimir, conEncabezado,
+                        documentos, bytes));
+            }
+            resultado = ejecutor.esperar();
+        }
+
+        try {
+            if (resultado.getExitosas() != recorridos.size()) {
+                System.out.println("Error: No se pudieron exportar " + (recorridos.size() - resultado.getExitosas())
+                        + " de " + recorridos.size() + " partes. No se generó el archivo.");
+                return false;
+            }
+            long comprimidos = concatenar(archivosPartes, destino);
+
+            double segundos = Math.max(1, System.nanoTime() - inicio) / 1e9;
+            double megabytes = bytes.sum() / (1024.0 * 1024.0);
+            System.out.println("===========================================================================");
+            System.out.println("Exportación finalizada en " + String.format("%.2f", segundos) + " s.");
+            System.out.println("Documentos: " + documentos.sum() + " | " + String.format("%.0f", documentos.sum() / segundos) + " docs/s");
+            System.out.println("Datos: " + String.format("%.2f", megabytes) + " MB | " + String.format("%.2f", megabytes / segundos) + " MB/s"
+                    + (comprimir ? " | Archivo: " + String.format("%.2f", comprimidos / (1024.0 * 1024.0)) + " MB comprimido" : ""));
+            System.out.println("===========================================================================");
+            return true;
+        } catch (IOException e) {
+            logger.error("Error al escribir el archivo '{}': {}", rutaArchivo, e.getMessage(), e);
+            return false;
+        } finally {
+            for (Path archivoParte : archivosPartes) {
+                try {
+                    Files.deleteIfExists(archivoParte);
+                } catch (IOException e) {
+                    logger.warn("No se pudo eliminar el archivo temporal '{}': {}", archivoParte, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Escribe una parte completa en su archivo temporal. Corre en un hilo del ejecutor.
+     */
+    private <T> boolean escribirParte(RecorridoPaginado<T> recorrido, Path archivo, FormatoSalida formato,
+                                      List<Columna<T>> columnas, boolean comprimir, boolean conEncabezado,
+                                      LongAdder documentos, LongAdder bytes) {
+        try (recorrido;
+             FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             OutputStream salida = comprimir
+                     ? new GZIPOutputStream(Channels.newOutputStream(canal), TAMANIO_BUFFER_GZIP)
+                     : Channels.newOutputStream(canal)) {
+            RenderizadorFilas<T> renderizador = new RenderizadorFilas<>(formato, columnas, salida, StandardCharsets.UTF_8);
+            if (conEncabezado) {
+                renderizador.escribirEncabezado();
+            }
+            while (recorrido.hayMasPaginas()) {
+                for (T entidad : recorrido.siguientePagina()) {
+                    renderizador.escribir(entidad);
+                }
+            }
+            renderizador.close();
+            documentos.add(renderizador.getFilas());
+            bytes.add(renderizador.getBytes());
+            return true;
+        } catch (TiempoAgotadoException e) {
+            System.out.println("Error en la parte '" + archivo.getFileName() + "': " + e.getMessage());
+            return false;
+        } catch (IOException e) {
+            logger.error("Error al escribir la parte '{}': {}", archivo, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Concatena las partes en el archivo destino con transferTo, que el sistema operativo
+     * puede resolver sin copiar los datos al espacio de la JVM.
+     *
+     * @return tamaño del archivo destino en bytes
+     */
+    private long concatenar(List<Path> partes, Path destino) throws IOException {
+        try (FileChannel salida = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Path parte : partes) {
+                try (FileChannel entrada = FileChannel.open(parte, StandardOpenOption.READ)) {
+                    long posicion = 0;
+                    long tamanio = entrada.size();
+                    while (posicion < tamanio) {
+                        posicion += entrada.transferTo(posicion, tamanio - posicion, salida);
+                    }
+                }
+            }
+            return salida.size();
+        }
+    }
+}
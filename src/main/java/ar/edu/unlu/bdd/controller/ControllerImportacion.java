@@ -0,0 +1,482 @@
+package ar.edu.unlu.bdd.controller;
+
+import ar.edu.unlu.bdd.concurrencia.EjecutorConcurrente;
+import ar.edu.unlu.bdd.database.LectorBson;
+import ar.edu.unlu.bdd.entity.Empleado;
+import ar.edu.unlu.bdd.entity.Producto;
+import ar.edu.unlu.bdd.entity.Sucursal;
+import ar.edu.unlu.bdd.entity.Vende;
+import ar.edu.unlu.bdd.repository.Repositorio;
+import ar.edu.unlu.bdd.repository.Repositorios;
+import ar.edu.unlu.bdd.repository.ResultadoLote;
+import ar.edu.unlu.bdd.repository.TiempoAgotadoException;
+import ar.edu.unlu.bdd.view.ViewImportacion;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Controller para la importación masiva de datos desde archivos CSV, JSONL o BSON.
+ * <p>
+ * Los archivos se leen línea por línea (sin cargarlos completos en memoria) y las
+ * entidades se insertan en lotes a través del repositorio (en MongoDB, un
+ * {@code insertMany} no ordenado), de modo que un error en un documento no detiene
+ * el resto del lote. Varios lotes pueden escribirse en paralelo con un
+ * {@link EjecutorConcurrente}, para no esperar la ida y vuelta de cada uno.
+ * <p>
+ * Formato CSV esperado (la fila de encabezado es opcional):
+ * - sucursales: nombre,direccion
+ * - productos: codigo,descripcion,stock
+ * - empleados: dni,nombre,apellido,sucursal
+ * - vende: sucursal,codigoProducto,precio,stock
+ * <p>
+ * En formato JSONL cada línea debe ser un documento JSON con esos mismos campos; los
+ * números pueden venir también como texto, y se convierten igual que en CSV.
+ * Los archivos .bson son los que genera {@code mongodump} por colección (por ejemplo
+ * dump/miMongoDB/vende.bson): se toman esos mismos campos e ignoran '_id' y los demás.
+ * Opcionalmente se importan solo los documentos de una sucursal, para restaurar un subconjunto.
+ */
+public class ControllerImportacion {
+    private static final Logger logger = LoggerFactory.getLogger(ControllerImportacion.class);
+    public static final int TAMANIO_LOTE_POR_DEFECTO = 1000;
+    private static final int MAX_ERRORES_POR_LOTE = 3;
+
+    private final Repositorios repositorios;
+
+    public ControllerImportacion(Repositorios repositorios) {
+        this.repositorios = repositorios;
+    }
+
+    public void iniciarVista() {
+        new ViewImportacion(this);
+    }
+
+    /**
+     * Importa un archivo CSV, JSONL o BSON en la colección indicada.
+     *
+     * @param coleccion       Nombre de la colección destino (sucursales, productos, empleados o vende)
+     * @param rutaArchivo     Ruta del archivo a importar (.csv, .jsonl o .bson)
+     * @param tamanioLote     Cantidad de documentos por cada insertMany
+     * @param lotesEnParalelo Cantidad máxima de lotes escribiéndose al mismo tiempo
+     */
+    public void importar(String coleccion, String rutaArchivo, int tamanioLote, int lotesEnParalelo) {
+        importar(coleccion, rutaArchivo, tamanioLote, lotesEnParalelo, null);
+    }
+
+    /**
+     * Importa un archivo en la colección indicada, conservando solo los documentos de una sucursal.
+     *
+     * @param sucursal Nombre de la sucursal cuyos documentos se importan, o null para importar todos.
+     *                 Filtra sucursales, empleados y vende; los productos no pertenecen a una sucursal.
+     */
+    public void importar(String coleccion, String rutaArchivo, int tamanioLote, int lotesEnParalelo, String sucursal) {
+        switch (coleccion) {
+            case "sucursales":
+                importar(coleccion, rutaArchivo, tamanioLote, lotesEnParalelo, sucursal, repositorios.getSucursales(),
+                        d -> new Sucursal(d.getString("nombre"), d.getString("direccion")));
+                break;
+            case "productos":
+                importar(coleccion, rutaArchivo, tamanioLote, lotesEnParalelo, sucursal, repositorios.getProductos(),
+                        d -> new Producto(entero(d, "codigo"), d.getString("descripcion"), entero(d, "stock")));
+                break;
+            case "empleados":
+                importar(coleccion, rutaArchivo, tamanioLote, lotesEnParalelo, sucursal, repositorios.getEmpleados(),
+                        d -> new Empleado(entero(d, "dni"), d.getString("nombre"), d.getString("apellido"), d.getString("sucursal")));
+                break;
+            case "vende":
+                importar(coleccion, rutaArchivo, tamanioLote, lotesEnParalelo, sucursal, repositorios.getVende(),
+                        d -> new Vende(d.getString("sucursal"), entero(d, "codigoProducto"),
+                                ((Number) d.get("precio")).doubleValue(), entero(d, "stock")));
+                break;
+            default:
+                System.out.println("Error: La colección '" + coleccion + "' no admite importación masiva.");
+        }
+    }
+
+    /**
+     * Importa el archivo convirtiendo cada fila en una entidad e insertándolas por lotes en el repositorio.
+     * <p>
+     * Mientras se escriben hasta {@code lotesEnParalelo} lotes, este hilo sigue leyendo y armando
+     * el siguiente; cuando se alcanza el límite espera, así el archivo nunca se carga entero en memoria.
+     * Los archivos .bson (de {@code mongodump}) se leen con un {@link LectorBson}, mapeados en memoria.
+     */
+    private <T> void importar(String coleccion, String rutaArchivo, int tamanioLote, int lotesEnParalelo, String sucursal,
+                              Repositorio<T> repositorio, Function<Document, T> conversor) {
+        String[] columnas = columnasDe(coleccion);
+
+        Path path = Path.of(rutaArchivo);
+        if (!Files.isReadable(path)) {
+            System.out.println("Error: No se puede leer el archivo '" + rutaArchivo + "'.");
+            return;
+        }
+
+        String extension = rutaArchivo.toLowerCase();
+        boolean esCsv = extension.endsWith(".csv");
+        boolean esBson = extension.endsWith(".bson");
+        int lote = tamanioLote > 0 ? tamanioLote : TAMANIO_LOTE_POR_DEFECTO;
+        String campoSucursal = campoSucursal(coleccion);
+        if (sucursal != null && campoSucursal == null) {
+            System.out.println("Aviso: Los " + coleccion + " no pertenecen a una sucursal; se importan todos.");
+        }
+
+        // Las referencias se cargan una sola vez para validar en memoria y no por cada fila
+        Set<String> sucursales;
+        Set<Integer> productos;
+        try {
+            sucursales = requiereSucursal(coleccion) ? repositorios.getSucursales().nombres() : null;
+            productos = "vende".equals(coleccion) ? repositorios.getProductos().codigos() : null;
+        } catch (TiempoAgotadoException e) {
+            System.out.println("Error: No se pudieron cargar las referencias a validar. " + e.getMessage());
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        System.out.println("\nImportando '" + rutaArchivo + "' en la colección '" + coleccion + "' (lotes de " + lote
+                + ", hasta " + Math.max(1, lotesEnParalelo) + " en paralelo"
+                + (sucursal != null && campoSucursal != null ? ", solo la sucursal '" + sucursal + "'" : "") + ")...");
+
+        Lotes<T> lotes;
+        String interrupcion = null;
+        try (EjecutorConcurrente ejecutor = new EjecutorConcurrente(Math.max(1, lotesEnParalelo))) {
+            lotes = new Lotes<>(ejecutor, repositorio, lote);
+            Consumer<Document> procesar = documento -> {
+                if (sucursal != null && campoSucursal != null && !sucursal.equals(documento.get(campoSucursal))) {
+                    lotes.omitidos++;
+                    return;
+                }
+                String error = validarReferencias(documento, sucursales, productos);
+                if (error != null) {
+                    lotes.agregarError(lotes.ubicacion + ": " + error);
+                } else {
+                    lotes.agregar(conversor.apply(documento));
+                }
+            };
+
+            try {
+                if (esBson) {
+                    leerBson(path, columnas, lotes, procesar);
+                } else {
+                    leerLineas(path, esCsv, columnas, lotes, procesar);
+                }
+            } catch (IOException | UncheckedIOException | IllegalStateException e) {
+                // Lo leído antes del error (incluido el lote en armado) se escribe igual
+                logger.error("Error al leer el archivo '{}': {}", rutaArchivo, e.getMessage(), e);
+                interrupcion = e.getMessage();
+            }
+            lotes.enviarPendiente();
+        }
+
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        System.out.println("===========================================================================");
+        if (interrupcion != null) {
+            System.out.println("Error: La lectura del archivo se interrumpió: " + interrupcion
+                    + ". Se importó lo leído hasta ese punto.");
+        }
+        System.out.println("Importación finalizada en " + milisegundos + " ms.");
+        System.out.println("Lotes: " + lotes.numeroLote + " | Documentos insertados: " + lotes.totalInsertados.sum()
+                + " | Errores: " + lotes.totalErrores.sum()
+                + (lotes.omitidos > 0 ? " | Omitidos por sucursal: " + lotes.omitidos : ""));
+        System.out.println("===========================================================================");
+    }
+
+    private void leerLineas(Path path, boolean esCsv, String[] columnas, Lotes<?> lotes, Consumer<Document> procesar) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String linea;
+            long numeroLinea = 0;
+            while ((linea = reader.readLine()) != null) {
+                numeroLinea++;
+                linea = linea.trim();
+                if (linea.isEmpty()) continue;
+                if (esCsv && numeroLinea == 1 && esEncabezado(columnas, linea)) continue;
+
+                lotes.ubicacion = "línea " + numeroLinea;
+                try {
+                    procesar.accept(esCsv ? convertirFilaCsv(columnas, linea) : convertirFilaJson(columnas, linea));
+                } catch (RuntimeException e) {
+                    lotes.agregarError(lotes.ubicacion + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Recorre los documentos de un .bson de mongodump. Un documento con un tipo inválido se
+     * informa como error; un archivo truncado detiene la lectura, y lo leído hasta ahí se importa.
+     */
+    private void leerBson(Path path, String[] columnas, Lotes<?> lotes, Consumer<Document> procesar) throws IOException {
+        try (LectorBson lector = new LectorBson(path)) {
+            while (lector.hasNext()) {
+                lotes.ubicacion = "byte " + lector.getPosicion();
+                Document origen = lector.next();
+                try {
+                    procesar.accept(seleccionarCampos(columnas, origen));
+                } catch (RuntimeException e) {
+                    lotes.agregarError(lotes.ubicacion + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Acumula las entidades del lote en armado y lo envía al ejecutor al completarse.
+     * Solo lo usa el hilo lector; los totales se actualizan desde los hilos que escriben.
+     */
+    private final class Lotes<T> {
+        private final EjecutorConcurrente ejecutor;
+        private final Repositorio<T> repositorio;
+        private final int tamanio;
+        private final LongAdder totalInsertados = new LongAdder();
+        private final LongAdder totalErrores = new LongAdder();
+        private List<T> entidades;
+        private List<String> errores = new ArrayList<>();
+        private int numeroLote;
+        private long omitidos;
+        /** Línea o posición del documento en proceso, para los mensajes de error. */
+        private String ubicacion;
+
+        Lotes(EjecutorConcurrente ejecutor, Repositorio<T> repositorio, int tamanio) {
+            this.ejecutor = ejecutor;
+            this.repositorio = repositorio;
+            this.tamanio = tamanio;
+            this.entidades = new ArrayList<>(tamanio);
+        }
+
+        void agregar(T entidad) {
+            entidades.add(entidad);
+            if (entidades.size() >= tamanio) {
+                enviar();
+            }
+        }
+
+        void agregarError(String error) {
+            errores.add(error);
+        }
+
+        void enviarPendiente() {
+            if (!entidades.isEmpty() || !errores.isEmpty()) {
+                enviar();
+            }
+        }
+
+        private void enviar() {
+            enviarLote(ejecutor, repositorio, entidades, ++numeroLote, errores, totalInsertados, totalErrores);
+            entidades = new ArrayList<>(tamanio);
+            errores = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Envía un lote al ejecutor. Las listas pasan a ser del lote: el llamador debe usar listas nuevas.
+     */
+    private <T> void enviarLote(EjecutorConcurrente ejecutor, Repositorio<T> repositorio, List<T> entidades, int numeroLote,
+                                List<String> erroresLote, LongAdder totalInsertados, LongAdder totalErrores) {
+        ejecutor.enviar(() -> {
+            long[] resultado = escribirLote(repositorio, entidades, numeroLote, erroresLote);
+            totalInsertados.add(resultado[0]);
+            totalErrores.add(resultado[1]);
+            return resultado[1] == 0;
+        });
+    }
+
+    /**
+     * Inserta un lote de entidades y reporta el resultado del lote en un solo bloque,
+     * para que no se mezcle con el de otros lotes escritos en paralelo.
+     *
+     * @return arreglo con la cantidad de insertados y la cantidad de errores del lote
+     */
+    private <T> long[] escribirLote(Repositorio<T> repositorio, List<T> entidades, int numeroLote, List<String> erroresLote) {
+        long insertados = 0;
+        List<String> errores = new ArrayList<>(erroresLote);
+
+        if (!entidades.isEmpty()) {
+            try {
+                ResultadoLote resultado = repositorio.insertarLote(entidades);
+                insertados = resultado.getInsertados();
+                errores.addAll(resultado.getErrores());
+            } catch (Exception e) {
+                logger.error("Error al escribir el lote {}: {}", numeroLote, e.getMessage(), e);
+                errores.add("lote completo (" + entidades.size() + " documentos): " + e.getMessage());
+            }
+        }
+        // Se cuentan documentos y no mensajes: un mensaje puede abarcar varios (o todo el lote)
+        long cantidadErrores = erroresLote.size() + (entidades.size() - insertados);
+
+        StringBuilder reporte = new StringBuilder("Lote " + numeroLote + ": " + insertados + " insertados, " + cantidadErrores + " errores.");
+        for (int i = 0; i < Math.min(errores.size(), MAX_ERRORES_POR_LOTE); i++) {
+            reporte.append(System.lineSeparator()).append("    ").append(errores.get(i));
+        }
+        if (errores.size() > MAX_ERRORES_POR_LOTE) {
+            reporte.append(System.lineSeparator()).append("    ... y ").append(errores.size() - MAX_ERRORES_POR_LOTE).append(" errores más.");
+        }
+        System.out.println(reporte);
+
+        return new long[]{insertados, cantidadErrores};
+    }
+
+    /**
+     * Convierte una fila CSV en un documento respetando los tipos de cada campo.
+     */
+    private Document convertirFilaCsv(String[] columnas, String linea) {
+        String[] valores = linea.split(",", -1);
+        if (valores.length != columnas.length) {
+            throw new IllegalArgumentException("se esperaban " + columnas.length + " columnas y se encontraron " + valores.length);
+        }
+
+        Document documento = new Document();
+        for (int i = 0; i < columnas.length; i++) {
+            documento.append(columnas[i], convertirValor(columnas[i], valores[i].trim()));
+        }
+        return documento;
+    }
+
+    /**
+     * La primera fila de un CSV es el encabezado solo si tiene exactamente las columnas esperadas.
+     */
+    private boolean esEncabezado(String[] columnas, String linea) {
+        String[] nombres = linea.replace("\uFEFF", "").split(",", -1);
+        if (nombres.length != columnas.length) {
+            return false;
+        }
+        for (int i = 0; i < columnas.length; i++) {
+            if (!columnas[i].equals(nombres[i].trim())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Convierte una línea JSON en un documento, conservando solo los campos de la entidad.
+     */
+    private Document convertirFilaJson(String[] columnas, String linea) {
+        return seleccionarCampos(columnas, Document.parse(linea));
+    }
+
+    /**
+     * Conserva solo los campos de la entidad de un documento JSON o BSON (descarta '_id' y
+     * cualquier otro), con el tipo de cada campo: un número guardado como texto se convierte
+     * igual que en CSV, y un entero guardado como decimal (1.0) se acepta si no tiene parte decimal.
+     */
+    private Document seleccionarCampos(String[] columnas, Document origen) {
+        Document documento = new Document();
+        for (String columna : columnas) {
+            Object valor = origen.get(columna);
+            if (valor == null) {
+                throw new IllegalArgumentException("falta el campo '" + columna + "'");
+            }
+            documento.append(columna, convertirValor(columna, valor));
+        }
+        return documento;
+    }
+
+    private Object convertirValor(String columna, Object valor) {
+        if (valor instanceof String) {
+            return convertirValor(columna, ((String) valor).trim());
+        }
+        if (valor instanceof Number) {
+            double numero = ((Number) valor).doubleValue();
+            switch (columna) {
+                case "codigo":
+                case "codigoProducto":
+                case "dni":
+                case "stock":
+                    if (numero == Math.rint(numero) && numero >= Integer.MIN_VALUE && numero <= Integer.MAX_VALUE) {
+                        return (int) numero;
+                    }
+                    throw new IllegalArgumentException("el campo '" + columna + "' debe ser un entero: " + valor);
+                case "precio":
+                    return numero;
+                default:
+                    break;
+            }
+        }
+        throw new IllegalArgumentException("el campo '" + columna + "' tiene un tipo inválido: " + valor);
+    }
+
+    private Object convertirValor(String columna, String valor) {
+        if (valor.isEmpty()) {
+            throw new IllegalArgumentException("el campo '" + columna + "' está vacío");
+        }
+        try {
+            switch (columna) {
+                case "codigo":
+                case "codigoProducto":
+                case "dni":
+                case "stock":
+                    return Integer.parseInt(valor);
+                case "precio":
+                    return Double.parseDouble(valor);
+                default:
+                    return valor;
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("el campo '" + columna + "' no es un número válido: '" + valor + "'");
+        }
+    }
+
+    /**
+     * Valida en memoria que las sucursales y productos referenciados existan.
+     *
+     * @return mensaje de error, o null si la fila es válida
+     */
+    private String validarReferencias(Document documento, Set<String> sucursales, Set<Integer> productos) {
+        if (sucursales != null && !sucursales.contains(documento.getString("sucursal"))) {
+            return "la sucursal '" + documento.getString("sucursal") + "' no existe";
+        }
+        if (productos != null && !productos.contains(documento.getInteger("codigoProducto"))) {
+            return "el producto '" + documento.getInteger("codigoProducto") + "' no existe";
+        }
+        return null;
+    }
+
+    private static int entero(Document documento, String campo) {
+        return ((Number) documento.get(campo)).intValue();
+    }
+
+    private boolean requiereSucursal(String coleccion) {
+        return "empleados".equals(coleccion) || "vende".equals(coleccion);
+    }
+
+    /**
+     * @return el campo con el nombre de la sucursal en los documentos de la colección, o null si no tiene
+     */
+    private String campoSucursal(String coleccion) {
+        switch (coleccion) {
+            case "sucursales":
+                return "nombre";
+            case "empleados":
+            case "vende":
+                return "sucursal";
+            default:
+                return null;
+        }
+    }
+
+    private String[] columnasDe(String coleccion) {
+        switch (coleccion) {
+            case "sucursales":
+                return new String[]{"nombre", "direccion"};
+            case "productos":
+                return new String[]{"codigo", "descripcion", "stock"};
+            case "empleados":
+                return new String[]{"dni", "nombre", "apellido", "sucursal"};
+            case "vende":
+                return new String[]{"sucursal", "codigoProducto", "precio", "stock"};
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ar.edu.unlu.bdd.controller;
+
+import ar.edu.unlu.bdd.repository.Repositorios;
+import ar.edu.unlu.bdd.repository.mongo.MigracionEsquemaVende;
+import ar.edu.unlu.bdd.repository.mongo.ResultadoMigracion;
+import ar.edu.unlu.bdd.view.ViewMigracion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Controller para migrar las relaciones de vende entre el esquema de colección y el embebido.
+ * <p>
+ * La migración copia los datos; el esquema que usa la aplicación se elige al iniciarla con
+ * {@code -Dbdd.vende.esquema}, así que después de migrar hay que reiniciarla con el nuevo valor.
+ */
+public class ControllerMigracion {
+    private static final Logger logger = LoggerFactory.getLogger(ControllerMigracion.class);
+    public static final int TAMANIO_LOTE_POR_DEFECTO = 1000;
+    private static final int MAX_OMITIDAS_MOSTRADAS = 10;
+
+    private final Repositorios repositorios;
+
+    public ControllerMigracion(Repositorios repositorios) {
+        this.repositorios = repositorios;
+    }
+
+    public void iniciarVista() {
+        new ViewMigracion(this, repositorios.getEsquemaVende());
+    }
+
+    /**
+     * @param esquemaDestino  {@link Repositorios#ESQUEMA_EMBEBIDO} o {@link Repositorios#ESQUEMA_COLECCION}
+     * @param tamanioLote     Cantidad mínima de relaciones por cada bulkWrite (0 = valor por defecto)
+     * @param eliminarOrigen  Si es true, borra las relaciones del esquema de origen una vez copiadas
+     */
+    public void migrar(String esquemaDestino, int tamanioLote, boolean eliminarOrigen) {
+        if (!repositorios.esMongo()) {
+            System.out.println("La migración de esquema solo está disponible con MongoDB.");
+            return;
+        }
+        int lote = tamanioLote > 0 ? tamanioLote : TAMANIO_LOTE_POR_DEFECTO;
+        MigracionEsquemaVende migracion = new MigracionEsquemaVende(repositorios.getDatabase());
+
+        System.out.println("\nMigrando las relaciones de vende al esquema '" + esquemaDestino + "' (lotes de " + lote + ")...");
+        ResultadoMigracion resultado;
+        try {
+            resultado = Repositorios.ESQUEMA_EMBEBIDO.equals(esquemaDestino)
+                    ? migracion.aEmbebido(lote, eliminarOrigen)
+                    : migracion.aColeccion(lote, eliminarOrigen);
+        } catch (Exception e) {
+            logger.error("Error al migrar el esquema de vende a '{}': {}", esquemaDestino, e.getMessage(), e);
+            return;
+        }
+
+        System.out.println("===========================================================================");
+        System.out.println("Migración finalizada en " + resultado.getMilisegundos() + " ms ("
+                + String.format("%.0f", resultado.getRelacionesPorSegundo()) + " relaciones/s).");
+        System.out.println("Relaciones: " + resultado.getRelacionesMigradas() + " | Sucursales: " + resultado.getSucursalesMigradas()
+                + " | Lotes: " + resultado.getLotes());
+        if (eliminarOrigen) {
+            System.out.println("Eliminados del esquema de origen: " + resultado.getDocumentosOrigenEliminados());
+        }
+        if (!resultado.getSucursalesOmitidas().isEmpty()) {
+            System.out.println("Sucursales omitidas: " + resultado.getSucursalesOmitidas().size());
+            resultado.getSucursalesOmitidas().stream().limit(MAX_OMITIDAS_MOSTRADAS)
+                    .forEach(omitida -> System.out.println("    " + omitida));
+        }
+        if (!esquemaDestino.equals(repositorios.getEsquemaVende())) {
+            System.out.println("Para usar el nuevo esquema, reinicie con -Dbdd.vende.esquema=" + esquemaDestino);
+        }
+        System.out.println("===========================================================================");
+    }
+}
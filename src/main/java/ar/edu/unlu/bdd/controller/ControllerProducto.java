@@ -1,143 +1,137 @@
 package ar.edu.unlu.bdd.controller;
 
+import ar.edu.unlu.bdd.database.CacheReferencias;
+import ar.edu.unlu.bdd.entity.Producto;
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import ar.edu.unlu.bdd.repository.RepositorioCascada;
+import ar.edu.unlu.bdd.repository.RepositorioProducto;
+import ar.edu.unlu.bdd.repository.Repositorios;
+import ar.edu.unlu.bdd.repository.ResultadoCascada;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+import ar.edu.unlu.bdd.repository.TiempoAgotadoException;
 import ar.edu.unlu.bdd.view.ViewProducto;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoCursor;
-import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.result.DeleteResult;
-import com.mongodb.client.result.UpdateResult;
-import org.bson.Document;
-import org.bson.conversions.Bson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static com.mongodb.client.model.Filters.eq;
-import static com.mongodb.client.model.Updates.combine;
-import static com.mongodb.client.model.Updates.set;
+import java.util.List;
 
 public class ControllerProducto {
     private static final Logger logger = LoggerFactory.getLogger(ControllerProducto.class);
-    private final MongoCollection<Document> productosCollection;
+    private final RepositorioProducto productos;
+    private final RepositorioCascada cascada;
+    private final CacheReferencias cache = CacheReferencias.getInstance();
 
-    public ControllerProducto(MongoDatabase database) {
-        this.productosCollection = database.getCollection("productos");
+    public ControllerProducto(Repositorios repositorios) {
+        this.productos = repositorios.getProductos();
+        this.cascada = repositorios.getCascada();
     }
 
     public void iniciarVista() {
         new ViewProducto(this);
     }
 
-    public void alta(int codigo, String descripcion, int stock) {
+    public boolean alta(int codigo, String descripcion, int stock) {
         try {
-            // Verificar que el producto no existe ya
-            if (verificarExistenciaProducto(codigo)) {
+            // El repositorio rechaza los códigos duplicados (índice único en MongoDB)
+            if (!productos.insertar(new Producto(codigo, descripcion, stock))) {
                 System.out.println("Error: Ya existe un producto con el código '" + codigo + "'. No se puede crear duplicado.");
-                return;
+                return false;
             }
-
-            Document nuevoProducto = new Document("codigo", codigo)
-                    .append("descripcion", descripcion)
-                    .append("stock", stock);
-
-            productosCollection.insertOne(nuevoProducto);
+            cache.registrarProducto(codigo);
             System.out.println("Producto '" + descripcion + "' agregado con éxito.");
+            return true;
         } catch (Exception e) {
             logger.error("Error al dar de alta el producto: {}", e.getMessage(), e);
+            return false;
         }
     }
 
-    public void baja(int codigo) {
+    public boolean baja(int codigo) {
         try {
-            DeleteResult result = productosCollection.deleteOne(eq("codigo", codigo));
+            boolean eliminado = productos.eliminar(codigo);
+            cache.invalidarProducto(codigo);
 
-            if (result.getDeletedCount() > 0) {
-                System.out.println("Producto con código '" + codigo + "' eliminado con éxito. Documentos eliminados: " + result.getDeletedCount());
+            if (eliminado) {
+                System.out.println("Producto con código '" + codigo + "' eliminado con éxito.");
             } else {
                 logger.warn("No se encontró un producto con el código: {}. No se eliminaron documentos.", codigo);
             }
+            return eliminado;
         } catch (Exception e) {
             logger.error("Error al dar de baja el producto: {}", e.getMessage(), e);
+            return false;
         }
     }
 
-    public void modificacion(int codigo, String descripcion, int stock) {
+    /**
+     * Elimina el producto junto con sus relaciones con todas las sucursales, en una sola
+     * transacción (en MongoDB con replica set).
+     *
+     * @return true si el producto existía y fue eliminado
+     */
+    public boolean bajaEnCascada(int codigo) {
         try {
-            UpdateResult result = productosCollection.updateOne(
-                    eq("codigo", codigo),
-                    combine(
-                            set("descripcion", descripcion),
-                            set("stock", stock)
-                    )
-            );
+            ResultadoCascada resultado = cascada.eliminarProducto(codigo);
+            cache.invalidarProducto(codigo);
 
-            if (result.getModifiedCount() > 0) {
-                System.out.println("Producto con código '" + codigo + "' modificado con éxito. Campos actualizados: " + result.getModifiedCount());
-            } else {
-                logger.warn("No se encontró un producto con el código: {}. No se realizó ninguna modificación.", codigo);
+            if (!resultado.isEliminada()) {
+                logger.warn("No se encontró un producto con el código: {}. Se eliminaron {} relaciones huérfanas.",
+                        codigo, resultado.getRelacionesEliminadas());
+                return false;
             }
+            System.out.println("Producto con código '" + codigo + "' eliminado con éxito"
+                    + (resultado.isTransaccional() ? " (en una transacción)." : " (sin transacción)."));
+            System.out.println("  Relaciones con sucursales eliminadas: " + resultado.getRelacionesEliminadas());
+            return true;
         } catch (Exception e) {
-            logger.error("Error al modificar el producto: {}", e.getMessage(), e);
+            logger.error("Error al dar de baja en cascada el producto: {}", e.getMessage(), e);
+            return false;
         }
     }
 
-    /**
-     * Consulta un producto por código o muestra todos si el parámetro es "todos".
-     *
-     * @param codigo El código del producto a buscar, o "todos" para listar todos.
-     */
-    public void consulta(String codigo) {
-        Bson filtro;
-
+    public boolean modificacion(int codigo, String descripcion, int stock) {
         try {
-            if ("todas".equalsIgnoreCase(codigo)) {
-                filtro = new Document();
-            } else {
-                int codigoInt = Integer.parseInt(codigo);
-                filtro = eq("codigo", codigoInt);
-            }
+            ResultadoModificacion resultado = productos.modificar(codigo, descripcion, stock);
 
-            try (MongoCursor<Document> cursor = productosCollection.find(filtro).iterator()) {
-
-                if (!cursor.hasNext() && !"todas".equalsIgnoreCase(codigo)) {
-                    logger.warn("No se encontró ningún producto con el código: {}", codigo);
-                    return;
-                } else if (!cursor.hasNext()) {
-                    System.out.println("La colección 'productos' está vacía.");
-                    return;
-                }
-
-                System.out.println("Resultados de la consulta:");
-                while (cursor.hasNext()) {
-                    Document producto = cursor.next();
-                    System.out.println(" - Código: " + producto.getInteger("codigo")
-                            + " | Descripción: " + producto.getString("descripcion")
-                            + " | Stock: " + producto.getInteger("stock")
-                            + " | ID: " + producto.getObjectId("_id"));
-                }
-
-                System.out.println("Consulta finalizada.");
-
-            } catch (Exception e) {
-                logger.error("Error al consultar los productos: {}", e.getMessage(), e);
+            if (resultado == ResultadoModificacion.MODIFICADO) {
+                System.out.println("Producto con código '" + codigo + "' modificado con éxito.");
+            } else if (resultado == ResultadoModificacion.SIN_CAMBIOS) {
+                logger.warn("El producto con código {} ya tenía esos valores. No se realizó ninguna modificación.", codigo);
+            } else {
+                logger.warn("No se encontró un producto con el código: {}. No se realizó ninguna modificación.", codigo);
             }
-        } catch (NumberFormatException e) {
-            logger.warn("El código debe ser un número válido o 'todas' para consultar todos los productos.");
+            return resultado != ResultadoModificacion.NO_ENCONTRADO;
+        } catch (Exception e) {
+            logger.error("Error al modificar el producto: {}", e.getMessage(), e);
+            return false;
         }
     }
 
     /**
-     * Verifica si un producto con el código dado ya existe.
+     * Consulta un producto por código o lista todos, por páginas, si el parámetro es "todas".
+     * Las filas se leen recién cuando la vista las recorre.
      *
-     * @param codigo Código del producto a verificar
-     * @return true si ya existe, false en caso contrario
+     * @param codigo El código del producto a buscar, o "todas" para listar todos.
+     * @return el resultado de la consulta (vacío si no existe el producto), o null si el código
+     * no es válido o hubo un error
      */
-    private boolean verificarExistenciaProducto(int codigo) {
+    public RecorridoPaginado<Producto> consulta(String codigo) {
+        if ("todas".equalsIgnoreCase(codigo)) {
+            return productos.listar();
+        }
+
         try {
-            Document producto = productosCollection.find(eq("codigo", codigo)).first();
-            return producto != null;
+            Producto producto = productos.buscar(Integer.parseInt(codigo));
+            return RecorridoPaginado.unaPagina(producto == null ? List.of() : List.of(producto));
+        } catch (NumberFormatException e) {
+            logger.warn("El código debe ser un número válido o 'todas' para consultar todos los productos.");
+            return null;
+        } catch (TiempoAgotadoException e) {
+            System.out.println("Error: " + e.getMessage());
+            return null;
         } catch (Exception e) {
-            logger.error("Error al verificar la existencia del producto '{}': {}", codigo, e.getMessage(), e);
-            return false;
+            logger.error("Error al consultar los productos: {}", e.getMessage(), e);
+            return null;
         }
     }
 }
@@ -1,126 +1,147 @@
 package ar.edu.unlu.bdd.controller;
 
+import ar.edu.unlu.bdd.database.CacheReferencias;
+import ar.edu.unlu.bdd.entity.Sucursal;
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import ar.edu.unlu.bdd.repository.RepositorioCascada;
+import ar.edu.unlu.bdd.repository.RepositorioSucursal;
+import ar.edu.unlu.bdd.repository.Repositorios;
+import ar.edu.unlu.bdd.repository.ResultadoCascada;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+import ar.edu.unlu.bdd.repository.TiempoAgotadoException;
 import ar.edu.unlu.bdd.view.ViewSucursal;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoCursor;
-import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.result.DeleteResult;
-import com.mongodb.client.result.UpdateResult;
-import org.bson.Document;
-import org.bson.conversions.Bson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static com.mongodb.client.model.Filters.eq;
-import static com.mongodb.client.model.Updates.set;
+import java.util.List;
 
 public class ControllerSucursal {
     private static final Logger logger = LoggerFactory.getLogger(ControllerSucursal.class);
-    private final MongoCollection<Document> sucursalesCollection;
+    private final RepositorioSucursal sucursales;
+    private final RepositorioCascada cascada;
+    private final CacheReferencias cache = CacheReferencias.getInstance();
 
-    public ControllerSucursal(MongoDatabase database) {
-        this.sucursalesCollection = database.getCollection("sucursales");
+    public ControllerSucursal(Repositorios repositorios) {
+        this.sucursales = repositorios.getSucursales();
+        this.cascada = repositorios.getCascada();
     }
 
     public void iniciarVista() {
         new ViewSucursal(this);
     }
 
-    public void alta(String nombre, String direccion) {
+    public boolean alta(String nombre, String direccion) {
         try {
-            // Verificar que la socursal no existe ya
-            if (verificarExistenciaSucursal(nombre)) {
+            // El repositorio rechaza los nombres duplicados (índice único en MongoDB)
+            if (!sucursales.insertar(new Sucursal(nombre, direccion))) {
                 System.out.println("Error: Ya existe una sucursal con el nombre '" + nombre + "'. No se puede crear duplicado.");
-                return;
+                return false;
             }
-
-            Document nuevaSucursal = new Document("nombre", nombre)
-                    .append("direccion", direccion);
-
-            sucursalesCollection.insertOne(nuevaSucursal);
+            cache.registrarSucursal(nombre);
             System.out.println("Sucursal '" + nombre + "' agregada con éxito.");
+            return true;
         } catch (Exception e) {
             logger.error("Error al dar de alta la sucursal: {}", e.getMessage(), e);
+            return false;
         }
     }
 
-    public void baja(String nombre) {
+    public boolean baja(String nombre) {
         try {
-            DeleteResult result = sucursalesCollection.deleteOne(eq("nombre", nombre));
+            boolean eliminada = sucursales.eliminar(nombre);
+            cache.invalidarSucursal(nombre);
 
-            if (result.getDeletedCount() > 0) {
-                System.out.println("Sucursal '" + nombre + "' eliminada con éxito. Documentos eliminados: " + result.getDeletedCount());
+            if (eliminada) {
+                System.out.println("Sucursal '" + nombre + "' eliminada con éxito.");
             } else {
                 logger.warn("No se encontró una sucursal con el nombre: {}. No se eliminaron documentos.", nombre);
             }
+            return eliminada;
         } catch (Exception e) {
             logger.error("Error al dar de baja la sucursal: {}", e.getMessage(), e);
+            return false;
         }
     }
 
-    public void modificacion(String nombre, String direccion) {
+    /**
+     * Elimina la sucursal junto con sus relaciones con productos, y elimina o reasigna sus
+     * empleados, todo en una sola transacción (en MongoDB con replica set).
+     *
+     * @param nombre          Sucursal a eliminar
+     * @param sucursalDestino Sucursal que recibe a los empleados, o null para eliminarlos
+     * @return true si la sucursal existía y fue eliminada
+     */
+    public boolean bajaEnCascada(String nombre, String sucursalDestino) {
+        if (nombre.equals(sucursalDestino)) {
+            System.out.println("Error: La sucursal destino de los empleados debe ser distinta de la eliminada.");
+            return false;
+        }
         try {
-            UpdateResult result = sucursalesCollection.updateOne(
-                    eq("nombre", nombre),
-                    set("direccion", direccion)
-            );
+            ResultadoCascada resultado = cascada.eliminarSucursal(nombre, sucursalDestino);
+            cache.invalidarSucursal(nombre);
 
-            if (result.getModifiedCount() > 0) {
-                System.out.println("Sucursal '" + nombre + "' modificada con éxito. Campos actualizados: " + result.getModifiedCount());
+            if (!resultado.isEliminada()) {
+                logger.warn("No se encontró una sucursal con el nombre: {}. Se eliminaron {} relaciones y {} empleados huérfanos.",
+                        nombre, resultado.getRelacionesEliminadas(), resultado.getEmpleadosEliminados() + resultado.getEmpleadosReasignados());
+                return false;
+            }
+            System.out.println("Sucursal '" + nombre + "' eliminada con éxito"
+                    + (resultado.isTransaccional() ? " (en una transacción)." : " (sin transacción)."));
+            System.out.println("  Relaciones con productos eliminadas: " + resultado.getRelacionesEliminadas());
+            if (sucursalDestino == null) {
+                System.out.println("  Empleados eliminados: " + resultado.getEmpleadosEliminados());
             } else {
-                logger.warn("No se encontró una sucursal con el nombre: {}. No se realizó ninguna modificación.", nombre);
+                System.out.println("  Empleados reasignados a '" + sucursalDestino + "': " + resultado.getEmpleadosReasignados());
             }
+            return true;
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage() + " No se eliminó nada.");
+            return false;
         } catch (Exception e) {
-            logger.error("Error al modificar la sucursal: {}", e.getMessage(), e);
+            logger.error("Error al dar de baja en cascada la sucursal: {}", e.getMessage(), e);
+            return false;
         }
     }
 
-    /**
-     * Consulta una sucursal por nombre o muestra todas si el parámetro es "todas".
-     * @param nombre El nombre de la sucursal a buscar, o "todas" para listar todas.
-     */
-    public void consulta(String nombre) {
-        Bson filtro = (nombre != null && nombre.equalsIgnoreCase("todas"))
-                ? new Document()
-                : eq("nombre", nombre);
-
-        try (MongoCursor<Document> cursor = sucursalesCollection.find(filtro).iterator()) {
-
-            if (!cursor.hasNext() && !"todas".equalsIgnoreCase(nombre)) {
-                logger.warn("No se encontró ninguna sucursal con el nombre: {}", nombre);
-                return;
-            } else if (!cursor.hasNext()) {
-                System.out.println("La colección 'sucursales' está vacía.");
-                return;
-            }
+    public boolean modificacion(String nombre, String direccion) {
+        try {
+            ResultadoModificacion resultado = sucursales.modificar(nombre, direccion);
 
-            System.out.println("Resultados de la consulta:");
-            while (cursor.hasNext()) {
-                Document sucursal = cursor.next();
-                System.out.println(" - Nombre: " + sucursal.getString("nombre")
-                        + " | Dirección: " + sucursal.getString("direccion")
-                        + " | ID: " + sucursal.getObjectId("_id"));
+            if (resultado == ResultadoModificacion.MODIFICADO) {
+                System.out.println("Sucursal '" + nombre + "' modificada con éxito.");
+            } else if (resultado == ResultadoModificacion.SIN_CAMBIOS) {
+                logger.warn("La sucursal '{}' ya tenía esa dirección. No se realizó ninguna modificación.", nombre);
+            } else {
+                logger.warn("No se encontró una sucursal con el nombre: {}. No se realizó ninguna modificación.", nombre);
             }
-
-            System.out.println("Consulta finalizada.");
-
+            return resultado != ResultadoModificacion.NO_ENCONTRADO;
         } catch (Exception e) {
-            logger.error("Error al consultar las sucursales: {}", e.getMessage(), e);
+            logger.error("Error al modificar la sucursal: {}", e.getMessage(), e);
+            return false;
         }
     }
 
     /**
-     * Verifica si una sucursal con el nombre dado ya existe.
-     * @param nombre Nombre de la sucursal a verificar
-     * @return true si ya existe, false en caso contrario
+     * Consulta una sucursal por nombre o lista todas, por páginas, si el parámetro es "todas".
+     * Las filas se leen recién cuando la vista las recorre.
+     *
+     * @param nombre El nombre de la sucursal a buscar, o "todas" para listar todas.
+     * @return el resultado de la consulta (vacío si no existe la sucursal), o null ante un error
      */
-    private boolean verificarExistenciaSucursal(String nombre) {
+    public RecorridoPaginado<Sucursal> consulta(String nombre) {
+        if ("todas".equalsIgnoreCase(nombre)) {
+            return sucursales.listar();
+        }
+
         try {
-            Document sucursal = sucursalesCollection.find(eq("nombre", nombre)).first();
-            return sucursal != null;
+            Sucursal sucursal = sucursales.buscar(nombre);
+            return RecorridoPaginado.unaPagina(sucursal == null ? List.of() : List.of(sucursal));
+        } catch (TiempoAgotadoException e) {
+            System.out.println("Error: " + e.getMessage());
+            return null;
         } catch (Exception e) {
-            logger.error("Error al verificar la existencia de la socursal '{}': {}", nombre, e.getMessage(), e);
-            return false;
+            logger.error("Error al consultar las sucursales: {}", e.getMessage(), e);
+            return null;
         }
     }
 }
@@ -1,19 +1,33 @@
 package ar.edu.unlu.bdd.controller;
 
+import ar.edu.unlu.bdd.database.CacheReferencias;
+import ar.edu.unlu.bdd.entity.Vende;
+import ar.edu.unlu.bdd.entity.Venta;
+import ar.edu.unlu.bdd.repository.AjustePrecio;
+import ar.edu.unlu.bdd.repository.PeriodoVentas;
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import ar.edu.unlu.bdd.repository.RegistroVentas;
+import ar.edu.unlu.bdd.repository.RepositorioProducto;
+import ar.edu.unlu.bdd.repository.RepositorioSucursal;
+import ar.edu.unlu.bdd.repository.RepositorioVende;
+import ar.edu.unlu.bdd.repository.RepositorioVentas;
+import ar.edu.unlu.bdd.repository.Repositorios;
+import ar.edu.unlu.bdd.repository.ResultadoAjustePrecio;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+import ar.edu.unlu.bdd.repository.ResumenVentas;
+import ar.edu.unlu.bdd.repository.StockProducto;
+import ar.edu.unlu.bdd.repository.TiempoAgotadoException;
+import ar.edu.unlu.bdd.repository.ValoracionSucursal;
 import ar.edu.unlu.bdd.view.ViewVende;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoCursor;
-import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.result.DeleteResult;
-import com.mongodb.client.result.UpdateResult;
-import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static com.mongodb.client.model.Filters.and;
-import static com.mongodb.client.model.Filters.eq;
-import static com.mongodb.client.model.Updates.combine;
-import static com.mongodb.client.model.Updates.set;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Controller para manejar las operaciones CRUD de la entidad Vende.
@@ -27,6 +41,10 @@ import static com.mongodb.client.model.Updates.set;
  * - Baja: Eliminar la asociación producto-sucursal
  * - Modificación: Cambiar la sucursal de un producto ya asociado
  * - Consulta: Buscar relaciones específicas o listar todas
+ * - Venta: Descontar stock de una relación o de un pedido de varias líneas
+ * - Resumen de ventas: Totales por hora o por día de cada sucursal
+ * - Valoración de inventario: Unidades y valor del stock de cada sucursal
+ * - Stock total: Unidades de un producto sumando todas las sucursales (vista materializada)
  * <p>
  * Validaciones aplicadas:
  * - La sucursal debe existir
@@ -35,12 +53,19 @@ import static com.mongodb.client.model.Updates.set;
  */
 public class ControllerVende {
     private static final Logger logger = LoggerFactory.getLogger(ControllerVende.class);
-    private final MongoCollection<Document> vendeCollection;
-    private final MongoDatabase database;
+    private final RepositorioVende vende;
+    private final RepositorioSucursal sucursales;
+    private final RepositorioProducto productos;
+    private final RepositorioVentas ventas;
+    private final RegistroVentas registroVentas;
+    private final CacheReferencias cache = CacheReferencias.getInstance();
 
-    public ControllerVende(MongoDatabase database) {
-        this.database = database;
-        this.vendeCollection = database.getCollection("vende");
+    public ControllerVende(Repositorios repositorios) {
+        this.vende = repositorios.getVende();
+        this.sucursales = repositorios.getSucursales();
+        this.productos = repositorios.getProductos();
+        this.ventas = repositorios.getVentas();
+        this.registroVentas = repositorios.getRegistroVentas();
     }
 
     public void iniciarVista() {
@@ -55,38 +80,36 @@ public class ControllerVende {
      * @param codigoProducto Código del producto
      * @param precio         Precio de venta para esta sucursal
      * @param stock          Cantidad en stock para esta sucursal
+     * @return true si la relación fue creada
      */
-    public void alta(String sucursal, int codigoProducto, double precio, int stock) {
+    public boolean alta(String sucursal, int codigoProducto, double precio, int stock) {
         try {
             // Validar que la sucursal existe
             if (!verificarExistenciaSucursal(sucursal)) {
                 System.out.println("Error: La sucursal '" + sucursal + "' no existe. No se puede crear la relación.");
-                return;
+                return false;
             }
 
             // Validar que el producto existe
             if (!verificarExistenciaProducto(codigoProducto)) {
                 System.out.println("Error: El producto con código '" + codigoProducto + "' no existe. No se puede crear la relación.");
-                return;
+                return false;
             }
 
-            // Validar que la relación no existe ya
-            if (verificarExistenciaRelacion(sucursal, codigoProducto)) {
+            // El repositorio rechaza las relaciones repetidas (índice único en MongoDB)
+            if (!vende.insertar(new Vende(sucursal, codigoProducto, precio, stock))) {
                 System.out.println("Error: La relación sucursal '" + sucursal + "' - producto '" + codigoProducto + "' ya existe.");
-                return;
+                return false;
             }
-
-            Document nuevaRelacion = new Document("sucursal", sucursal)
-                    .append("codigoProducto", codigoProducto)
-                    .append("precio", precio)
-                    .append("stock", stock);
-
-            vendeCollection.insertOne(nuevaRelacion);
             System.out.println("Relación creada: Sucursal '" + sucursal + "' ahora vende el producto '" + codigoProducto +
                     "' por $" + precio + " (Stock: " + stock + " unidades).");
-
+            return true;
+        } catch (TiempoAgotadoException e) {
+            System.out.println("Error: " + e.getMessage());
+            return false;
         } catch (Exception e) {
             logger.error("Error al dar de alta la relación sucursal-producto: {}", e.getMessage(), e);
+            return false;
         }
     }
 
@@ -95,21 +118,21 @@ public class ControllerVende {
      *
      * @param sucursal       Nombre de la sucursal
      * @param codigoProducto Código del producto
+     * @return true si la relación existía y fue eliminada
      */
-    public void baja(String sucursal, int codigoProducto) {
+    public boolean baja(String sucursal, int codigoProducto) {
         try {
-            DeleteResult result = vendeCollection.deleteOne(
-                    and(eq("sucursal", sucursal), eq("codigoProducto", codigoProducto))
-            );
+            boolean eliminada = vende.eliminar(sucursal, codigoProducto);
 
-            if (result.getDeletedCount() > 0) {
+            if (eliminada) {
                 System.out.println("Relación eliminada: Sucursal '" + sucursal + "' ya no vende el producto '" + codigoProducto + "'.");
-                System.out.println("Documentos eliminados: " + result.getDeletedCount());
             } else {
                 logger.warn("No se encontró la relación sucursal '{}' - producto '{}'. No se eliminaron documentos.", sucursal, codigoProducto);
             }
+            return eliminada;
         } catch (Exception e) {
             logger.error("Error al dar de baja la relación sucursal-producto: {}", e.getMessage(), e);
+            return false;
         }
     }
 
@@ -120,135 +143,352 @@ public class ControllerVende {
      * @param codigoProducto Código del producto
      * @param nuevoPrecio    Nuevo precio de venta
      * @param nuevoStock     Nueva cantidad en stock
+     * @return true si la relación existe (aunque ya tuviera esos valores)
      */
-    public void modificacion(String sucursal, int codigoProducto, double nuevoPrecio, int nuevoStock) {
+    public boolean modificacion(String sucursal, int codigoProducto, double nuevoPrecio, int nuevoStock) {
         try {
-            // Validar que la relación existe
-            if (!verificarExistenciaRelacion(sucursal, codigoProducto)) {
-                System.out.println("Error: No existe la relación sucursal '" + sucursal + "' - producto '" + codigoProducto + "'.");
-                return;
-            }
-
-            UpdateResult result = vendeCollection.updateOne(
-                    and(eq("sucursal", sucursal), eq("codigoProducto", codigoProducto)),
-                    combine(set("precio", nuevoPrecio), set("stock", nuevoStock))
-            );
+            ResultadoModificacion resultado = vende.modificar(sucursal, codigoProducto, nuevoPrecio, nuevoStock);
 
-            if (result.getModifiedCount() > 0) {
+            // La existencia de la relación se deduce del resultado, sin una lectura previa
+            if (resultado == ResultadoModificacion.NO_ENCONTRADO) {
+                System.out.println("Error: No existe la relación sucursal '" + sucursal + "' - producto '" + codigoProducto + "'.");
+            } else if (resultado == ResultadoModificacion.MODIFICADO) {
                 System.out.println("Relación modificada: Sucursal '" + sucursal + "' - Producto '" + codigoProducto +
                         "' actualizado. Nuevo precio: $" + nuevoPrecio + ", Nuevo stock: " + nuevoStock + " unidades.");
-                System.out.println("Documentos modificados: " + result.getModifiedCount());
             } else {
-                logger.warn("No se encontró la relación sucursal '{}' - producto '{}'. No se realizó ninguna modificación.", sucursal, codigoProducto);
+                logger.warn("La relación sucursal '{}' - producto '{}' ya tenía esos valores. No se realizó ninguna modificación.", sucursal, codigoProducto);
             }
+            return resultado != ResultadoModificacion.NO_ENCONTRADO;
         } catch (Exception e) {
             logger.error("Error al modificar la relación sucursal-producto: {}", e.getMessage(), e);
+            return false;
         }
     }
 
     /**
-     * Consulta las relaciones sucursal-producto.
+     * Ajusta en una sola escritura el precio de todas las relaciones que cumplen el filtro:
+     * las de una sucursal, las de un producto en todas las sucursales, o un subconjunto por
+     * rango de precios. Antes de escribir informa cuántas relaciones alcanza; con
+     * {@code simular} se detiene ahí, sin modificar nada.
      *
-     * @param consulta Tipo de consulta: "todas", nombre de sucursal, o código de producto como string
+     * @param tipo           Porcentaje (valor = % de aumento, negativo para descuento) o monto fijo a sumar
+     * @param sucursal       Nombre de la sucursal, o null para todas
+     * @param codigoProducto Código del producto, o null para todos
+     * @param precioDesde    Precio mínimo actual a incluir, o null
+     * @param precioHasta    Precio máximo actual a incluir, o null
+     * @return true si el ajuste alcanza al menos una relación
      */
-    public void consulta(String consulta) {
+    public boolean ajustarPrecios(AjustePrecio.Tipo tipo, double valor, String sucursal, Integer codigoProducto,
+                                  Double precioDesde, Double precioHasta, boolean simular) {
         try {
-            MongoCursor<Document> cursor;
-
-            if ("todas".equalsIgnoreCase(consulta)) {
-                // Mostrar todas las relaciones
-                cursor = vendeCollection.find().iterator();
+            AjustePrecio ajuste = new AjustePrecio(tipo, valor, sucursal, codigoProducto, precioDesde, precioHasta);
+            ResultadoAjustePrecio resultado = vende.ajustarPrecios(ajuste, simular);
+            if (resultado.getCoincidentes() == 0) {
+                System.out.println("Ninguna relación sucursal-producto cumple el filtro del ajuste.");
+                return false;
+            }
 
-                if (!cursor.hasNext()) {
-                    System.out.println("No hay relaciones sucursal-producto registradas.");
-                    return;
-                }
+            String ajusteTexto = tipo == AjustePrecio.Tipo.PORCENTAJE ? valor + "%" : "$" + valor;
+            System.out.println("Relaciones que cumplen el filtro: " + resultado.getCoincidentes() + ".");
+            if (resultado.getExcluidas() > 0) {
+                System.out.println("Excluidas porque su precio quedaría negativo: " + resultado.getExcluidas() + ".");
+            }
+            if (resultado.isSimulado()) {
+                System.out.println("Simulación: el ajuste de " + ajusteTexto + " modificaría " + resultado.getAplicables()
+                        + " relaciones. No se realizó ningún cambio.");
+            } else {
+                System.out.println("Ajuste de precios de " + ajusteTexto + " aplicado: " + resultado.getModificadas()
+                        + (resultado.isModificadasPorSucursal() ? " sucursales modificadas." : " relaciones modificadas."));
+            }
+            return resultado.getAplicables() > 0;
+        } catch (IllegalArgumentException | TiempoAgotadoException e) {
+            System.out.println("Error: " + e.getMessage());
+            return false;
+        } catch (Exception e) {
+            logger.error("Error al ajustar los precios: {}", e.getMessage(), e);
+            return false;
+        }
+    }
 
-                System.out.println("Todas las relaciones sucursal-producto:");
+    /**
+     * Vende unidades de un producto en una sucursal. El stock se verifica y descuenta en una
+     * sola operación condicional, así que ventas concurrentes no lo dejan negativo.
+     *
+     * @param sucursal       Nombre de la sucursal
+     * @param codigoProducto Código del producto
+     * @param cantidad       Unidades a vender
+     * @return true si el stock alcanzaba y fue descontado
+     */
+    public boolean vender(String sucursal, int codigoProducto, int cantidad) {
+        if (cantidad <= 0) {
+            System.out.println("Error: La cantidad a vender debe ser mayor a 0.");
+            return false;
+        }
+        try {
+            Vende vendida = vende.vender(sucursal, codigoProducto, cantidad);
+            if (vendida != null) {
+                registroVentas.registrar(new Venta(sucursal, codigoProducto, cantidad, vendida.getPrecio(), Instant.now()));
+                System.out.println("Venta registrada: " + cantidad + " unidades del producto '" + codigoProducto +
+                        "' en la sucursal '" + sucursal + "'. Stock restante: " + vendida.getStock() + " unidades.");
+                return true;
+            }
 
+            // Solo ante un rechazo se lee la relación, para explicar el motivo
+            Vende actual = vende.buscar(sucursal, codigoProducto);
+            if (actual == null) {
+                System.out.println("Error: No existe la relación sucursal '" + sucursal + "' - producto '" + codigoProducto + "'.");
             } else {
-                // Intentar interpretar como código de producto (número)
-                try {
-                    int codigoProducto = Integer.parseInt(consulta);
-                    cursor = vendeCollection.find(eq("codigoProducto", codigoProducto)).iterator();
+                System.out.println("Error: Stock insuficiente para vender " + cantidad + " unidades del producto '" +
+                        codigoProducto + "' en la sucursal '" + sucursal + "' (Stock: " + actual.getStock() + " unidades).");
+            }
+            return false;
+        } catch (TiempoAgotadoException e) {
+            System.out.println("Error: " + e.getMessage());
+            return false;
+        } catch (Exception e) {
+            logger.error("Error al registrar la venta: {}", e.getMessage(), e);
+            return false;
+        }
+    }
 
-                    if (!cursor.hasNext()) {
-                        System.out.println("El producto '" + codigoProducto + "' no está siendo vendido por ninguna sucursal.");
-                        return;
-                    }
+    /**
+     * Vende varias líneas en una sucursal. Cada línea se aplica por separado y solo si su
+     * stock alcanza, así que el pedido puede quedar aplicado en parte (ver
+     * {@link RepositorioVende#venderPedido}).
+     *
+     * @param sucursal Nombre de la sucursal
+     * @param lineas   Cantidad a vender por código de producto
+     * @return true si se aplicaron todas las líneas
+     */
+    public boolean venderPedido(String sucursal, Map<Integer, Integer> lineas) {
+        if (lineas.isEmpty() || lineas.values().stream().anyMatch(cantidad -> cantidad == null || cantidad <= 0)) {
+            System.out.println("Error: El pedido debe tener al menos una línea y todas las cantidades deben ser mayores a 0.");
+            return false;
+        }
+        try {
+            List<Vende> vendidas = vende.venderPedido(sucursal, lineas);
+            Instant fecha = Instant.now();
+            for (Vende vendida : vendidas) {
+                registroVentas.registrar(new Venta(sucursal, vendida.getCodigoProducto(),
+                        lineas.get(vendida.getCodigoProducto()), vendida.getPrecio(), fecha));
+            }
 
-                    System.out.println("Sucursales que venden el producto '" + codigoProducto + "':");
+            int aplicadas = vendidas.size();
+            if (aplicadas == lineas.size()) {
+                System.out.println("Pedido registrado en la sucursal '" + sucursal + "': " + aplicadas + " líneas aplicadas.");
+                return true;
+            }
+            System.out.println("Pedido aplicado parcialmente en la sucursal '" + sucursal + "': " + aplicadas + " de " +
+                    lineas.size() + " líneas. Las líneas sin relación o sin stock suficiente no se descontaron.");
+            return false;
+        } catch (Exception e) {
+            logger.error("Error al registrar el pedido: {}", e.getMessage(), e);
+            return false;
+        }
+    }
 
-                } catch (NumberFormatException e) {
-                    // Interpretar como nombre de sucursal
-                    cursor = vendeCollection.find(eq("sucursal", consulta)).iterator();
+    /**
+     * Muestra los totales de ventas por período y sucursal de los últimos días. Los totales
+     * se calculan en el motor de almacenamiento; solo se recibe una fila por período y sucursal.
+     *
+     * @param periodo  Hora o día
+     * @param sucursal Sucursal a resumir, o null para todas
+     * @param dias     Cantidad de días hacia atrás, contando el actual
+     */
+    public void resumenVentas(PeriodoVentas periodo, String sucursal, int dias) {
+        try {
+            // Las ventas del lote en curso también cuentan
+            registroVentas.vaciar();
 
-                    if (!cursor.hasNext()) {
-                        System.out.println("La sucursal '" + consulta + "' no vende ningún producto o no existe.");
-                        return;
-                    }
+            ZoneId zona = ZoneId.systemDefault();
+            Instant hasta = Instant.now();
+            Instant desde = LocalDate.now(zona).minusDays(dias - 1L).atStartOfDay(zona).toInstant();
+            List<ResumenVentas> resumen = ventas.resumir(periodo, sucursal, desde, hasta, zona);
 
-                    System.out.println("Productos vendidos por la sucursal '" + consulta + "':");
-                }
+            if (resumen.isEmpty()) {
+                System.out.println("No hay ventas registradas en los últimos " + dias + " días"
+                        + (sucursal != null ? " para la sucursal '" + sucursal + "'." : "."));
+                return;
             }
 
+            DateTimeFormatter formato = DateTimeFormatter.ofPattern(periodo == PeriodoVentas.HORA ? "yyyy-MM-dd HH:00" : "yyyy-MM-dd")
+                    .withZone(zona);
+            long unidades = 0;
+            double importe = 0;
+            System.out.println("Resumen de ventas por " + (periodo == PeriodoVentas.HORA ? "hora" : "día") + ":");
             System.out.println("===========================================================================");
-            while (cursor.hasNext()) {
-                Document relacion = cursor.next();
-                System.out.println(" - Sucursal: " + relacion.getString("sucursal")
-                        + " | Producto: " + relacion.getInteger("codigoProducto")
-                        + " | Precio: $" + relacion.getDouble("precio")
-                        + " | Stock: " + relacion.getInteger("stock") + " unidades"
-                        + " | ID: " + relacion.getObjectId("_id"));
+            for (ResumenVentas fila : resumen) {
+                System.out.println(" - " + formato.format(fila.getInicioPeriodo())
+                        + " | Sucursal: " + fila.getSucursal()
+                        + " | Ventas: " + fila.getVentas()
+                        + " | Unidades: " + fila.getUnidades()
+                        + " | Importe: $" + String.format("%.2f", fila.getImporte()));
+                unidades += fila.getUnidades();
+                importe += fila.getImporte();
             }
             System.out.println("===========================================================================");
-            System.out.println("Consulta finalizada.");
+            System.out.println("Total: " + unidades + " unidades | $" + String.format("%.2f", importe));
+        } catch (TiempoAgotadoException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error al generar el resumen de ventas: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Muestra el valor del inventario de cada sucursal (precio * stock), con la cantidad de
+     * productos distintos y el rango de precios. La agregación se hace en el motor de
+     * almacenamiento; solo se recibe una fila por sucursal.
+     */
+    public void valoracionInventario() {
+        try {
+            List<ValoracionSucursal> valoracion = vende.valorarInventario();
+            if (valoracion.isEmpty()) {
+                System.out.println("No hay relaciones sucursal-producto registradas.");
+                return;
+            }
 
+            long unidades = 0;
+            double valor = 0;
+            System.out.println("Valoración de inventario por sucursal:");
+            System.out.println("===========================================================================");
+            for (ValoracionSucursal fila : valoracion) {
+                System.out.println(" - Sucursal: " + fila.getSucursal()
+                        + " | Productos: " + fila.getProductos()
+                        + " | Unidades: " + fila.getUnidades()
+                        + " | Valor: $" + String.format("%.2f", fila.getValor())
+                        + " | Precio mín/máx: $" + fila.getPrecioMinimo() + " / $" + fila.getPrecioMaximo());
+                unidades += fila.getUnidades();
+                valor += fila.getValor();
+            }
+            System.out.println("===========================================================================");
+            System.out.println("Total: " + valoracion.size() + " sucursales | " + unidades + " unidades | $" + String.format("%.2f", valor));
+        } catch (TiempoAgotadoException e) {
+            System.out.println("Error: " + e.getMessage());
         } catch (Exception e) {
-            logger.error("Error al consultar las relaciones sucursal-producto: {}", e.getMessage(), e);
+            logger.error("Error al valorar el inventario: {}", e.getMessage(), e);
         }
     }
 
     /**
-     * Verifica si una sucursal existe en la base de datos.
+     * Muestra el stock total de un producto en todas las sucursales. Antes de leer la vista
+     * materializada se recalculan solo los productos modificados desde el último refresco,
+     * así que la consulta es una lectura por clave más, a lo sumo, una agregación acotada.
+     *
+     * @param codigoProducto Código del producto
+     * @return true si alguna sucursal vende el producto
      */
-    private boolean verificarExistenciaSucursal(String nombreSucursal) {
+    public boolean stockTotal(int codigoProducto) {
         try {
-            MongoCollection<Document> sucursalesCollection = database.getCollection("sucursales");
-            Document sucursal = sucursalesCollection.find(eq("nombre", nombreSucursal)).first();
-            return sucursal != null;
+            vende.refrescarStockPorProducto();
+            StockProducto stock = vende.stockPorProducto(codigoProducto);
+            if (stock == null) {
+                System.out.println("El producto '" + codigoProducto + "' no está siendo vendido por ninguna sucursal.");
+                return false;
+            }
+            System.out.println("Producto '" + codigoProducto + "': " + stock.getUnidades() + " unidades en "
+                    + stock.getSucursales() + " sucursales.");
+            return true;
+        } catch (TiempoAgotadoException e) {
+            System.out.println("Error: " + e.getMessage());
+            return false;
         } catch (Exception e) {
-            logger.error("Error al verificar la existencia de la sucursal '{}': {}", nombreSucursal, e.getMessage(), e);
+            logger.error("Error al consultar el stock total del producto '{}': {}", codigoProducto, e.getMessage(), e);
             return false;
         }
     }
 
     /**
-     * Verifica si un producto existe en la base de datos.
+     * Recalcula completa la vista materializada de stock por producto, por ejemplo después
+     * de cambios hechos por otro proceso.
      */
-    private boolean verificarExistenciaProducto(int codigoProducto) {
+    public void reconstruirStockPorProducto() {
         try {
-            MongoCollection<Document> productosCollection = database.getCollection("productos");
-            Document producto = productosCollection.find(eq("codigo", codigoProducto)).first();
-            return producto != null;
+            long inicio = System.nanoTime();
+            int productos = vende.reconstruirStockPorProducto();
+            System.out.println("Stock por producto reconstruido: " + productos + " productos en "
+                    + (System.nanoTime() - inicio) / 1_000_000 + " ms.");
+        } catch (TiempoAgotadoException e) {
+            System.out.println("Error: " + e.getMessage());
         } catch (Exception e) {
-            logger.error("Error al verificar la existencia del producto '{}': {}", codigoProducto, e.getMessage(), e);
+            logger.error("Error al reconstruir el stock por producto: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Consulta las relaciones sucursal-producto. Con "todas" se recorren por páginas, ordenadas
+     * por sucursal y producto; las filas se leen recién cuando la vista las recorre.
+     *
+     * @param consulta Tipo de consulta: "todas", nombre de sucursal, o código de producto como string
+     * @return el resultado de la consulta, o null ante un error
+     */
+    public RecorridoPaginado<Vende> consulta(String consulta) {
+        if ("todas".equalsIgnoreCase(consulta)) {
+            return vende.listar();
+        }
+
+        try {
+            List<Vende> relaciones;
+            try {
+                relaciones = vende.buscarPorProducto(Integer.parseInt(consulta));
+            } catch (NumberFormatException e) {
+                // Interpretar como nombre de sucursal
+                relaciones = vende.buscarPorSucursal(consulta);
+            }
+            return RecorridoPaginado.unaPagina(relaciones);
+        } catch (TiempoAgotadoException e) {
+            System.out.println("Error: " + e.getMessage());
+            return null;
+        } catch (Exception e) {
+            logger.error("Error al consultar las relaciones sucursal-producto: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Verifica si una sucursal existe, consultando primero el caché de referencias.
+     *
+     * @throws TiempoAgotadoException si la lectura superó su tiempo máximo
+     */
+    private boolean verificarExistenciaSucursal(String nombreSucursal) {
+        if (cache.contieneSucursal(nombreSucursal)) {
+            return true;
+        }
+        try {
+            boolean existe = sucursales.existe(nombreSucursal);
+            if (existe) {
+                cache.registrarSucursal(nombreSucursal);
+            }
+            return existe;
+        } catch (TiempoAgotadoException e) {
+            // Sin respuesta no se sabe si existe: lo informa el llamador, no como "no existe"
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error al verificar la existencia de la sucursal '{}': {}", nombreSucursal, e.getMessage(), e);
             return false;
         }
     }
 
     /**
-     * Verifica si ya existe una relación entre una sucursal y un producto.
+     * Verifica si un producto existe, consultando primero el caché de referencias.
+     *
+     * @throws TiempoAgotadoException si la lectura superó su tiempo máximo
      */
-    private boolean verificarExistenciaRelacion(String sucursal, int codigoProducto) {
+    private boolean verificarExistenciaProducto(int codigoProducto) {
+        if (cache.contieneProducto(codigoProducto)) {
+            return true;
+        }
         try {
-            Document relacion = vendeCollection.find(
-                    and(eq("sucursal", sucursal), eq("codigoProducto", codigoProducto))
-            ).first();
-            return relacion != null;
+            boolean existe = productos.existe(codigoProducto);
+            if (existe) {
+                cache.registrarProducto(codigoProducto);
+            }
+            return existe;
+        } catch (TiempoAgotadoException e) {
+            // Sin respuesta no se sabe si existe: lo informa el llamador, no como "no existe"
+            throw e;
         } catch (Exception e) {
-            logger.error("Error al verificar la existencia de la relación sucursal '{}' - producto '{}': {}",
-                    sucursal, codigoProducto, e.getMessage(), e);
+            logger.error("Error al verificar la existencia del producto '{}': {}", codigoProducto, e.getMessage(), e);
             return false;
         }
     }
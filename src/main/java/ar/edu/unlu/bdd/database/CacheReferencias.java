@@ -0,0 +1,188 @@
+package ar.edu.unlu.bdd.database;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase Singleton con un caché acotado (LRU) de las sucursales y productos que se sabe
+ * que existen. Evita consultar MongoDB cada vez que un controller valida una referencia.
+ * <p>
+ * Solo se guardan resultados positivos: una sucursal o producto que no está en el caché
+ * se busca en la base. Los controllers mantienen el caché al día con sus propias altas
+ * y bajas; opcionalmente, un change stream (requiere replica set) refleja los cambios
+ * hechos por otros clientes.
+ * <p>
+ * Propiedades del sistema:
+ * - bdd.cache.maxEntradas: cantidad máxima de claves por tipo (por defecto 10000)
+ * - bdd.cache.changeStream: "true" para escuchar cambios de otros clientes
+ */
+public class CacheReferencias {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheReferencias.class);
+
+    private static final int MAX_ENTRADAS_POR_DEFECTO = 10_000;
+
+    // --- Singleton Instance ---
+    private static CacheReferencias instance;
+
+    private final Map<String, Boolean> sucursales;
+    private final Map<Integer, Boolean> productos;
+    private Thread hiloChangeStream;
+
+    private CacheReferencias(int maxEntradas) {
+        this.sucursales = crearMapaAcotado(maxEntradas);
+        this.productos = crearMapaAcotado(maxEntradas);
+    }
+
+    /**
+     * Devuelve la única instancia del caché (Singleton).
+     *
+     * @return La instancia del caché de referencias.
+     */
+    public static synchronized CacheReferencias getInstance() {
+        if (instance == null) {
+            instance = new CacheReferencias(Integer.getInteger("bdd.cache.maxEntradas", MAX_ENTRADAS_POR_DEFECTO));
+        }
+        return instance;
+    }
+
+    private static <K> Map<K, Boolean> crearMapaAcotado(int maxEntradas) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Boolean> eldest) {
+                return size() > maxEntradas;
+            }
+        });
+    }
+
+    // -------------------------------------------------------------------------
+    // --- Sucursales ---
+    // -------------------------------------------------------------------------
+
+    public boolean contieneSucursal(String nombre) {
+        return sucursales.get(nombre) != null;
+    }
+
+    public void registrarSucursal(String nombre) {
+        sucursales.put(nombre, Boolean.TRUE);
+    }
+
+    public void invalidarSucursal(String nombre) {
+        sucursales.remove(nombre);
+    }
+
+    // -------------------------------------------------------------------------
+    // --- Productos ---
+    // -------------------------------------------------------------------------
+
+    public boolean contieneProducto(int codigo) {
+        return productos.get(codigo) != null;
+    }
+
+    public void registrarProducto(int codigo) {
+        productos.put(codigo, Boolean.TRUE);
+    }
+
+    public void invalidarProducto(int codigo) {
+        productos.remove(codigo);
+    }
+
+    /**
+     * Vacía el caché completo. Se usa al eliminar la base de datos.
+     */
+    public void limpiar() {
+        sucursales.clear();
+        productos.clear();
+    }
+
+    // -------------------------------------------------------------------------
+    // --- Change Stream ---
+    // -------------------------------------------------------------------------
+
+    /**
+     * Inicia, en un hilo en segundo plano, la escucha de cambios sobre las colecciones
+     * 'sucursales' y 'productos'. Solo funciona si el servidor es un replica set
+     * (puede ser de un único nodo); en caso contrario se informa y el caché sigue
+     * funcionando solo con las escrituras de los controllers.
+     *
+     * @param database Base de datos a observar
+     */
+    public synchronized void iniciarChangeStream(MongoDatabase database) {
+        if (hiloChangeStream != null) {
+            return;
+        }
+
+        hiloChangeStream = new Thread(() -> escucharCambios(database), "cache-change-stream");
+        hiloChangeStream.setDaemon(true);
+        hiloChangeStream.start();
+    }
+
+    private void escucharCambios(MongoDatabase database) {
+        List<Bson> pipeline = List.of(
+                Aggregates.match(Filters.in("ns.coll", "sucursales", "productos"))
+        );
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = database.watch(pipeline).cursor()) {
+            logger.info("Change stream del caché de referencias iniciado.");
+            while (cursor.hasNext()) {
+                aplicarCambio(cursor.next());
+            }
+        } catch (Exception e) {
+            logger.warn("No se pudo mantener el change stream del caché (¿el servidor es un replica set?): {}", e.getMessage());
+        }
+    }
+
+    private void aplicarCambio(ChangeStreamDocument<Document> cambio) {
+        String coleccion = cambio.getNamespace() != null ? cambio.getNamespace().getCollectionName() : null;
+        boolean esSucursal = "sucursales".equals(coleccion);
+
+        switch (cambio.getOperationType()) {
+            case INSERT: {
+                Document documento = cambio.getFullDocument();
+                if (documento == null) break;
+                if (esSucursal && documento.getString("nombre") != null) {
+                    registrarSucursal(documento.getString("nombre"));
+                } else if (!esSucursal && documento.getInteger("codigo") != null) {
+                    registrarProducto(documento.getInteger("codigo"));
+                }
+                break;
+            }
+            case UPDATE: {
+                // Solo importa si cambió la clave; el resto de los campos no se cachea
+                BsonDocument campos = cambio.getUpdateDescription() != null
+                        ? cambio.getUpdateDescription().getUpdatedFields() : null;
+                if (campos == null) break;
+                if (esSucursal && campos.containsKey("nombre")) {
+                    sucursales.clear();
+                } else if (!esSucursal && campos.containsKey("codigo")) {
+                    productos.clear();
+                }
+                break;
+            }
+            case DELETE:
+            case REPLACE: {
+                // El evento solo trae el _id, no la clave cacheada: se vacía esa parte del caché
+                if (esSucursal) sucursales.clear();
+                else productos.clear();
+                break;
+            }
+            default: {
+                limpiar();
+                break;
+            }
+        }
+    }
+}
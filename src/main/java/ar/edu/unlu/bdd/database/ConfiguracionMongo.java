@@ -0,0 +1,218 @@
+package ar.edu.unlu.bdd.database;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuración del cliente de MongoDB.
+ * <p>
+ * Los valores se toman, en orden de prioridad creciente, de:
+ * 1. El archivo 'mongodb.properties' incluido en el classpath
+ * 2. Un archivo 'mongodb.properties' en el directorio de trabajo
+ * 3. Las propiedades del sistema (-Dbdd.mongo.pool.max=50, etc.)
+ * <p>
+ * Las opciones que no se configuran quedan con el valor de la URI o del driver.
+ */
+public class ConfiguracionMongo {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfiguracionMongo.class);
+
+    private static final String ARCHIVO = "mongodb.properties";
+    private static final String URI_POR_DEFECTO = "mongodb://localhost:27017";
+
+    // --- Claves de configuración ---
+    public static final String URI = "bdd.mongo.uri";
+    public static final String POOL_MIN = "bdd.mongo.pool.min";
+    public static final String POOL_MAX = "bdd.mongo.pool.max";
+    public static final String POOL_MAX_ESPERA_MS = "bdd.mongo.pool.maxEsperaMs";
+    public static final String POOL_MAX_INACTIVIDAD_MS = "bdd.mongo.pool.maxInactividadMs";
+    public static final String CONNECT_TIMEOUT_MS = "bdd.mongo.socket.connectTimeoutMs";
+    public static final String READ_TIMEOUT_MS = "bdd.mongo.socket.readTimeoutMs";
+    public static final String SERVER_SELECTION_TIMEOUT_MS = "bdd.mongo.serverSelectionTimeoutMs";
+    public static final String COMPRESORES = "bdd.mongo.compresores";
+
+    private final Properties propiedades;
+
+    private ConfiguracionMongo(Properties propiedades) {
+        this.propiedades = propiedades;
+    }
+
+    /**
+     * Carga la configuración desde el classpath, el directorio de trabajo y las propiedades del sistema.
+     *
+     * @return la configuración resultante
+     */
+    public static ConfiguracionMongo cargar() {
+        Properties propiedades = new Properties();
+
+        try (InputStream in = ConfiguracionMongo.class.getClassLoader().getResourceAsStream(ARCHIVO)) {
+            if (in != null) {
+                propiedades.load(in);
+            }
+        } catch (IOException e) {
+            logger.warn("No se pudo leer '{}' del classpath: {}", ARCHIVO, e.getMessage());
+        }
+
+        Path local = Path.of(ARCHIVO);
+        if (Files.isReadable(local)) {
+            try (Reader reader = Files.newBufferedReader(local, StandardCharsets.UTF_8)) {
+                propiedades.load(reader);
+            } catch (IOException e) {
+                logger.warn("No se pudo leer '{}': {}", local.toAbsolutePath(), e.getMessage());
+            }
+        }
+
+        for (String clave : System.getProperties().stringPropertyNames()) {
+            if (clave.startsWith("bdd.mongo.")) {
+                propiedades.setProperty(clave, System.getProperty(clave));
+            }
+        }
+
+        return new ConfiguracionMongo(propiedades);
+    }
+
+    public String getUri() {
+        return propiedades.getProperty(URI, URI_POR_DEFECTO).trim();
+    }
+
+    /**
+     * Construye los settings del cliente aplicando la configuración cargada.
+     *
+     * @param metricasPool     Listener que recibe los eventos del pool de conexiones
+     * @param metricasComandos Listener que mide la latencia de cada comando
+     * @return los settings listos para {@code MongoClients.create}
+     */
+    public MongoClientSettings construirSettings(MetricasPool metricasPool, MetricasComandos metricasComandos) {
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(getUri()))
+                .addCommandListener(metricasComandos);
+
+        builder.applyToConnectionPoolSettings(pool -> {
+            Integer min = leerEntero(POOL_MIN);
+            Integer max = leerEntero(POOL_MAX);
+            Integer maxEspera = leerEntero(POOL_MAX_ESPERA_MS);
+            Integer maxInactividad = leerEntero(POOL_MAX_INACTIVIDAD_MS);
+            if (min != null) pool.minSize(min);
+            if (max != null) pool.maxSize(max);
+            if (maxEspera != null) pool.maxWaitTime(maxEspera, TimeUnit.MILLISECONDS);
+            if (maxInactividad != null) pool.maxConnectionIdleTime(maxInactividad, TimeUnit.MILLISECONDS);
+            pool.addConnectionPoolListener(metricasPool);
+        });
+
+        builder.applyToSocketSettings(socket -> {
+            Integer connectTimeout = leerEntero(CONNECT_TIMEOUT_MS);
+            Integer readTimeout = leerEntero(READ_TIMEOUT_MS);
+            if (connectTimeout != null) socket.connectTimeout(connectTimeout, TimeUnit.MILLISECONDS);
+            if (readTimeout != null) socket.readTimeout(readTimeout, TimeUnit.MILLISECONDS);
+        });
+
+        Integer serverSelection = leerEntero(SERVER_SELECTION_TIMEOUT_MS);
+        if (serverSelection != null) {
+            builder.applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(serverSelection, TimeUnit.MILLISECONDS));
+        }
+
+        List<MongoCompressor> compresores = leerCompresores();
+        if (!compresores.isEmpty()) {
+            builder.compressorList(compresores);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Muestra la configuración efectiva (solo las claves definidas) y el perfil de cada operación.
+     */
+    public void mostrarConfiguracion() {
+        System.out.println("Configuración del cliente:");
+        System.out.println("    URI: " + getUri());
+        for (String clave : new String[]{POOL_MIN, POOL_MAX, POOL_MAX_ESPERA_MS, POOL_MAX_INACTIVIDAD_MS,
+                CONNECT_TIMEOUT_MS, READ_TIMEOUT_MS, SERVER_SELECTION_TIMEOUT_MS, COMPRESORES}) {
+            String valor = propiedades.getProperty(clave);
+            if (valor != null && !valor.isBlank()) {
+                System.out.println("    " + clave + " = " + valor.trim());
+            }
+        }
+        System.out.println("Perfiles por operación:");
+        for (OperacionMongo operacion : OperacionMongo.values()) {
+            PerfilOperacion perfil = operacion.getPerfil();
+            long tiempoMaximo = operacion.getTiempoMaximoMs();
+            System.out.println("    " + operacion.getClave() + ": " + perfil.getNombre() + " (" + perfil.describir()
+                    + " | tiempo máximo: " + (tiempoMaximo > 0 ? tiempoMaximo + " ms" : "sin límite") + ")");
+        }
+    }
+
+    private Integer leerEntero(String clave) {
+        String valor = propiedades.getProperty(clave);
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Valor inválido para '{}': '{}'. Se usa el valor por defecto.", clave, valor);
+            return null;
+        }
+    }
+
+    /**
+     * Lee la lista de compresores (zstd, snappy, zlib) en orden de preferencia.
+     * Se descartan los que necesitan una librería que no está en el classpath.
+     */
+    private List<MongoCompressor> leerCompresores() {
+        List<MongoCompressor> compresores = new ArrayList<>();
+        String valor = propiedades.getProperty(COMPRESORES);
+        if (valor == null || valor.isBlank()) {
+            return compresores;
+        }
+
+        for (String nombre : valor.split(",")) {
+            switch (nombre.trim().toLowerCase()) {
+                case "zlib":
+                    compresores.add(MongoCompressor.createZlibCompressor());
+                    break;
+                case "snappy":
+                    if (claseDisponible("org.xerial.snappy.Snappy")) {
+                        compresores.add(MongoCompressor.createSnappyCompressor());
+                    } else {
+                        logger.warn("Compresor 'snappy' ignorado: falta la librería snappy-java en el classpath.");
+                    }
+                    break;
+                case "zstd":
+                    if (claseDisponible("com.github.luben.zstd.Zstd")) {
+                        compresores.add(MongoCompressor.createZstdCompressor());
+                    } else {
+                        logger.warn("Compresor 'zstd' ignorado: falta la librería zstd-jni en el classpath.");
+                    }
+                    break;
+                case "":
+                    break;
+                default:
+                    logger.warn("Compresor desconocido '{}' ignorado.", nombre.trim());
+            }
+        }
+        return compresores;
+    }
+
+    private static boolean claseDisponible(String nombreClase) {
+        try {
+            Class.forName(nombreClase, false, ConfiguracionMongo.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
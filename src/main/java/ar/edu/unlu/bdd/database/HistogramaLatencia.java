@@ -0,0 +1,121 @@
+package ar.edu.unlu.bdd.database;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en microsegundos, seguro para hilos y sin bloqueos.
+ * <p>
+ * Usa cubetas logarítmicas con 8 subdivisiones por cada potencia de 2, por lo que
+ * registrar un valor es O(1) y los percentiles tienen un error relativo menor al 12,5 %.
+ * El consumo de memoria es fijo (unos 4 KB) sin importar cuántos valores se registren.
+ */
+public class HistogramaLatencia {
+
+    private static final int SUBCUBETAS = 8;
+    private static final int BITS_SUBCUBETA = 3;
+    private static final int CANTIDAD_CUBETAS = 62 * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(CANTIDAD_CUBETAS);
+    private final LongAdder cantidad = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra una latencia.
+     *
+     * @param microsegundos Duración medida, en microsegundos
+     */
+    public void registrar(long microsegundos) {
+        long valor = Math.max(0, microsegundos);
+        cubetas.incrementAndGet(indiceDe(valor));
+        cantidad.increment();
+        suma.add(valor);
+        maximo.accumulateAndGet(valor, Math::max);
+    }
+
+    public long getCantidad() {
+        return cantidad.sum();
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    public double getPromedio() {
+        long n = cantidad.sum();
+        return n == 0 ? 0 : (double) suma.sum() / n;
+    }
+
+    /**
+     * Calcula un percentil aproximado (límite superior de la cubeta que lo contiene).
+     *
+     * @param percentil Valor entre 0 y 100 (por ejemplo 99.9)
+     * @return la latencia del percentil en microsegundos, o 0 si no hay datos
+     */
+    public long percentil(double percentil) {
+        long total = cantidad.sum();
+        if (total == 0) {
+            return 0;
+        }
+
+        long objetivo = (long) Math.ceil(total * percentil / 100.0);
+        long acumulado = 0;
+        for (int i = 0; i < CANTIDAD_CUBETAS; i++) {
+            acumulado += cubetas.get(i);
+            if (acumulado >= Math.max(1, objetivo)) {
+                return Math.min(limiteSuperior(i), getMaximo());
+            }
+        }
+        return getMaximo();
+    }
+
+    /**
+     * Vuelve el histograma a cero.
+     */
+    public void reiniciar() {
+        for (int i = 0; i < CANTIDAD_CUBETAS; i++) {
+            cubetas.set(i, 0);
+        }
+        cantidad.reset();
+        suma.reset();
+        maximo.set(0);
+    }
+
+    /**
+     * @return resumen de una línea con cantidad, percentiles y máximo
+     */
+    public String resumen() {
+        return "n=" + getCantidad()
+                + " | p50=" + formatear(percentil(50))
+                + " | p99=" + formatear(percentil(99))
+                + " | p999=" + formatear(percentil(99.9))
+                + " | max=" + formatear(getMaximo());
+    }
+
+    private static String formatear(long microsegundos) {
+        if (microsegundos >= 1000) {
+            return String.format("%.2f ms", microsegundos / 1000.0);
+        }
+        return microsegundos + " µs";
+    }
+
+    private static int indiceDe(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int subcubeta = (int) ((valor >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1));
+        return Math.min((exponente - BITS_SUBCUBETA + 1) * SUBCUBETAS + subcubeta, CANTIDAD_CUBETAS - 1);
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int exponente = indice / SUBCUBETAS + BITS_SUBCUBETA - 1;
+        long subcubeta = indice % SUBCUBETAS;
+        return ((SUBCUBETAS + subcubeta + 1) << (exponente - BITS_SUBCUBETA)) - 1;
+    }
+}
@@ -0,0 +1,162 @@
+package ar.edu.unlu.bdd.database;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.TimeSeriesGranularity;
+import com.mongodb.client.model.TimeSeriesOptions;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Definición y creación de los índices de las colecciones.
+ * <p>
+ * Los índices únicos reemplazan las verificaciones previas de duplicados en los
+ * controllers, y los demás aceleran las búsquedas por sucursal o producto. La colección
+ * de series temporales 'ventas' también se crea acá, porque necesita opciones explícitas.
+ */
+public class Indices {
+
+    private static final Logger logger = LoggerFactory.getLogger(Indices.class);
+
+    private Indices() {
+    }
+
+    /**
+     * Crea los índices de las colecciones (y, con ellos, las colecciones que falten).
+     * La operación es idempotente: si el índice ya existe con la misma definición,
+     * MongoDB no hace nada.
+     * <p>
+     * Cada createIndex se envía en paralelo, así que el tiempo total es el del índice más
+     * lento y no la suma de todos. Se espera a que terminen antes de volver, para que los
+     * índices únicos estén activos antes de la primera escritura.
+     *
+     * @param database Base de datos sobre la que se crean los índices
+     * @throws IllegalStateException si el servidor rechazó un índice único: sin él, las altas
+     *                               aceptarían duplicados, así que no debe seguirse
+     */
+    public static void crear(MongoDatabase database) {
+        List<Runnable> tareas = List.of(
+                () -> crearIndiceUnico(database, "sucursales", "nombre"),
+                () -> crearIndiceUnico(database, "productos", "codigo"),
+                () -> crearIndiceUnico(database, "empleados", "dni"),
+                () -> crearIndiceUnico(database, "vende", "sucursal", "codigoProducto"),
+                () -> crearIndice(database, "empleados", "sucursal"),
+                () -> crearIndice(database, "vende", "codigoProducto"),
+                () -> crearIndice(database, "ventas_por_hora", "_id.zona", "_id.periodo"),
+                () -> crearIndice(database, "ventas_por_dia", "_id.zona", "_id.periodo"),
+                () -> crearColeccionVentas(database)
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(tareas.size());
+        try {
+            CompletableFuture.allOf(tareas.stream()
+                    .map(tarea -> CompletableFuture.runAsync(tarea, executor))
+                    .toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IllegalStateException) {
+                throw (IllegalStateException) e.getCause();
+            }
+            throw e;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Prepara las sucursales para el esquema embebido de vende: crea el índice multiclave
+     * sobre 'vende.codigoProducto', que solo sirve (y solo se mantiene) con ese esquema, y
+     * quita de los elementos la marca 'pedido' que dejaban las versiones anteriores de la
+     * venta de pedidos. Es idempotente, como {@link #crear}.
+     */
+    public static void crearEsquemaEmbebido(MongoDatabase database) {
+        crearIndice(database, "sucursales", "vende.codigoProducto");
+        try {
+            database.getCollection("sucursales").updateMany(Filters.exists("vende.pedido"), Updates.unset("vende.$[].pedido"));
+        } catch (Exception e) {
+            logger.error("Error al quitar las marcas de pedido de 'sucursales': {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Crea 'ventas' como colección de series temporales, con la fecha como timeField y
+     * (sucursal, codigoProducto) como metaField. Tiene que existir antes de la primera
+     * venta: un insert sobre una colección inexistente crearía una colección común.
+     */
+    private static void crearColeccionVentas(MongoDatabase database) {
+        try {
+            database.createCollection("ventas", new CreateCollectionOptions().timeSeriesOptions(
+                    new TimeSeriesOptions("fecha").metaField("meta").granularity(TimeSeriesGranularity.MINUTES)));
+        } catch (MongoCommandException e) {
+            // 48 = NamespaceExists: la colección ya fue creada en un inicio anterior
+            if (e.getErrorCode() != 48) {
+                logger.error("Error al crear la colección de series temporales 'ventas': {}", e.getErrorMessage());
+            }
+        } catch (Exception e) {
+            logger.error("Error al crear la colección de series temporales 'ventas': {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Crea un índice único sobre los campos indicados. Si los datos existentes ya tienen
+     * duplicados (código 11000), informa cuáles son. Cualquier rechazo del servidor corta el
+     * inicio; los errores de conexión solo se registran, porque sin servidor tampoco hay altas.
+     */
+    private static void crearIndiceUnico(MongoDatabase database, String coleccion, String... campos) {
+        try {
+            database.getCollection(coleccion).createIndex(Indexes.ascending(campos), new IndexOptions().unique(true));
+        } catch (MongoCommandException e) {
+            if (e.getErrorCode() == 11000) {
+                reportarDuplicados(database, coleccion, campos);
+            }
+            throw new IllegalStateException("No se pudo crear el índice único " + coleccion + List.of(campos)
+                    + ": " + e.getErrorMessage(), e);
+        } catch (Exception e) {
+            logger.error("Error al crear el índice único {}{}: {}", coleccion, List.of(campos), e.getMessage(), e);
+        }
+    }
+
+    private static void crearIndice(MongoDatabase database, String coleccion, String... campos) {
+        try {
+            database.getCollection(coleccion).createIndex(Indexes.ascending(campos));
+        } catch (Exception e) {
+            logger.error("Error al crear el índice {}{}: {}", coleccion, List.of(campos), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Muestra los valores duplicados que impiden crear un índice único.
+     */
+    private static void reportarDuplicados(MongoDatabase database, String coleccion, String... campos) {
+        Document clave = new Document();
+        for (String campo : campos) {
+            clave.append(campo, "$" + campo);
+        }
+
+        List<Document> pipeline = List.of(
+                new Document("$group", new Document("_id", clave).append("cantidad", new Document("$sum", 1))),
+                new Document("$match", new Document("cantidad", new Document("$gt", 1))),
+                new Document("$sort", new Document("cantidad", -1)),
+                new Document("$limit", 20)
+        );
+
+        List<Document> duplicados = database.getCollection(coleccion).aggregate(pipeline).into(new ArrayList<>());
+        System.out.println("ATENCIÓN: La colección '" + coleccion + "' tiene valores duplicados en " + List.of(campos)
+                + ". Elimine los duplicados para activar el índice único:");
+        for (Document duplicado : duplicados) {
+            System.out.println("    " + duplicado.get("_id", Document.class).toJson() + " -> " + duplicado.getInteger("cantidad") + " documentos");
+        }
+    }
+}
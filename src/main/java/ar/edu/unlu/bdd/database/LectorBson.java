@@ -0,0 +1,135 @@
+package ar.edu.unlu.bdd.database;
+
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lee un archivo .bson de {@code mongodump}: documentos BSON uno detrás del otro, cada uno
+ * precedido por su longitud en un int32 little-endian.
+ * <p>
+ * El archivo se mapea en memoria en ventanas de hasta {@link #TAMANIO_VENTANA} bytes y cada
+ * documento se decodifica directamente desde una vista de la ventana, sin copiar sus bytes
+ * al heap; el sistema operativo se encarga de la lectura anticipada. Un documento que cruza
+ * el final de una ventana hace que la siguiente empiece en él. Los archivos comprimidos con
+ * {@code mongodump --gzip} (.bson.gz) no pueden mapearse y deben descomprimirse antes.
+ */
+public class LectorBson implements Iterator<Document>, AutoCloseable {
+
+    /** FileChannel.map no acepta ventanas de más de Integer.MAX_VALUE bytes. */
+    public static final long TAMANIO_VENTANA = leerTamanioVentana(256L * 1024 * 1024);
+    private static final int LONGITUD_MINIMA = 5;
+
+    private final FileChannel canal;
+    private final long tamanio;
+    private final DocumentCodec codec = new DocumentCodec();
+    private MappedByteBuffer ventana;
+    private long inicioVentana;
+    private long posicion;
+
+    public LectorBson(Path archivo) throws IOException {
+        this.canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        this.tamanio = canal.size();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return posicion < tamanio;
+    }
+
+    /**
+     * @throws IllegalStateException si el archivo está truncado o un documento tiene una longitud inválida
+     * @throws UncheckedIOException si no se puede mapear el archivo
+     */
+    @Override
+    public Document next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        asegurarEnVentana(Integer.BYTES);
+        int longitud = ventana.getInt((int) (posicion - inicioVentana));
+        if (longitud < LONGITUD_MINIMA || posicion + longitud > tamanio) {
+            throw new IllegalStateException("documento BSON inválido en el byte " + posicion
+                    + " (longitud " + longitud + "): el archivo está truncado o no es un .bson de mongodump");
+        }
+        asegurarEnVentana(longitud);
+
+        int desde = (int) (posicion - inicioVentana);
+        ByteBuffer documento = ventana.duplicate().position(desde).limit(desde + longitud).slice().order(ByteOrder.LITTLE_ENDIAN);
+        posicion += longitud;
+        try (BsonBinaryReader reader = new BsonBinaryReader(documento)) {
+            return codec.decode(reader, DecoderContext.builder().build());
+        }
+    }
+
+    /**
+     * @return posición en bytes del próximo documento, para ubicar errores en el archivo
+     */
+    public long getPosicion() {
+        return posicion;
+    }
+
+    public long getTamanio() {
+        return tamanio;
+    }
+
+    @Override
+    public void close() throws IOException {
+        ventana = null;
+        canal.close();
+    }
+
+    private void asegurarEnVentana(int bytes) {
+        if (ventana != null && posicion + bytes <= inicioVentana + ventana.limit()) {
+            return;
+        }
+        long largo = Math.min(Math.max(TAMANIO_VENTANA, bytes), tamanio - posicion);
+        if (largo < bytes) {
+            throw new IllegalStateException("el archivo BSON está truncado en el byte " + posicion);
+        }
+        try {
+            ventana = canal.map(FileChannel.MapMode.READ_ONLY, posicion, largo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ventana.order(ByteOrder.LITTLE_ENDIAN);
+        inicioVentana = posicion;
+    }
+
+    private static long leerTamanioVentana(long porDefecto) {
+        String propiedad = "bdd.importacion.ventanaBson";
+        String valor = System.getProperty(propiedad);
+        if (valor == null || valor.isBlank()) {
+            return porDefecto;
+        }
+        try {
+            long bytes = Long.parseLong(valor.trim());
+            if (bytes > Integer.MAX_VALUE) {
+                LoggerFactory.getLogger(LectorBson.class)
+                        .warn("Valor demasiado grande para '{}': '{}'. Se usan {} bytes.", propiedad, valor, Integer.MAX_VALUE);
+                return Integer.MAX_VALUE;
+            }
+            if (bytes > 0) {
+                return bytes;
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo
+        }
+        LoggerFactory.getLogger(LectorBson.class)
+                .warn("Valor inválido para '{}': '{}'. Se usan {} bytes.", propiedad, valor, porDefecto);
+        return porDefecto;
+    }
+}
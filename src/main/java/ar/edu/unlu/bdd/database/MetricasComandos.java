@@ -0,0 +1,93 @@
+package ar.edu.unlu.bdd.database;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listener de comandos que registra la latencia de cada comando enviado al servidor,
+ * agrupada por tipo de comando (find, insert, update, ...) y por colección.
+ * <p>
+ * Cada evento cuesta una búsqueda en un mapa concurrente y un incremento atómico en
+ * un {@link HistogramaLatencia}, por lo que puede quedar activo en producción.
+ */
+public class MetricasComandos implements CommandListener {
+
+    private static final String SIN_COLECCION = "(sin colección)";
+
+    private final Map<Integer, String> coleccionPorRequest = new ConcurrentHashMap<>();
+    private final Map<String, HistogramaLatencia> porComando = new ConcurrentHashMap<>();
+    private final Map<String, HistogramaLatencia> porColeccion = new ConcurrentHashMap<>();
+    private final LongAdder fallidos = new LongAdder();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        coleccionPorRequest.put(event.getRequestId(), coleccionDe(event.getCommandName(), event.getCommand()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        registrar(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.MICROSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        fallidos.increment();
+        registrar(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.MICROSECONDS));
+    }
+
+    private void registrar(int requestId, String comando, long microsegundos) {
+        String coleccion = coleccionPorRequest.remove(requestId);
+        porComando.computeIfAbsent(comando, k -> new HistogramaLatencia()).registrar(microsegundos);
+        porColeccion.computeIfAbsent(coleccion != null ? coleccion : SIN_COLECCION, k -> new HistogramaLatencia())
+                .registrar(microsegundos);
+    }
+
+    /**
+     * Obtiene la colección sobre la que opera un comando. En la mayoría de los comandos
+     * es el valor del primer campo (ej: {find: "vende"}); en getMore está en "collection".
+     */
+    private static String coleccionDe(String comando, BsonDocument documento) {
+        BsonValue valor = "getMore".equals(comando) ? documento.get("collection") : documento.get(comando);
+        return valor != null && valor.isString() ? valor.asString().getValue() : SIN_COLECCION;
+    }
+
+    /**
+     * Muestra los percentiles de latencia por comando y por colección.
+     */
+    public void mostrarReporte() {
+        System.out.println("Latencia por comando:");
+        mostrarHistogramas(porComando);
+        System.out.println("Latencia por colección:");
+        mostrarHistogramas(porColeccion);
+        System.out.println("    Comandos fallidos: " + fallidos.sum());
+    }
+
+    private void mostrarHistogramas(Map<String, HistogramaLatencia> histogramas) {
+        if (histogramas.isEmpty()) {
+            System.out.println("    Sin datos.");
+            return;
+        }
+        for (Map.Entry<String, HistogramaLatencia> entrada : new TreeMap<>(histogramas).entrySet()) {
+            System.out.println("    " + entrada.getKey() + ": " + entrada.getValue().resumen());
+        }
+    }
+
+    /**
+     * Descarta todas las latencias registradas.
+     */
+    public void reiniciar() {
+        porComando.clear();
+        porColeccion.clear();
+        fallidos.reset();
+    }
+}
@@ -0,0 +1,132 @@
+package ar.edu.unlu.bdd.database;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listener del pool de conexiones que registra cuánto esperan las operaciones para
+ * obtener una conexión y qué tan cerca está el pool de saturarse. Con estos datos
+ * se puede ajustar el tamaño mínimo/máximo del pool (ver {@link ConfiguracionMongo}).
+ * <p>
+ * El driver mantiene un pool por servidor (en un replica set, uno por nodo), así que el
+ * tamaño máximo y las conexiones en uso se llevan por servidor: un pool está lleno cuando
+ * lo están sus conexiones, no las de todos.
+ */
+public class MetricasPool implements ConnectionPoolListener {
+
+    private final HistogramaLatencia esperaCheckout = new HistogramaLatencia();
+    private final Map<ServerId, Pool> pools = new ConcurrentHashMap<>();
+    private final AtomicInteger enUso = new AtomicInteger();
+    private final AtomicInteger maximoEnUso = new AtomicInteger();
+    private final AtomicInteger abiertas = new AtomicInteger();
+    private final LongAdder checkoutsConPoolLleno = new LongAdder();
+    private final LongAdder fallosPorTimeout = new LongAdder();
+    private final LongAdder otrosFallos = new LongAdder();
+
+    @Override
+    public void connectionPoolCreated(ConnectionPoolCreatedEvent event) {
+        pool(event.getServerId()).tamanioMaximo = event.getSettings().getMaxSize();
+    }
+
+    @Override
+    public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+        pools.remove(event.getServerId());
+    }
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        // Si todas las conexiones del servidor están ocupadas, esta operación va a tener que esperar
+        Pool pool = pool(event.getServerId());
+        if (pool.tamanioMaximo > 0 && pool.enUso.get() >= pool.tamanioMaximo) {
+            checkoutsConPoolLleno.increment();
+        }
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        esperaCheckout.registrar(event.getElapsedTime(TimeUnit.MICROSECONDS));
+        pool(event.getConnectionId().getServerId()).enUso.incrementAndGet();
+        maximoEnUso.accumulateAndGet(enUso.incrementAndGet(), Math::max);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        if (event.getReason() == ConnectionCheckOutFailedEvent.Reason.TIMEOUT) {
+            fallosPorTimeout.increment();
+        } else {
+            otrosFallos.increment();
+        }
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        pool(event.getConnectionId().getServerId()).enUso.decrementAndGet();
+        enUso.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        abiertas.incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        abiertas.decrementAndGet();
+    }
+
+    private Pool pool(ServerId servidor) {
+        return pools.computeIfAbsent(servidor, s -> new Pool());
+    }
+
+    /**
+     * Muestra el estado del pool y la distribución de las esperas de checkout. El máximo en
+     * uso se compara con la suma de los tamaños máximos de los pools de todos los servidores.
+     */
+    public void mostrarReporte() {
+        int capacidad = pools.values().stream().mapToInt(pool -> pool.tamanioMaximo).sum();
+        System.out.println("Pool de conexiones:");
+        System.out.println("    Conexiones abiertas: " + abiertas.get() + " | En uso: " + enUso.get()
+                + " | Máximo en uso: " + maximoEnUso.get() + " de " + capacidad);
+        if (pools.size() > 1) {
+            pools.forEach((servidor, pool) -> System.out.println("    " + servidor.getAddress() + ": en uso "
+                    + pool.enUso.get() + " de " + pool.tamanioMaximo));
+        }
+        System.out.println("    Espera de checkout: " + esperaCheckout.resumen());
+        System.out.println("    Checkouts con el pool lleno: " + checkoutsConPoolLleno.sum()
+                + " | Fallos por timeout: " + fallosPorTimeout.sum()
+                + " | Otros fallos: " + otrosFallos.sum());
+    }
+
+    /**
+     * Reinicia los contadores acumulados (no los que reflejan el estado actual del pool).
+     */
+    public void reiniciar() {
+        esperaCheckout.reiniciar();
+        maximoEnUso.set(enUso.get());
+        checkoutsConPoolLleno.reset();
+        fallosPorTimeout.reset();
+        otrosFallos.reset();
+    }
+
+    /**
+     * Estado del pool de un servidor.
+     */
+    private static final class Pool {
+        private volatile int tamanioMaximo;
+        private final AtomicInteger enUso = new AtomicInteger();
+    }
+}
@@ -1,12 +1,26 @@
 package ar.edu.unlu.bdd.database;
 
+import ar.edu.unlu.bdd.database.codec.EmpleadoCodec;
+import ar.edu.unlu.bdd.database.codec.ProductoCodec;
+import ar.edu.unlu.bdd.database.codec.SucursalCodec;
+import ar.edu.unlu.bdd.database.codec.VendeCodec;
+import ar.edu.unlu.bdd.database.codec.VentaCodec;
+import ar.edu.unlu.bdd.utils.CFZValidatorUtils;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.MongoIterable;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Clase Singleton para gestionar la conexión a la base de datos MongoDB.
  * Maneja la creación, eliminación y verificaciones de la base de datos.
@@ -16,9 +30,15 @@ public class MongoDB {
     private static final Logger logger = LoggerFactory.getLogger(MongoDB.class);
 
     // --- Variables de Conexión ---
-    private static final String CONNECTION_STRING = "mongodb://localhost:27017";
     private static final String DATABASE_NAME = "miMongoDB";
 
+    // --- Codecs de las entidades, registrados junto a los codecs por defecto ---
+    public static final CodecRegistry CODEC_REGISTRY = CodecRegistries.fromRegistries(
+            CodecRegistries.fromCodecs(new SucursalCodec(), new ProductoCodec(), new EmpleadoCodec(), new VendeCodec(),
+                    new VentaCodec()),
+            MongoClientSettings.getDefaultCodecRegistry()
+    );
+
     // --- Singleton Instance ---
     private static MongoDB instance;
 
@@ -26,28 +46,76 @@ public class MongoDB {
     private MongoClient mongoClient;
     private MongoDatabase database;
 
+    // --- Configuración y métricas del cliente ---
+    private final ConfiguracionMongo configuracion = ConfiguracionMongo.cargar();
+    private final MetricasPool metricasPool = new MetricasPool();
+    private final MetricasComandos metricasComandos = new MetricasComandos();
+
     /**
      * Constructor privado para asegurar el patrón Singleton.
      * Inicializa la conexión con el servidor y gestiona la base de datos.
+     * <p>
+     * Sin interacción ({@code -Dbdd.interactivo=false}, como en el modo script) no se listan
+     * las bases de datos ni se pregunta qué hacer con la existente: se usa directamente.
+     * El cliente no abre conexiones hasta la primera operación, así que el inicio queda
+     * limitado a la creación de índices (en paralelo). Los tiempos de cada etapa se registran en el log.
      */
     private MongoDB() {
+        boolean interactivo = CFZValidatorUtils.esInteractivo();
+        long inicio = System.nanoTime();
         try {
-            System.out.println("\n=== INICIALIZACIÓN DE MONGODB ===");
+            if (interactivo) {
+                System.out.println("\n=== INICIALIZACIÓN DE MONGODB ===");
+            }
 
-            // 1. Conectar al servidor MongoDB
-            mongoClient = MongoClients.create(CONNECTION_STRING);
+            // 1. Crear el cliente con la configuración cargada (la conexión se abre al usarlo)
+            mongoClient = MongoClients.create(configuracion.construirSettings(metricasPool, metricasComandos));
+            long finCliente = System.nanoTime();
 
             // 2. Gestión de la base de datos
-            gestionarBaseDatos();
+            if (interactivo) {
+                gestionarBaseDatos();
+            } else {
+                database = mongoClient.getDatabase(DATABASE_NAME).withCodecRegistry(CODEC_REGISTRY);
+            }
+            long finBaseDatos = System.nanoTime();
+
+            // 3. Colecciones e índices únicos y de búsqueda
+            Indices.crear(database);
+            long finIndices = System.nanoTime();
 
-            System.out.println("=== CONEXIÓN ESTABLECIDA EXITOSAMENTE ===\n");
+            // 4. Escucha opcional de cambios para el caché de referencias
+            if (Boolean.getBoolean("bdd.cache.changeStream")) {
+                CacheReferencias.getInstance().iniciarChangeStream(database);
+            }
+            long fin = System.nanoTime();
+
+            logger.info("MongoDB inicializado en {} ms (cliente: {} ms, base de datos: {} ms, índices: {} ms, caché: {} ms)",
+                    milisegundos(inicio, fin), milisegundos(inicio, finCliente), milisegundos(finCliente, finBaseDatos),
+                    milisegundos(finBaseDatos, finIndices), milisegundos(finIndices, fin));
+
+            if (interactivo) {
+                System.out.println("=== CONEXIÓN ESTABLECIDA EXITOSAMENTE ===\n");
+            }
 
+        } catch (IllegalStateException e) {
+            // Un índice único rechazado: seguir permitiría altas duplicadas
+            System.err.println("Error: " + e.getMessage());
+            logger.error("Error en inicialización de MongoDB: {}", e.getMessage(), e);
+            if (mongoClient != null) {
+                mongoClient.close();
+            }
+            throw e;
         } catch (Exception e) {
-            System.err.println("Error al conectar a MongoDB. Asegúrate de que el servidor esté corriendo en " + CONNECTION_STRING);
+            System.err.println("Error al conectar a MongoDB. Asegúrate de que el servidor esté corriendo en " + configuracion.getUri());
             logger.error("Error en inicialización de MongoDB: {}", e.getMessage(), e);
         }
     }
 
+    private static long milisegundos(long desde, long hasta) {
+        return (hasta - desde) / 1_000_000;
+    }
+
     /**
      * Gestiona la creación o eliminación de la base de datos.
      */
@@ -60,8 +128,8 @@ public class MongoDB {
                 System.out.println("Se encontraron las siguientes colecciones:");
                 mostrarColecciones();
 
-                // Preguntar al usuario qué hacer
-                if (solicitarDecisionUsuario()) {
+                // Preguntar al usuario qué hacer (sin interacción se conservan los datos)
+                if (CFZValidatorUtils.esInteractivo() && solicitarDecisionUsuario()) {
                     eliminarBaseDatos();
                     System.out.println("Base de datos eliminada. Creando nueva base de datos...");
                 } else {
@@ -72,7 +140,7 @@ public class MongoDB {
             }
 
             // Obtener/crear referencia a la base de datos
-            database = mongoClient.getDatabase(DATABASE_NAME);
+            database = mongoClient.getDatabase(DATABASE_NAME).withCodecRegistry(CODEC_REGISTRY);
 
         } catch (Exception e) {
             logger.error("Error al gestionar la base de datos: {}", e.getMessage(), e);
@@ -107,20 +175,18 @@ public class MongoDB {
      */
     private void mostrarColecciones() {
         try {
-            if (verificarExistenciaBaseDatos()) {
-                // Crear referencia temporal para listar colecciones
-                MongoDatabase tempDb = mongoClient.getDatabase(DATABASE_NAME);
-                MongoIterable<String> collections = tempDb.listCollectionNames();
-
-                int count = 0;
-                for (String collectionName : collections) {
-                    System.out.println("    " + collectionName);
-                    count++;
-                }
+            // Solo se llama cuando ya se verificó que la base existe
+            MongoDatabase tempDb = mongoClient.getDatabase(DATABASE_NAME);
+            MongoIterable<String> collections = tempDb.listCollectionNames();
+
+            int count = 0;
+            for (String collectionName : collections) {
+                System.out.println("    " + collectionName);
+                count++;
+            }
 
-                if (count == 0) {
-                    System.out.println("No hay colecciones en la base de datos.");
-                }
+            if (count == 0) {
+                System.out.println("No hay colecciones en la base de datos.");
             }
         } catch (Exception e) {
             logger.error("Error al mostrar colecciones: {}", e.getMessage(), e);
@@ -139,14 +205,14 @@ public class MongoDB {
 
         while (true) {
             try {
-                int opcion = ar.edu.unlu.bdd.utils.CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese su opción (1-2): ");
+                int opcion = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese su opción (1-2): ");
 
                 if (opcion == 1) {
                     return false;
                 } else if (opcion == 2) {
                     // Confirmar eliminación
                     System.out.println("\nATENCIÓN: Esta acción eliminará TODOS los datos de la base de datos '" + DATABASE_NAME + "'");
-                    String confirmacion = ar.edu.unlu.bdd.utils.CFZValidatorUtils.solicitarEntradaPorTeclado("¿Está seguro que desea continuar? (si/no): ");
+                    String confirmacion = CFZValidatorUtils.solicitarEntradaPorTeclado("¿Está seguro que desea continuar? (si/no): ");
 
                     if ("si".equals(confirmacion.toLowerCase()) || "s".equals(confirmacion.toLowerCase()) || "yes".equals(confirmacion.toLowerCase()) || "y".equals(confirmacion.toLowerCase())) {
                         return true;
@@ -169,6 +235,7 @@ public class MongoDB {
     private void eliminarBaseDatos() {
         try {
             mongoClient.getDatabase(DATABASE_NAME).drop();
+            CacheReferencias.getInstance().limpiar();
             logger.info("Base de datos '{}' eliminada completamente.", DATABASE_NAME);
             System.out.println("Base de datos '" + DATABASE_NAME + "' eliminada exitosamente.");
 
@@ -188,7 +255,7 @@ public class MongoDB {
      *
      * @return La instancia de la conexión a MongoDB.
      */
-    public static MongoDB getInstance() {
+    public static synchronized MongoDB getInstance() {
         if (instance == null) {
             instance = new MongoDB();
         }
@@ -205,6 +272,15 @@ public class MongoDB {
         return database;
     }
 
+    /**
+     * Devuelve el cliente, necesario para abrir sesiones y transacciones.
+     *
+     * @return El objeto MongoClient.
+     */
+    public MongoClient getClient() {
+        return mongoClient;
+    }
+
     /**
      * Método opcional para cerrar la conexión con el servidor.
      * Ideal para llamarlo al cerrar la aplicación.
@@ -223,11 +299,13 @@ public class MongoDB {
     public void eliminarBaseDatosManualmente() {
         eliminarBaseDatos();
         // Recrear referencia después de eliminar
-        database = mongoClient.getDatabase(DATABASE_NAME);
+        database = mongoClient.getDatabase(DATABASE_NAME).withCodecRegistry(CODEC_REGISTRY);
+        Indices.crear(database);
     }
 
     /**
      * Verifica si existen datos en alguna colección de la base de datos.
+     * Usa el conteo estimado (metadatos de la colección), que no recorre los documentos.
      *
      * @return true si hay al menos un elemento en alguna colección
      */
@@ -237,7 +315,7 @@ public class MongoDB {
                 MongoIterable<String> collectionNames = database.listCollectionNames();
 
                 for (String collectionName : collectionNames) {
-                    long count = database.getCollection(collectionName).countDocuments();
+                    long count = database.getCollection(collectionName).estimatedDocumentCount();
                     if (count > 0) {
                         return true;
                     }
@@ -252,26 +330,37 @@ public class MongoDB {
 
     /**
      * Muestra estadísticas de la base de datos actual.
+     * <p>
+     * Los datos salen de dbStats y de $collStats, que leen los metadatos del motor de
+     * almacenamiento: el tiempo de respuesta no depende de la cantidad de documentos.
      */
     public void mostrarEstadisticas() {
         try {
+            long inicio = System.nanoTime();
             System.out.println("\nESTADÍSTICAS DE LA BASE DE DATOS '" + DATABASE_NAME + "':");
             System.out.println("=============================================================");
 
-            MongoIterable<String> collectionNames = database.listCollectionNames();
-            int totalColecciones = 0;
-            long totalDocumentos = 0;
-
+            List<String> collectionNames = database.listCollectionNames().into(new ArrayList<>());
+            Collections.sort(collectionNames);
             for (String collectionName : collectionNames) {
-                long count = database.getCollection(collectionName).countDocuments();
-                System.out.println("Colección '" + collectionName + "': " + count + " documentos");
-                totalDocumentos += count;
-                totalColecciones++;
+                if (!collectionName.startsWith("system.")) {
+                    mostrarEstadisticasColeccion(collectionName);
+                }
             }
 
+            Document dbStats = database.runCommand(new Document("dbStats", 1));
             System.out.println("=============================================================");
-            System.out.println("Total colecciones: " + totalColecciones);
-            System.out.println("Total documentos: " + totalDocumentos);
+            System.out.println("Total colecciones: " + numero(dbStats, "collections"));
+            System.out.println("Total documentos: " + numero(dbStats, "objects")
+                    + " | Tamaño promedio: " + formatearBytes(numero(dbStats, "avgObjSize")));
+            System.out.println("Datos: " + formatearBytes(numero(dbStats, "dataSize"))
+                    + " | En disco: " + formatearBytes(numero(dbStats, "storageSize"))
+                    + " | Índices: " + numero(dbStats, "indexes") + " (" + formatearBytes(numero(dbStats, "indexSize")) + ")");
+            System.out.println("Estadísticas obtenidas en " + (System.nanoTime() - inicio) / 1_000_000 + " ms.");
+            System.out.println("=============================================================");
+            configuracion.mostrarConfiguracion();
+            metricasPool.mostrarReporte();
+            metricasComandos.mostrarReporte();
             System.out.println("=============================================================\n");
 
         } catch (Exception e) {
@@ -279,4 +368,66 @@ public class MongoDB {
             System.err.println("Error al obtener estadísticas de la base de datos");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Muestra cantidad de documentos, tamaños y tamaño de cada índice de una colección.
+     * Si $collStats no está disponible (por ejemplo, en una vista), muestra solo el conteo estimado.
+     */
+    private void mostrarEstadisticasColeccion(String collectionName) {
+        try {
+            Document resultado = database.getCollection(collectionName)
+                    .aggregate(List.of(new Document("$collStats", new Document("storageStats", new Document()))))
+                    .first();
+            Document stats = resultado != null ? resultado.get("storageStats", Document.class) : null;
+            if (stats == null) {
+                throw new IllegalStateException("sin storageStats");
+            }
+
+            System.out.println("Colección '" + collectionName + "': " + numero(stats, "count") + " documentos"
+                    + " | Promedio: " + formatearBytes(numero(stats, "avgObjSize"))
+                    + " | Datos: " + formatearBytes(numero(stats, "size"))
+                    + " | En disco: " + formatearBytes(numero(stats, "storageSize")));
+
+            Document indexSizes = stats.get("indexSizes", Document.class);
+            if (indexSizes != null) {
+                for (String indice : indexSizes.keySet()) {
+                    System.out.println("    Índice '" + indice + "': " + formatearBytes(numero(indexSizes, indice)));
+                }
+            }
+        } catch (Exception e) {
+            long count = database.getCollection(collectionName).estimatedDocumentCount();
+            System.out.println("Colección '" + collectionName + "': " + count + " documentos (estimado)");
+        }
+    }
+
+    /**
+     * Lee un valor numérico de un resultado de comando. El servidor puede devolverlo como
+     * int, long o double según su magnitud.
+     */
+    private static long numero(Document documento, String campo) {
+        Object valor = documento.get(campo);
+        return valor instanceof Number ? ((Number) valor).longValue() : 0;
+    }
+
+    private static String formatearBytes(long bytes) {
+        if (bytes >= 1024L * 1024 * 1024) {
+            return String.format("%.2f GB", bytes / (1024.0 * 1024 * 1024));
+        }
+        if (bytes >= 1024L * 1024) {
+            return String.format("%.2f MB", bytes / (1024.0 * 1024));
+        }
+        if (bytes >= 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return bytes + " B";
+    }
+
+    /**
+     * Reinicia las métricas acumuladas del cliente.
+     */
+    public void reiniciarMetricas() {
+        metricasPool.reiniciar();
+        metricasComandos.reiniciar();
+        System.out.println("Métricas reiniciadas.");
+    }
+}
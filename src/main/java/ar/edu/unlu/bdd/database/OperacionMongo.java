@@ -0,0 +1,113 @@
+package ar.edu.unlu.bdd.database;
+
+import ar.edu.unlu.bdd.repository.TiempoMaximo;
+import com.mongodb.client.MongoCollection;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Operaciones de los controllers con un {@link PerfilOperacion} y un tiempo máximo propios.
+ * Las altas, bajas y modificaciones usan el perfil por defecto; las consultas, el de CONSULTA.
+ * <p>
+ * El perfil de cada operación se cambia con {@code -Dbdd.perfil.operacion.<clave>=<perfil>},
+ * por ejemplo {@code -Dbdd.perfil.operacion.importacion=defecto}, y el tiempo máximo de sus
+ * lecturas (find y aggregate, con maxTimeMS) con {@code -Dbdd.tiempo.<clave>Ms=<milisegundos>},
+ * donde 0 es sin límite. Se leen una vez al iniciar; una llamada puede usar otro límite con
+ * {@link TiempoMaximo#con}.
+ */
+public enum OperacionMongo {
+
+    /** Consultas por clave y listados de las cuatro entidades. */
+    CONSULTA("consulta", PerfilOperacion.DEFECTO, 5_000),
+    /** Importación masiva e inserciones por lotes. */
+    IMPORTACION("importacion", PerfilOperacion.MASIVO, 0),
+    /** Ventas y pedidos: el descuento de stock. */
+    VENTA("venta", PerfilOperacion.VENTA, 2_000),
+    /** Ajuste masivo de precios (el conteo previo; la escritura no tiene límite). */
+    AJUSTE_PRECIOS("ajustePrecios", PerfilOperacion.VENTA, 30_000),
+    /** Registro histórico de ventas, escrito en lotes por {@link ar.edu.unlu.bdd.repository.RegistroVentas}. */
+    REGISTRO_VENTAS("registroVentas", PerfilOperacion.DEFECTO, 0),
+    /** Valoración de inventario por sucursal. */
+    VALORACION("valoracion", PerfilOperacion.REPORTE, 30_000),
+    /**
+     * Resumen de ventas por período. Lee en el primario: se ejecuta justo después de escribir
+     * las ventas pendientes, y un secundario podría no tenerlas todavía.
+     */
+    RESUMEN_VENTAS("resumenVentas", PerfilOperacion.DEFECTO, 30_000),
+    /**
+     * Lectura del stock total de un producto desde la vista materializada. Lee en el primario:
+     * la vista se refresca ahí justo antes de leerla.
+     */
+    STOCK_PRODUCTO("stockProducto", PerfilOperacion.DEFECTO, 2_000),
+    /** Refresco y reconstrucción de la vista de stock por producto (la agregación con $merge). */
+    REFRESCO_STOCK("refrescoStock", PerfilOperacion.DEFECTO, 30_000),
+    /** Exportación de colecciones: cada parte es un cursor largo, así que por defecto no tiene límite. */
+    EXPORTACION("exportacion", PerfilOperacion.REPORTE, 0);
+
+    private final String clave;
+    private final PerfilOperacion perfil;
+    private final long tiempoMaximoMs;
+
+    OperacionMongo(String clave, PerfilOperacion porDefecto, long tiempoMaximoPorDefectoMs) {
+        this.clave = clave;
+        this.perfil = leerPerfil(clave, porDefecto);
+        this.tiempoMaximoMs = leerTiempoMaximo(clave, tiempoMaximoPorDefectoMs);
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    public PerfilOperacion getPerfil() {
+        return perfil;
+    }
+
+    /**
+     * @return el tiempo máximo de cada lectura en milisegundos (0 = sin límite): el de la
+     *         llamada en curso si se indicó con {@link TiempoMaximo#con}, o el configurado
+     */
+    public long getTiempoMaximoMs() {
+        Long sobrescrito = TiempoMaximo.sobrescrito();
+        return sobrescrito != null ? sobrescrito : tiempoMaximoMs;
+    }
+
+    /**
+     * @see PerfilOperacion#aplicar(MongoCollection)
+     */
+    public <T> MongoCollection<T> aplicar(MongoCollection<T> coleccion) {
+        return perfil.aplicar(coleccion);
+    }
+
+    private static PerfilOperacion leerPerfil(String clave, PerfilOperacion porDefecto) {
+        String propiedad = "bdd.perfil.operacion." + clave;
+        String valor = System.getProperty(propiedad);
+        if (valor == null || valor.isBlank()) {
+            return porDefecto;
+        }
+        try {
+            return PerfilOperacion.desde(valor);
+        } catch (IllegalArgumentException e) {
+            LoggerFactory.getLogger(OperacionMongo.class)
+                    .warn("{} Se usa '{}' para '{}'.", e.getMessage(), porDefecto.getNombre(), propiedad);
+            return porDefecto;
+        }
+    }
+
+    private static long leerTiempoMaximo(String clave, long porDefecto) {
+        String propiedad = "bdd.tiempo." + clave + "Ms";
+        String valor = System.getProperty(propiedad);
+        if (valor == null || valor.isBlank()) {
+            return porDefecto;
+        }
+        try {
+            long milisegundos = Long.parseLong(valor.trim());
+            if (milisegundos >= 0) {
+                return milisegundos;
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo
+        }
+        LoggerFactory.getLogger(OperacionMongo.class)
+                .warn("Valor inválido para '{}': '{}'. Se usan {} ms.", propiedad, valor, porDefecto);
+        return porDefecto;
+    }
+}
@@ -0,0 +1,134 @@
+package ar.edu.unlu.bdd.database;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoCollection;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Perfiles de durabilidad y de lectura que se aplican a las colecciones según la operación
+ * ({@link OperacionMongo}), en lugar de usar para todo el write concern del cliente.
+ * <p>
+ * - defecto: lo que indique la URI o el driver
+ * - masivo: w=1 sin journal; la escritura se confirma antes de llegar al disco, para cargas
+ *   que pueden repetirse si el servidor se cae
+ * - venta: w=majority con journal, y lectura en el primario; un cambio de stock confirmado
+ *   no se pierde aunque el primario se caiga
+ * - reporte: lectura en un secundario si hay alguno disponible; los resultados pueden estar
+ *   levemente atrasados respecto del primario
+ * <p>
+ * Cada perfil se ajusta con las propiedades del sistema {@code bdd.perfil.<nombre>.escritura}
+ * (un número de nodos o 'majority'), {@code bdd.perfil.<nombre>.journal} (true/false) y
+ * {@code bdd.perfil.<nombre>.lectura} (primary, primaryPreferred, secondary, secondaryPreferred
+ * o nearest). Contra un servidor sin réplicas, majority equivale a w=1 y las lecturas van siempre
+ * al único nodo.
+ */
+public enum PerfilOperacion {
+
+    DEFECTO("defecto", null, null, null),
+    MASIVO("masivo", "1", false, null),
+    VENTA("venta", "majority", true, "primary"),
+    REPORTE("reporte", null, null, "secondaryPreferred");
+
+    private final String nombre;
+    private final WriteConcern writeConcern;
+    private final ReadPreference preferenciaLectura;
+
+    PerfilOperacion(String nombre, String escritura, Boolean journal, String lectura) {
+        this.nombre = nombre;
+        this.writeConcern = leerWriteConcern(nombre, escritura, journal);
+        this.preferenciaLectura = leerPreferenciaLectura(nombre, lectura);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * @return el write concern del perfil, o null si se usa el del cliente
+     */
+    public WriteConcern getWriteConcern() {
+        return writeConcern;
+    }
+
+    /**
+     * @return la preferencia de lectura del perfil, o null si se usa la del cliente
+     */
+    public ReadPreference getPreferenciaLectura() {
+        return preferenciaLectura;
+    }
+
+    /**
+     * Devuelve la colección con el write concern y la preferencia de lectura del perfil. La
+     * colección original no cambia; la nueva comparte el cliente y sus conexiones.
+     */
+    public <T> MongoCollection<T> aplicar(MongoCollection<T> coleccion) {
+        MongoCollection<T> resultado = coleccion;
+        if (writeConcern != null) {
+            resultado = resultado.withWriteConcern(writeConcern);
+        }
+        if (preferenciaLectura != null) {
+            resultado = resultado.withReadPreference(preferenciaLectura);
+        }
+        return resultado;
+    }
+
+    /**
+     * @return la configuración efectiva del perfil, para mostrar
+     */
+    public String describir() {
+        String escritura = writeConcern == null ? "la del cliente"
+                : "w=" + (writeConcern.getWObject() == null ? "defecto" : writeConcern.getWObject())
+                + (writeConcern.getJournal() != null ? ", journal=" + writeConcern.getJournal() : "");
+        String lectura = preferenciaLectura == null ? "la del cliente" : preferenciaLectura.getName();
+        return "escritura: " + escritura + " | lectura: " + lectura;
+    }
+
+    public static PerfilOperacion desde(String nombre) {
+        for (PerfilOperacion perfil : values()) {
+            if (perfil.nombre.equalsIgnoreCase(nombre.trim())) {
+                return perfil;
+            }
+        }
+        throw new IllegalArgumentException("Perfil desconocido '" + nombre + "'. Valores válidos: defecto, masivo, venta, reporte.");
+    }
+
+    private static WriteConcern leerWriteConcern(String nombre, String escrituraPorDefecto, Boolean journalPorDefecto) {
+        String clave = "bdd.perfil." + nombre + ".escritura";
+        String escritura = System.getProperty(clave, escrituraPorDefecto == null ? "" : escrituraPorDefecto).trim();
+        String journal = System.getProperty("bdd.perfil." + nombre + ".journal",
+                journalPorDefecto == null ? "" : journalPorDefecto.toString()).trim();
+
+        WriteConcern writeConcern = null;
+        if ("majority".equalsIgnoreCase(escritura)) {
+            writeConcern = WriteConcern.MAJORITY;
+        } else if (!escritura.isEmpty()) {
+            try {
+                writeConcern = new WriteConcern(Integer.parseInt(escritura));
+            } catch (IllegalArgumentException e) {
+                // Incluye los números inválidos (NumberFormatException) y los negativos
+                LoggerFactory.getLogger(PerfilOperacion.class)
+                        .warn("Valor inválido para '{}': '{}'. Se usa el del cliente.", clave, escritura);
+            }
+        }
+        if (!journal.isEmpty()) {
+            writeConcern = (writeConcern != null ? writeConcern : WriteConcern.ACKNOWLEDGED).withJournal(Boolean.parseBoolean(journal));
+        }
+        return writeConcern;
+    }
+
+    private static ReadPreference leerPreferenciaLectura(String nombre, String lecturaPorDefecto) {
+        String clave = "bdd.perfil." + nombre + ".lectura";
+        String lectura = System.getProperty(clave, lecturaPorDefecto == null ? "" : lecturaPorDefecto).trim();
+        if (lectura.isEmpty()) {
+            return null;
+        }
+        try {
+            return ReadPreference.valueOf(lectura);
+        } catch (IllegalArgumentException e) {
+            LoggerFactory.getLogger(PerfilOperacion.class)
+                    .warn("Valor inválido para '{}': '{}'. Se usa la del cliente.", clave, lectura);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ar.edu.unlu.bdd.database.codec;
+
+import ar.edu.unlu.bdd.entity.Empleado;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Codec que convierte documentos de la colección 'empleados' directamente en {@link Empleado}.
+ * Los campos desconocidos (incluido _id) se saltean sin materializarlos.
+ */
+public class EmpleadoCodec implements Codec<Empleado> {
+
+    @Override
+    public void encode(BsonWriter writer, Empleado empleado, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writer.writeInt32("dni", empleado.getDni());
+        writer.writeString("nombre", empleado.getNombre());
+        writer.writeString("apellido", empleado.getApellido());
+        writer.writeString("sucursal", empleado.getSucursal());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Empleado decode(BsonReader reader, DecoderContext decoderContext) {
+        int dni = 0;
+        String nombre = null;
+        String apellido = null;
+        String sucursal = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "dni":
+                    dni = LecturaBson.leerInt(reader);
+                    break;
+                case "nombre":
+                    nombre = LecturaBson.leerString(reader);
+                    break;
+                case "apellido":
+                    apellido = LecturaBson.leerString(reader);
+                    break;
+                case "sucursal":
+                    sucursal = LecturaBson.leerString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        return new Empleado(dni, nombre, apellido, sucursal);
+    }
+
+    @Override
+    public Class<Empleado> getEncoderClass() {
+        return Empleado.class;
+    }
+}
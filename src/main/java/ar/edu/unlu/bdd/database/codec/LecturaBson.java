@@ -0,0 +1,77 @@
+package ar.edu.unlu.bdd.database.codec;
+
+import org.bson.BsonInvalidOperationException;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+
+/**
+ * Lecturas de campos BSON tolerantes al tipo numérico con que se guardó el valor
+ * (por ejemplo, un precio importado desde JSON como entero). Un valor que no puede
+ * representarse sin pérdida, o que no es un número, hace fallar la decodificación del
+ * documento en lugar de leerse como 0.
+ */
+final class LecturaBson {
+
+    private LecturaBson() {
+    }
+
+    /**
+     * @throws BsonInvalidOperationException si el valor no es numérico, no es entero o no entra en un int
+     */
+    static int leerInt(BsonReader reader) {
+        BsonType tipo = reader.getCurrentBsonType();
+        switch (tipo) {
+            case INT32:
+                return reader.readInt32();
+            case INT64: {
+                String campo = reader.getCurrentName();
+                long valor = reader.readInt64();
+                if (valor < Integer.MIN_VALUE || valor > Integer.MAX_VALUE) {
+                    throw invalido(campo, "el valor " + valor + " no entra en un entero de 32 bits");
+                }
+                return (int) valor;
+            }
+            case DOUBLE: {
+                String campo = reader.getCurrentName();
+                double valor = reader.readDouble();
+                if (valor != Math.rint(valor) || valor < Integer.MIN_VALUE || valor > Integer.MAX_VALUE) {
+                    throw invalido(campo, "el valor " + valor + " no es un entero de 32 bits");
+                }
+                return (int) valor;
+            }
+            default:
+                throw invalido(reader.getCurrentName(), "se esperaba un número y se encontró " + tipo);
+        }
+    }
+
+    /**
+     * @throws BsonInvalidOperationException si el valor no es numérico
+     */
+    static double leerDouble(BsonReader reader) {
+        BsonType tipo = reader.getCurrentBsonType();
+        switch (tipo) {
+            case DOUBLE:
+                return reader.readDouble();
+            case INT32:
+                return reader.readInt32();
+            case INT64:
+                return reader.readInt64();
+            case DECIMAL128:
+                return reader.readDecimal128().doubleValue();
+            default:
+                throw invalido(reader.getCurrentName(), "se esperaba un número y se encontró " + tipo);
+        }
+    }
+
+    static String leerString(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.STRING) {
+            return reader.readString();
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    private static BsonInvalidOperationException invalido(String campo, String motivo) {
+        return new BsonInvalidOperationException("Campo '" + campo + "': " + motivo + ".");
+    }
+}
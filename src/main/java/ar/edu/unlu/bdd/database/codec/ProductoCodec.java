@@ -0,0 +1,57 @@
+package ar.edu.unlu.bdd.database.codec;
+
+import ar.edu.unlu.bdd.entity.Producto;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Codec que convierte documentos de la colección 'productos' directamente en {@link Producto}.
+ * Los campos desconocidos (incluido _id) se saltean sin materializarlos.
+ */
+public class ProductoCodec implements Codec<Producto> {
+
+    @Override
+    public void encode(BsonWriter writer, Producto producto, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writer.writeInt32("codigo", producto.getCodigo());
+        writer.writeString("descripcion", producto.getDescripcion());
+        writer.writeInt32("stock", producto.getStock());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Producto decode(BsonReader reader, DecoderContext decoderContext) {
+        int codigo = 0;
+        String descripcion = null;
+        int stock = 0;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "codigo":
+                    codigo = LecturaBson.leerInt(reader);
+                    break;
+                case "descripcion":
+                    descripcion = LecturaBson.leerString(reader);
+                    break;
+                case "stock":
+                    stock = LecturaBson.leerInt(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        return new Producto(codigo, descripcion, stock);
+    }
+
+    @Override
+    public Class<Producto> getEncoderClass() {
+        return Producto.class;
+    }
+}
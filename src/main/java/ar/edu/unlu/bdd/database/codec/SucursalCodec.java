@@ -0,0 +1,52 @@
+package ar.edu.unlu.bdd.database.codec;
+
+import ar.edu.unlu.bdd.entity.Sucursal;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Codec que convierte documentos de la colección 'sucursales' directamente en {@link Sucursal}.
+ * Los campos desconocidos (incluido _id) se saltean sin materializarlos.
+ */
+public class SucursalCodec implements Codec<Sucursal> {
+
+    @Override
+    public void encode(BsonWriter writer, Sucursal sucursal, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writer.writeString("nombre", sucursal.getNombre());
+        writer.writeString("direccion", sucursal.getDireccion());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Sucursal decode(BsonReader reader, DecoderContext decoderContext) {
+        String nombre = null;
+        String direccion = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "nombre":
+                    nombre = LecturaBson.leerString(reader);
+                    break;
+                case "direccion":
+                    direccion = LecturaBson.leerString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        return new Sucursal(nombre, direccion);
+    }
+
+    @Override
+    public Class<Sucursal> getEncoderClass() {
+        return Sucursal.class;
+    }
+}
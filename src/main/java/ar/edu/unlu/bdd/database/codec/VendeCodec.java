@@ -0,0 +1,62 @@
+package ar.edu.unlu.bdd.database.codec;
+
+import ar.edu.unlu.bdd.entity.Vende;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Codec que convierte documentos de la colección 'vende' directamente en {@link Vende}.
+ * Los campos desconocidos (incluido _id) se saltean sin materializarlos.
+ */
+public class VendeCodec implements Codec<Vende> {
+
+    @Override
+    public void encode(BsonWriter writer, Vende vende, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writer.writeString("sucursal", vende.getSucursal());
+        writer.writeInt32("codigoProducto", vende.getCodigoProducto());
+        writer.writeDouble("precio", vende.getPrecio());
+        writer.writeInt32("stock", vende.getStock());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Vende decode(BsonReader reader, DecoderContext decoderContext) {
+        String sucursal = null;
+        int codigoProducto = 0;
+        double precio = 0;
+        int stock = 0;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "sucursal":
+                    sucursal = LecturaBson.leerString(reader);
+                    break;
+                case "codigoProducto":
+                    codigoProducto = LecturaBson.leerInt(reader);
+                    break;
+                case "precio":
+                    precio = LecturaBson.leerDouble(reader);
+                    break;
+                case "stock":
+                    stock = LecturaBson.leerInt(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        return new Vende(sucursal, codigoProducto, precio, stock);
+    }
+
+    @Override
+    public Class<Vende> getEncoderClass() {
+        return Vende.class;
+    }
+}
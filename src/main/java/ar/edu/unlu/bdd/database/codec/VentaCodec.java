@@ -0,0 +1,83 @@
+package ar.edu.unlu.bdd.database.codec;
+
+import ar.edu.unlu.bdd.entity.Venta;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.time.Instant;
+
+/**
+ * Codec de los eventos de la colección de series temporales 'ventas'.
+ * <p>
+ * La sucursal y el producto van dentro de 'meta' (el metaField de la colección), así
+ * MongoDB agrupa en el mismo bucket las ventas de un mismo producto y sucursal.
+ */
+public class VentaCodec implements Codec<Venta> {
+
+    @Override
+    public void encode(BsonWriter writer, Venta venta, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writer.writeDateTime("fecha", venta.getFecha().toEpochMilli());
+        writer.writeStartDocument("meta");
+        writer.writeString("sucursal", venta.getSucursal());
+        writer.writeInt32("codigoProducto", venta.getCodigoProducto());
+        writer.writeEndDocument();
+        writer.writeInt32("cantidad", venta.getCantidad());
+        writer.writeDouble("precio", venta.getPrecio());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Venta decode(BsonReader reader, DecoderContext decoderContext) {
+        String sucursal = null;
+        int codigoProducto = 0;
+        int cantidad = 0;
+        double precio = 0;
+        Instant fecha = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "fecha":
+                    fecha = Instant.ofEpochMilli(reader.readDateTime());
+                    break;
+                case "meta":
+                    reader.readStartDocument();
+                    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                        switch (reader.readName()) {
+                            case "sucursal":
+                                sucursal = LecturaBson.leerString(reader);
+                                break;
+                            case "codigoProducto":
+                                codigoProducto = LecturaBson.leerInt(reader);
+                                break;
+                            default:
+                                reader.skipValue();
+                        }
+                    }
+                    reader.readEndDocument();
+                    break;
+                case "cantidad":
+                    cantidad = LecturaBson.leerInt(reader);
+                    break;
+                case "precio":
+                    precio = LecturaBson.leerDouble(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        return new Venta(sucursal, codigoProducto, cantidad, precio, fecha);
+    }
+
+    @Override
+    public Class<Venta> getEncoderClass() {
+        return Venta.class;
+    }
+}
@@ -1,8 +1,31 @@
 package ar.edu.unlu.bdd.entity;
 
 public class Empleado {
-    private int dni;
-    private String nombre;
-    private String apellido;
-    private String sucursal;
+    private final int dni;
+    private final String nombre;
+    private final String apellido;
+    private final String sucursal;
+
+    public Empleado(int dni, String nombre, String apellido, String sucursal) {
+        this.dni = dni;
+        this.nombre = nombre;
+        this.apellido = apellido;
+        this.sucursal = sucursal;
+    }
+
+    public int getDni() {
+        return dni;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getApellido() {
+        return apellido;
+    }
+
+    public String getSucursal() {
+        return sucursal;
+    }
 }
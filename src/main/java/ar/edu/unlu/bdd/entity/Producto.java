@@ -1,7 +1,25 @@
 package ar.edu.unlu.bdd.entity;
 
 public class Producto {
-    private int codigo;
-    private String descripcion;
-    private int stock;
+    private final int codigo;
+    private final String descripcion;
+    private final int stock;
+
+    public Producto(int codigo, String descripcion, int stock) {
+        this.codigo = codigo;
+        this.descripcion = descripcion;
+        this.stock = stock;
+    }
+
+    public int getCodigo() {
+        return codigo;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public int getStock() {
+        return stock;
+    }
 }
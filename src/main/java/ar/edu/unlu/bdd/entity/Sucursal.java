@@ -1,6 +1,19 @@
 package ar.edu.unlu.bdd.entity;
 
 public class Sucursal {
-    private String nombre;
-    private String direccion;
+    private final String nombre;
+    private final String direccion;
+
+    public Sucursal(String nombre, String direccion) {
+        this.nombre = nombre;
+        this.direccion = direccion;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getDireccion() {
+        return direccion;
+    }
 }
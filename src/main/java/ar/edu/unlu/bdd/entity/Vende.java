@@ -1,8 +1,31 @@
 package ar.edu.unlu.bdd.entity;
 
 public class Vende {
-    private String sucursal;
-    private int codigoProducto;
-    private double precio;
-    private int stock;
+    private final String sucursal;
+    private final int codigoProducto;
+    private final double precio;
+    private final int stock;
+
+    public Vende(String sucursal, int codigoProducto, double precio, int stock) {
+        this.sucursal = sucursal;
+        this.codigoProducto = codigoProducto;
+        this.precio = precio;
+        this.stock = stock;
+    }
+
+    public String getSucursal() {
+        return sucursal;
+    }
+
+    public int getCodigoProducto() {
+        return codigoProducto;
+    }
+
+    public double getPrecio() {
+        return precio;
+    }
+
+    public int getStock() {
+        return stock;
+    }
 }
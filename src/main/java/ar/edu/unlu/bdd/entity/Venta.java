@@ -0,0 +1,43 @@
+package ar.edu.unlu.bdd.entity;
+
+import java.time.Instant;
+
+public class Venta {
+    private final String sucursal;
+    private final int codigoProducto;
+    private final int cantidad;
+    private final double precio;
+    private final Instant fecha;
+
+    public Venta(String sucursal, int codigoProducto, int cantidad, double precio, Instant fecha) {
+        this.sucursal = sucursal;
+        this.codigoProducto = codigoProducto;
+        this.cantidad = cantidad;
+        this.precio = precio;
+        this.fecha = fecha;
+    }
+
+    public String getSucursal() {
+        return sucursal;
+    }
+
+    public int getCodigoProducto() {
+        return codigoProducto;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public double getPrecio() {
+        return precio;
+    }
+
+    public Instant getFecha() {
+        return fecha;
+    }
+
+    public double getImporte() {
+        return cantidad * precio;
+    }
+}
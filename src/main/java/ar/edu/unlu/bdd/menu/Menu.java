@@ -1,67 +1,120 @@
 package ar.edu.unlu.bdd.menu;
 
 import ar.edu.unlu.bdd.controller.ControllerEmpleado;
+import ar.edu.unlu.bdd.controller.ControllerExportacion;
+import ar.edu.unlu.bdd.controller.ControllerImportacion;
+import ar.edu.unlu.bdd.controller.ControllerMigracion;
 import ar.edu.unlu.bdd.controller.ControllerProducto;
 import ar.edu.unlu.bdd.controller.ControllerSucursal;
 import ar.edu.unlu.bdd.controller.ControllerVende;
+import ar.edu.unlu.bdd.database.MongoDB;
+import ar.edu.unlu.bdd.repository.Repositorios;
 import ar.edu.unlu.bdd.utils.CFZValidatorUtils;
-import com.mongodb.client.MongoDatabase;
 
 
 public class Menu {
-    public Menu(MongoDatabase database) {
+    public Menu(Repositorios repositorios) {
         int opc;
         do {
             System.out.println("\n----------------------------------------------");
-            System.out.println("Actividad 4 - BD2");
+            System.out.println("Actividad 4 - BD2 (motor: " + repositorios.getMotor()
+                    + (repositorios.esMongo() ? ", vende: " + repositorios.getEsquemaVende() : "") + ")");
             System.out.println("Seleccione la tabla con la que desea operar:");
             System.out.println("1 - Empleado");
             System.out.println("2 - Producto");
             System.out.println("3 - Sucursal");
             System.out.println("4 - Productos a vender");
-            System.out.println("5 - Salir");
+            System.out.println("5 - Importación masiva");
+            System.out.println("6 - Exportación");
+            System.out.println("7 - Estadísticas");
+            System.out.println("8 - Migración de esquema de vende");
+            System.out.println("9 - Salir");
 
             opc = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese su opción: ");
 
             switch (opc) {
                 case 1:
-                    operarEmpleados(database);
+                    operarEmpleados(repositorios);
                     break;
                 case 2:
-                    operarProductos(database);
+                    operarProductos(repositorios);
                     break;
                 case 3:
-                    operarSucursales(database);
+                    operarSucursales(repositorios);
                     break;
                 case 4:
-                    operarProductosAVender(database);
+                    operarProductosAVender(repositorios);
                     break;
                 case 5:
+                    operarImportacion(repositorios);
+                    break;
+                case 6:
+                    operarExportacion(repositorios);
+                    break;
+                case 7:
+                    operarEstadisticas(repositorios);
+                    break;
+                case 8:
+                    operarMigracion(repositorios);
+                    break;
+                case 9:
                     System.out.println("Saliendo...");
                     break;
                 default:
                     System.out.println("Opción incorrecta.");
             }
-        } while (opc != 5);
+        } while (opc != 9);
+    }
+
+    private void operarEstadisticas(Repositorios repositorios) {
+        if (!repositorios.esMongo()) {
+            System.out.println("Las estadísticas del servidor no están disponibles con el motor en memoria.");
+            return;
+        }
+        MongoDB mongoDB = MongoDB.getInstance();
+        mongoDB.mostrarEstadisticas();
+        String respuesta = CFZValidatorUtils.solicitarEntradaPorTeclado("¿Reiniciar las métricas? (s/n): ");
+        if ("s".equalsIgnoreCase(respuesta) || "si".equalsIgnoreCase(respuesta)) {
+            mongoDB.reiniciarMetricas();
+        }
+    }
+
+    private void operarMigracion(Repositorios repositorios) {
+        if (!repositorios.esMongo()) {
+            System.out.println("La migración de esquema solo está disponible con MongoDB.");
+            return;
+        }
+        ControllerMigracion controller = new ControllerMigracion(repositorios);
+        controller.iniciarVista();
+    }
+
+    private void operarExportacion(Repositorios repositorios) {
+        ControllerExportacion controller = new ControllerExportacion(repositorios);
+        controller.iniciarVista();
+    }
+
+    private void operarImportacion(Repositorios repositorios) {
+        ControllerImportacion controller = new ControllerImportacion(repositorios);
+        controller.iniciarVista();
     }
 
-    private void operarProductosAVender(MongoDatabase database) {
-        ControllerVende controller = new ControllerVende(database);
+    private void operarProductosAVender(Repositorios repositorios) {
+        ControllerVende controller = new ControllerVende(repositorios);
         controller.iniciarVista();
     }
 
-    private void operarSucursales(MongoDatabase database) {
-        ControllerSucursal controller = new ControllerSucursal(database);
+    private void operarSucursales(Repositorios repositorios) {
+        ControllerSucursal controller = new ControllerSucursal(repositorios);
         controller.iniciarVista();
     }
 
-    private void operarProductos(MongoDatabase database) {
-        ControllerProducto controller = new ControllerProducto(database);
+    private void operarProductos(Repositorios repositorios) {
+        ControllerProducto controller = new ControllerProducto(repositorios);
         controller.iniciarVista();
     }
 
-    private void operarEmpleados(MongoDatabase database) {
-        ControllerEmpleado controller = new ControllerEmpleado(database);
+    private void operarEmpleados(Repositorios repositorios) {
+        ControllerEmpleado controller = new ControllerEmpleado(repositorios);
         controller.iniciarVista();
     }
 }
\ No newline at end of file
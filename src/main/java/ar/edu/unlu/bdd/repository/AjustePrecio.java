@@ -0,0 +1,91 @@
+package ar.edu.unlu.bdd.repository;
+
+import ar.edu.unlu.bdd.entity.Vende;
+
+/**
+ * Ajuste masivo de precios sobre las relaciones sucursal-producto que cumplen un filtro.
+ * <p>
+ * Los criterios del filtro se combinan entre sí y los que son null no filtran: sin sucursal
+ * ni producto el ajuste alcanza a todas las relaciones. Un ajuste fijo negativo nunca deja
+ * un precio por debajo de 0; las relaciones en las que eso pasaría se excluyen.
+ */
+public class AjustePrecio {
+
+    public enum Tipo {
+        /** Multiplica el precio por (1 + valor / 100). */
+        PORCENTAJE,
+        /** Suma el valor al precio. */
+        FIJO
+    }
+
+    private final Tipo tipo;
+    private final double valor;
+    private final String sucursal;
+    private final Integer codigoProducto;
+    private final Double precioDesde;
+    private final Double precioHasta;
+
+    /**
+     * @throws IllegalArgumentException si el porcentaje dejaría los precios en 0 o negativos
+     */
+    public AjustePrecio(Tipo tipo, double valor, String sucursal, Integer codigoProducto, Double precioDesde, Double precioHasta) {
+        if (tipo == Tipo.PORCENTAJE && valor <= -100) {
+            throw new IllegalArgumentException("El porcentaje debe ser mayor que -100.");
+        }
+        this.tipo = tipo;
+        this.valor = valor;
+        this.sucursal = sucursal;
+        this.codigoProducto = codigoProducto;
+        this.precioDesde = precioDesde;
+        this.precioHasta = precioHasta;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public double getValor() {
+        return valor;
+    }
+
+    public String getSucursal() {
+        return sucursal;
+    }
+
+    public Integer getCodigoProducto() {
+        return codigoProducto;
+    }
+
+    public Double getPrecioDesde() {
+        return precioDesde;
+    }
+
+    public Double getPrecioHasta() {
+        return precioHasta;
+    }
+
+    public double getFactor() {
+        return 1 + valor / 100;
+    }
+
+    /**
+     * @return el precio mínimo que debe tener una relación para que el ajuste no la deje negativa
+     */
+    public double getPrecioMinimoAplicable() {
+        return tipo == Tipo.FIJO && valor < 0 ? -valor : 0;
+    }
+
+    /**
+     * @return true si la relación cumple el filtro, sin considerar el precio mínimo aplicable
+     */
+    public boolean incluye(Vende relacion) {
+        return (sucursal == null || sucursal.equals(relacion.getSucursal()))
+                && (codigoProducto == null || codigoProducto == relacion.getCodigoProducto())
+                && (precioDesde == null || relacion.getPrecio() >= precioDesde)
+                && (precioHasta == null || relacion.getPrecio() <= precioHasta);
+    }
+
+    public double aplicar(double precio) {
+        return tipo == Tipo.PORCENTAJE ? precio * getFactor() : precio + valor;
+    }
+}
@@ -0,0 +1,30 @@
+package ar.edu.unlu.bdd.repository;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Período de agrupación de los resúmenes de ventas.
+ */
+public enum PeriodoVentas {
+    HORA("hour", ChronoUnit.HOURS),
+    DIA("day", ChronoUnit.DAYS);
+
+    private final String unidadMongo;
+    private final ChronoUnit unidad;
+
+    PeriodoVentas(String unidadMongo, ChronoUnit unidad) {
+        this.unidadMongo = unidadMongo;
+        this.unidad = unidad;
+    }
+
+    /**
+     * @return la unidad que espera el operador {@code $dateTrunc}
+     */
+    public String getUnidadMongo() {
+        return unidadMongo;
+    }
+
+    public ChronoUnit getUnidad() {
+        return unidad;
+    }
+}
@@ -0,0 +1,54 @@
+package ar.edu.unlu.bdd.repository;
+
+import java.util.List;
+
+/**
+ * Recorrido de una colección de entidades por páginas, en el orden de su clave.
+ * <p>
+ * Los recorridos que mantienen un cursor abierto en el servidor lo liberan en {@link #close()};
+ * los demás no necesitan cerrarse.
+ *
+ * @param <T> tipo de las entidades recorridas
+ */
+public interface RecorridoPaginado<T> extends AutoCloseable {
+
+    /**
+     * Lee la siguiente página de entidades.
+     *
+     * @return las entidades de la página, o una lista vacía si no quedan más
+     */
+    List<T> siguientePagina();
+
+    /**
+     * @return true si quedan entidades por leer después de la última página
+     */
+    boolean hayMasPaginas();
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * @return un recorrido de una sola página con las entidades dadas, para los resultados de
+     * una búsqueda puntual
+     */
+    static <T> RecorridoPaginado<T> unaPagina(List<T> entidades) {
+        return new RecorridoPaginado<>() {
+            private boolean leida;
+
+            @Override
+            public List<T> siguientePagina() {
+                if (leida) {
+                    return List.of();
+                }
+                leida = true;
+                return entidades;
+            }
+
+            @Override
+            public boolean hayMasPaginas() {
+                return !leida;
+            }
+        };
+    }
+}
@@ -0,0 +1,169 @@
+package ar.edu.unlu.bdd.repository;
+
+import ar.edu.unlu.bdd.entity.Venta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acumula las ventas y las escribe en lotes en el {@link RepositorioVentas}, en lugar de
+ * hacer un insert por cada venta.
+ * <p>
+ * Un lote se escribe al llegar a {@code bdd.ventas.tamanioLote} eventos (por defecto 500)
+ * o, si hay pocas ventas, cada {@code bdd.ventas.intervaloMs} milisegundos (por defecto 1000).
+ * {@link #close()} escribe lo pendiente antes de salir.
+ * <p>
+ * Si el motor rechaza un lote completo (por ejemplo, sin conexión), el lote vuelve a la cola
+ * y se reintenta en los próximos vaciados, hasta {@code bdd.ventas.reintentos} veces (por
+ * defecto 3). Agotados los reintentos, cada venta del lote se escribe en el log de errores
+ * antes de descartarla, para poder recuperarla a mano.
+ */
+public class RegistroVentas implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistroVentas.class);
+
+    public static final int TAMANIO_LOTE = Integer.getInteger("bdd.ventas.tamanioLote", 500);
+    public static final long INTERVALO_MS = Long.getLong("bdd.ventas.intervaloMs", 1000);
+    public static final int REINTENTOS = Integer.getInteger("bdd.ventas.reintentos", 3);
+
+    private final RepositorioVentas repositorio;
+    private final ScheduledExecutorService temporizador;
+    private List<Venta> pendientes = new ArrayList<>();
+    private List<LoteFallido> fallidos = new ArrayList<>();
+
+    public RegistroVentas(RepositorioVentas repositorio) {
+        this.repositorio = repositorio;
+        this.temporizador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "bdd-registro-ventas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        temporizador.scheduleWithFixedDelay(this::vaciar, INTERVALO_MS, INTERVALO_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Agrega la venta al lote en curso. Solo el hilo que completa el lote lo escribe.
+     */
+    public void registrar(Venta venta) {
+        List<Venta> lote = null;
+        synchronized (this) {
+            pendientes.add(venta);
+            if (pendientes.size() >= TAMANIO_LOTE) {
+                lote = tomarPendientes();
+            }
+        }
+        if (lote != null) {
+            escribir(lote);
+        }
+    }
+
+    /**
+     * Escribe ya las ventas pendientes, por ejemplo antes de un resumen, y reintenta los
+     * lotes que fallaron antes.
+     */
+    public void vaciar() {
+        List<LoteFallido> reintentos;
+        List<Venta> lote = null;
+        synchronized (this) {
+            reintentos = fallidos;
+            fallidos = new ArrayList<>();
+            if (!pendientes.isEmpty()) {
+                lote = tomarPendientes();
+            }
+        }
+        for (LoteFallido fallido : reintentos) {
+            escribir(fallido.ventas, fallido.intentos);
+        }
+        if (lote != null) {
+            escribir(lote);
+        }
+    }
+
+    private List<Venta> tomarPendientes() {
+        List<Venta> lote = pendientes;
+        pendientes = new ArrayList<>();
+        return lote;
+    }
+
+    private void escribir(List<Venta> lote) {
+        escribir(lote, 0);
+    }
+
+    /**
+     * @param intentos Intentos fallidos anteriores de este lote
+     */
+    private void escribir(List<Venta> lote, int intentos) {
+        try {
+            ResultadoLote resultado = repositorio.registrar(lote);
+            for (String error : resultado.getErrores()) {
+                logger.error("Venta no registrada: {}", error);
+            }
+        } catch (Exception e) {
+            if (intentos < REINTENTOS) {
+                logger.warn("Error al registrar un lote de {} ventas (intento {} de {}), se reintentará: {}",
+                        lote.size(), intentos + 1, REINTENTOS + 1, e.getMessage());
+                synchronized (this) {
+                    fallidos.add(new LoteFallido(lote, intentos + 1));
+                }
+                return;
+            }
+            logger.error("Error al registrar un lote de {} ventas tras {} intentos, se descarta: {}",
+                    lote.size(), intentos + 1, e.getMessage(), e);
+            descartar(lote);
+        }
+    }
+
+    private static void descartar(List<Venta> lote) {
+        for (Venta venta : lote) {
+            logger.error("Venta descartada: sucursal={}, codigoProducto={}, cantidad={}, precio={}, fecha={}",
+                    venta.getSucursal(), venta.getCodigoProducto(), venta.getCantidad(), venta.getPrecio(), venta.getFecha());
+        }
+    }
+
+    private synchronized boolean hayFallidos() {
+        return !fallidos.isEmpty();
+    }
+
+    /**
+     * Escribe lo pendiente y reintenta los lotes fallidos, con {@code bdd.ventas.intervaloMs}
+     * entre intentos, hasta que se escriban o se agoten sus reintentos.
+     */
+    @Override
+    public void close() {
+        temporizador.shutdown();
+        try {
+            temporizador.awaitTermination(INTERVALO_MS, TimeUnit.MILLISECONDS);
+            vaciar();
+            while (hayFallidos()) {
+                Thread.sleep(INTERVALO_MS);
+                vaciar();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            List<LoteFallido> restantes;
+            synchronized (this) {
+                restantes = fallidos;
+                fallidos = new ArrayList<>();
+            }
+            for (LoteFallido fallido : restantes) {
+                descartar(fallido.ventas);
+            }
+        }
+    }
+
+    private static final class LoteFallido {
+
+        private final List<Venta> ventas;
+        private final int intentos;
+
+        private LoteFallido(List<Venta> ventas, int intentos) {
+            this.ventas = ventas;
+            this.intentos = intentos;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ar.edu.unlu.bdd.repository;
+
+import java.util.List;
+
+/**
+ * Operaciones comunes a los repositorios de todas las entidades.
+ *
+ * @param <T> tipo de la entidad
+ */
+public interface Repositorio<T> {
+
+    /**
+     * Inserta una entidad.
+     *
+     * @return true si se insertó, false si ya existía una entidad con la misma clave
+     */
+    boolean insertar(T entidad);
+
+    /**
+     * Inserta un lote de entidades sin detenerse ante duplicados u otros errores individuales.
+     *
+     * @return cantidad de insertadas y errores de las que no se pudieron insertar
+     */
+    ResultadoLote insertarLote(List<T> entidades);
+
+    /**
+     * Recorre todas las entidades, por páginas, en el orden de su clave.
+     */
+    RecorridoPaginado<T> listar();
+
+    /**
+     * Divide las entidades en hasta {@code partes} recorridos disjuntos que pueden leerse en
+     * paralelo, sin un orden entre ellos. Por defecto hay una sola parte: el listado completo.
+     */
+    default List<RecorridoPaginado<T>> particionar(int partes) {
+        return List.of(listar());
+    }
+}
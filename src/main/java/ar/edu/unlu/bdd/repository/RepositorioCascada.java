@@ -0,0 +1,23 @@
+package ar.edu.unlu.bdd.repository;
+
+/**
+ * Bajas que eliminan también las entidades que dependen de la eliminada, para no dejar
+ * relaciones ni empleados huérfanos.
+ */
+public interface RepositorioCascada {
+
+    /**
+     * Elimina una sucursal, sus relaciones con productos y sus empleados, o reasigna
+     * los empleados a otra sucursal.
+     *
+     * @param nombre          Sucursal a eliminar
+     * @param sucursalDestino Sucursal que recibe a los empleados, o null para eliminarlos
+     * @throws IllegalArgumentException si la sucursal destino no existe; no se elimina nada
+     */
+    ResultadoCascada eliminarSucursal(String nombre, String sucursalDestino);
+
+    /**
+     * Elimina un producto y sus relaciones con todas las sucursales.
+     */
+    ResultadoCascada eliminarProducto(int codigo);
+}
@@ -0,0 +1,15 @@
+package ar.edu.unlu.bdd.repository;
+
+import ar.edu.unlu.bdd.entity.Empleado;
+
+/**
+ * Repositorio de empleados, identificados por su DNI.
+ */
+public interface RepositorioEmpleado extends Repositorio<Empleado> {
+
+    boolean eliminar(int dni);
+
+    ResultadoModificacion modificar(int dni, String nombre, String apellido, String sucursal);
+
+    Empleado buscar(int dni);
+}
@@ -0,0 +1,24 @@
+package ar.edu.unlu.bdd.repository;
+
+import ar.edu.unlu.bdd.entity.Producto;
+
+import java.util.Set;
+
+/**
+ * Repositorio de productos, identificados por su código.
+ */
+public interface RepositorioProducto extends Repositorio<Producto> {
+
+    boolean eliminar(int codigo);
+
+    ResultadoModificacion modificar(int codigo, String descripcion, int stock);
+
+    Producto buscar(int codigo);
+
+    boolean existe(int codigo);
+
+    /**
+     * @return los códigos de todos los productos, para validar referencias en lote
+     */
+    Set<Integer> codigos();
+}
@@ -0,0 +1,24 @@
+package ar.edu.unlu.bdd.repository;
+
+import ar.edu.unlu.bdd.entity.Sucursal;
+
+import java.util.Set;
+
+/**
+ * Repositorio de sucursales, identificadas por su nombre.
+ */
+public interface RepositorioSucursal extends Repositorio<Sucursal> {
+
+    boolean eliminar(String nombre);
+
+    ResultadoModificacion modificar(String nombre, String direccion);
+
+    Sucursal buscar(String nombre);
+
+    boolean existe(String nombre);
+
+    /**
+     * @return los nombres de todas las sucursales, para validar referencias en lote
+     */
+    Set<String> nombres();
+}
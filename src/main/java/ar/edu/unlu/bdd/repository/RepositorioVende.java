@@ -0,0 +1,74 @@
+package ar.edu.unlu.bdd.repository;
+
+import ar.edu.unlu.bdd.entity.Vende;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repositorio de relaciones sucursal-producto, identificadas por el par (sucursal, codigoProducto).
+ */
+public interface RepositorioVende extends Repositorio<Vende> {
+
+    boolean eliminar(String sucursal, int codigoProducto);
+
+    ResultadoModificacion modificar(String sucursal, int codigoProducto, double precio, int stock);
+
+    Vende buscar(String sucursal, int codigoProducto);
+
+    List<Vende> buscarPorProducto(int codigoProducto);
+
+    List<Vende> buscarPorSucursal(String sucursal);
+
+    /**
+     * Descuenta {@code cantidad} unidades del stock de la relación en una sola operación
+     * atómica, solo si el stock alcanza. Las ventas concurrentes no pueden dejar el stock negativo.
+     *
+     * @return la relación con el stock ya descontado, o null si no existe o el stock no alcanza
+     */
+    Vende vender(String sucursal, int codigoProducto, int cantidad);
+
+    /**
+     * Descuenta el stock de varias líneas de un pedido de una sucursal. Cada línea se aplica
+     * por separado y solo si su stock alcanza, así que el pedido puede quedar aplicado en parte.
+     *
+     * @param lineas Cantidad a descontar por código de producto
+     * @return las relaciones de las líneas aplicadas, con el stock ya descontado
+     */
+    List<Vende> venderPedido(String sucursal, Map<Integer, Integer> lineas);
+
+    /**
+     * Valora el inventario de cada sucursal (precio * stock de sus relaciones), ordenado por sucursal.
+     */
+    List<ValoracionSucursal> valorarInventario();
+
+    /**
+     * Ajusta en una sola escritura el precio de todas las relaciones que cumplen el filtro del
+     * ajuste. Antes de escribir cuenta las relaciones alcanzadas, así que con {@code simular}
+     * solo informa cuántas cambiarían.
+     */
+    ResultadoAjustePrecio ajustarPrecios(AjustePrecio ajuste, boolean simular);
+
+    /**
+     * Actualiza la vista materializada de stock por producto, recalculando solo los productos
+     * cuyas relaciones cambiaron desde el último refresco. La primera vez en el proceso la
+     * reconstruye completa, porque no se conocen los cambios anteriores.
+     *
+     * @return cantidad de productos recalculados
+     */
+    int refrescarStockPorProducto();
+
+    /**
+     * Recalcula toda la vista materializada de stock por producto.
+     *
+     * @return cantidad de productos en la vista
+     */
+    int reconstruirStockPorProducto();
+
+    /**
+     * Lee el stock total de un producto desde la vista materializada, sin refrescarla.
+     *
+     * @return el stock total, o null si ninguna sucursal vende el producto
+     */
+    StockProducto stockPorProducto(int codigoProducto);
+}
@@ -0,0 +1,25 @@
+package ar.edu.unlu.bdd.repository;
+
+import ar.edu.unlu.bdd.entity.Venta;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Registro histórico de ventas. Los eventos solo se agregan; no se modifican ni se eliminan.
+ */
+public interface RepositorioVentas {
+
+    ResultadoLote registrar(List<Venta> ventas);
+
+    /**
+     * Totaliza las ventas por período y sucursal, ordenadas por período y sucursal.
+     *
+     * @param periodo  Hora o día; los días se cortan a medianoche de {@code zona}
+     * @param sucursal Sucursal a resumir, o null para todas
+     * @param desde    Inicio del rango (inclusive)
+     * @param hasta    Fin del rango (exclusive)
+     */
+    List<ResumenVentas> resumir(PeriodoVentas periodo, String sucursal, Instant desde, Instant hasta, ZoneId zona);
+}
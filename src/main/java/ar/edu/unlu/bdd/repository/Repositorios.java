@@ -0,0 +1,186 @@
+package ar.edu.unlu.bdd.repository;
+
+import ar.edu.unlu.bdd.database.Indices;
+import ar.edu.unlu.bdd.database.MongoDB;
+import ar.edu.unlu.bdd.repository.memoria.RepositorioCascadaMemoria;
+import ar.edu.unlu.bdd.repository.memoria.RepositorioEmpleadoMemoria;
+import ar.edu.unlu.bdd.repository.memoria.RepositorioProductoMemoria;
+import ar.edu.unlu.bdd.repository.memoria.RepositorioSucursalMemoria;
+import ar.edu.unlu.bdd.repository.memoria.RepositorioVendeMemoria;
+import ar.edu.unlu.bdd.repository.memoria.RepositorioVentasMemoria;
+import ar.edu.unlu.bdd.repository.mongo.RepositorioCascadaMongo;
+import ar.edu.unlu.bdd.repository.mongo.RepositorioEmpleadoMongo;
+import ar.edu.unlu.bdd.repository.mongo.RepositorioProductoMongo;
+import ar.edu.unlu.bdd.repository.mongo.RepositorioSucursalMongo;
+import ar.edu.unlu.bdd.repository.mongo.RepositorioVendeEmbebidoMongo;
+import ar.edu.unlu.bdd.repository.mongo.RepositorioVendeMongo;
+import ar.edu.unlu.bdd.repository.mongo.RepositorioVentasMongo;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoDatabase;
+
+/**
+ * Conjunto de repositorios de un mismo motor de almacenamiento.
+ * <p>
+ * El motor se elige al iniciar con la propiedad del sistema {@code bdd.motor}:
+ * - mongo (por defecto): las colecciones de MongoDB
+ * - memoria: mapas concurrentes en el proceso, sin servidor; los datos se pierden al salir
+ * <p>
+ * Con MongoDB, {@code bdd.vende.esquema} elige cómo se guardan las relaciones sucursal-producto:
+ * - coleccion (por defecto): la colección 'vende', un documento por relación
+ * - embebido: un arreglo 'vende' dentro del documento de cada sucursal
+ * <p>
+ * Las ventas se escriben en lotes a través de {@link RegistroVentas}; {@link #close()}
+ * escribe las pendientes y debe llamarse antes de terminar el proceso.
+ */
+public class Repositorios implements AutoCloseable {
+
+    public static final String MOTOR_MONGO = "mongo";
+    public static final String MOTOR_MEMORIA = "memoria";
+    public static final String ESQUEMA_COLECCION = "coleccion";
+    public static final String ESQUEMA_EMBEBIDO = "embebido";
+
+    private final String motor;
+    private final String esquemaVende;
+    private final MongoDatabase database;
+    private final RepositorioSucursal sucursales;
+    private final RepositorioProducto productos;
+    private final RepositorioEmpleado empleados;
+    private final RepositorioVende vende;
+    private final RepositorioVentas ventas;
+    private final RepositorioCascada cascada;
+    private final RegistroVentas registroVentas;
+
+    private Repositorios(String motor, String esquemaVende, MongoDatabase database, RepositorioSucursal sucursales, RepositorioProducto productos,
+                         RepositorioEmpleado empleados, RepositorioVende vende, RepositorioVentas ventas,
+                         RepositorioCascada cascada) {
+        this.motor = motor;
+        this.esquemaVende = esquemaVende;
+        this.database = database;
+        this.sucursales = sucursales;
+        this.productos = productos;
+        this.empleados = empleados;
+        this.vende = vende;
+        this.ventas = ventas;
+        this.cascada = cascada;
+        this.registroVentas = new RegistroVentas(ventas);
+    }
+
+    /**
+     * Crea los repositorios del motor indicado en {@code bdd.motor}. Con el motor
+     * en memoria no se abre ninguna conexión a MongoDB.
+     */
+    public static Repositorios crearSegunConfiguracion() {
+        String motor = System.getProperty("bdd.motor", MOTOR_MONGO).trim().toLowerCase();
+        if (MOTOR_MEMORIA.equals(motor)) {
+            return enMemoria();
+        }
+        if (!MOTOR_MONGO.equals(motor)) {
+            throw new IllegalArgumentException("Motor desconocido '" + motor + "'. Valores válidos: "
+                    + MOTOR_MONGO + ", " + MOTOR_MEMORIA + ".");
+        }
+        MongoDB mongoDB = MongoDB.getInstance();
+        return mongo(mongoDB.getClient(), mongoDB.getDatabase());
+    }
+
+    /**
+     * Crea los repositorios de MongoDB con el esquema de vende indicado en {@code bdd.vende.esquema}.
+     *
+     * @param client Cliente de la base de datos, necesario para las sesiones de las transacciones
+     */
+    public static Repositorios mongo(MongoClient client, MongoDatabase database) {
+        return mongo(client, database, System.getProperty("bdd.vende.esquema", ESQUEMA_COLECCION).trim().toLowerCase());
+    }
+
+    public static Repositorios mongo(MongoClient client, MongoDatabase database, String esquemaVende) {
+        RepositorioVende vende;
+        RepositorioCascada cascada;
+        if (ESQUEMA_EMBEBIDO.equals(esquemaVende)) {
+            Indices.crearEsquemaEmbebido(database);
+            RepositorioVendeEmbebidoMongo embebido = new RepositorioVendeEmbebidoMongo(database);
+            vende = embebido;
+            cascada = new RepositorioCascadaMongo(client, database, embebido);
+        } else if (ESQUEMA_COLECCION.equals(esquemaVende)) {
+            RepositorioVendeMongo coleccion = new RepositorioVendeMongo(database);
+            vende = coleccion;
+            cascada = new RepositorioCascadaMongo(client, database, coleccion);
+        } else {
+            throw new IllegalArgumentException("Esquema de vende desconocido '" + esquemaVende + "'. Valores válidos: "
+                    + ESQUEMA_COLECCION + ", " + ESQUEMA_EMBEBIDO + ".");
+        }
+        return new Repositorios(MOTOR_MONGO, esquemaVende, database,
+                new RepositorioSucursalMongo(database),
+                new RepositorioProductoMongo(database),
+                new RepositorioEmpleadoMongo(database),
+                vende,
+                new RepositorioVentasMongo(database),
+                cascada);
+    }
+
+    public static Repositorios enMemoria() {
+        RepositorioSucursalMemoria sucursales = new RepositorioSucursalMemoria();
+        RepositorioProductoMemoria productos = new RepositorioProductoMemoria();
+        RepositorioEmpleadoMemoria empleados = new RepositorioEmpleadoMemoria();
+        RepositorioVendeMemoria vende = new RepositorioVendeMemoria();
+        return new Repositorios(MOTOR_MEMORIA, ESQUEMA_COLECCION, null, sucursales, productos, empleados, vende,
+                new RepositorioVentasMemoria(),
+                new RepositorioCascadaMemoria(sucursales, productos, empleados, vende));
+    }
+
+    public String getMotor() {
+        return motor;
+    }
+
+    /**
+     * @return cómo se guardan las relaciones sucursal-producto ({@link #ESQUEMA_COLECCION} en memoria)
+     */
+    public String getEsquemaVende() {
+        return esquemaVende;
+    }
+
+    public boolean esMongo() {
+        return database != null;
+    }
+
+    /**
+     * @return la base de datos de MongoDB, o null si el motor es en memoria
+     */
+    public MongoDatabase getDatabase() {
+        return database;
+    }
+
+    public RepositorioSucursal getSucursales() {
+        return sucursales;
+    }
+
+    public RepositorioProducto getProductos() {
+        return productos;
+    }
+
+    public RepositorioEmpleado getEmpleados() {
+        return empleados;
+    }
+
+    public RepositorioVende getVende() {
+        return vende;
+    }
+
+    public RepositorioVentas getVentas() {
+        return ventas;
+    }
+
+    public RepositorioCascada getCascada() {
+        return cascada;
+    }
+
+    public RegistroVentas getRegistroVentas() {
+        return registroVentas;
+    }
+
+    /**
+     * Escribe las ventas pendientes. No cierra la conexión con MongoDB.
+     */
+    @Override
+    public void close() {
+        registroVentas.close();
+    }
+}
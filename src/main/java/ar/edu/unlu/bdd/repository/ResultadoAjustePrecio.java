@@ -0,0 +1,66 @@
+package ar.edu.unlu.bdd.repository;
+
+/**
+ * Resultado de un ajuste masivo de precios, o de su simulación.
+ */
+public class ResultadoAjustePrecio {
+    private final long coincidentes;
+    private final long excluidas;
+    private final long modificadas;
+    private final boolean simulado;
+    private final boolean modificadasPorSucursal;
+
+    public ResultadoAjustePrecio(long coincidentes, long excluidas, long modificadas, boolean simulado) {
+        this(coincidentes, excluidas, modificadas, simulado, false);
+    }
+
+    /**
+     * @param modificadasPorSucursal true si {@code modificadas} cuenta sucursales y no relaciones,
+     *                               para los esquemas que guardan las relaciones dentro de la sucursal
+     */
+    public ResultadoAjustePrecio(long coincidentes, long excluidas, long modificadas, boolean simulado,
+                                 boolean modificadasPorSucursal) {
+        this.coincidentes = coincidentes;
+        this.excluidas = excluidas;
+        this.modificadas = modificadas;
+        this.simulado = simulado;
+        this.modificadasPorSucursal = modificadasPorSucursal;
+    }
+
+    /**
+     * @return relaciones que cumplían el filtro antes del cambio
+     */
+    public long getCoincidentes() {
+        return coincidentes;
+    }
+
+    /**
+     * @return relaciones del filtro que no se ajustan porque su precio quedaría negativo
+     */
+    public long getExcluidas() {
+        return excluidas;
+    }
+
+    /**
+     * @return relaciones a las que se aplicaría el ajuste
+     */
+    public long getAplicables() {
+        return coincidentes - excluidas;
+    }
+
+    /**
+     * @return relaciones modificadas, o sucursales si {@link #isModificadasPorSucursal()};
+     *         0 si el ajuste solo se simuló
+     */
+    public long getModificadas() {
+        return modificadas;
+    }
+
+    public boolean isSimulado() {
+        return simulado;
+    }
+
+    public boolean isModificadasPorSucursal() {
+        return modificadasPorSucursal;
+    }
+}
@@ -0,0 +1,47 @@
+package ar.edu.unlu.bdd.repository;
+
+/**
+ * Resultado de eliminar una entidad junto con sus dependientes.
+ */
+public class ResultadoCascada {
+    private final boolean eliminada;
+    private final long relacionesEliminadas;
+    private final long empleadosEliminados;
+    private final long empleadosReasignados;
+    private final boolean transaccional;
+
+    public ResultadoCascada(boolean eliminada, long relacionesEliminadas, long empleadosEliminados,
+                            long empleadosReasignados, boolean transaccional) {
+        this.eliminada = eliminada;
+        this.relacionesEliminadas = relacionesEliminadas;
+        this.empleadosEliminados = empleadosEliminados;
+        this.empleadosReasignados = empleadosReasignados;
+        this.transaccional = transaccional;
+    }
+
+    /**
+     * @return true si la entidad principal existía y fue eliminada
+     */
+    public boolean isEliminada() {
+        return eliminada;
+    }
+
+    public long getRelacionesEliminadas() {
+        return relacionesEliminadas;
+    }
+
+    public long getEmpleadosEliminados() {
+        return empleadosEliminados;
+    }
+
+    public long getEmpleadosReasignados() {
+        return empleadosReasignados;
+    }
+
+    /**
+     * @return true si todas las escrituras se confirmaron juntas en una transacción
+     */
+    public boolean isTransaccional() {
+        return transaccional;
+    }
+}
@@ -0,0 +1,29 @@
+package ar.edu.unlu.bdd.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de insertar un lote de entidades: cuántas se insertaron y qué errores hubo.
+ */
+public class ResultadoLote {
+    private final long insertados;
+    private final List<String> errores;
+
+    public ResultadoLote(long insertados, List<String> errores) {
+        this.insertados = insertados;
+        this.errores = errores;
+    }
+
+    public ResultadoLote(long insertados) {
+        this(insertados, new ArrayList<>());
+    }
+
+    public long getInsertados() {
+        return insertados;
+    }
+
+    public List<String> getErrores() {
+        return errores;
+    }
+}
@@ -0,0 +1,13 @@
+package ar.edu.unlu.bdd.repository;
+
+/**
+ * Resultado de una modificación por clave.
+ */
+public enum ResultadoModificacion {
+    /** No existe una entidad con esa clave. */
+    NO_ENCONTRADO,
+    /** La entidad existe pero ya tenía esos valores. */
+    SIN_CAMBIOS,
+    /** La entidad fue modificada. */
+    MODIFICADO
+}
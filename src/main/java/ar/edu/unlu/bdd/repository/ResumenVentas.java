@@ -0,0 +1,42 @@
+package ar.edu.unlu.bdd.repository;
+
+import java.time.Instant;
+
+/**
+ * Totales de ventas de una sucursal en un período (una hora o un día).
+ */
+public class ResumenVentas {
+    private final Instant inicioPeriodo;
+    private final String sucursal;
+    private final long ventas;
+    private final long unidades;
+    private final double importe;
+
+    public ResumenVentas(Instant inicioPeriodo, String sucursal, long ventas, long unidades, double importe) {
+        this.inicioPeriodo = inicioPeriodo;
+        this.sucursal = sucursal;
+        this.ventas = ventas;
+        this.unidades = unidades;
+        this.importe = importe;
+    }
+
+    public Instant getInicioPeriodo() {
+        return inicioPeriodo;
+    }
+
+    public String getSucursal() {
+        return sucursal;
+    }
+
+    public long getVentas() {
+        return ventas;
+    }
+
+    public long getUnidades() {
+        return unidades;
+    }
+
+    public double getImporte() {
+        return importe;
+    }
+}
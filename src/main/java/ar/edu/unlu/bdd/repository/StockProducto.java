@@ -0,0 +1,28 @@
+package ar.edu.unlu.bdd.repository;
+
+/**
+ * Stock total de un producto sumando todas las sucursales que lo venden.
+ */
+public class StockProducto {
+    private final int codigoProducto;
+    private final long sucursales;
+    private final long unidades;
+
+    public StockProducto(int codigoProducto, long sucursales, long unidades) {
+        this.codigoProducto = codigoProducto;
+        this.sucursales = sucursales;
+        this.unidades = unidades;
+    }
+
+    public int getCodigoProducto() {
+        return codigoProducto;
+    }
+
+    public long getSucursales() {
+        return sucursales;
+    }
+
+    public long getUnidades() {
+        return unidades;
+    }
+}
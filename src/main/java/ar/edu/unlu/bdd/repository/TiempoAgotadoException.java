@@ -0,0 +1,27 @@
+package ar.edu.unlu.bdd.repository;
+
+/**
+ * Una lectura superó su tiempo máximo y el motor la canceló. No quedan cursores abiertos
+ * ni trabajo pendiente en el servidor; la operación puede reintentarse con un límite mayor.
+ */
+public class TiempoAgotadoException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String operacion;
+    private final long milisegundos;
+
+    public TiempoAgotadoException(String operacion, long milisegundos, Throwable causa) {
+        super("La operación '" + operacion + "' superó el tiempo máximo de " + milisegundos + " ms y fue cancelada.", causa);
+        this.operacion = operacion;
+        this.milisegundos = milisegundos;
+    }
+
+    public String getOperacion() {
+        return operacion;
+    }
+
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+}
@@ -0,0 +1,49 @@
+package ar.edu.unlu.bdd.repository;
+
+import java.util.function.Supplier;
+
+/**
+ * Límite de tiempo para las lecturas de una llamada en particular, por encima del límite
+ * configurado para cada operación (ver {@link ar.edu.unlu.bdd.database.OperacionMongo}).
+ * <p>
+ * El límite vale para las lecturas que se inicien en el mismo hilo mientras corre la operación:
+ * <pre>
+ * TiempoMaximo.con(500, () -> controller.consulta("todas"));
+ * </pre>
+ * Un recorrido paginado toma el límite al crearse, así que sus páginas siguientes lo respetan
+ * aunque se lean después. El motor en memoria no aplica límites.
+ */
+public final class TiempoMaximo {
+
+    private static final ThreadLocal<Long> SOBRESCRITO = new ThreadLocal<>();
+
+    private TiempoMaximo() {
+    }
+
+    /**
+     * Ejecuta la operación con un límite de {@code milisegundos} para cada lectura (0 = sin límite).
+     */
+    public static <R> R con(long milisegundos, Supplier<R> operacion) {
+        if (milisegundos < 0) {
+            throw new IllegalArgumentException("El tiempo máximo no puede ser negativo: " + milisegundos);
+        }
+        Long anterior = SOBRESCRITO.get();
+        SOBRESCRITO.set(milisegundos);
+        try {
+            return operacion.get();
+        } finally {
+            if (anterior == null) {
+                SOBRESCRITO.remove();
+            } else {
+                SOBRESCRITO.set(anterior);
+            }
+        }
+    }
+
+    /**
+     * @return el límite de la llamada en curso en este hilo, o null si se usa el configurado
+     */
+    public static Long sobrescrito() {
+        return SOBRESCRITO.get();
+    }
+}
@@ -0,0 +1,47 @@
+package ar.edu.unlu.bdd.repository;
+
+/**
+ * Valor del inventario de una sucursal: unidades en stock, valor a precio de venta,
+ * cantidad de productos distintos y rango de precios.
+ */
+public class ValoracionSucursal {
+    private final String sucursal;
+    private final long productos;
+    private final long unidades;
+    private final double valor;
+    private final double precioMinimo;
+    private final double precioMaximo;
+
+    public ValoracionSucursal(String sucursal, long productos, long unidades, double valor, double precioMinimo, double precioMaximo) {
+        this.sucursal = sucursal;
+        this.productos = productos;
+        this.unidades = unidades;
+        this.valor = valor;
+        this.precioMinimo = precioMinimo;
+        this.precioMaximo = precioMaximo;
+    }
+
+    public String getSucursal() {
+        return sucursal;
+    }
+
+    public long getProductos() {
+        return productos;
+    }
+
+    public long getUnidades() {
+        return unidades;
+    }
+
+    public double getValor() {
+        return valor;
+    }
+
+    public double getPrecioMinimo() {
+        return precioMinimo;
+    }
+
+    public double getPrecioMaximo() {
+        return precioMaximo;
+    }
+}
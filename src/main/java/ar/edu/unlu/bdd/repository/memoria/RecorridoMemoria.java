@@ -0,0 +1,63 @@
+package ar.edu.unlu.bdd.repository.memoria;
+
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.function.Function;
+
+/**
+ * Recorrido por páginas de un mapa ordenado. Igual que la paginación por clave en
+ * MongoDB, cada página continúa desde la última clave leída con {@code tailMap},
+ * así que las altas y bajas concurrentes no desplazan las páginas siguientes.
+ *
+ * @param <K> tipo de la clave
+ * @param <T> tipo de la entidad
+ */
+class RecorridoMemoria<K, T> implements RecorridoPaginado<T> {
+
+    static final int TAMANIO_PAGINA_POR_DEFECTO = Integer.getInteger("bdd.consulta.tamanioPagina", 50);
+
+    private final NavigableMap<K, T> mapa;
+    private final Function<T, K> extractorClave;
+    private final int tamanioPagina;
+
+    private K ultimaClave;
+    private boolean hayMas = true;
+
+    RecorridoMemoria(NavigableMap<K, T> mapa, Function<T, K> extractorClave) {
+        this.mapa = mapa;
+        this.extractorClave = extractorClave;
+        this.tamanioPagina = TAMANIO_PAGINA_POR_DEFECTO > 0 ? TAMANIO_PAGINA_POR_DEFECTO : 50;
+    }
+
+    @Override
+    public List<T> siguientePagina() {
+        List<T> pagina = new ArrayList<>(tamanioPagina);
+        if (!hayMas) {
+            return pagina;
+        }
+
+        NavigableMap<K, T> restantes = ultimaClave == null ? mapa : mapa.tailMap(ultimaClave, false);
+        hayMas = false;
+        for (Map.Entry<K, T> entrada : restantes.entrySet()) {
+            if (pagina.size() == tamanioPagina) {
+                hayMas = true;
+                break;
+            }
+            pagina.add(entrada.getValue());
+        }
+
+        if (!pagina.isEmpty()) {
+            ultimaClave = extractorClave.apply(pagina.get(pagina.size() - 1));
+        }
+        return pagina;
+    }
+
+    @Override
+    public boolean hayMasPaginas() {
+        return hayMas;
+    }
+}
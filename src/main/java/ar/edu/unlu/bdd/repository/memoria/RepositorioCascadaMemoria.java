@@ -0,0 +1,47 @@
+package ar.edu.unlu.bdd.repository.memoria;
+
+import ar.edu.unlu.bdd.repository.RepositorioCascada;
+import ar.edu.unlu.bdd.repository.ResultadoCascada;
+
+/**
+ * Bajas en cascada en memoria. Las cascadas se ejecutan de a una, pero no aíslan a las
+ * operaciones individuales que corran al mismo tiempo: no hay transacciones en este motor.
+ */
+public class RepositorioCascadaMemoria implements RepositorioCascada {
+
+    private final RepositorioSucursalMemoria sucursales;
+    private final RepositorioProductoMemoria productos;
+    private final RepositorioEmpleadoMemoria empleados;
+    private final RepositorioVendeMemoria vende;
+
+    public RepositorioCascadaMemoria(RepositorioSucursalMemoria sucursales, RepositorioProductoMemoria productos,
+                                     RepositorioEmpleadoMemoria empleados, RepositorioVendeMemoria vende) {
+        this.sucursales = sucursales;
+        this.productos = productos;
+        this.empleados = empleados;
+        this.vende = vende;
+    }
+
+    @Override
+    public synchronized ResultadoCascada eliminarSucursal(String nombre, String sucursalDestino) {
+        if (sucursalDestino != null && !sucursales.existe(sucursalDestino)) {
+            throw new IllegalArgumentException("La sucursal destino '" + sucursalDestino + "' no existe.");
+        }
+        long relaciones = vende.eliminarPorSucursal(nombre).size();
+        long eliminados = 0, reasignados = 0;
+        if (sucursalDestino == null) {
+            eliminados = empleados.eliminarPorSucursal(nombre);
+        } else {
+            reasignados = empleados.reasignarSucursal(nombre, sucursalDestino);
+        }
+        boolean eliminada = sucursales.eliminar(nombre);
+        return new ResultadoCascada(eliminada, relaciones, eliminados, reasignados, false);
+    }
+
+    @Override
+    public synchronized ResultadoCascada eliminarProducto(int codigo) {
+        long relaciones = vende.eliminarPorProducto(codigo);
+        boolean eliminado = productos.eliminar(codigo);
+        return new ResultadoCascada(eliminado, relaciones, 0, 0, false);
+    }
+}
@@ -0,0 +1,57 @@
+package ar.edu.unlu.bdd.repository.memoria;
+
+import ar.edu.unlu.bdd.entity.Empleado;
+import ar.edu.unlu.bdd.repository.RepositorioEmpleado;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+
+import java.util.Objects;
+
+public class RepositorioEmpleadoMemoria extends RepositorioMemoria<Integer, Empleado> implements RepositorioEmpleado {
+
+    public RepositorioEmpleadoMemoria() {
+        super(Empleado::getDni);
+    }
+
+    @Override
+    public boolean eliminar(int dni) {
+        return quitar(dni) != null;
+    }
+
+    @Override
+    public ResultadoModificacion modificar(int dni, String nombre, String apellido, String sucursal) {
+        return reemplazar(dni, actual -> new Empleado(dni, nombre, apellido, sucursal));
+    }
+
+    @Override
+    public Empleado buscar(int dni) {
+        return obtener(dni);
+    }
+
+    long eliminarPorSucursal(String sucursal) {
+        long eliminados = 0;
+        for (Empleado empleado : entidades.values()) {
+            if (sucursal.equals(empleado.getSucursal()) && entidades.remove(empleado.getDni(), empleado)) {
+                eliminados++;
+            }
+        }
+        return eliminados;
+    }
+
+    long reasignarSucursal(String origen, String destino) {
+        long reasignados = 0;
+        for (Empleado empleado : entidades.values()) {
+            if (origen.equals(empleado.getSucursal()) && entidades.replace(empleado.getDni(), empleado,
+                    new Empleado(empleado.getDni(), empleado.getNombre(), empleado.getApellido(), destino))) {
+                reasignados++;
+            }
+        }
+        return reasignados;
+    }
+
+    @Override
+    protected boolean mismosValores(Empleado actual, Empleado nueva) {
+        return Objects.equals(actual.getNombre(), nueva.getNombre())
+                && Objects.equals(actual.getApellido(), nueva.getApellido())
+                && Objects.equals(actual.getSucursal(), nueva.getSucursal());
+    }
+}
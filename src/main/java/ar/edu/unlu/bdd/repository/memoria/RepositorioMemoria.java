@@ -0,0 +1,113 @@
+package ar.edu.unlu.bdd.repository.memoria;
+
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import ar.edu.unlu.bdd.repository.ResultadoLote;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Base de los repositorios en memoria.
+ * <p>
+ * Las entidades se guardan en un {@link ConcurrentSkipListMap} por su clave única:
+ * la búsqueda por clave es O(log n), el listado sale ordenado como en MongoDB y
+ * las operaciones sobre una misma clave son atómicas sin bloquear las demás.
+ *
+ * @param <K> tipo de la clave única
+ * @param <T> tipo de la entidad (inmutable)
+ */
+abstract class RepositorioMemoria<K, T> {
+
+    protected final ConcurrentSkipListMap<K, T> entidades;
+    private final Function<T, K> extractorClave;
+
+    protected RepositorioMemoria(Function<T, K> extractorClave) {
+        this.extractorClave = extractorClave;
+        this.entidades = new ConcurrentSkipListMap<>();
+    }
+
+    public boolean insertar(T entidad) {
+        return entidades.putIfAbsent(extractorClave.apply(entidad), entidad) == null;
+    }
+
+    public ResultadoLote insertarLote(List<T> lote) {
+        long insertados = 0;
+        List<String> errores = new ArrayList<>();
+        for (int i = 0; i < lote.size(); i++) {
+            if (insertar(lote.get(i))) {
+                insertados++;
+            } else {
+                errores.add("documento " + i + " del lote: clave duplicada " + extractorClave.apply(lote.get(i)));
+            }
+        }
+        return new ResultadoLote(insertados, errores);
+    }
+
+    public RecorridoPaginado<T> listar() {
+        return new RecorridoMemoria<>(entidades, extractorClave);
+    }
+
+    /**
+     * Divide el mapa en rangos de claves contiguos de tamaño parecido, con límites tomados
+     * en una pasada sobre las claves; cada parte es un submapa recorrido por páginas.
+     */
+    public List<RecorridoPaginado<T>> particionar(int partes) {
+        int tamanio = entidades.size();
+        List<K> limites = new ArrayList<>();
+        if (partes > 1 && tamanio >= partes) {
+            int porParte = tamanio / partes, posicion = 0;
+            for (K clave : entidades.keySet()) {
+                if (posicion > 0 && posicion % porParte == 0 && limites.size() < partes - 1) {
+                    limites.add(clave);
+                }
+                posicion++;
+            }
+        }
+
+        List<RecorridoPaginado<T>> recorridos = new ArrayList<>(limites.size() + 1);
+        K desde = null;
+        for (K limite : limites) {
+            recorridos.add(new RecorridoMemoria<>(desde == null ? entidades.headMap(limite, false)
+                    : entidades.subMap(desde, true, limite, false), extractorClave));
+            desde = limite;
+        }
+        recorridos.add(new RecorridoMemoria<>(desde == null ? entidades : entidades.tailMap(desde, true), extractorClave));
+        return recorridos;
+    }
+
+    protected T obtener(K clave) {
+        return entidades.get(clave);
+    }
+
+    protected T quitar(K clave) {
+        return entidades.remove(clave);
+    }
+
+    /**
+     * Reemplaza atómicamente la entidad de una clave por la versión modificada.
+     *
+     * @param modificador Construye la nueva entidad a partir de la actual
+     */
+    protected ResultadoModificacion reemplazar(K clave, UnaryOperator<T> modificador) {
+        ResultadoModificacion[] resultado = {ResultadoModificacion.NO_ENCONTRADO};
+        entidades.computeIfPresent(clave, (k, actual) -> {
+            T nueva = modificador.apply(actual);
+            if (mismosValores(actual, nueva)) {
+                resultado[0] = ResultadoModificacion.SIN_CAMBIOS;
+                return actual;
+            }
+            resultado[0] = ResultadoModificacion.MODIFICADO;
+            return nueva;
+        });
+        return resultado[0];
+    }
+
+    /**
+     * Compara dos versiones de una entidad campo a campo (las entidades no redefinen equals).
+     */
+    protected abstract boolean mismosValores(T actual, T nueva);
+}
@@ -0,0 +1,46 @@
+package ar.edu.unlu.bdd.repository.memoria;
+
+import ar.edu.unlu.bdd.entity.Producto;
+import ar.edu.unlu.bdd.repository.RepositorioProducto;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+public class RepositorioProductoMemoria extends RepositorioMemoria<Integer, Producto> implements RepositorioProducto {
+
+    public RepositorioProductoMemoria() {
+        super(Producto::getCodigo);
+    }
+
+    @Override
+    public boolean eliminar(int codigo) {
+        return quitar(codigo) != null;
+    }
+
+    @Override
+    public ResultadoModificacion modificar(int codigo, String descripcion, int stock) {
+        return reemplazar(codigo, actual -> new Producto(codigo, descripcion, stock));
+    }
+
+    @Override
+    public Producto buscar(int codigo) {
+        return obtener(codigo);
+    }
+
+    @Override
+    public boolean existe(int codigo) {
+        return entidades.containsKey(codigo);
+    }
+
+    @Override
+    public Set<Integer> codigos() {
+        return new HashSet<>(entidades.keySet());
+    }
+
+    @Override
+    protected boolean mismosValores(Producto actual, Producto nueva) {
+        return Objects.equals(actual.getDescripcion(), nueva.getDescripcion()) && actual.getStock() == nueva.getStock();
+    }
+}
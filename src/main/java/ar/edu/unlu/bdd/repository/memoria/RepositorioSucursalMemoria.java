@@ -0,0 +1,46 @@
+package ar.edu.unlu.bdd.repository.memoria;
+
+import ar.edu.unlu.bdd.entity.Sucursal;
+import ar.edu.unlu.bdd.repository.RepositorioSucursal;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+public class RepositorioSucursalMemoria extends RepositorioMemoria<String, Sucursal> implements RepositorioSucursal {
+
+    public RepositorioSucursalMemoria() {
+        super(Sucursal::getNombre);
+    }
+
+    @Override
+    public boolean eliminar(String nombre) {
+        return quitar(nombre) != null;
+    }
+
+    @Override
+    public ResultadoModificacion modificar(String nombre, String direccion) {
+        return reemplazar(nombre, actual -> new Sucursal(nombre, direccion));
+    }
+
+    @Override
+    public Sucursal buscar(String nombre) {
+        return obtener(nombre);
+    }
+
+    @Override
+    public boolean existe(String nombre) {
+        return entidades.containsKey(nombre);
+    }
+
+    @Override
+    public Set<String> nombres() {
+        return new HashSet<>(entidades.keySet());
+    }
+
+    @Override
+    protected boolean mismosValores(Sucursal actual, Sucursal nueva) {
+        return Objects.equals(actual.getDireccion(), nueva.getDireccion());
+    }
+}
@@ -0,0 +1,316 @@
+package ar.edu.unlu.bdd.repository.memoria;
+
+import ar.edu.unlu.bdd.entity.Vende;
+import ar.edu.unlu.bdd.repository.AjustePrecio;
+import ar.edu.unlu.bdd.repository.RepositorioVende;
+import ar.edu.unlu.bdd.repository.ResultadoAjustePrecio;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+import ar.edu.unlu.bdd.repository.StockProducto;
+import ar.edu.unlu.bdd.repository.ValoracionSucursal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Relaciones sucursal-producto en memoria.
+ * <p>
+ * El mapa principal está ordenado por (sucursal, codigoProducto), así que las relaciones
+ * de una sucursal forman un rango contiguo. Para buscar por producto se mantiene un
+ * índice secundario producto -> sucursales, equivalente al índice sobre 'codigoProducto'
+ * de la colección en MongoDB.
+ * <p>
+ * La vista de stock por producto se mantiene igual que en MongoDB: cada escritura anota
+ * el código afectado y el refresco recalcula solo esos productos.
+ */
+public class RepositorioVendeMemoria extends RepositorioMemoria<RepositorioVendeMemoria.Clave, Vende> implements RepositorioVende {
+
+    private final Map<Integer, Set<String>> sucursalesPorProducto = new ConcurrentHashMap<>();
+    private final Map<Integer, StockProducto> vistaStock = new ConcurrentHashMap<>();
+    private final Set<Integer> productosModificados = ConcurrentHashMap.newKeySet();
+
+    public RepositorioVendeMemoria() {
+        super(v -> new Clave(v.getSucursal(), v.getCodigoProducto()));
+    }
+
+    @Override
+    public boolean insertar(Vende relacion) {
+        if (!super.insertar(relacion)) {
+            return false;
+        }
+        productosModificados.add(relacion.getCodigoProducto());
+        sucursalesPorProducto.computeIfAbsent(relacion.getCodigoProducto(), k -> new ConcurrentSkipListSet<>())
+                .add(relacion.getSucursal());
+        return true;
+    }
+
+    @Override
+    public boolean eliminar(String sucursal, int codigoProducto) {
+        if (quitar(new Clave(sucursal, codigoProducto)) == null) {
+            return false;
+        }
+        productosModificados.add(codigoProducto);
+        Set<String> sucursales = sucursalesPorProducto.get(codigoProducto);
+        if (sucursales != null) {
+            sucursales.remove(sucursal);
+        }
+        return true;
+    }
+
+    /**
+     * @return códigos de los productos cuyas relaciones se eliminaron
+     */
+    List<Integer> eliminarPorSucursal(String sucursal) {
+        List<Integer> codigos = new ArrayList<>();
+        for (Vende relacion : buscarPorSucursal(sucursal)) {
+            if (eliminar(sucursal, relacion.getCodigoProducto())) {
+                codigos.add(relacion.getCodigoProducto());
+            }
+        }
+        return codigos;
+    }
+
+    long eliminarPorProducto(int codigoProducto) {
+        long eliminadas = 0;
+        for (Vende relacion : buscarPorProducto(codigoProducto)) {
+            if (eliminar(relacion.getSucursal(), codigoProducto)) {
+                eliminadas++;
+            }
+        }
+        return eliminadas;
+    }
+
+    @Override
+    public ResultadoModificacion modificar(String sucursal, int codigoProducto, double precio, int stock) {
+        ResultadoModificacion resultado = reemplazar(new Clave(sucursal, codigoProducto),
+                actual -> new Vende(sucursal, codigoProducto, precio, stock));
+        productosModificados.add(codigoProducto);
+        return resultado;
+    }
+
+    @Override
+    public Vende buscar(String sucursal, int codigoProducto) {
+        return obtener(new Clave(sucursal, codigoProducto));
+    }
+
+    @Override
+    public List<Vende> buscarPorProducto(int codigoProducto) {
+        Set<String> sucursales = sucursalesPorProducto.getOrDefault(codigoProducto, Collections.emptySet());
+        List<Vende> relaciones = new ArrayList<>(sucursales.size());
+        for (String sucursal : sucursales) {
+            Vende relacion = obtener(new Clave(sucursal, codigoProducto));
+            if (relacion != null) {
+                relaciones.add(relacion);
+            }
+        }
+        return relaciones;
+    }
+
+    @Override
+    public List<Vende> buscarPorSucursal(String sucursal) {
+        return new ArrayList<>(entidades.subMap(
+                new Clave(sucursal, Integer.MIN_VALUE), true,
+                new Clave(sucursal, Integer.MAX_VALUE), true).values());
+    }
+
+    /**
+     * La verificación del stock y el descuento ocurren dentro de computeIfPresent,
+     * que es atómico para la clave.
+     */
+    @Override
+    public Vende vender(String sucursal, int codigoProducto, int cantidad) {
+        Vende[] vendida = new Vende[1];
+        entidades.computeIfPresent(new Clave(sucursal, codigoProducto), (clave, actual) -> {
+            if (actual.getStock() < cantidad) {
+                return actual;
+            }
+            vendida[0] = new Vende(sucursal, codigoProducto, actual.getPrecio(), actual.getStock() - cantidad);
+            return vendida[0];
+        });
+        if (vendida[0] != null) {
+            productosModificados.add(codigoProducto);
+        }
+        return vendida[0];
+    }
+
+    @Override
+    public List<Vende> venderPedido(String sucursal, Map<Integer, Integer> lineas) {
+        List<Vende> vendidas = new ArrayList<>(lineas.size());
+        for (Map.Entry<Integer, Integer> linea : lineas.entrySet()) {
+            Vende vendida = vender(sucursal, linea.getKey(), linea.getValue());
+            if (vendida != null) {
+                vendidas.add(vendida);
+            }
+        }
+        return vendidas;
+    }
+
+    /**
+     * Las relaciones de cada sucursal son contiguas en el mapa ordenado, así que alcanza
+     * con una pasada que cierra la fila al cambiar de sucursal.
+     */
+    @Override
+    public List<ValoracionSucursal> valorarInventario() {
+        List<ValoracionSucursal> valoracion = new ArrayList<>();
+        String sucursal = null;
+        long productos = 0, unidades = 0;
+        double valor = 0, precioMinimo = 0, precioMaximo = 0;
+
+        for (Vende relacion : entidades.values()) {
+            if (!relacion.getSucursal().equals(sucursal)) {
+                if (sucursal != null) {
+                    valoracion.add(new ValoracionSucursal(sucursal, productos, unidades, valor, precioMinimo, precioMaximo));
+                }
+                sucursal = relacion.getSucursal();
+                productos = 0;
+                unidades = 0;
+                valor = 0;
+                precioMinimo = relacion.getPrecio();
+                precioMaximo = relacion.getPrecio();
+            }
+            productos++;
+            unidades += relacion.getStock();
+            valor += relacion.getPrecio() * relacion.getStock();
+            precioMinimo = Math.min(precioMinimo, relacion.getPrecio());
+            precioMaximo = Math.max(precioMaximo, relacion.getPrecio());
+        }
+        if (sucursal != null) {
+            valoracion.add(new ValoracionSucursal(sucursal, productos, unidades, valor, precioMinimo, precioMaximo));
+        }
+        return valoracion;
+    }
+
+    /**
+     * Cada relación se reemplaza con computeIfPresent, atómico para la clave; el ajuste en
+     * conjunto no es atómico, igual que el updateMany de MongoDB.
+     */
+    @Override
+    public ResultadoAjustePrecio ajustarPrecios(AjustePrecio ajuste, boolean simular) {
+        Iterable<Vende> candidatas;
+        if (ajuste.getSucursal() != null) {
+            candidatas = buscarPorSucursal(ajuste.getSucursal());
+        } else if (ajuste.getCodigoProducto() != null) {
+            candidatas = buscarPorProducto(ajuste.getCodigoProducto());
+        } else {
+            candidatas = entidades.values();
+        }
+
+        long coincidentes = 0, excluidas = 0, modificadas = 0;
+        for (Vende relacion : candidatas) {
+            if (!ajuste.incluye(relacion)) {
+                continue;
+            }
+            coincidentes++;
+            if (relacion.getPrecio() < ajuste.getPrecioMinimoAplicable()) {
+                excluidas++;
+                continue;
+            }
+            if (simular) {
+                continue;
+            }
+            boolean[] modificada = new boolean[1];
+            entidades.computeIfPresent(new Clave(relacion.getSucursal(), relacion.getCodigoProducto()), (clave, actual) -> {
+                double precio = ajuste.aplicar(actual.getPrecio());
+                if (precio == actual.getPrecio() || precio < 0) {
+                    return actual;
+                }
+                modificada[0] = true;
+                return new Vende(actual.getSucursal(), actual.getCodigoProducto(), precio, actual.getStock());
+            });
+            if (modificada[0]) {
+                modificadas++;
+            }
+        }
+        return new ResultadoAjustePrecio(coincidentes, excluidas, modificadas, simular);
+    }
+
+    @Override
+    public int refrescarStockPorProducto() {
+        List<Integer> codigos = new ArrayList<>(productosModificados);
+        productosModificados.removeAll(codigos);
+        for (int i = 0; i < codigos.size(); i++) {
+            try {
+                materializarStock(codigos.get(i));
+            } catch (RuntimeException e) {
+                // Los que faltaban quedan anotados para el próximo refresco
+                productosModificados.addAll(codigos.subList(i, codigos.size()));
+                throw e;
+            }
+        }
+        return codigos.size();
+    }
+
+    @Override
+    public int reconstruirStockPorProducto() {
+        productosModificados.clear();
+        vistaStock.clear();
+        for (Integer codigo : sucursalesPorProducto.keySet()) {
+            materializarStock(codigo);
+        }
+        return vistaStock.size();
+    }
+
+    private void materializarStock(int codigoProducto) {
+        List<Vende> relaciones = buscarPorProducto(codigoProducto);
+        if (relaciones.isEmpty()) {
+            vistaStock.remove(codigoProducto);
+            return;
+        }
+        long unidades = 0;
+        for (Vende relacion : relaciones) {
+            unidades += relacion.getStock();
+        }
+        vistaStock.put(codigoProducto, new StockProducto(codigoProducto, relaciones.size(), unidades));
+    }
+
+    @Override
+    public StockProducto stockPorProducto(int codigoProducto) {
+        return vistaStock.get(codigoProducto);
+    }
+
+    @Override
+    protected boolean mismosValores(Vende actual, Vende nueva) {
+        return actual.getPrecio() == nueva.getPrecio() && actual.getStock() == nueva.getStock();
+    }
+
+    /**
+     * Clave compuesta (sucursal, codigoProducto), ordenada igual que el índice único de MongoDB.
+     */
+    static final class Clave implements Comparable<Clave> {
+        private final String sucursal;
+        private final int codigoProducto;
+
+        Clave(String sucursal, int codigoProducto) {
+            this.sucursal = sucursal;
+            this.codigoProducto = codigoProducto;
+        }
+
+        @Override
+        public int compareTo(Clave otra) {
+            int porSucursal = sucursal.compareTo(otra.sucursal);
+            return porSucursal != 0 ? porSucursal : Integer.compare(codigoProducto, otra.codigoProducto);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Clave)) return false;
+            Clave otra = (Clave) o;
+            return codigoProducto == otra.codigoProducto && sucursal.equals(otra.sucursal);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sucursal.hashCode() + codigoProducto;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + sucursal + ", " + codigoProducto + ")";
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ar.edu.unlu.bdd.repository.memoria;
+
+import ar.edu.unlu.bdd.entity.Venta;
+import ar.edu.unlu.bdd.repository.PeriodoVentas;
+import ar.edu.unlu.bdd.repository.RepositorioVentas;
+import ar.edu.unlu.bdd.repository.ResultadoLote;
+import ar.edu.unlu.bdd.repository.ResumenVentas;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Ventas en memoria. Los resúmenes recorren todos los eventos del proceso.
+ */
+public class RepositorioVentasMemoria implements RepositorioVentas {
+
+    private final ConcurrentLinkedQueue<Venta> ventas = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public ResultadoLote registrar(List<Venta> lote) {
+        ventas.addAll(lote);
+        return new ResultadoLote(lote.size());
+    }
+
+    @Override
+    public List<ResumenVentas> resumir(PeriodoVentas periodo, String sucursal, Instant desde, Instant hasta, ZoneId zona) {
+        // Ordenado por inicio del período y sucursal, igual que el $sort de MongoDB
+        Map<Instant, Map<String, Totales>> porPeriodo = new TreeMap<>();
+
+        for (Venta venta : ventas) {
+            if (venta.getFecha().isBefore(desde) || !venta.getFecha().isBefore(hasta)
+                    || (sucursal != null && !sucursal.equals(venta.getSucursal()))) {
+                continue;
+            }
+            Instant inicio = venta.getFecha().atZone(zona).truncatedTo(periodo.getUnidad()).toInstant();
+            Totales totales = porPeriodo.computeIfAbsent(inicio, k -> new TreeMap<>())
+                    .computeIfAbsent(venta.getSucursal(), k -> new Totales());
+            totales.ventas++;
+            totales.unidades += venta.getCantidad();
+            totales.importe += venta.getImporte();
+        }
+
+        List<ResumenVentas> resumen = new ArrayList<>();
+        porPeriodo.forEach((inicio, porSucursal) -> porSucursal.forEach((nombre, totales) ->
+                resumen.add(new ResumenVentas(inicio, nombre, totales.ventas, totales.unidades, totales.importe))));
+        return resumen;
+    }
+
+    private static final class Totales {
+        long ventas;
+        long unidades;
+        double importe;
+    }
+}
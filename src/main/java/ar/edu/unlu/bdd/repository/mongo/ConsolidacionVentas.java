@@ -0,0 +1,217 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import ar.edu.unlu.bdd.database.OperacionMongo;
+import ar.edu.unlu.bdd.repository.TiempoAgotadoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.ReplaceOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.lt;
+import static com.mongodb.client.model.Projections.excludeId;
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Sorts.ascending;
+
+/**
+ * Resúmenes preagregados de la colección de series temporales 'ventas':
+ * 'ventas_por_hora' y 'ventas_por_dia', con un documento por período y sucursal:
+ * <pre>
+ * { _id: { zona: "America/Argentina/Buenos_Aires", periodo: ISODate(...), sucursal: "Centro" },
+ *   ventas: 12, unidades: 30, importe: 2990.5 }
+ * </pre>
+ * Se consolidan a pedido, antes de cada resumen, como la vista de stock por producto: las
+ * horas cerradas desde la última consolidación se agrupan desde los eventos y se vuelcan con
+ * $merge, y los días completos se agrupan desde las horas. Hasta dónde llega cada resumen se
+ * guarda en 'ventas_consolidacion', así que cada evento se agrupa una sola vez, aunque el
+ * proceso se reinicie. Las ventas posteriores a esos límites se leen de los eventos.
+ * <p>
+ * Solo se consolidan las horas que cerraron hace más de {@code bdd.ventas.margenResumenMs}
+ * milisegundos (por defecto 5 minutos), para que las ventas del último lote del
+ * {@link ar.edu.unlu.bdd.repository.RegistroVentas}, incluidos sus reintentos, ya estén
+ * escritas. Los períodos se cortan en la zona {@code bdd.ventas.zonaResumen} (por defecto
+ * la del sistema); los resúmenes en otra zona se calculan desde los eventos.
+ */
+final class ConsolidacionVentas {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsolidacionVentas.class);
+
+    static final String POR_HORA = "ventas_por_hora";
+    static final String POR_DIA = "ventas_por_dia";
+    static final String ESTADO = "ventas_consolidacion";
+
+    static final ZoneId ZONA = leerZona();
+    static final long MARGEN_MS = Long.getLong("bdd.ventas.margenResumenMs", 300_000);
+
+    private final MongoCollection<Document> eventos;
+    private final MongoCollection<Document> porHora;
+    private final MongoCollection<Document> porDia;
+    private final MongoCollection<Document> estado;
+
+    ConsolidacionVentas(MongoDatabase database) {
+        this.eventos = OperacionMongo.RESUMEN_VENTAS.aplicar(database.getCollection("ventas"));
+        this.porHora = OperacionMongo.RESUMEN_VENTAS.aplicar(database.getCollection(POR_HORA));
+        this.porDia = OperacionMongo.RESUMEN_VENTAS.aplicar(database.getCollection(POR_DIA));
+        this.estado = database.getCollection(ESTADO);
+    }
+
+    MongoCollection<Document> getPorHora() {
+        return porHora;
+    }
+
+    MongoCollection<Document> getPorDia() {
+        return porDia;
+    }
+
+    /**
+     * Hasta dónde llegan los resúmenes consolidados (exclusive). Los días siempre quedan
+     * antes o en el mismo instante que las horas.
+     */
+    static final class Cobertura {
+        final Instant horas;
+        final Instant dias;
+
+        private Cobertura(Instant horas, Instant dias) {
+            this.horas = horas;
+            this.dias = dias;
+        }
+    }
+
+    /**
+     * Consolida las horas cerradas hasta {@code ahora} menos el margen, de a un día por vez;
+     * después de cada día se guarda hasta dónde se llegó. Si una agregación supera su tiempo
+     * máximo, la consolidación se detiene ahí y el resto se lee de los eventos.
+     *
+     * @return la cobertura alcanzada, o null si todavía no hay ventas
+     */
+    Cobertura consolidar(Instant ahora) {
+        Instant limite = piso(ahora.minusMillis(MARGEN_MS), ChronoUnit.HOURS);
+        Document actual = estado.find(eq("_id", ZONA.getId())).first();
+        Instant horas;
+        Instant dias;
+        if (actual != null) {
+            horas = actual.getDate("horas").toInstant();
+            dias = actual.getDate("dias").toInstant();
+        } else {
+            Document primera = LimiteTiempo.leer(OperacionMongo.RESUMEN_VENTAS, ms -> eventos.find()
+                    .sort(ascending("fecha"))
+                    .projection(fields(include("fecha"), excludeId()))
+                    .maxTime(ms, TimeUnit.MILLISECONDS)
+                    .first());
+            if (primera == null) {
+                return null;
+            }
+            // Desde el inicio de su día, para que el primer resumen diario también quede completo
+            horas = piso(primera.getDate("fecha").toInstant(), ChronoUnit.DAYS);
+            dias = horas;
+        }
+
+        try {
+            while (horas.isBefore(limite)) {
+                Instant fin = min(siguiente(horas, ChronoUnit.DAYS), limite);
+                agrupar(eventos, porHora, ChronoUnit.HOURS, and(gte("fecha", Date.from(horas)), lt("fecha", Date.from(fin))),
+                        "$fecha", "$meta.sucursal", 1, "$cantidad",
+                        new Document("$multiply", List.of("$cantidad", "$precio")));
+                horas = fin;
+
+                Instant finDias = piso(horas, ChronoUnit.DAYS);
+                if (finDias.isAfter(dias)) {
+                    agrupar(porHora, porDia, ChronoUnit.DAYS, and(eq("_id.zona", ZONA.getId()),
+                                    gte("_id.periodo", Date.from(dias)), lt("_id.periodo", Date.from(finDias))),
+                            "$_id.periodo", "$_id.sucursal", "$ventas", "$unidades", "$importe");
+                    dias = finDias;
+                }
+                estado.replaceOne(eq("_id", ZONA.getId()),
+                        new Document("horas", Date.from(horas)).append("dias", Date.from(dias)),
+                        new ReplaceOptions().upsert(true));
+            }
+        } catch (TiempoAgotadoException e) {
+            logger.warn("Consolidación de ventas detenida en {}: {} El resto se lee de los eventos.", horas, e.getMessage());
+        }
+        return new Cobertura(horas, dias);
+    }
+
+    /**
+     * Agrupa en el servidor los documentos del filtro por período y sucursal y los vuelca en el
+     * destino con $merge. Los períodos del filtro son completos, así que reemplazar es correcto.
+     */
+    private static void agrupar(MongoCollection<Document> origen, MongoCollection<Document> destino, ChronoUnit unidad,
+                                Bson filtro, String fecha, String sucursal, Object ventas, Object unidades, Object importe) {
+        List<Bson> pipeline = List.of(
+                new Document("$match", filtro),
+                new Document("$group", new Document("_id", new Document("zona", ZONA.getId())
+                        .append("periodo", new Document("$dateTrunc", new Document("date", fecha)
+                                .append("unit", unidad == ChronoUnit.HOURS ? "hour" : "day")
+                                .append("timezone", ZONA.getId())))
+                        .append("sucursal", sucursal))
+                        .append("ventas", new Document("$sum", ventas))
+                        .append("unidades", new Document("$sum", unidades))
+                        .append("importe", new Document("$sum", importe))),
+                new Document("$merge", new Document("into", destino.getNamespace().getCollectionName())
+                        .append("on", "_id")
+                        .append("whenMatched", "replace")
+                        .append("whenNotMatched", "insert")));
+        LimiteTiempo.leer(OperacionMongo.RESUMEN_VENTAS, ms -> {
+            origen.aggregate(pipeline).maxTime(ms, TimeUnit.MILLISECONDS).toCollection();
+            return null;
+        });
+    }
+
+    /**
+     * @return el inicio del período que contiene al instante, en {@link #ZONA}
+     */
+    static Instant piso(Instant instante, ChronoUnit unidad) {
+        return instante.atZone(ZONA).truncatedTo(unidad).toInstant();
+    }
+
+    /**
+     * @return el inicio del período siguiente al que contiene al instante, en {@link #ZONA}
+     */
+    static Instant siguiente(Instant instante, ChronoUnit unidad) {
+        return instante.atZone(ZONA).truncatedTo(unidad).plus(1, unidad).truncatedTo(unidad).toInstant();
+    }
+
+    /**
+     * @return el inicio del primer período que empieza en el instante o después
+     */
+    static Instant techo(Instant instante, ChronoUnit unidad) {
+        Instant inicio = piso(instante, unidad);
+        return inicio.equals(instante) ? inicio : siguiente(instante, unidad);
+    }
+
+    static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static ZoneId leerZona() {
+        String valor = System.getProperty("bdd.ventas.zonaResumen");
+        if (valor == null || valor.isBlank()) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(valor.trim());
+        } catch (DateTimeException e) {
+            LoggerFactory.getLogger(ConsolidacionVentas.class)
+                    .warn("Valor inválido para 'bdd.ventas.zonaResumen': '{}'. Se usa la zona del sistema.", valor);
+            return ZoneId.systemDefault();
+        }
+    }
+}
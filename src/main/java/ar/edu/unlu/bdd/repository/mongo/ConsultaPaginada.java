@@ -0,0 +1,123 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import ar.edu.unlu.bdd.database.OperacionMongo;
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Recorre una colección por páginas usando paginación por clave (keyset): cada página
+ * continúa desde la última clave leída en lugar de usar {@code skip}, por lo que el
+ * costo de cada página es el mismo sin importar cuántas se hayan leído antes.
+ * <p>
+ * Los campos clave deben formar un índice único (ver {@link ar.edu.unlu.bdd.database.Indices}) para que el
+ * orden sea estable y la búsqueda de la siguiente página use el índice.
+ * <p>
+ * Propiedades del sistema:
+ * - bdd.consulta.tamanioPagina: documentos por página (por defecto 50)
+ * - bdd.consulta.batchSize: documentos por lote del cursor (por defecto, el tamaño de página)
+ * <p>
+ * Cada página se lee con el tiempo máximo de {@link OperacionMongo#CONSULTA} vigente al crear
+ * la consulta; si se agota, la página lanza {@link ar.edu.unlu.bdd.repository.TiempoAgotadoException}.
+ *
+ * @param <T> tipo de los documentos de la colección (entidad con su codec)
+ */
+public class ConsultaPaginada<T> implements RecorridoPaginado<T> {
+
+    public static final int TAMANIO_PAGINA_POR_DEFECTO = Integer.getInteger("bdd.consulta.tamanioPagina", 50);
+    public static final int BATCH_SIZE_POR_DEFECTO = Integer.getInteger("bdd.consulta.batchSize", 0);
+
+    private final MongoCollection<T> collection;
+    private final Bson proyeccion;
+    private final Function<T, Object[]> extractorClave;
+    private final String[] camposClave;
+    private final int tamanioPagina;
+    private final int batchSize;
+    private final long tiempoMaximoMs;
+
+    private Object[] ultimaClave;
+    private boolean hayMas = true;
+
+    /**
+     * Crea una consulta paginada con el tamaño de página y de lote por defecto.
+     *
+     * @param collection     Colección a recorrer
+     * @param proyeccion     Campos a devolver (debe incluir los campos clave)
+     * @param extractorClave Obtiene de una entidad los valores de los campos clave, en orden
+     * @param camposClave    Campos del índice único por el que se ordena
+     */
+    public ConsultaPaginada(MongoCollection<T> collection, Bson proyeccion, Function<T, Object[]> extractorClave, String... camposClave) {
+        this(collection, proyeccion, TAMANIO_PAGINA_POR_DEFECTO, BATCH_SIZE_POR_DEFECTO, extractorClave, camposClave);
+    }
+
+    public ConsultaPaginada(MongoCollection<T> collection, Bson proyeccion, int tamanioPagina, int batchSize,
+                            Function<T, Object[]> extractorClave, String... camposClave) {
+        this.collection = collection;
+        this.proyeccion = proyeccion;
+        this.extractorClave = extractorClave;
+        this.camposClave = camposClave;
+        this.tamanioPagina = tamanioPagina > 0 ? tamanioPagina : TAMANIO_PAGINA_POR_DEFECTO;
+        this.batchSize = batchSize > 0 ? batchSize : this.tamanioPagina + 1;
+        this.tiempoMaximoMs = OperacionMongo.CONSULTA.getTiempoMaximoMs();
+    }
+
+    @Override
+    public List<T> siguientePagina() {
+        if (!hayMas) {
+            return new ArrayList<>();
+        }
+
+        // Se pide un documento extra solo para saber si existe una página siguiente
+        List<T> pagina = LimiteTiempo.leer(OperacionMongo.CONSULTA, tiempoMaximoMs, ms -> collection.find(filtroDesdeUltimaClave())
+                .projection(proyeccion)
+                .sort(Sorts.ascending(camposClave))
+                .limit(tamanioPagina + 1)
+                .batchSize(batchSize)
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .into(new ArrayList<>(tamanioPagina + 1)));
+
+        hayMas = pagina.size() > tamanioPagina;
+        if (hayMas) {
+            pagina.remove(pagina.size() - 1);
+        }
+
+        if (!pagina.isEmpty()) {
+            ultimaClave = extractorClave.apply(pagina.get(pagina.size() - 1));
+        }
+        return pagina;
+    }
+
+    @Override
+    public boolean hayMasPaginas() {
+        return hayMas;
+    }
+
+    /**
+     * Arma el filtro "clave mayor a la última leída" para una clave de uno o más campos:
+     * (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ...
+     */
+    private Bson filtroDesdeUltimaClave() {
+        if (ultimaClave == null) {
+            return new Document();
+        }
+
+        List<Bson> alternativas = new ArrayList<>(camposClave.length);
+        for (int i = 0; i < camposClave.length; i++) {
+            List<Bson> condiciones = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                condiciones.add(Filters.eq(camposClave[j], ultimaClave[j]));
+            }
+            condiciones.add(Filters.gt(camposClave[i], ultimaClave[i]));
+            alternativas.add(condiciones.size() == 1 ? condiciones.get(0) : Filters.and(condiciones));
+        }
+        return alternativas.size() == 1 ? alternativas.get(0) : Filters.or(alternativas);
+    }
+}
@@ -0,0 +1,87 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import ar.edu.unlu.bdd.database.OperacionMongo;
+import ar.edu.unlu.bdd.repository.AjustePrecio;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.lte;
+import static com.mongodb.client.model.Updates.inc;
+import static com.mongodb.client.model.Updates.mul;
+
+/**
+ * Traduce un {@link AjustePrecio} a filtros y actualizaciones de MongoDB, para los dos esquemas de vende.
+ * Los campos de la relación se nombran con un prefijo: vacío en la colección 'vende', o el
+ * camino del arreglo embebido ('vende.' tras un $unwind, 'e.' en un arrayFilter).
+ */
+final class FiltroAjustePrecio {
+
+    private FiltroAjustePrecio() {
+    }
+
+    /**
+     * Condiciones sobre producto y precio; la sucursal la filtra cada esquema con su propio campo.
+     *
+     * @param soloAplicables si es true, agrega el precio mínimo para que el ajuste no deje precios negativos
+     */
+    static List<Bson> condiciones(String prefijo, AjustePrecio ajuste, boolean soloAplicables) {
+        List<Bson> condiciones = new ArrayList<>();
+        if (ajuste.getCodigoProducto() != null) {
+            condiciones.add(eq(prefijo + "codigoProducto", ajuste.getCodigoProducto()));
+        }
+        if (ajuste.getPrecioDesde() != null) {
+            condiciones.add(gte(prefijo + "precio", ajuste.getPrecioDesde()));
+        }
+        if (ajuste.getPrecioHasta() != null) {
+            condiciones.add(lte(prefijo + "precio", ajuste.getPrecioHasta()));
+        }
+        if (soloAplicables && ajuste.getPrecioMinimoAplicable() > 0) {
+            condiciones.add(gte(prefijo + "precio", ajuste.getPrecioMinimoAplicable()));
+        }
+        return condiciones;
+    }
+
+    static Bson combinar(List<Bson> condiciones) {
+        return condiciones.isEmpty() ? new Document() : and(condiciones);
+    }
+
+    static Bson actualizacion(String campoPrecio, AjustePrecio ajuste) {
+        return ajuste.getTipo() == AjustePrecio.Tipo.PORCENTAJE
+                ? mul(campoPrecio, ajuste.getFactor())
+                : inc(campoPrecio, ajuste.getValor());
+    }
+
+    /**
+     * Cuenta en una sola agregación las relaciones del filtro y cuántas de ellas admiten el ajuste,
+     * con el tiempo máximo de {@link OperacionMongo#AJUSTE_PRECIOS}.
+     *
+     * @param etapas      etapas que dejan un documento por relación que cumple el filtro
+     * @param campoPrecio camino del precio en esos documentos, con '$'
+     * @return arreglo con las coincidentes y las aplicables
+     */
+    static long[] contar(MongoCollection<?> coleccion, List<Bson> etapas, String campoPrecio, AjustePrecio ajuste) {
+        Object aplicable = ajuste.getPrecioMinimoAplicable() > 0
+                ? new Document("$cond", List.of(new Document("$gte", List.of(campoPrecio, ajuste.getPrecioMinimoAplicable())), 1, 0))
+                : 1;
+        List<Bson> pipeline = new ArrayList<>(etapas);
+        pipeline.add(new Document("$group", new Document("_id", null)
+                .append("coincidentes", new Document("$sum", 1))
+                .append("aplicables", new Document("$sum", aplicable))));
+
+        Document conteo = LimiteTiempo.leer(OperacionMongo.AJUSTE_PRECIOS, ms -> coleccion.aggregate(pipeline, Document.class)
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .first());
+        if (conteo == null) {
+            return new long[]{0, 0};
+        }
+        return new long[]{conteo.get("coincidentes", Number.class).longValue(), conteo.get("aplicables", Number.class).longValue()};
+    }
+}
@@ -0,0 +1,33 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import ar.edu.unlu.bdd.database.OperacionMongo;
+import ar.edu.unlu.bdd.repository.TiempoAgotadoException;
+import com.mongodb.MongoExecutionTimeoutException;
+
+import java.util.function.LongFunction;
+
+/**
+ * Aplica el tiempo máximo de una operación a sus lecturas. La lectura recibe los milisegundos
+ * para pasarlos a {@code maxTime} (0 = sin límite): el servidor cancela la consulta al vencer
+ * el plazo y libera su cursor, y el error del driver se traduce a {@link TiempoAgotadoException}.
+ */
+final class LimiteTiempo {
+
+    private LimiteTiempo() {
+    }
+
+    static <R> R leer(OperacionMongo operacion, LongFunction<R> lectura) {
+        return leer(operacion, operacion.getTiempoMaximoMs(), lectura);
+    }
+
+    /**
+     * @param milisegundos Límite tomado antes, para los recorridos que leen sus páginas más tarde
+     */
+    static <R> R leer(OperacionMongo operacion, long milisegundos, LongFunction<R> lectura) {
+        try {
+            return lectura.apply(milisegundos);
+        } catch (MongoExecutionTimeoutException e) {
+            throw new TiempoAgotadoException(operacion.getClave(), milisegundos, e);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import ar.edu.unlu.bdd.database.Indices;
+import ar.edu.unlu.bdd.entity.Vende;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.exists;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Projections.excludeId;
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Sorts.ascending;
+import static com.mongodb.client.model.Updates.set;
+import static com.mongodb.client.model.Updates.unset;
+
+/**
+ * Copia las relaciones sucursal-producto entre la colección 'vende' y el arreglo embebido en
+ * cada sucursal (ver {@link RepositorioVendeEmbebidoMongo}).
+ * <p>
+ * El origen se recorre con un único cursor ordenado y el destino se escribe con bulkWrite no
+ * ordenados de, como mínimo, {@code tamanioLote} relaciones: nunca se cargan todas en memoria
+ * ni se hace una ida y vuelta por relación. La migración puede repetirse: en un sentido
+ * reemplaza el arreglo completo de cada sucursal y en el otro hace upsert por sucursal y producto.
+ * No es transaccional; hasta que termine conviene no escribir relaciones desde otra instancia.
+ */
+public class MigracionEsquemaVende {
+
+    private final MongoCollection<Vende> vende;
+    private final MongoCollection<Document> sucursales;
+    private final MongoDatabase database;
+
+    public MigracionEsquemaVende(MongoDatabase database) {
+        this.database = database;
+        this.vende = database.getCollection("vende", Vende.class);
+        this.sucursales = database.getCollection("sucursales");
+    }
+
+    /**
+     * Copia la colección 'vende' al arreglo de cada sucursal. Las sucursales que no existen o que
+     * superarían {@link RepositorioVendeEmbebidoMongo#MAX_PRODUCTOS} relaciones se omiten. Antes de
+     * copiar se crea el índice multiclave del esquema embebido ({@link Indices#crearEsquemaEmbebido}).
+     *
+     * @param eliminarOrigen si es true, borra de 'vende' las relaciones de las sucursales migradas
+     */
+    public ResultadoMigracion aEmbebido(int tamanioLote, boolean eliminarOrigen) {
+        long inicio = System.nanoTime();
+        Indices.crearEsquemaEmbebido(database);
+        Set<String> existentes = nombresSucursales();
+        List<String> omitidas = new ArrayList<>();
+        List<String> migradas = new ArrayList<>();
+        List<WriteModel<Document>> operaciones = new ArrayList<>();
+        long relaciones = 0;
+        long relacionesLote = 0;
+        long lotes = 0;
+
+        try (MongoCursor<Vende> cursor = vende.find().sort(ascending("sucursal", "codigoProducto")).iterator()) {
+            String actual = null;
+            List<Document> entradas = new ArrayList<>();
+            while (cursor.hasNext() || actual != null) {
+                Vende relacion = cursor.hasNext() ? cursor.next() : null;
+                if (relacion != null && relacion.getSucursal().equals(actual)) {
+                    entradas.add(RepositorioVendeEmbebidoMongo.entrada(relacion));
+                    continue;
+                }
+
+                // Cambio de sucursal: se cierra la anterior y, en el límite, se envía el lote
+                if (actual != null) {
+                    if (!existentes.contains(actual)) {
+                        omitidas.add(actual + ": la sucursal no existe (" + entradas.size() + " relaciones)");
+                    } else if (entradas.size() > RepositorioVendeEmbebidoMongo.MAX_PRODUCTOS) {
+                        omitidas.add(actual + ": " + entradas.size() + " relaciones superan el límite de "
+                                + RepositorioVendeEmbebidoMongo.MAX_PRODUCTOS);
+                    } else {
+                        operaciones.add(new UpdateOneModel<>(eq("nombre", actual), set("vende", entradas)));
+                        migradas.add(actual);
+                        relaciones += entradas.size();
+                        relacionesLote += entradas.size();
+                    }
+                    if (relacionesLote >= tamanioLote) {
+                        lotes += enviar(sucursales, operaciones);
+                        relacionesLote = 0;
+                    }
+                }
+                actual = relacion == null ? null : relacion.getSucursal();
+                entradas = new ArrayList<>();
+                if (relacion != null) {
+                    entradas.add(RepositorioVendeEmbebidoMongo.entrada(relacion));
+                }
+            }
+        }
+        lotes += enviar(sucursales, operaciones);
+
+        long eliminados = 0;
+        if (eliminarOrigen) {
+            for (int desde = 0; desde < migradas.size(); desde += tamanioLote) {
+                List<String> tramo = migradas.subList(desde, Math.min(migradas.size(), desde + tamanioLote));
+                eliminados += vende.deleteMany(in("sucursal", tramo)).getDeletedCount();
+            }
+        }
+        return new ResultadoMigracion(relaciones, migradas.size(), lotes, eliminados, omitidas,
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Copia el arreglo embebido de cada sucursal a la colección 'vende', con upsert por sucursal y producto.
+     *
+     * @param eliminarOrigen si es true, quita el arreglo 'vende' de las sucursales migradas
+     */
+    public ResultadoMigracion aColeccion(int tamanioLote, boolean eliminarOrigen) {
+        long inicio = System.nanoTime();
+        List<String> migradas = new ArrayList<>();
+        List<WriteModel<Vende>> operaciones = new ArrayList<>();
+        ReplaceOptions upsert = new ReplaceOptions().upsert(true);
+        long relaciones = 0;
+        long lotes = 0;
+
+        try (MongoCursor<Document> cursor = sucursales.find(exists("vende.0"))
+                .projection(fields(include("nombre", "vende"), excludeId())).iterator()) {
+            while (cursor.hasNext()) {
+                Document sucursal = cursor.next();
+                String nombre = sucursal.getString("nombre");
+                for (Document entrada : sucursal.getList("vende", Document.class)) {
+                    Vende relacion = new Vende(nombre,
+                            entrada.get("codigoProducto", Number.class).intValue(),
+                            entrada.get("precio", Number.class).doubleValue(),
+                            entrada.get("stock", Number.class).intValue());
+                    operaciones.add(new ReplaceOneModel<>(
+                            and(eq("sucursal", nombre), eq("codigoProducto", relacion.getCodigoProducto())), relacion, upsert));
+                    relaciones++;
+                }
+                migradas.add(nombre);
+                if (operaciones.size() >= tamanioLote) {
+                    lotes += enviar(vende, operaciones);
+                }
+            }
+        }
+        lotes += enviar(vende, operaciones);
+
+        long eliminados = 0;
+        if (eliminarOrigen) {
+            for (int desde = 0; desde < migradas.size(); desde += tamanioLote) {
+                List<String> tramo = migradas.subList(desde, Math.min(migradas.size(), desde + tamanioLote));
+                eliminados += sucursales.updateMany(in("nombre", tramo), unset("vende")).getModifiedCount();
+            }
+        }
+        return new ResultadoMigracion(relaciones, migradas.size(), lotes, eliminados, List.of(),
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Envía las operaciones pendientes en un bulkWrite no ordenado y vacía la lista.
+     *
+     * @return 1 si se envió un lote, 0 si no había operaciones
+     */
+    private static <T> int enviar(MongoCollection<T> coleccion, List<WriteModel<T>> operaciones) {
+        if (operaciones.isEmpty()) {
+            return 0;
+        }
+        coleccion.bulkWrite(operaciones, new BulkWriteOptions().ordered(false));
+        operaciones.clear();
+        return 1;
+    }
+
+    private Set<String> nombresSucursales() {
+        Set<String> nombres = new HashSet<>();
+        sucursales.find().projection(fields(include("nombre"), excludeId()))
+                .forEach(d -> nombres.add(d.getString("nombre")));
+        return nombres;
+    }
+}
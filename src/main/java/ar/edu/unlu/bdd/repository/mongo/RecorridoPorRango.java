@@ -0,0 +1,102 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import ar.edu.unlu.bdd.database.OperacionMongo;
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.lt;
+
+/**
+ * Recorre un rango [desde, hasta) de '_id' con un único cursor. A diferencia de
+ * {@link ConsultaPaginada}, no hace una consulta por página: cada página son los documentos
+ * de un lote del cursor, pedidos con un batchSize grande para reducir las idas y vueltas.
+ * Pensado para lecturas completas (exportación), donde no hace falta retomar desde una clave.
+ * <p>
+ * Propiedades del sistema:
+ * - bdd.exportacion.batchSize: documentos por lote del cursor (por defecto 5000)
+ * <p>
+ * El tiempo máximo de {@link OperacionMongo#EXPORTACION} es para todo el cursor, no por lote.
+ *
+ * @param <T> tipo de los documentos de la colección (entidad con su codec)
+ */
+class RecorridoPorRango<T> implements RecorridoPaginado<T> {
+
+    static final int BATCH_SIZE = Integer.getInteger("bdd.exportacion.batchSize", 5000);
+
+    private final MongoCollection<T> collection;
+    private final Object desde;
+    private final Object hasta;
+    private final long tiempoMaximoMs;
+    private MongoCursor<T> cursor;
+    private boolean terminado;
+
+    /**
+     * @param desde primer '_id' incluido, o null desde el principio
+     * @param hasta primer '_id' excluido, o null hasta el final
+     */
+    RecorridoPorRango(MongoCollection<T> collection, Object desde, Object hasta) {
+        this.collection = collection;
+        this.desde = desde;
+        this.hasta = hasta;
+        this.tiempoMaximoMs = OperacionMongo.EXPORTACION.getTiempoMaximoMs();
+    }
+
+    @Override
+    public List<T> siguientePagina() {
+        List<T> pagina = new ArrayList<>(BATCH_SIZE);
+        if (terminado) {
+            return pagina;
+        }
+        try {
+            LimiteTiempo.leer(OperacionMongo.EXPORTACION, tiempoMaximoMs, ms -> {
+                if (cursor == null) {
+                    cursor = collection.find(filtro())
+                            .hint(new Document("_id", 1))
+                            .batchSize(BATCH_SIZE)
+                            .maxTime(ms, TimeUnit.MILLISECONDS)
+                            .iterator();
+                }
+                while (pagina.size() < BATCH_SIZE && cursor.hasNext()) {
+                    pagina.add(cursor.next());
+                }
+                return pagina;
+            });
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+        if (pagina.size() < BATCH_SIZE) {
+            close();
+        }
+        return pagina;
+    }
+
+    @Override
+    public boolean hayMasPaginas() {
+        return !terminado;
+    }
+
+    @Override
+    public void close() {
+        terminado = true;
+        if (cursor != null) {
+            cursor.close();
+        }
+    }
+
+    private Bson filtro() {
+        List<Bson> condiciones = new ArrayList<>(2);
+        if (desde != null) condiciones.add(gte("_id", desde));
+        if (hasta != null) condiciones.add(lt("_id", hasta));
+        return condiciones.isEmpty() ? new Document() : and(condiciones);
+    }
+}
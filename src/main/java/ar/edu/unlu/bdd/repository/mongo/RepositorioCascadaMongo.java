@@ -0,0 +1,162 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import ar.edu.unlu.bdd.repository.RepositorioCascada;
+import ar.edu.unlu.bdd.repository.ResultadoCascada;
+import com.mongodb.ReadConcern;
+import com.mongodb.TransactionOptions;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Projections.excludeId;
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.pull;
+import static com.mongodb.client.model.Updates.set;
+
+/**
+ * Bajas en cascada con deleteMany/updateMany sobre las colecciones dependientes, dentro de
+ * una transacción multi-documento: o se aplican todas las escrituras o ninguna.
+ * <p>
+ * Con el esquema embebido (ver {@link RepositorioVendeEmbebidoMongo}) las relaciones de una
+ * sucursal se eliminan con su documento, y las de un producto con un $pull sobre las sucursales.
+ * <p>
+ * Las transacciones requieren un replica set (alcanza con uno local de un solo nodo). Contra
+ * un servidor standalone las escrituras se hacen en la misma sesión pero sin transacción,
+ * eliminando primero los dependientes: si algo falla, la entidad principal sigue existiendo
+ * y la baja se puede repetir.
+ */
+public class RepositorioCascadaMongo implements RepositorioCascada {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositorioCascadaMongo.class);
+
+    private static final TransactionOptions OPCIONES_TRANSACCION = TransactionOptions.builder()
+            .readConcern(ReadConcern.SNAPSHOT)
+            .writeConcern(WriteConcern.MAJORITY)
+            .build();
+
+    private final MongoClient client;
+    private final MongoDatabase database;
+    private final MongoCollection<Document> sucursales;
+    private final MongoCollection<Document> productos;
+    private final MongoCollection<Document> empleados;
+    private final MongoCollection<Document> vende;
+    private final VistaStockPorProducto vistaStock;
+    private final boolean embebido;
+    private volatile Boolean soportaTransacciones;
+
+    public RepositorioCascadaMongo(MongoClient client, MongoDatabase database, RepositorioVendeMongo repositorioVende) {
+        this(client, database, repositorioVende.getVistaStock(), false);
+    }
+
+    public RepositorioCascadaMongo(MongoClient client, MongoDatabase database, RepositorioVendeEmbebidoMongo repositorioVende) {
+        this(client, database, repositorioVende.getVistaStock(), true);
+    }
+
+    private RepositorioCascadaMongo(MongoClient client, MongoDatabase database, VistaStockPorProducto vistaStock, boolean embebido) {
+        this.client = client;
+        this.database = database;
+        this.sucursales = database.getCollection("sucursales");
+        this.productos = database.getCollection("productos");
+        this.empleados = database.getCollection("empleados");
+        this.vende = database.getCollection("vende");
+        this.vistaStock = vistaStock;
+        this.embebido = embebido;
+    }
+
+    @Override
+    public ResultadoCascada eliminarSucursal(String nombre, String sucursalDestino) {
+        List<Integer> codigosAfectados = new ArrayList<>();
+        ResultadoCascada resultado = ejecutar((session, transaccional) -> {
+            if (sucursalDestino != null && sucursales.find(session, eq("nombre", sucursalDestino)).first() == null) {
+                throw new IllegalArgumentException("La sucursal destino '" + sucursalDestino + "' no existe.");
+            }
+
+            // Productos cuyo stock total cambia, para la vista de stock por producto
+            codigosAfectados.clear();
+            long relaciones;
+            if (embebido) {
+                // Las relaciones embebidas se eliminan junto con el documento de la sucursal
+                Document sucursal = sucursales.find(session, eq("nombre", nombre))
+                        .projection(fields(include("vende.codigoProducto"), excludeId())).first();
+                if (sucursal != null) {
+                    sucursal.getList("vende", Document.class, List.of())
+                            .forEach(relacion -> codigosAfectados.add(relacion.get("codigoProducto", Number.class).intValue()));
+                }
+                relaciones = codigosAfectados.size();
+            } else {
+                vende.find(session, eq("sucursal", nombre))
+                        .projection(fields(include("codigoProducto"), excludeId()))
+                        .forEach(relacion -> codigosAfectados.add(relacion.getInteger("codigoProducto")));
+                relaciones = vende.deleteMany(session, eq("sucursal", nombre)).getDeletedCount();
+            }
+            long eliminados = 0, reasignados = 0;
+            if (sucursalDestino == null) {
+                eliminados = empleados.deleteMany(session, eq("sucursal", nombre)).getDeletedCount();
+            } else {
+                reasignados = empleados.updateMany(session, eq("sucursal", nombre), set("sucursal", sucursalDestino)).getModifiedCount();
+            }
+            boolean eliminada = sucursales.deleteOne(session, eq("nombre", nombre)).getDeletedCount() > 0;
+            return new ResultadoCascada(eliminada, relaciones, eliminados, reasignados, transaccional);
+        });
+        vistaStock.anotar(codigosAfectados);
+        return resultado;
+    }
+
+    @Override
+    public ResultadoCascada eliminarProducto(int codigo) {
+        ResultadoCascada resultado = ejecutar((session, transaccional) -> {
+            long relaciones = embebido
+                    ? sucursales.updateMany(session, eq("vende.codigoProducto", codigo),
+                            pull("vende", new Document("codigoProducto", codigo))).getModifiedCount()
+                    : vende.deleteMany(session, eq("codigoProducto", codigo)).getDeletedCount();
+            boolean eliminado = productos.deleteOne(session, eq("codigo", codigo)).getDeletedCount() > 0;
+            return new ResultadoCascada(eliminado, relaciones, 0, 0, transaccional);
+        });
+        vistaStock.anotar(codigo);
+        return resultado;
+    }
+
+    /**
+     * Ejecuta las escrituras en una transacción si el servidor la admite. withTransaction
+     * reintenta el cuerpo completo ante errores transitorios, así que no debe tener efectos
+     * fuera de la sesión que no puedan repetirse.
+     */
+    private ResultadoCascada ejecutar(OperacionesCascada operaciones) {
+        try (ClientSession session = client.startSession()) {
+            if (soportaTransacciones()) {
+                return session.withTransaction(() -> operaciones.aplicar(session, true), OPCIONES_TRANSACCION);
+            }
+            return operaciones.aplicar(session, false);
+        }
+    }
+
+    /**
+     * Las transacciones solo existen en replica sets y clusters fragmentados. Se consulta
+     * una sola vez con el comando hello.
+     */
+    private boolean soportaTransacciones() {
+        if (soportaTransacciones == null) {
+            Document hello = database.runCommand(new Document("hello", 1));
+            soportaTransacciones = hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+            if (!soportaTransacciones) {
+                logger.warn("El servidor no es un replica set: las bajas en cascada se harán sin transacción.");
+            }
+        }
+        return soportaTransacciones;
+    }
+
+    @FunctionalInterface
+    private interface OperacionesCascada {
+        ResultadoCascada aplicar(ClientSession session, boolean transaccional);
+    }
+}
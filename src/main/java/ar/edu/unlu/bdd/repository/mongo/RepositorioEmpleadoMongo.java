@@ -0,0 +1,49 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import ar.edu.unlu.bdd.database.OperacionMongo;
+import ar.edu.unlu.bdd.entity.Empleado;
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import ar.edu.unlu.bdd.repository.RepositorioEmpleado;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+import com.mongodb.client.MongoDatabase;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Projections.excludeId;
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.set;
+
+public class RepositorioEmpleadoMongo extends RepositorioMongo<Empleado> implements RepositorioEmpleado {
+
+    public RepositorioEmpleadoMongo(MongoDatabase database) {
+        super(database.getCollection("empleados", Empleado.class));
+    }
+
+    @Override
+    public boolean eliminar(int dni) {
+        return collection.deleteOne(eq("dni", dni)).getDeletedCount() > 0;
+    }
+
+    @Override
+    public ResultadoModificacion modificar(int dni, String nombre, String apellido, String sucursal) {
+        return resultadoDe(collection.updateOne(eq("dni", dni),
+                combine(set("nombre", nombre), set("apellido", apellido), set("sucursal", sucursal))));
+    }
+
+    @Override
+    public Empleado buscar(int dni) {
+        return LimiteTiempo.leer(OperacionMongo.CONSULTA, ms -> collection.find(eq("dni", dni))
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .first());
+    }
+
+    @Override
+    public RecorridoPaginado<Empleado> listar() {
+        return new ConsultaPaginada<>(collection,
+                fields(include("dni", "nombre", "apellido", "sucursal"), excludeId()),
+                e -> new Object[]{e.getDni()}, "dni");
+    }
+}
@@ -0,0 +1,131 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import ar.edu.unlu.bdd.database.OperacionMongo;
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import ar.edu.unlu.bdd.repository.ResultadoLote;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base de los repositorios respaldados por una colección de MongoDB.
+ * <p>
+ * Los duplicados se detectan con los índices únicos creados en
+ * {@link ar.edu.unlu.bdd.database.Indices}; cualquier otro error del driver se propaga.
+ * Las operaciones con un perfil propio ({@link OperacionMongo}) usan {@link #coleccion(OperacionMongo)}.
+ *
+ * @param <T> tipo de la entidad (con su codec registrado)
+ */
+abstract class RepositorioMongo<T> {
+
+    private static final int MUESTRAS_POR_PARTE = 20;
+
+    protected final MongoCollection<T> collection;
+    private final Map<OperacionMongo, MongoCollection<T>> porOperacion = new EnumMap<>(OperacionMongo.class);
+
+    protected RepositorioMongo(MongoCollection<T> collection) {
+        this.collection = collection;
+        for (OperacionMongo operacion : OperacionMongo.values()) {
+            porOperacion.put(operacion, operacion.aplicar(collection));
+        }
+    }
+
+    /**
+     * @return la colección con el write concern y la preferencia de lectura de la operación
+     */
+    protected MongoCollection<T> coleccion(OperacionMongo operacion) {
+        return porOperacion.get(operacion);
+    }
+
+    public boolean insertar(T entidad) {
+        try {
+            collection.insertOne(entidad);
+            return true;
+        } catch (MongoWriteException e) {
+            if (e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Inserta el lote con un único insertMany desordenado: el servidor sigue con el
+     * resto de los documentos aunque alguno falle.
+     */
+    public ResultadoLote insertarLote(List<T> entidades) {
+        return insertarLote(coleccion(OperacionMongo.IMPORTACION), entidades);
+    }
+
+    protected ResultadoLote insertarLote(MongoCollection<T> destino, List<T> entidades) {
+        if (entidades.isEmpty()) {
+            return new ResultadoLote(0);
+        }
+        try {
+            destino.insertMany(entidades, new InsertManyOptions().ordered(false));
+            return new ResultadoLote(entidades.size());
+        } catch (MongoBulkWriteException e) {
+            List<String> errores = new ArrayList<>(e.getWriteErrors().size());
+            for (BulkWriteError error : e.getWriteErrors()) {
+                errores.add("documento " + error.getIndex() + " del lote: " + error.getMessage());
+            }
+            return new ResultadoLote(e.getWriteResult().getInsertedCount(), errores);
+        }
+    }
+
+    /**
+     * Divide la colección en rangos de '_id' contiguos. Los límites salen de una muestra
+     * aleatoria ordenada ($sample), tomando uno cada {@link #MUESTRAS_POR_PARTE} documentos:
+     * no hace falta recorrer la colección y las partes quedan de tamaño parecido.
+     */
+    public List<RecorridoPaginado<T>> particionar(int partes) {
+        MongoCollection<T> collection = coleccion(OperacionMongo.EXPORTACION);
+        long total = collection.estimatedDocumentCount();
+        List<Object> limites = new ArrayList<>();
+        if (partes > 1 && total >= (long) partes * MUESTRAS_POR_PARTE) {
+            List<Bson> pipeline = List.of(
+                    new Document("$sample", new Document("size", partes * MUESTRAS_POR_PARTE)),
+                    new Document("$project", new Document("_id", 1)),
+                    new Document("$sort", new Document("_id", 1)));
+            List<Document> muestra = LimiteTiempo.leer(OperacionMongo.EXPORTACION, ms -> collection.aggregate(pipeline, Document.class)
+                    .maxTime(ms, TimeUnit.MILLISECONDS)
+                    .into(new ArrayList<>()));
+            for (int i = 1; i < partes && i * MUESTRAS_POR_PARTE < muestra.size(); i++) {
+                Object limite = muestra.get(i * MUESTRAS_POR_PARTE).get("_id");
+                // Una muestra chica puede repetir documentos; un límite repetido dejaría una parte vacía
+                if (limites.isEmpty() || !limite.equals(limites.get(limites.size() - 1))) {
+                    limites.add(limite);
+                }
+            }
+        }
+
+        List<RecorridoPaginado<T>> recorridos = new ArrayList<>(limites.size() + 1);
+        Object desde = null;
+        for (Object limite : limites) {
+            recorridos.add(new RecorridoPorRango<>(collection, desde, limite));
+            desde = limite;
+        }
+        recorridos.add(new RecorridoPorRango<>(collection, desde, null));
+        return recorridos;
+    }
+
+    protected static ResultadoModificacion resultadoDe(UpdateResult result) {
+        if (result.getMatchedCount() == 0) {
+            return ResultadoModificacion.NO_ENCONTRADO;
+        }
+        return result.getModifiedCount() > 0 ? ResultadoModificacion.MODIFICADO : ResultadoModificacion.SIN_CAMBIOS;
+    }
+}
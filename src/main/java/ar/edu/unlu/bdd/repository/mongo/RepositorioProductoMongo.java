@@ -0,0 +1,80 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import ar.edu.unlu.bdd.database.OperacionMongo;
+import ar.edu.unlu.bdd.entity.Producto;
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import ar.edu.unlu.bdd.repository.RepositorioProducto;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Projections.excludeId;
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.set;
+
+public class RepositorioProductoMongo extends RepositorioMongo<Producto> implements RepositorioProducto {
+
+    private final MongoDatabase database;
+
+    public RepositorioProductoMongo(MongoDatabase database) {
+        super(database.getCollection("productos", Producto.class));
+        this.database = database;
+    }
+
+    @Override
+    public boolean eliminar(int codigo) {
+        return collection.deleteOne(eq("codigo", codigo)).getDeletedCount() > 0;
+    }
+
+    @Override
+    public ResultadoModificacion modificar(int codigo, String descripcion, int stock) {
+        return resultadoDe(collection.updateOne(eq("codigo", codigo),
+                combine(set("descripcion", descripcion), set("stock", stock))));
+    }
+
+    @Override
+    public Producto buscar(int codigo) {
+        return LimiteTiempo.leer(OperacionMongo.CONSULTA, ms -> collection.find(eq("codigo", codigo))
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .first());
+    }
+
+    @Override
+    public boolean existe(int codigo) {
+        // Solo se lee la clave: la consulta se resuelve con el índice único
+        return LimiteTiempo.leer(OperacionMongo.CONSULTA, ms -> collection.find(eq("codigo", codigo), Document.class)
+                .projection(fields(include("codigo"), excludeId()))
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .first()) != null;
+    }
+
+    @Override
+    public Set<Integer> codigos() {
+        // Se usa para validar referencias en la importación masiva: lleva su tiempo máximo
+        return LimiteTiempo.leer(OperacionMongo.IMPORTACION, ms -> {
+            Set<Integer> codigos = new HashSet<>();
+            try (MongoCursor<Document> cursor = database.getCollection("productos")
+                    .find().projection(fields(include("codigo"), excludeId())).maxTime(ms, TimeUnit.MILLISECONDS).iterator()) {
+                while (cursor.hasNext()) {
+                    codigos.add(cursor.next().getInteger("codigo"));
+                }
+            }
+            return codigos;
+        });
+    }
+
+    @Override
+    public RecorridoPaginado<Producto> listar() {
+        return new ConsultaPaginada<>(collection,
+                fields(include("codigo", "descripcion", "stock"), excludeId()),
+                p -> new Object[]{p.getCodigo()}, "codigo");
+    }
+}
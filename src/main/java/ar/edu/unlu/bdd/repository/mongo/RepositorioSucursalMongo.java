@@ -0,0 +1,78 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import ar.edu.unlu.bdd.database.OperacionMongo;
+import ar.edu.unlu.bdd.entity.Sucursal;
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import ar.edu.unlu.bdd.repository.RepositorioSucursal;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Projections.excludeId;
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.set;
+
+public class RepositorioSucursalMongo extends RepositorioMongo<Sucursal> implements RepositorioSucursal {
+
+    private final MongoDatabase database;
+
+    public RepositorioSucursalMongo(MongoDatabase database) {
+        super(database.getCollection("sucursales", Sucursal.class));
+        this.database = database;
+    }
+
+    @Override
+    public boolean eliminar(String nombre) {
+        return collection.deleteOne(eq("nombre", nombre)).getDeletedCount() > 0;
+    }
+
+    @Override
+    public ResultadoModificacion modificar(String nombre, String direccion) {
+        return resultadoDe(collection.updateOne(eq("nombre", nombre), set("direccion", direccion)));
+    }
+
+    @Override
+    public Sucursal buscar(String nombre) {
+        return LimiteTiempo.leer(OperacionMongo.CONSULTA, ms -> collection.find(eq("nombre", nombre))
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .first());
+    }
+
+    @Override
+    public boolean existe(String nombre) {
+        // Solo se lee la clave: la consulta se resuelve con el índice único
+        return LimiteTiempo.leer(OperacionMongo.CONSULTA, ms -> collection.find(eq("nombre", nombre), Document.class)
+                .projection(fields(include("nombre"), excludeId()))
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .first()) != null;
+    }
+
+    @Override
+    public Set<String> nombres() {
+        // Se usa para validar referencias en la importación masiva: lleva su tiempo máximo
+        return LimiteTiempo.leer(OperacionMongo.IMPORTACION, ms -> {
+            Set<String> nombres = new HashSet<>();
+            try (MongoCursor<Document> cursor = database.getCollection("sucursales")
+                    .find().projection(fields(include("nombre"), excludeId())).maxTime(ms, TimeUnit.MILLISECONDS).iterator()) {
+                while (cursor.hasNext()) {
+                    nombres.add(cursor.next().getString("nombre"));
+                }
+            }
+            return nombres;
+        });
+    }
+
+    @Override
+    public RecorridoPaginado<Sucursal> listar() {
+        return new ConsultaPaginada<>(collection,
+                fields(include("nombre", "direccion"), excludeId()),
+                s -> new Object[]{s.getNombre()}, "nombre");
+    }
+}
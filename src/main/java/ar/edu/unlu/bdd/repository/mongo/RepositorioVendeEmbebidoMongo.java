@@ -0,0 +1,438 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import ar.edu.unlu.bdd.database.OperacionMongo;
+import ar.edu.unlu.bdd.entity.Vende;
+import ar.edu.unlu.bdd.repository.AjustePrecio;
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import ar.edu.unlu.bdd.repository.RepositorioVende;
+import ar.edu.unlu.bdd.repository.ResultadoAjustePrecio;
+import ar.edu.unlu.bdd.repository.ResultadoLote;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+import ar.edu.unlu.bdd.repository.StockProducto;
+import ar.edu.unlu.bdd.repository.ValoracionSucursal;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.elemMatch;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.exists;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.ne;
+import static com.mongodb.client.model.Projections.excludeId;
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.inc;
+import static com.mongodb.client.model.Updates.pull;
+import static com.mongodb.client.model.Updates.push;
+import static com.mongodb.client.model.Updates.set;
+
+/**
+ * Relaciones sucursal-producto embebidas en el documento de cada sucursal:
+ * <pre>
+ * { nombre: "Centro", direccion: "...", vende: [ { codigoProducto: 101, precio: 99.5, stock: 10 }, ... ] }
+ * </pre>
+ * Los productos de una sucursal se leen con un solo documento y las escrituras sobre una
+ * relación son atómicas sin transacciones. A cambio, buscar por producto necesita el índice
+ * multiclave sobre 'vende.codigoProducto', y el arreglo se limita a {@link #MAX_PRODUCTOS}
+ * relaciones ({@code bdd.vende.maxEmbebidos}, por defecto 2000) para que el documento no
+ * crezca sin control (MongoDB no admite documentos de más de 16 MB).
+ */
+public class RepositorioVendeEmbebidoMongo implements RepositorioVende {
+
+    public static final int MAX_PRODUCTOS = Integer.getInteger("bdd.vende.maxEmbebidos", 2000);
+
+    private final MongoCollection<Document> sucursales;
+    private final MongoCollection<Document> importacion;
+    private final MongoCollection<Document> ventas;
+    private final MongoCollection<Document> ajustes;
+    private final MongoCollection<Document> valoracion;
+    private final VistaStockPorProducto vistaStock;
+
+    public RepositorioVendeEmbebidoMongo(MongoDatabase database) {
+        this.sucursales = database.getCollection("sucursales");
+        this.importacion = OperacionMongo.IMPORTACION.aplicar(sucursales);
+        this.ventas = OperacionMongo.VENTA.aplicar(sucursales);
+        this.ajustes = OperacionMongo.AJUSTE_PRECIOS.aplicar(sucursales);
+        this.valoracion = OperacionMongo.VALORACION.aplicar(sucursales);
+        this.vistaStock = new VistaStockPorProducto(database, sucursales, RepositorioVendeEmbebidoMongo::etapasRelaciones);
+    }
+
+    /**
+     * Inserta solo si la sucursal existe, no tiene ya el producto y no llegó al límite:
+     * las tres condiciones van en el filtro del mismo updateOne.
+     *
+     * @throws IllegalStateException si la sucursal alcanzó el límite de relaciones embebidas
+     */
+    @Override
+    public boolean insertar(Vende relacion) {
+        if (sucursales.updateOne(filtroInsercion(relacion), push("vende", entrada(relacion))).getModifiedCount() > 0) {
+            vistaStock.anotar(relacion.getCodigoProducto());
+            return true;
+        }
+
+        // Solo ante un rechazo se lee el motivo: el tamaño del arreglo y si ya tiene el producto
+        Document estado = LimiteTiempo.leer(OperacionMongo.CONSULTA, ms -> sucursales.find(eq("nombre", relacion.getSucursal()))
+                .projection(new Document("_id", 0)
+                        .append("cantidad", new Document("$size", new Document("$ifNull", List.of("$vende", List.of()))))
+                        .append("existe", new Document("$in", List.of(relacion.getCodigoProducto(),
+                                new Document("$ifNull", List.of("$vende.codigoProducto", List.of()))))))
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .first());
+        if (estado != null && !estado.getBoolean("existe", false) && estado.getInteger("cantidad", 0) >= MAX_PRODUCTOS) {
+            throw new IllegalStateException("La sucursal '" + relacion.getSucursal() + "' alcanzó el límite de "
+                    + MAX_PRODUCTOS + " productos del esquema embebido.");
+        }
+        return false;
+    }
+
+    /**
+     * Un updateOne por relación, todos en un único bulkWrite no ordenado. El resultado no
+     * dice cuáles se rechazaron, así que el error informa solo la cantidad.
+     */
+    @Override
+    public ResultadoLote insertarLote(List<Vende> relaciones) {
+        if (relaciones.isEmpty()) {
+            return new ResultadoLote(0);
+        }
+        List<WriteModel<Document>> operaciones = new ArrayList<>(relaciones.size());
+        for (Vende relacion : relaciones) {
+            operaciones.add(new UpdateOneModel<>(filtroInsercion(relacion), push("vende", entrada(relacion))));
+            vistaStock.anotar(relacion.getCodigoProducto());
+        }
+        int insertadas = importacion.bulkWrite(operaciones, new BulkWriteOptions().ordered(false)).getModifiedCount();
+
+        ResultadoLote resultado = new ResultadoLote(insertadas);
+        if (insertadas < relaciones.size()) {
+            resultado.getErrores().add((relaciones.size() - insertadas) + " relaciones del lote rechazadas: duplicadas, "
+                    + "de sucursales inexistentes o por el límite de " + MAX_PRODUCTOS + " productos por sucursal");
+        }
+        return resultado;
+    }
+
+    @Override
+    public boolean eliminar(String sucursal, int codigoProducto) {
+        boolean eliminada = sucursales.updateOne(eq("nombre", sucursal),
+                pull("vende", new Document("codigoProducto", codigoProducto))).getModifiedCount() > 0;
+        vistaStock.anotar(codigoProducto);
+        return eliminada;
+    }
+
+    @Override
+    public ResultadoModificacion modificar(String sucursal, int codigoProducto, double precio, int stock) {
+        ResultadoModificacion resultado = RepositorioMongo.resultadoDe(sucursales.updateOne(
+                and(eq("nombre", sucursal), eq("vende.codigoProducto", codigoProducto)),
+                combine(set("vende.$.precio", precio), set("vende.$.stock", stock))));
+        vistaStock.anotar(codigoProducto);
+        return resultado;
+    }
+
+    @Override
+    public Vende buscar(String sucursal, int codigoProducto) {
+        Document documento = LimiteTiempo.leer(OperacionMongo.CONSULTA, ms -> sucursales
+                .find(and(eq("nombre", sucursal), eq("vende.codigoProducto", codigoProducto)))
+                .projection(proyeccionRelacion(codigoProducto))
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .first());
+        return documento == null ? null : relaciones(documento).get(0);
+    }
+
+    /**
+     * Usa el índice multiclave sobre 'vende.codigoProducto'; de cada sucursal solo viaja
+     * la relación del producto ($elemMatch en la proyección).
+     */
+    @Override
+    public List<Vende> buscarPorProducto(int codigoProducto) {
+        List<Document> documentos = LimiteTiempo.leer(OperacionMongo.CONSULTA, ms -> sucursales
+                .find(eq("vende.codigoProducto", codigoProducto))
+                .projection(proyeccionRelacion(codigoProducto))
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .into(new ArrayList<>()));
+        List<Vende> relaciones = new ArrayList<>();
+        for (Document documento : documentos) {
+            relaciones.addAll(relaciones(documento));
+        }
+        return relaciones;
+    }
+
+    /**
+     * Una sola lectura por clave: todos los productos están en el documento de la sucursal.
+     */
+    @Override
+    public List<Vende> buscarPorSucursal(String sucursal) {
+        Document documento = LimiteTiempo.leer(OperacionMongo.CONSULTA, ms -> sucursales.find(eq("nombre", sucursal))
+                .projection(fields(include("nombre", "vende"), excludeId()))
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .first());
+        if (documento == null) {
+            return new ArrayList<>();
+        }
+        List<Vende> relaciones = relaciones(documento);
+        relaciones.sort(Comparator.comparingInt(Vende::getCodigoProducto));
+        return relaciones;
+    }
+
+    /**
+     * El operador posicional descuenta el stock del elemento que cumplió el $elemMatch,
+     * en el mismo findOneAndUpdate que verifica que alcance.
+     */
+    @Override
+    public Vende vender(String sucursal, int codigoProducto, int cantidad) {
+        Document documento = LimiteTiempo.leer(OperacionMongo.VENTA, ms -> ventas.findOneAndUpdate(
+                and(eq("nombre", sucursal), elemMatch("vende", and(eq("codigoProducto", codigoProducto), gte("stock", cantidad)))),
+                inc("vende.$.stock", -cantidad),
+                new FindOneAndUpdateOptions()
+                        .projection(proyeccionRelacion(codigoProducto))
+                        .returnDocument(ReturnDocument.AFTER)
+                        .maxTime(ms, TimeUnit.MILLISECONDS)));
+        if (documento == null) {
+            return null;
+        }
+        vistaStock.anotar(codigoProducto);
+        return relaciones(documento).get(0);
+    }
+
+    /**
+     * Todas las líneas modifican el mismo documento, así que van en un único findOneAndUpdate:
+     * cada línea descuenta su elemento con un filtro de arreglo propio ({@code $[l0]},
+     * {@code $[l1]}, ...) que exige el producto y {@code stock >= cantidad}, y los elementos que
+     * no lo cumplen simplemente no se modifican. La actualización del documento es atómica, así
+     * que la imagen previa (proyectada a los productos del pedido con $filter) dice exactamente
+     * qué líneas se aplicaron y a qué precio, sin marcas en el arreglo y en una sola ida y vuelta.
+     * <p>
+     * No tiene tiempo máximo: la lectura y el descuento son la misma operación.
+     */
+    @Override
+    public List<Vende> venderPedido(String sucursal, Map<Integer, Integer> lineas) {
+        if (lineas.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Bson> descuentos = new ArrayList<>(lineas.size());
+        List<Bson> filtrosArreglo = new ArrayList<>(lineas.size());
+        int i = 0;
+        for (Map.Entry<Integer, Integer> linea : lineas.entrySet()) {
+            String identificador = "l" + i++;
+            descuentos.add(inc("vende.$[" + identificador + "].stock", -linea.getValue()));
+            filtrosArreglo.add(and(eq(identificador + ".codigoProducto", linea.getKey()),
+                    gte(identificador + ".stock", linea.getValue())));
+        }
+        List<Integer> codigos = new ArrayList<>(lineas.keySet());
+        Document anterior = ventas.findOneAndUpdate(
+                and(eq("nombre", sucursal), in("vende.codigoProducto", codigos)),
+                combine(descuentos),
+                new FindOneAndUpdateOptions()
+                        .arrayFilters(filtrosArreglo)
+                        .projection(new Document("_id", 0).append("nombre", 1)
+                                .append("vende", new Document("$filter", new Document("input", "$vende")
+                                        .append("as", "v")
+                                        .append("cond", new Document("$in", List.of("$$v.codigoProducto", codigos))))))
+                        .returnDocument(ReturnDocument.BEFORE));
+
+        List<Vende> vendidas = new ArrayList<>();
+        if (anterior == null) {
+            return vendidas;
+        }
+        for (Vende relacion : relaciones(anterior)) {
+            int cantidad = lineas.get(relacion.getCodigoProducto());
+            if (relacion.getStock() >= cantidad) {
+                vistaStock.anotar(relacion.getCodigoProducto());
+                vendidas.add(new Vende(sucursal, relacion.getCodigoProducto(), relacion.getPrecio(), relacion.getStock() - cantidad));
+            }
+        }
+        return vendidas;
+    }
+
+    /**
+     * Cada fila sale de un solo documento: los totales se calculan sobre el arreglo embebido
+     * con operadores de expresión, sin $unwind ni $group.
+     */
+    @Override
+    public List<ValoracionSucursal> valorarInventario() {
+        List<Bson> pipeline = List.of(
+                new Document("$match", exists("vende.0")),
+                new Document("$project", new Document("_id", 0)
+                        .append("nombre", 1)
+                        .append("productos", new Document("$size", "$vende"))
+                        .append("unidades", new Document("$sum", "$vende.stock"))
+                        .append("valor", new Document("$sum", new Document("$map", new Document("input", "$vende")
+                                .append("as", "v")
+                                .append("in", new Document("$multiply", List.of("$$v.precio", "$$v.stock"))))))
+                        .append("precioMinimo", new Document("$min", "$vende.precio"))
+                        .append("precioMaximo", new Document("$max", "$vende.precio"))),
+                new Document("$sort", new Document("nombre", 1))
+        );
+
+        List<ValoracionSucursal> valoracion = new ArrayList<>();
+        List<Document> filas = LimiteTiempo.leer(OperacionMongo.VALORACION, ms -> this.valoracion.aggregate(pipeline)
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .into(new ArrayList<>()));
+        for (Document fila : filas) {
+            valoracion.add(new ValoracionSucursal(fila.getString("nombre"),
+                    fila.get("productos", Number.class).longValue(),
+                    fila.get("unidades", Number.class).longValue(),
+                    fila.get("valor", Number.class).doubleValue(),
+                    fila.get("precioMinimo", Number.class).doubleValue(),
+                    fila.get("precioMaximo", Number.class).doubleValue()));
+        }
+        return valoracion;
+    }
+
+    /**
+     * Un solo updateMany sobre las sucursales: el filtro elige los documentos con alguna relación
+     * alcanzada y el arrayFilter 'e' elige las entradas del arreglo a ajustar (sin criterios sobre
+     * las entradas, {@code vende.$[]} las ajusta todas). MongoDB informa los documentos
+     * modificados y no las entradas, así que el resultado cuenta sucursales modificadas.
+     */
+    @Override
+    public ResultadoAjustePrecio ajustarPrecios(AjustePrecio ajuste, boolean simular) {
+        List<Bson> etapas = new ArrayList<>();
+        etapas.add(new Document("$match", filtroSucursalesAjuste(ajuste, false)));
+        etapas.add(new Document("$unwind", "$vende"));
+        etapas.add(new Document("$match", FiltroAjustePrecio.combinar(FiltroAjustePrecio.condiciones("vende.", ajuste, false))));
+        long[] conteo = FiltroAjustePrecio.contar(ajustes, etapas, "$vende.precio", ajuste);
+        long excluidas = conteo[0] - conteo[1];
+        if (simular || conteo[1] == 0) {
+            return new ResultadoAjustePrecio(conteo[0], excluidas, 0, simular);
+        }
+
+        List<Bson> condicionesEntrada = FiltroAjustePrecio.condiciones("e.", ajuste, true);
+        UpdateOptions opciones = new UpdateOptions();
+        String campoPrecio = "vende.$[].precio";
+        if (!condicionesEntrada.isEmpty()) {
+            opciones.arrayFilters(List.of(FiltroAjustePrecio.combinar(condicionesEntrada)));
+            campoPrecio = "vende.$[e].precio";
+        }
+        long modificadas = ajustes.updateMany(filtroSucursalesAjuste(ajuste, true),
+                FiltroAjustePrecio.actualizacion(campoPrecio, ajuste), opciones).getModifiedCount();
+        return new ResultadoAjustePrecio(conteo[0], excluidas, modificadas, false, true);
+    }
+
+    private static Bson filtroSucursalesAjuste(AjustePrecio ajuste, boolean soloAplicables) {
+        List<Bson> filtro = new ArrayList<>();
+        if (ajuste.getSucursal() != null) {
+            filtro.add(eq("nombre", ajuste.getSucursal()));
+        }
+        List<Bson> condiciones = FiltroAjustePrecio.condiciones("", ajuste, soloAplicables);
+        filtro.add(condiciones.isEmpty() ? exists("vende.0") : elemMatch("vende", FiltroAjustePrecio.combinar(condiciones)));
+        return and(filtro);
+    }
+
+    @Override
+    public int refrescarStockPorProducto() {
+        return vistaStock.refrescar();
+    }
+
+    @Override
+    public int reconstruirStockPorProducto() {
+        return vistaStock.reconstruir();
+    }
+
+    @Override
+    public StockProducto stockPorProducto(int codigoProducto) {
+        return vistaStock.leer(codigoProducto);
+    }
+
+    VistaStockPorProducto getVistaStock() {
+        return vistaStock;
+    }
+
+    /**
+     * Recorre las sucursales por nombre (paginación por clave); cada página tiene las
+     * relaciones de una sucursal. Las sucursales sin productos se saltean.
+     */
+    @Override
+    public RecorridoPaginado<Vende> listar() {
+        ConsultaPaginada<Document> porSucursal = new ConsultaPaginada<>(sucursales,
+                fields(include("nombre", "vende"), excludeId()), 1, 0,
+                d -> new Object[]{d.getString("nombre")}, "nombre");
+
+        return new RecorridoPaginado<>() {
+            @Override
+            public List<Vende> siguientePagina() {
+                List<Vende> pagina = new ArrayList<>();
+                while (pagina.isEmpty() && porSucursal.hayMasPaginas()) {
+                    for (Document documento : porSucursal.siguientePagina()) {
+                        pagina.addAll(relaciones(documento));
+                    }
+                }
+                pagina.sort(Comparator.comparingInt(Vende::getCodigoProducto));
+                return pagina;
+            }
+
+            @Override
+            public boolean hayMasPaginas() {
+                return porSucursal.hayMasPaginas();
+            }
+        };
+    }
+
+    /**
+     * Etapas para la vista de stock: una fila {codigoProducto, stock} por relación embebida.
+     * El primer $match usa el índice multiclave para leer solo las sucursales afectadas.
+     */
+    private static List<Bson> etapasRelaciones(List<Integer> codigos) {
+        List<Bson> etapas = new ArrayList<>();
+        if (codigos != null) {
+            etapas.add(new Document("$match", in("vende.codigoProducto", codigos)));
+        }
+        etapas.add(new Document("$unwind", "$vende"));
+        etapas.add(new Document("$project", new Document("_id", 0)
+                .append("codigoProducto", "$vende.codigoProducto")
+                .append("stock", "$vende.stock")));
+        if (codigos != null) {
+            etapas.add(new Document("$match", in("codigoProducto", codigos)));
+        }
+        return etapas;
+    }
+
+    private static Bson filtroInsercion(Vende relacion) {
+        return and(eq("nombre", relacion.getSucursal()),
+                ne("vende.codigoProducto", relacion.getCodigoProducto()),
+                exists("vende." + (MAX_PRODUCTOS - 1), false));
+    }
+
+    private static Bson proyeccionRelacion(int codigoProducto) {
+        return fields(include("nombre"), excludeId(),
+                Projections.elemMatch("vende", eq("codigoProducto", codigoProducto)));
+    }
+
+    static Document entrada(Vende relacion) {
+        return new Document("codigoProducto", relacion.getCodigoProducto())
+                .append("precio", relacion.getPrecio())
+                .append("stock", relacion.getStock());
+    }
+
+    private static List<Vende> relaciones(Document documento) {
+        String sucursal = documento.getString("nombre");
+        List<Document> entradas = documento.getList("vende", Document.class, List.of());
+        List<Vende> relaciones = new ArrayList<>(entradas.size());
+        for (Document entrada : entradas) {
+            relaciones.add(relacion(sucursal, entrada));
+        }
+        return relaciones;
+    }
+
+    private static Vende relacion(String sucursal, Document entrada) {
+        return new Vende(sucursal,
+                entrada.get("codigoProducto", Number.class).intValue(),
+                entrada.get("precio", Number.class).doubleValue(),
+                entrada.get("stock", Number.class).intValue());
+    }
+}
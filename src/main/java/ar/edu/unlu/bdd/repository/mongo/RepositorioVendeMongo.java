@@ -0,0 +1,259 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import ar.edu.unlu.bdd.database.OperacionMongo;
+import ar.edu.unlu.bdd.entity.Vende;
+import ar.edu.unlu.bdd.repository.AjustePrecio;
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import ar.edu.unlu.bdd.repository.RepositorioVende;
+import ar.edu.unlu.bdd.repository.ResultadoAjustePrecio;
+import ar.edu.unlu.bdd.repository.ResultadoLote;
+import ar.edu.unlu.bdd.repository.ResultadoModificacion;
+import ar.edu.unlu.bdd.repository.StockProducto;
+import ar.edu.unlu.bdd.repository.ValoracionSucursal;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Projections.exclude;
+import static com.mongodb.client.model.Projections.excludeId;
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.addToSet;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.inc;
+import static com.mongodb.client.model.Updates.pull;
+import static com.mongodb.client.model.Updates.set;
+
+/**
+ * Relaciones sucursal-producto en la colección 'vende'.
+ * <p>
+ * El stock total por producto se materializa en {@link VistaStockPorProducto}: cada
+ * escritura anota el código afectado para el próximo refresco incremental.
+ */
+public class RepositorioVendeMongo extends RepositorioMongo<Vende> implements RepositorioVende {
+
+    private final VistaStockPorProducto vistaStock;
+
+    public RepositorioVendeMongo(MongoDatabase database) {
+        super(database.getCollection("vende", Vende.class));
+        this.vistaStock = new VistaStockPorProducto(database, database.getCollection("vende"),
+                codigos -> codigos == null ? List.of() : List.of(new Document("$match", in("codigoProducto", codigos))));
+    }
+
+    @Override
+    public boolean insertar(Vende relacion) {
+        boolean insertada = super.insertar(relacion);
+        vistaStock.anotar(relacion.getCodigoProducto());
+        return insertada;
+    }
+
+    @Override
+    public ResultadoLote insertarLote(List<Vende> relaciones) {
+        try {
+            return super.insertarLote(relaciones);
+        } finally {
+            for (Vende relacion : relaciones) {
+                vistaStock.anotar(relacion.getCodigoProducto());
+            }
+        }
+    }
+
+    @Override
+    public boolean eliminar(String sucursal, int codigoProducto) {
+        boolean eliminada = collection.deleteOne(filtroClave(sucursal, codigoProducto)).getDeletedCount() > 0;
+        vistaStock.anotar(codigoProducto);
+        return eliminada;
+    }
+
+    @Override
+    public ResultadoModificacion modificar(String sucursal, int codigoProducto, double precio, int stock) {
+        ResultadoModificacion resultado = resultadoDe(collection.updateOne(filtroClave(sucursal, codigoProducto),
+                combine(set("precio", precio), set("stock", stock))));
+        vistaStock.anotar(codigoProducto);
+        return resultado;
+    }
+
+    @Override
+    public Vende buscar(String sucursal, int codigoProducto) {
+        return LimiteTiempo.leer(OperacionMongo.CONSULTA, ms -> collection.find(filtroClave(sucursal, codigoProducto))
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .first());
+    }
+
+    @Override
+    public List<Vende> buscarPorProducto(int codigoProducto) {
+        return LimiteTiempo.leer(OperacionMongo.CONSULTA, ms -> collection.find(eq("codigoProducto", codigoProducto))
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .into(new ArrayList<>()));
+    }
+
+    @Override
+    public List<Vende> buscarPorSucursal(String sucursal) {
+        return LimiteTiempo.leer(OperacionMongo.CONSULTA, ms -> collection.find(eq("sucursal", sucursal))
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .into(new ArrayList<>()));
+    }
+
+    /**
+     * Un único findOneAndUpdate: el filtro incluye {@code stock >= cantidad}, así que la
+     * verificación y el descuento ocurren juntos en el servidor, sin leer antes.
+     */
+    @Override
+    public Vende vender(String sucursal, int codigoProducto, int cantidad) {
+        Vende vendida = LimiteTiempo.leer(OperacionMongo.VENTA, ms -> coleccion(OperacionMongo.VENTA).findOneAndUpdate(
+                and(filtroClave(sucursal, codigoProducto), gte("stock", cantidad)),
+                inc("stock", -cantidad),
+                new FindOneAndUpdateOptions()
+                        .returnDocument(ReturnDocument.AFTER)
+                        .maxTime(ms, TimeUnit.MILLISECONDS)));
+        if (vendida != null) {
+            vistaStock.anotar(codigoProducto);
+        }
+        return vendida;
+    }
+
+    /**
+     * Todas las líneas viajan en un solo bulkWrite no ordenado, con {@code stock >= cantidad}
+     * en el filtro de cada una: una línea sin stock no impide que se apliquen las demás.
+     * <p>
+     * El resultado del bulkWrite no dice qué líneas se aplicaron, así que cada una agrega a
+     * 'pedidos' el identificador propio del pedido ($addToSet). Una sola lectura por la clave
+     * y ese identificador devuelve las relaciones vendidas con su precio, y un updateMany lo
+     * quita ($pull). Como cada pedido tiene su propio identificador en el arreglo, los pedidos
+     * concurrentes sobre la misma relación no se pisan la marca. El costo es fijo (tres idas
+     * y vueltas) sin importar la cantidad de líneas.
+     * <p>
+     * La lectura no tiene tiempo máximo: el stock ya se descontó y las ventas deben registrarse.
+     * Si el proceso se corta antes del $pull queda un identificador huérfano en 'pedidos',
+     * que ninguna lectura usa.
+     */
+    @Override
+    public List<Vende> venderPedido(String sucursal, Map<Integer, Integer> lineas) {
+        if (lineas.isEmpty()) {
+            return new ArrayList<>();
+        }
+        ObjectId pedido = new ObjectId();
+        List<WriteModel<Vende>> operaciones = new ArrayList<>(lineas.size());
+        for (Map.Entry<Integer, Integer> linea : lineas.entrySet()) {
+            operaciones.add(new UpdateOneModel<>(
+                    and(filtroClave(sucursal, linea.getKey()), gte("stock", linea.getValue())),
+                    combine(inc("stock", -linea.getValue()), addToSet("pedidos", pedido))));
+        }
+        MongoCollection<Vende> ventas = coleccion(OperacionMongo.VENTA);
+        if (ventas.bulkWrite(operaciones, new BulkWriteOptions().ordered(false)).getModifiedCount() == 0) {
+            return new ArrayList<>();
+        }
+
+        Bson aplicadas = and(eq("sucursal", sucursal), in("codigoProducto", lineas.keySet()), eq("pedidos", pedido));
+        List<Vende> vendidas = ventas.find(aplicadas).projection(exclude("pedidos")).into(new ArrayList<>());
+        ventas.updateMany(aplicadas, pull("pedidos", pedido));
+        for (Vende vendida : vendidas) {
+            vistaStock.anotar(vendida.getCodigoProducto());
+        }
+        return vendidas;
+    }
+
+    /**
+     * Un único $group en el servidor: solo vuelve una fila por sucursal. Como (sucursal,
+     * codigoProducto) tiene índice único, contar las relaciones es contar productos distintos.
+     */
+    @Override
+    public List<ValoracionSucursal> valorarInventario() {
+        List<Bson> pipeline = List.of(
+                new Document("$group", new Document("_id", "$sucursal")
+                        .append("productos", new Document("$sum", 1))
+                        .append("unidades", new Document("$sum", "$stock"))
+                        .append("valor", new Document("$sum", new Document("$multiply", List.of("$precio", "$stock"))))
+                        .append("precioMinimo", new Document("$min", "$precio"))
+                        .append("precioMaximo", new Document("$max", "$precio"))),
+                new Document("$sort", new Document("_id", 1))
+        );
+
+        List<ValoracionSucursal> valoracion = new ArrayList<>();
+        List<Document> filas = LimiteTiempo.leer(OperacionMongo.VALORACION, ms -> coleccion(OperacionMongo.VALORACION)
+                .aggregate(pipeline, Document.class)
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .into(new ArrayList<>()));
+        for (Document fila : filas) {
+            valoracion.add(new ValoracionSucursal(fila.getString("_id"),
+                    fila.get("productos", Number.class).longValue(),
+                    fila.get("unidades", Number.class).longValue(),
+                    fila.get("valor", Number.class).doubleValue(),
+                    fila.get("precioMinimo", Number.class).doubleValue(),
+                    fila.get("precioMaximo", Number.class).doubleValue()));
+        }
+        return valoracion;
+    }
+
+    /**
+     * Un updateMany con $mul o $inc sobre 'precio'. El conteo previo y la escritura no son
+     * atómicos entre sí: una relación modificada en el medio puede entrar o salir del filtro.
+     */
+    @Override
+    public ResultadoAjustePrecio ajustarPrecios(AjustePrecio ajuste, boolean simular) {
+        Bson filtro = filtroAjuste(ajuste, false);
+        long[] conteo = FiltroAjustePrecio.contar(coleccion(OperacionMongo.AJUSTE_PRECIOS), List.of(new Document("$match", filtro)), "$precio", ajuste);
+        long excluidas = conteo[0] - conteo[1];
+        if (simular || conteo[1] == 0) {
+            return new ResultadoAjustePrecio(conteo[0], excluidas, 0, simular);
+        }
+
+        long modificadas = coleccion(OperacionMongo.AJUSTE_PRECIOS).updateMany(filtroAjuste(ajuste, true),
+                FiltroAjustePrecio.actualizacion("precio", ajuste)).getModifiedCount();
+        return new ResultadoAjustePrecio(conteo[0], excluidas, modificadas, false);
+    }
+
+    private static Bson filtroAjuste(AjustePrecio ajuste, boolean soloAplicables) {
+        List<Bson> condiciones = FiltroAjustePrecio.condiciones("", ajuste, soloAplicables);
+        if (ajuste.getSucursal() != null) {
+            condiciones.add(0, eq("sucursal", ajuste.getSucursal()));
+        }
+        return FiltroAjustePrecio.combinar(condiciones);
+    }
+
+    @Override
+    public int refrescarStockPorProducto() {
+        return vistaStock.refrescar();
+    }
+
+    @Override
+    public int reconstruirStockPorProducto() {
+        return vistaStock.reconstruir();
+    }
+
+    @Override
+    public StockProducto stockPorProducto(int codigoProducto) {
+        return vistaStock.leer(codigoProducto);
+    }
+
+    VistaStockPorProducto getVistaStock() {
+        return vistaStock;
+    }
+
+    @Override
+    public RecorridoPaginado<Vende> listar() {
+        return new ConsultaPaginada<>(collection,
+                fields(include("sucursal", "codigoProducto", "precio", "stock"), excludeId()),
+                v -> new Object[]{v.getSucursal(), v.getCodigoProducto()}, "sucursal", "codigoProducto");
+    }
+
+    private static Bson filtroClave(String sucursal, int codigoProducto) {
+        return and(eq("sucursal", sucursal), eq("codigoProducto", codigoProducto));
+    }
+}
@@ -0,0 +1,148 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import ar.edu.unlu.bdd.database.OperacionMongo;
+import ar.edu.unlu.bdd.entity.Venta;
+import ar.edu.unlu.bdd.repository.PeriodoVentas;
+import ar.edu.unlu.bdd.repository.RepositorioVentas;
+import ar.edu.unlu.bdd.repository.ResultadoLote;
+import ar.edu.unlu.bdd.repository.ResumenVentas;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.lt;
+
+/**
+ * Ventas en la colección de series temporales 'ventas' (creada en
+ * {@link ar.edu.unlu.bdd.database.Indices}). Los resúmenes se leen de sus consolidaciones
+ * por hora y por día, que se ponen al día antes de cada resumen.
+ */
+public class RepositorioVentasMongo extends RepositorioMongo<Venta> implements RepositorioVentas {
+
+    private final MongoCollection<Document> documentos;
+    private final ConsolidacionVentas consolidacion;
+
+    public RepositorioVentasMongo(MongoDatabase database) {
+        super(database.getCollection("ventas", Venta.class));
+        this.documentos = OperacionMongo.RESUMEN_VENTAS.aplicar(database.getCollection("ventas"));
+        this.consolidacion = new ConsolidacionVentas(database);
+    }
+
+    @Override
+    public ResultadoLote registrar(List<Venta> ventas) {
+        return insertarLote(coleccion(OperacionMongo.REGISTRO_VENTAS), ventas);
+    }
+
+    /**
+     * Lee los resúmenes consolidados por hora y por día (ver {@link ConsolidacionVentas}) y
+     * agrupa desde los eventos solo las puntas del rango que no cubren: el principio hasta la
+     * primera hora completa y lo registrado después de la última hora consolidada. Cada fuente
+     * se agrupa en el servidor con {@code $dateTrunc}, así que solo viaja una fila por período y
+     * sucursal, y las filas del mismo período se suman acá. Si la zona pedida no es la de la
+     * consolidación, todo el rango se agrupa desde los eventos.
+     */
+    @Override
+    public List<ResumenVentas> resumir(PeriodoVentas periodo, String sucursal, Instant desde, Instant hasta, ZoneId zona) {
+        Map<Instant, Map<String, ResumenVentas>> filas = new TreeMap<>();
+        ConsolidacionVentas.Cobertura cobertura = zona.equals(ConsolidacionVentas.ZONA)
+                ? consolidacion.consolidar(Instant.now())
+                : null;
+        if (cobertura == null) {
+            agruparEventos(filas, periodo, sucursal, desde, hasta, zona);
+        } else {
+            Instant inicioHoras = ConsolidacionVentas.techo(desde, ChronoUnit.HOURS);
+            Instant finHoras = ConsolidacionVentas.max(inicioHoras, ConsolidacionVentas.min(
+                    ConsolidacionVentas.piso(hasta, ChronoUnit.HOURS), cobertura.horas));
+            agruparEventos(filas, periodo, sucursal, desde, ConsolidacionVentas.min(inicioHoras, hasta), zona);
+
+            Instant inicioDias = ConsolidacionVentas.techo(desde, ChronoUnit.DAYS);
+            Instant finDias = ConsolidacionVentas.max(inicioDias, ConsolidacionVentas.min(
+                    ConsolidacionVentas.piso(hasta, ChronoUnit.DAYS), cobertura.dias));
+            if (periodo == PeriodoVentas.DIA && inicioDias.isBefore(finDias)) {
+                agruparConsolidadas(filas, consolidacion.getPorHora(), periodo, sucursal, inicioHoras, inicioDias, zona);
+                agruparConsolidadas(filas, consolidacion.getPorDia(), periodo, sucursal, inicioDias, finDias, zona);
+                agruparConsolidadas(filas, consolidacion.getPorHora(), periodo, sucursal, finDias, finHoras, zona);
+            } else {
+                agruparConsolidadas(filas, consolidacion.getPorHora(), periodo, sucursal, inicioHoras, finHoras, zona);
+            }
+            agruparEventos(filas, periodo, sucursal, ConsolidacionVentas.max(finHoras, desde), hasta, zona);
+        }
+
+        List<ResumenVentas> resumen = new ArrayList<>();
+        filas.values().forEach(porSucursal -> resumen.addAll(porSucursal.values()));
+        return resumen;
+    }
+
+    private void agruparEventos(Map<Instant, Map<String, ResumenVentas>> filas, PeriodoVentas periodo, String sucursal,
+                                Instant desde, Instant hasta, ZoneId zona) {
+        if (!desde.isBefore(hasta)) {
+            return;
+        }
+        Bson filtro = and(gte("fecha", Date.from(desde)), lt("fecha", Date.from(hasta)));
+        if (sucursal != null) {
+            filtro = and(filtro, eq("meta.sucursal", sucursal));
+        }
+        agrupar(filas, documentos, filtro, periodo, zona, "$fecha", "$meta.sucursal", 1, "$cantidad",
+                new Document("$multiply", List.of("$cantidad", "$precio")));
+    }
+
+    private void agruparConsolidadas(Map<Instant, Map<String, ResumenVentas>> filas, MongoCollection<Document> coleccion,
+                                     PeriodoVentas periodo, String sucursal, Instant desde, Instant hasta, ZoneId zona) {
+        if (!desde.isBefore(hasta)) {
+            return;
+        }
+        Bson filtro = and(eq("_id.zona", zona.getId()), gte("_id.periodo", Date.from(desde)), lt("_id.periodo", Date.from(hasta)));
+        if (sucursal != null) {
+            filtro = and(filtro, eq("_id.sucursal", sucursal));
+        }
+        agrupar(filas, coleccion, filtro, periodo, zona, "$_id.periodo", "$_id.sucursal", "$ventas", "$unidades", "$importe");
+    }
+
+    /**
+     * Agrupa en el servidor con {@code $dateTrunc} y suma cada fila a la del mismo período y
+     * sucursal. El filtro por fecha permite descartar buckets completos sin descomprimirlos.
+     */
+    private static void agrupar(Map<Instant, Map<String, ResumenVentas>> filas, MongoCollection<Document> coleccion, Bson filtro,
+                                PeriodoVentas periodo, ZoneId zona, String fecha, String sucursal,
+                                Object ventas, Object unidades, Object importe) {
+        Document inicioPeriodo = new Document("$dateTrunc", new Document("date", fecha)
+                .append("unit", periodo.getUnidadMongo())
+                .append("timezone", zona.getId()));
+        List<Bson> pipeline = List.of(
+                new Document("$match", filtro),
+                new Document("$group", new Document("_id", new Document("periodo", inicioPeriodo).append("sucursal", sucursal))
+                        .append("ventas", new Document("$sum", ventas))
+                        .append("unidades", new Document("$sum", unidades))
+                        .append("importe", new Document("$sum", importe)))
+        );
+
+        List<Document> leidas = LimiteTiempo.leer(OperacionMongo.RESUMEN_VENTAS, ms -> coleccion.aggregate(pipeline)
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .into(new ArrayList<>()));
+        for (Document fila : leidas) {
+            Document clave = fila.get("_id", Document.class);
+            ResumenVentas nueva = new ResumenVentas(clave.getDate("periodo").toInstant(), clave.getString("sucursal"),
+                    fila.get("ventas", Number.class).longValue(),
+                    fila.get("unidades", Number.class).longValue(),
+                    fila.get("importe", Number.class).doubleValue());
+            filas.computeIfAbsent(nueva.getInicioPeriodo(), p -> new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder())))
+                    .merge(nueva.getSucursal(), nueva, (a, b) -> new ResumenVentas(a.getInicioPeriodo(), a.getSucursal(),
+                            a.getVentas() + b.getVentas(), a.getUnidades() + b.getUnidades(), a.getImporte() + b.getImporte()));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import java.util.List;
+
+/**
+ * Resultado de migrar las relaciones de vende de un esquema al otro.
+ */
+public class ResultadoMigracion {
+    private final long relacionesMigradas;
+    private final long sucursalesMigradas;
+    private final long lotes;
+    private final long documentosOrigenEliminados;
+    private final List<String> sucursalesOmitidas;
+    private final long milisegundos;
+
+    public ResultadoMigracion(long relacionesMigradas, long sucursalesMigradas, long lotes,
+                              long documentosOrigenEliminados, List<String> sucursalesOmitidas, long milisegundos) {
+        this.relacionesMigradas = relacionesMigradas;
+        this.sucursalesMigradas = sucursalesMigradas;
+        this.lotes = lotes;
+        this.documentosOrigenEliminados = documentosOrigenEliminados;
+        this.sucursalesOmitidas = sucursalesOmitidas;
+        this.milisegundos = milisegundos;
+    }
+
+    public long getRelacionesMigradas() {
+        return relacionesMigradas;
+    }
+
+    public long getSucursalesMigradas() {
+        return sucursalesMigradas;
+    }
+
+    public long getLotes() {
+        return lotes;
+    }
+
+    /**
+     * @return documentos de 'vende' eliminados, o sucursales a las que se les quitó el arreglo embebido
+     */
+    public long getDocumentosOrigenEliminados() {
+        return documentosOrigenEliminados;
+    }
+
+    /**
+     * @return sucursales que no se migraron, cada una con el motivo
+     */
+    public List<String> getSucursalesOmitidas() {
+        return sucursalesOmitidas;
+    }
+
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    public double getRelacionesPorSegundo() {
+        return milisegundos == 0 ? relacionesMigradas * 1000.0 : relacionesMigradas * 1000.0 / milisegundos;
+    }
+}
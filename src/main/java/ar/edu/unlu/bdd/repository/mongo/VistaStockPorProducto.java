@@ -0,0 +1,148 @@
+package ar.edu.unlu.bdd.repository.mongo;
+
+import ar.edu.unlu.bdd.database.OperacionMongo;
+import ar.edu.unlu.bdd.repository.StockProducto;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.ne;
+
+/**
+ * Vista materializada 'stock_por_producto': un documento por producto (el código es el _id)
+ * con las unidades y la cantidad de sucursales que lo venden.
+ * <p>
+ * Los repositorios anotan el código de cada producto cuyas relaciones escriben, y el
+ * refresco incremental recalcula con $merge solo esos productos. La forma de obtener las
+ * relaciones depende del esquema de vende, así que la da el repositorio.
+ */
+final class VistaStockPorProducto {
+
+    static final String NOMBRE = "stock_por_producto";
+
+    private final MongoCollection<Document> vista;
+    private final MongoCollection<Document> lectura;
+    private final MongoCollection<Document> origen;
+    private final Function<List<Integer>, List<Bson>> etapasRelaciones;
+    private final Set<Integer> productosModificados = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reconstruida = new AtomicBoolean();
+
+    /**
+     * @param origen           Colección sobre la que corre la agregación
+     * @param etapasRelaciones Etapas que producen documentos {codigoProducto, stock}, limitados
+     *                         a los códigos recibidos (o todos, si recibe null)
+     */
+    VistaStockPorProducto(MongoDatabase database, MongoCollection<Document> origen,
+                          Function<List<Integer>, List<Bson>> etapasRelaciones) {
+        this.vista = database.getCollection(NOMBRE);
+        this.lectura = OperacionMongo.STOCK_PRODUCTO.aplicar(vista);
+        this.origen = origen;
+        this.etapasRelaciones = etapasRelaciones;
+    }
+
+    void anotar(int codigoProducto) {
+        productosModificados.add(codigoProducto);
+    }
+
+    void anotar(Collection<Integer> codigos) {
+        productosModificados.addAll(codigos);
+    }
+
+    /**
+     * La primera vez en el proceso reconstruye la vista completa, porque no se conocen los
+     * cambios anteriores. Los códigos anotados después de tomarlos quedan para el próximo refresco.
+     * <p>
+     * Los códigos se quitan antes de materializar, para no perder los que se anoten mientras
+     * tanto; si el refresco falla, se vuelven a anotar y el próximo los recalcula.
+     */
+    int refrescar() {
+        if (reconstruida.compareAndSet(false, true)) {
+            productosModificados.clear();
+            return reconstruir();
+        }
+
+        List<Integer> codigos = new ArrayList<>(productosModificados);
+        if (codigos.isEmpty()) {
+            return 0;
+        }
+        productosModificados.removeAll(codigos);
+        try {
+            materializar(codigos);
+        } catch (RuntimeException e) {
+            productosModificados.addAll(codigos);
+            throw e;
+        }
+        return codigos.size();
+    }
+
+    /**
+     * Si falla, la vista queda marcada como no reconstruida y el próximo refresco la reconstruye entera.
+     */
+    int reconstruir() {
+        reconstruida.set(true);
+        try {
+            materializar(null);
+        } catch (RuntimeException e) {
+            reconstruida.set(false);
+            throw e;
+        }
+        return (int) vista.estimatedDocumentCount();
+    }
+
+    /**
+     * Lectura por _id: usa el índice por defecto de la vista.
+     */
+    StockProducto leer(int codigoProducto) {
+        Document stock = LimiteTiempo.leer(OperacionMongo.STOCK_PRODUCTO, ms -> lectura.find(eq("_id", codigoProducto))
+                .maxTime(ms, TimeUnit.MILLISECONDS)
+                .first());
+        if (stock == null) {
+            return null;
+        }
+        return new StockProducto(codigoProducto,
+                stock.get("sucursales", Number.class).longValue(),
+                stock.get("unidades", Number.class).longValue());
+    }
+
+    /**
+     * Agrupa en el servidor las relaciones de los códigos indicados y las vuelca con $merge en
+     * la vista, marcadas con un identificador de refresco. Los productos del alcance que no
+     * recibieron la marca ya no tienen relaciones, así que se eliminan de la vista. Si la
+     * agregación supera su tiempo máximo, no se elimina nada y el refresco se reintenta.
+     *
+     * @param codigos Productos a recalcular, o null para todos
+     */
+    private void materializar(List<Integer> codigos) {
+        ObjectId refresco = new ObjectId();
+        List<Bson> pipeline = new ArrayList<>(etapasRelaciones.apply(codigos));
+        pipeline.add(new Document("$group", new Document("_id", "$codigoProducto")
+                .append("unidades", new Document("$sum", "$stock"))
+                .append("sucursales", new Document("$sum", 1))));
+        pipeline.add(new Document("$addFields", new Document("refresco", refresco)));
+        pipeline.add(new Document("$merge", new Document("into", NOMBRE)
+                .append("on", "_id")
+                .append("whenMatched", "replace")
+                .append("whenNotMatched", "insert")));
+        LimiteTiempo.leer(OperacionMongo.REFRESCO_STOCK, ms -> {
+            origen.aggregate(pipeline).maxTime(ms, TimeUnit.MILLISECONDS).toCollection();
+            return null;
+        });
+
+        Bson alcance = codigos == null ? new Document() : in("_id", codigos);
+        vista.deleteMany(and(alcance, ne("refresco", refresco)));
+    }
+}
@@ -0,0 +1,509 @@
+package ar.edu.unlu.bdd.script;
+
+import ar.edu.unlu.bdd.concurrencia.EjecutorConcurrente;
+import ar.edu.unlu.bdd.concurrencia.ResultadoEjecucion;
+import ar.edu.unlu.bdd.controller.ControllerEmpleado;
+import ar.edu.unlu.bdd.controller.ControllerExportacion;
+import ar.edu.unlu.bdd.controller.ControllerImportacion;
+import ar.edu.unlu.bdd.controller.ControllerProducto;
+import ar.edu.unlu.bdd.controller.ControllerSucursal;
+import ar.edu.unlu.bdd.controller.ControllerVende;
+import ar.edu.unlu.bdd.entity.Empleado;
+import ar.edu.unlu.bdd.entity.Producto;
+import ar.edu.unlu.bdd.entity.Sucursal;
+import ar.edu.unlu.bdd.entity.Vende;
+import ar.edu.unlu.bdd.repository.AjustePrecio;
+import ar.edu.unlu.bdd.repository.PeriodoVentas;
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import ar.edu.unlu.bdd.repository.Repositorios;
+import ar.edu.unlu.bdd.repository.TiempoMaximo;
+import ar.edu.unlu.bdd.view.salida.Columnas;
+import ar.edu.unlu.bdd.view.salida.FormatoSalida;
+import ar.edu.unlu.bdd.view.salida.ListadoResultados;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Ejecuta un script de comandos sin pasar por el menú ni por las vistas.
+ * <p>
+ * Cada línea es un comando {@code <entidad> <operación> <argumentos...>}, con los
+ * argumentos en el mismo orden que los métodos de los controllers:
+ * <pre>
+ * sucursal alta Centro "Av. Siempre Viva 123"
+ * sucursal bajacascada Norte Centro
+ * producto alta 101 "Yerba 1kg" 50
+ * empleado modificacion 30111222 Ana Gómez Centro
+ * vende alta Centro 101 99.5 10
+ * vende vender Centro 101 2
+ * vende pedido Centro 101:2 205:1
+ * vende resumen dia todas 7
+ * vende valoracion
+ * vende stock 101
+ * vende ajuste porcentaje 10 Centro todos - - simular
+ * vende consulta todas
+ * exportar vende vende.jsonl.gz jsonl 4
+ * importar vende dump/miMongoDB/vende.bson 1000 2 Centro
+ * </pre>
+ * Las líneas vacías y las que empiezan con '#' se ignoran. Los argumentos con
+ * espacios van entre comillas dobles.
+ * <p>
+ * Este hilo lee y valida las líneas mientras el {@link EjecutorConcurrente} ejecuta
+ * las anteriores. Con más de una operación en paralelo, los comandos pueden terminar
+ * en otro orden; la directiva {@code esperar} espera a que terminen todos los comandos
+ * anteriores antes de seguir (por ejemplo, entre las altas de sucursales y las de empleados).
+ * <p>
+ * La directiva {@code tiempo <milisegundos|defecto>} fija el tiempo máximo de las lecturas de
+ * los comandos siguientes (ver {@link TiempoMaximo}); {@code tiempo defecto} vuelve a usar el
+ * configurado para cada operación.
+ */
+public class InterpreteScript {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterpreteScript.class);
+
+    private final ControllerSucursal sucursales;
+    private final ControllerProducto productos;
+    private final ControllerEmpleado empleados;
+    private final ControllerVende vende;
+    private final ControllerExportacion exportacion;
+    private final ControllerImportacion importacion;
+
+    public InterpreteScript(Repositorios repositorios) {
+        this.sucursales = new ControllerSucursal(repositorios);
+        this.productos = new ControllerProducto(repositorios);
+        this.empleados = new ControllerEmpleado(repositorios);
+        this.vende = new ControllerVende(repositorios);
+        this.exportacion = new ControllerExportacion(repositorios);
+        this.importacion = new ControllerImportacion(repositorios);
+    }
+
+    /**
+     * Ejecuta todos los comandos del script.
+     *
+     * @param reader      Origen de los comandos (archivo o entrada estándar)
+     * @param enParalelo  Cantidad máxima de comandos ejecutándose al mismo tiempo (1 = en orden)
+     * @param salida      Donde se informan los errores de sintaxis y el resumen final
+     * @return true si todas las líneas eran válidas y todos los comandos tuvieron éxito
+     */
+    public boolean ejecutar(BufferedReader reader, int enParalelo, PrintStream salida) throws IOException {
+        long lineasInvalidas = 0;
+        Long tiempoMaximo = null;
+        ResultadoEjecucion resultado;
+
+        try (EjecutorConcurrente ejecutor = new EjecutorConcurrente(enParalelo)) {
+            String linea;
+            long numeroLinea = 0;
+            while ((linea = reader.readLine()) != null) {
+                numeroLinea++;
+                linea = linea.trim();
+                if (linea.isEmpty() || linea.startsWith("#")) continue;
+
+                try {
+                    List<String> tokens = separar(linea);
+                    if (tokens.size() == 1 && "esperar".equalsIgnoreCase(tokens.get(0))) {
+                        ejecutor.esperar();
+                        continue;
+                    }
+                    if (!tokens.isEmpty() && "tiempo".equalsIgnoreCase(tokens.get(0))) {
+                        tiempoMaximo = tiempoMaximo(tokens);
+                        continue;
+                    }
+                    BooleanSupplier comando = interpretar(tokens);
+                    if (tiempoMaximo != null) {
+                        long milisegundos = tiempoMaximo;
+                        BooleanSupplier sinLimite = comando;
+                        comando = () -> TiempoMaximo.con(milisegundos, sinLimite::getAsBoolean);
+                    }
+                    ejecutor.enviar(comando);
+                } catch (IllegalArgumentException e) {
+                    lineasInvalidas++;
+                    salida.println("Línea " + numeroLinea + ": " + e.getMessage());
+                }
+            }
+            resultado = ejecutor.esperar();
+        }
+
+        salida.println("===========================================================================");
+        salida.println("Script finalizado.");
+        resultado.mostrar(salida);
+        salida.println("Líneas inválidas: " + lineasInvalidas);
+        salida.println("===========================================================================");
+
+        if (resultado.getConExcepcion() > 0) {
+            logger.warn("{} comandos terminaron con error. Ver el log para el detalle.", resultado.getConExcepcion());
+        }
+        return lineasInvalidas == 0 && resultado.getFallidas() == 0 && resultado.getConExcepcion() == 0;
+    }
+
+    /**
+     * Convierte un comando en la llamada al controller correspondiente. Los argumentos
+     * se validan acá, en el hilo lector, para informar el número de línea.
+     */
+    private BooleanSupplier interpretar(List<String> t) {
+        if (t.size() < 2) {
+            throw new IllegalArgumentException("se esperaba '<entidad> <operación> [argumentos...]'");
+        }
+        String entidad = t.get(0).toLowerCase();
+        String operacion = t.get(1).toLowerCase().replace('ó', 'o');
+
+        switch (entidad) {
+            case "sucursal":
+            case "sucursales":
+                return comandoSucursal(operacion, t);
+            case "producto":
+            case "productos":
+                return comandoProducto(operacion, t);
+            case "empleado":
+            case "empleados":
+                return comandoEmpleado(operacion, t);
+            case "vende":
+                return comandoVende(operacion, t);
+            case "exportar":
+                return comandoExportar(t);
+            case "importar":
+                return comandoImportar(t);
+            default:
+                throw new IllegalArgumentException("entidad desconocida '" + t.get(0) + "' (sucursal, producto, empleado, vende, exportar o importar)");
+        }
+    }
+
+    private BooleanSupplier comandoSucursal(String operacion, List<String> t) {
+        switch (operacion) {
+            case "alta": {
+                verificarArgumentos(t, "sucursal alta <nombre> <direccion>");
+                String nombre = t.get(2), direccion = t.get(3);
+                return () -> sucursales.alta(nombre, direccion);
+            }
+            case "baja": {
+                verificarArgumentos(t, "sucursal baja <nombre>");
+                String nombre = t.get(2);
+                return () -> sucursales.baja(nombre);
+            }
+            case "bajacascada": {
+                verificarArgumentos(t, "sucursal bajacascada <nombre> <sucursalDestino|->");
+                String nombre = t.get(2), destino = "-".equals(t.get(3)) ? null : t.get(3);
+                return () -> sucursales.bajaEnCascada(nombre, destino);
+            }
+            case "modificacion": {
+                verificarArgumentos(t, "sucursal modificacion <nombre> <direccion>");
+                String nombre = t.get(2), direccion = t.get(3);
+                return () -> sucursales.modificacion(nombre, direccion);
+            }
+            case "consulta": {
+                verificarArgumentos(t, "sucursal consulta <nombre|todas>");
+                String nombre = t.get(2);
+                return () -> {
+                    // null si el parámetro no es válido o la consulta falló: cuenta como error
+                    RecorridoPaginado<Sucursal> recorrido = sucursales.consulta(nombre);
+                    ListadoResultados.mostrar(recorrido, Columnas.SUCURSAL);
+                    return recorrido != null;
+                };
+            }
+            default:
+                throw operacionDesconocida(t, "alta, baja, bajacascada, modificacion o consulta");
+        }
+    }
+
+    private BooleanSupplier comandoProducto(String operacion, List<String> t) {
+        switch (operacion) {
+            case "alta": {
+                verificarArgumentos(t, "producto alta <codigo> <descripcion> <stock>");
+                int codigo = entero(t.get(2), "codigo"), stock = entero(t.get(4), "stock");
+                String descripcion = t.get(3);
+                return () -> productos.alta(codigo, descripcion, stock);
+            }
+            case "baja": {
+                verificarArgumentos(t, "producto baja <codigo>");
+                int codigo = entero(t.get(2), "codigo");
+                return () -> productos.baja(codigo);
+            }
+            case "bajacascada": {
+                verificarArgumentos(t, "producto bajacascada <codigo>");
+                int codigo = entero(t.get(2), "codigo");
+                return () -> productos.bajaEnCascada(codigo);
+            }
+            case "modificacion": {
+                verificarArgumentos(t, "producto modificacion <codigo> <descripcion> <stock>");
+                int codigo = entero(t.get(2), "codigo"), stock = entero(t.get(4), "stock");
+                String descripcion = t.get(3);
+                return () -> productos.modificacion(codigo, descripcion, stock);
+            }
+            case "consulta": {
+                verificarArgumentos(t, "producto consulta <codigo|todas>");
+                String codigo = t.get(2);
+                return () -> {
+                    RecorridoPaginado<Producto> recorrido = productos.consulta(codigo);
+                    ListadoResultados.mostrar(recorrido, Columnas.PRODUCTO);
+                    return recorrido != null;
+                };
+            }
+            default:
+                throw operacionDesconocida(t, "alta, baja, bajacascada, modificacion o consulta");
+        }
+    }
+
+    private BooleanSupplier comandoEmpleado(String operacion, List<String> t) {
+        switch (operacion) {
+            case "alta": {
+                verificarArgumentos(t, "empleado alta <dni> <nombre> <apellido> <sucursal>");
+                int dni = entero(t.get(2), "dni");
+                String nombre = t.get(3), apellido = t.get(4), sucursal = t.get(5);
+                return () -> empleados.alta(dni, nombre, apellido, sucursal);
+            }
+            case "baja": {
+                verificarArgumentos(t, "empleado baja <dni>");
+                int dni = entero(t.get(2), "dni");
+                return () -> empleados.baja(dni);
+            }
+            case "modificacion": {
+                verificarArgumentos(t, "empleado modificacion <dni> <nombre> <apellido> <sucursal>");
+                int dni = entero(t.get(2), "dni");
+                String nombre = t.get(3), apellido = t.get(4), sucursal = t.get(5);
+                return () -> empleados.modificacion(dni, nombre, apellido, sucursal);
+            }
+            case "consulta": {
+                verificarArgumentos(t, "empleado consulta <dni|todas>");
+                String dni = t.get(2);
+                return () -> {
+                    RecorridoPaginado<Empleado> recorrido = empleados.consulta(dni);
+                    ListadoResultados.mostrar(recorrido, Columnas.EMPLEADO);
+                    return recorrido != null;
+                };
+            }
+            default:
+                throw operacionDesconocida(t, "alta, baja, modificacion o consulta");
+        }
+    }
+
+    private BooleanSupplier comandoVende(String operacion, List<String> t) {
+        switch (operacion) {
+            case "alta": {
+                verificarArgumentos(t, "vende alta <sucursal> <codigoProducto> <precio> <stock>");
+                String sucursal = t.get(2);
+                int codigo = entero(t.get(3), "codigoProducto"), stock = entero(t.get(5), "stock");
+                double precio = decimal(t.get(4), "precio");
+                return () -> vende.alta(sucursal, codigo, precio, stock);
+            }
+            case "baja": {
+                verificarArgumentos(t, "vende baja <sucursal> <codigoProducto>");
+                String sucursal = t.get(2);
+                int codigo = entero(t.get(3), "codigoProducto");
+                return () -> vende.baja(sucursal, codigo);
+            }
+            case "modificacion": {
+                verificarArgumentos(t, "vende modificacion <sucursal> <codigoProducto> <precio> <stock>");
+                String sucursal = t.get(2);
+                int codigo = entero(t.get(3), "codigoProducto"), stock = entero(t.get(5), "stock");
+                double precio = decimal(t.get(4), "precio");
+                return () -> vende.modificacion(sucursal, codigo, precio, stock);
+            }
+            case "consulta": {
+                verificarArgumentos(t, "vende consulta <sucursal|codigoProducto|todas>");
+                String consulta = t.get(2);
+                return () -> {
+                    RecorridoPaginado<Vende> recorrido = vende.consulta(consulta);
+                    ListadoResultados.mostrar(recorrido, Columnas.VENDE);
+                    return recorrido != null;
+                };
+            }
+            case "vender": {
+                verificarArgumentos(t, "vende vender <sucursal> <codigoProducto> <cantidad>");
+                String sucursal = t.get(2);
+                int codigo = entero(t.get(3), "codigoProducto"), cantidad = entero(t.get(4), "cantidad");
+                return () -> vende.vender(sucursal, codigo, cantidad);
+            }
+            case "pedido": {
+                if (t.size() < 4) {
+                    throw new IllegalArgumentException("cantidad de argumentos incorrecta. Uso: vende pedido <sucursal> <codigoProducto:cantidad>...");
+                }
+                String sucursal = t.get(2);
+                Map<Integer, Integer> lineas = new LinkedHashMap<>();
+                for (String linea : t.subList(3, t.size())) {
+                    int separador = linea.indexOf(':');
+                    if (separador < 0) {
+                        throw new IllegalArgumentException("la línea del pedido debe tener la forma codigoProducto:cantidad: '" + linea + "'");
+                    }
+                    lineas.merge(entero(linea.substring(0, separador), "codigoProducto"),
+                            entero(linea.substring(separador + 1), "cantidad"), Integer::sum);
+                }
+                return () -> vende.venderPedido(sucursal, lineas);
+            }
+            case "resumen": {
+                verificarArgumentos(t, "vende resumen <hora|dia> <sucursal|todas> <dias>");
+                PeriodoVentas periodo;
+                if ("hora".equalsIgnoreCase(t.get(2))) {
+                    periodo = PeriodoVentas.HORA;
+                } else if ("dia".equalsIgnoreCase(t.get(2))) {
+                    periodo = PeriodoVentas.DIA;
+                } else {
+                    throw new IllegalArgumentException("el período debe ser 'hora' o 'dia': '" + t.get(2) + "'");
+                }
+                String sucursal = "todas".equalsIgnoreCase(t.get(3)) ? null : t.get(3);
+                int dias = entero(t.get(4), "dias");
+                return () -> {
+                    vende.resumenVentas(periodo, sucursal, dias);
+                    return true;
+                };
+            }
+            case "valoracion": {
+                verificarArgumentos(t, "vende valoracion");
+                return () -> {
+                    vende.valoracionInventario();
+                    return true;
+                };
+            }
+            case "stock": {
+                verificarArgumentos(t, "vende stock <codigoProducto>");
+                int codigo = entero(t.get(2), "codigoProducto");
+                return () -> vende.stockTotal(codigo);
+            }
+            case "reconstruir": {
+                verificarArgumentos(t, "vende reconstruir");
+                return () -> {
+                    vende.reconstruirStockPorProducto();
+                    return true;
+                };
+            }
+            case "ajuste": {
+                verificarArgumentos(t, "vende ajuste <porcentaje|fijo> <valor> <sucursal|todas> <codigoProducto|todos> <precioDesde|-> <precioHasta|-> <simular|aplicar>");
+                AjustePrecio.Tipo tipo;
+                if ("porcentaje".equalsIgnoreCase(t.get(2))) {
+                    tipo = AjustePrecio.Tipo.PORCENTAJE;
+                } else if ("fijo".equalsIgnoreCase(t.get(2))) {
+                    tipo = AjustePrecio.Tipo.FIJO;
+                } else {
+                    throw new IllegalArgumentException("el tipo de ajuste debe ser 'porcentaje' o 'fijo': '" + t.get(2) + "'");
+                }
+                double valor = decimal(t.get(3), "valor");
+                String sucursal = "todas".equalsIgnoreCase(t.get(4)) ? null : t.get(4);
+                Integer codigo = "todos".equalsIgnoreCase(t.get(5)) ? null : entero(t.get(5), "codigoProducto");
+                Double desde = "-".equals(t.get(6)) ? null : decimal(t.get(6), "precioDesde");
+                Double hasta = "-".equals(t.get(7)) ? null : decimal(t.get(7), "precioHasta");
+                boolean simular;
+                if ("simular".equalsIgnoreCase(t.get(8))) {
+                    simular = true;
+                } else if ("aplicar".equalsIgnoreCase(t.get(8))) {
+                    simular = false;
+                } else {
+                    throw new IllegalArgumentException("el modo debe ser 'simular' o 'aplicar': '" + t.get(8) + "'");
+                }
+                return () -> vende.ajustarPrecios(tipo, valor, sucursal, codigo, desde, hasta, simular);
+            }
+            default:
+                throw operacionDesconocida(t, "alta, baja, modificacion, consulta, vender, pedido, resumen, valoracion, stock, reconstruir o ajuste");
+        }
+    }
+
+    private BooleanSupplier comandoExportar(List<String> t) {
+        verificarArgumentos(t, "exportar <coleccion> <ruta> <jsonl|csv> <partes>");
+        String coleccion = t.get(1).toLowerCase(), ruta = t.get(2);
+        FormatoSalida formato = FormatoSalida.desde(t.get(3));
+        if (formato == FormatoSalida.TABLA) {
+            throw new IllegalArgumentException("el formato de exportación debe ser 'jsonl' o 'csv': '" + t.get(3) + "'");
+        }
+        int partes = entero(t.get(4), "partes");
+        return () -> exportacion.exportar(coleccion, ruta, formato, partes);
+    }
+
+    private BooleanSupplier comandoImportar(List<String> t) {
+        verificarArgumentos(t, "importar <coleccion> <ruta> <tamanioLote> <lotesEnParalelo> <sucursal|todas>");
+        String coleccion = t.get(1).toLowerCase(), ruta = t.get(2);
+        int tamanioLote = entero(t.get(3), "tamanioLote");
+        int lotesEnParalelo = entero(t.get(4), "lotesEnParalelo");
+        String sucursal = "todas".equalsIgnoreCase(t.get(5)) ? null : t.get(5);
+        return () -> {
+            importacion.importar(coleccion, ruta, tamanioLote, lotesEnParalelo, sucursal);
+            return true;
+        };
+    }
+
+    /**
+     * @return el tiempo máximo de la directiva {@code tiempo}, o null para volver al configurado
+     */
+    private static Long tiempoMaximo(List<String> t) {
+        if (t.size() != 2) {
+            throw new IllegalArgumentException("cantidad de argumentos incorrecta. Uso: tiempo <milisegundos|defecto>");
+        }
+        if ("defecto".equalsIgnoreCase(t.get(1))) {
+            return null;
+        }
+        int milisegundos = entero(t.get(1), "milisegundos");
+        if (milisegundos < 0) {
+            throw new IllegalArgumentException("el tiempo máximo no puede ser negativo: '" + t.get(1) + "'");
+        }
+        return (long) milisegundos;
+    }
+
+    /**
+     * Verifica que el comando tenga tantos argumentos como indica su forma de uso.
+     */
+    private static void verificarArgumentos(List<String> t, String uso) {
+        int esperados = uso.split(" ").length;
+        if (t.size() != esperados) {
+            throw new IllegalArgumentException("cantidad de argumentos incorrecta. Uso: " + uso);
+        }
+    }
+
+    private static IllegalArgumentException operacionDesconocida(List<String> t, String operaciones) {
+        return new IllegalArgumentException("operación desconocida '" + t.get(1) + "' (" + operaciones + ")");
+    }
+
+    private static int entero(String valor, String campo) {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + campo + "' debe ser un número entero: '" + valor + "'");
+        }
+    }
+
+    private static double decimal(String valor, String campo) {
+        try {
+            return Double.parseDouble(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + campo + "' debe ser un número: '" + valor + "'");
+        }
+    }
+
+    /**
+     * Separa una línea en palabras. Un texto entre comillas dobles es una sola palabra.
+     */
+    static List<String> separar(String linea) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        boolean hayToken = false;
+
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (c == '"') {
+                entreComillas = !entreComillas;
+                hayToken = true;
+            } else if (Character.isWhitespace(c) && !entreComillas) {
+                if (hayToken) {
+                    tokens.add(actual.toString());
+                    actual.setLength(0);
+                    hayToken = false;
+                }
+            } else {
+                actual.append(c);
+                hayToken = true;
+            }
+        }
+
+        if (entreComillas) {
+            throw new IllegalArgumentException("faltan las comillas de cierre");
+        }
+        if (hayToken) {
+            tokens.add(actual.toString());
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,153 @@
+package ar.edu.unlu.bdd.script;
+
+import ar.edu.unlu.bdd.repository.Repositorios;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Modo sin interacción: ejecuta un script de comandos (ver {@link InterpreteScript})
+ * en lugar de mostrar el menú.
+ * <p>
+ * Uso: {@code java -jar app.jar --script <archivo|-> [--paralelo N] [--silencioso]}
+ * - --script: archivo de comandos, o '-' para leerlos de la entrada estándar
+ * - --paralelo: comandos ejecutándose al mismo tiempo (por defecto 1, en orden)
+ * - --silencioso: no muestra el mensaje de cada operación, solo los errores (en la salida
+ *   de errores) y el resumen
+ */
+public class ModoScript {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModoScript.class);
+
+    public static final int SALIDA_OK = 0;
+    public static final int SALIDA_CON_ERRORES = 1;
+    public static final int SALIDA_USO_INVALIDO = 2;
+
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+
+    private ModoScript() {
+    }
+
+    /**
+     * Interpreta los argumentos de la línea de comandos y ejecuta el script.
+     *
+     * @return código de salida del proceso
+     */
+    public static int ejecutar(String[] args) {
+        String script = null;
+        int enParalelo = 1;
+        boolean silencioso = false;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--script":
+                        script = args[++i];
+                        break;
+                    case "--paralelo":
+                        enParalelo = Integer.parseInt(args[++i]);
+                        break;
+                    case "--silencioso":
+                        silencioso = true;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("argumento desconocido '" + args[i] + "'");
+                }
+            }
+            if (script == null) {
+                throw new IllegalArgumentException("falta --script");
+            }
+            if (enParalelo < 1) {
+                throw new IllegalArgumentException("--paralelo debe ser mayor o igual a 1");
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            String motivo = e instanceof ArrayIndexOutOfBoundsException ? "falta el valor de " + args[args.length - 1] : e.getMessage();
+            System.err.println("Error: " + motivo);
+            System.err.println("Uso: java -jar app.jar --script <archivo|-> [--paralelo N] [--silencioso]");
+            return SALIDA_USO_INVALIDO;
+        }
+
+        // Ningún componente debe quedarse esperando una respuesta por teclado
+        System.setProperty("bdd.interactivo", "false");
+        Repositorios repositorios;
+        try {
+            repositorios = Repositorios.crearSegunConfiguracion();
+        } catch (IllegalStateException e) {
+            // La base no quedó en condiciones de usarse (el motivo ya se mostró)
+            return SALIDA_CON_ERRORES;
+        }
+
+        PrintStream salida = System.out;
+        if (silencioso) {
+            System.setOut(new PrintStream(new SoloErrores(System.err), true));
+        }
+
+        try (BufferedReader reader = abrir(script)) {
+            boolean exito = new InterpreteScript(repositorios).ejecutar(reader, enParalelo, salida);
+            return exito ? SALIDA_OK : SALIDA_CON_ERRORES;
+        } catch (IOException e) {
+            logger.error("Error al leer el script '{}': {}", script, e.getMessage(), e);
+            return SALIDA_CON_ERRORES;
+        } finally {
+            repositorios.close();
+            System.setOut(salida);
+        }
+    }
+
+    private static BufferedReader abrir(String script) throws IOException {
+        if ("-".equals(script)) {
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), TAMANIO_BUFFER);
+        }
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(Path.of(script)), StandardCharsets.UTF_8), TAMANIO_BUFFER);
+    }
+
+    /**
+     * Descarta las líneas escritas en la salida estándar salvo las que empiezan con "Error",
+     * que pasan a la salida de errores. Cada hilo arma sus propias líneas, así que los comandos
+     * en paralelo no mezclan sus mensajes.
+     */
+    private static final class SoloErrores extends OutputStream {
+
+        private static final byte[] PREFIJO = "Error".getBytes(StandardCharsets.US_ASCII);
+
+        private final PrintStream destino;
+        private final ThreadLocal<ByteArrayOutputStream> lineas = ThreadLocal.withInitial(ByteArrayOutputStream::new);
+
+        private SoloErrores(PrintStream destino) {
+            this.destino = destino;
+        }
+
+        @Override
+        public void write(int b) {
+            ByteArrayOutputStream linea = lineas.get();
+            linea.write(b);
+            if (b == '\n') {
+                byte[] bytes = linea.toByteArray();
+                linea.reset();
+                if (Arrays.equals(bytes, 0, Math.min(bytes.length, PREFIJO.length), PREFIJO, 0, PREFIJO.length)) {
+                    synchronized (destino) {
+                        destino.write(bytes, 0, bytes.length);
+                        destino.flush();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int desde, int cantidad) {
+            for (int i = desde; i < desde + cantidad; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
@@ -12,6 +12,16 @@ public class CFZValidatorUtils {
     private CFZValidatorUtils() {
     }
 
+    /**
+     * Indica si hay un usuario respondiendo por teclado. En el modo script
+     * ({@code -Dbdd.interactivo=false}) no se debe pedir ninguna entrada.
+     *
+     * @return false si la aplicación corre sin interacción
+     */
+    public static boolean esInteractivo() {
+        return Boolean.parseBoolean(System.getProperty("bdd.interactivo", "true"));
+    }
+
     /**
      * Solicita un número por teclado mostrando un mensaje personalizado.
      * Reintenta hasta que el usuario ingrese un número válido.
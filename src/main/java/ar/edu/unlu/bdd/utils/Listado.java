@@ -5,6 +5,15 @@ public class Listado {
     }
 
     public static void listarMenu(String nombreTabla) {
+        listarMenu(nombreTabla, new String[0]);
+    }
+
+    /**
+     * Muestra el menú ABMyC con opciones propias de la entidad a continuación de "Consultar".
+     *
+     * @return número de la opción "Volver"
+     */
+    public static int listarMenu(String nombreTabla, String... opcionesAdicionales) {
         System.out.println("\n----------------------------------------------");
         System.out.println(" - " + nombreTabla + " - ");
         System.out.println("Seleccione la opción que desea realizar sobre la entidad");
@@ -12,7 +21,26 @@ public class Listado {
         System.out.println("2 - Baja");
         System.out.println("3 - Modificación");
         System.out.println("4 - Consultar");
-        System.out.println("5 - Volver");
+        int opcion = 5;
+        for (String adicional : opcionesAdicionales) {
+            System.out.println(opcion++ + " - " + adicional);
+        }
+        System.out.println(opcion + " - Volver");
         System.out.print("");
+        return opcion;
+    }
+
+    /**
+     * Pregunta al usuario si desea ver la siguiente página de un listado.
+     * Sin interacción (modo script) se muestran todas las páginas.
+     *
+     * @return true si el usuario quiere continuar
+     */
+    public static boolean solicitarSiguientePagina() {
+        if (!CFZValidatorUtils.esInteractivo()) {
+            return true;
+        }
+        String respuesta = CFZValidatorUtils.solicitarEntradaPorTeclado("¿Mostrar la siguiente página? (s/n): ").toLowerCase();
+        return "s".equals(respuesta) || "si".equals(respuesta) || "y".equals(respuesta) || "yes".equals(respuesta);
     }
 }
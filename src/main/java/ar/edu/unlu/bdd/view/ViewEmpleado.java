@@ -3,6 +3,8 @@ package ar.edu.unlu.bdd.view;
 import ar.edu.unlu.bdd.controller.ControllerEmpleado;
 import ar.edu.unlu.bdd.utils.CFZValidatorUtils;
 import ar.edu.unlu.bdd.utils.Listado;
+import ar.edu.unlu.bdd.view.salida.Columnas;
+import ar.edu.unlu.bdd.view.salida.ListadoResultados;
 
 public class ViewEmpleado {
     public ViewEmpleado(ControllerEmpleado controllerEmpleado) {
@@ -145,6 +147,6 @@ public class ViewEmpleado {
                 System.out.println("Debe ingresar un DNI válido (número) o 'todas' para consultar todos los empleados.");
             }
         }
-        controllerEmpleado.consulta(entrada);
+        ListadoResultados.mostrar(controllerEmpleado.consulta(entrada), Columnas.EMPLEADO);
     }
 }
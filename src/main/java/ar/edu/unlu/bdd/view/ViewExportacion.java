@@ -0,0 +1,83 @@
+package ar.edu.unlu.bdd.view;
+
+import ar.edu.unlu.bdd.controller.ControllerExportacion;
+import ar.edu.unlu.bdd.utils.CFZValidatorUtils;
+import ar.edu.unlu.bdd.view.salida.FormatoSalida;
+
+/**
+ * Vista para la exportación de colecciones completas a archivos CSV o JSONL.
+ */
+public class ViewExportacion {
+
+    public ViewExportacion(ControllerExportacion controllerExportacion) {
+        int opc;
+        do {
+            System.out.println("\n----------------------------------------------");
+            System.out.println(" - Exportación - ");
+            System.out.println("Seleccione la colección a exportar:");
+            System.out.println("1 - Sucursales");
+            System.out.println("2 - Productos");
+            System.out.println("3 - Empleados");
+            System.out.println("4 - Vende");
+            System.out.println("5 - Volver");
+            opc = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese su opción: ");
+
+            switch (opc) {
+                case 1: {
+                    inputExportacion(controllerExportacion, "sucursales");
+                    break;
+                }
+                case 2: {
+                    inputExportacion(controllerExportacion, "productos");
+                    break;
+                }
+                case 3: {
+                    inputExportacion(controllerExportacion, "empleados");
+                    break;
+                }
+                case 4: {
+                    inputExportacion(controllerExportacion, "vende");
+                    break;
+                }
+                case 5: {
+                    System.out.println("Saliendo...");
+                    break;
+                }
+                default: {
+                    System.out.println("Opción incorrecta.");
+                    break;
+                }
+            }
+        } while (opc != 5);
+    }
+
+    private void inputExportacion(ControllerExportacion controllerExportacion, String coleccion) {
+        String ruta;
+        int opcionFormato;
+        int partes;
+
+        // Entrada ruta del archivo
+        while (true) {
+            ruta = CFZValidatorUtils.solicitarEntradaPorTeclado("Ingrese la ruta del archivo (termine en .gz para comprimir): ");
+            if (!ruta.isEmpty()) break;
+            else System.out.println("La ruta no puede estar vacía.");
+        }
+
+        // Entrada formato
+        while (true) {
+            opcionFormato = CFZValidatorUtils.solicitarNumeroPorTeclado("Formato (1 = JSONL, 2 = CSV): ");
+            if (opcionFormato == 1 || opcionFormato == 2) break;
+            else System.out.println("Opción incorrecta. Ingrese 1 o 2.");
+        }
+
+        // Entrada partes en paralelo
+        while (true) {
+            partes = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese la cantidad de partes a leer en paralelo (0 = "
+                    + ControllerExportacion.PARTES_POR_DEFECTO + "): ");
+            if (partes >= 0) break;
+            else System.out.println("La cantidad de partes debe ser un número mayor o igual a 0.");
+        }
+
+        controllerExportacion.exportar(coleccion, ruta, opcionFormato == 1 ? FormatoSalida.JSONL : FormatoSalida.CSV, partes);
+    }
+}
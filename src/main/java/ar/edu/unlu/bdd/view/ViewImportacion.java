@@ -0,0 +1,88 @@
+package ar.edu.unlu.bdd.view;
+
+import ar.edu.unlu.bdd.controller.ControllerImportacion;
+import ar.edu.unlu.bdd.utils.CFZValidatorUtils;
+
+/**
+ * Vista para la importación masiva de archivos CSV, JSONL o BSON (mongodump).
+ */
+public class ViewImportacion {
+
+    public ViewImportacion(ControllerImportacion controllerImportacion) {
+        int opc;
+        do {
+            System.out.println("\n----------------------------------------------");
+            System.out.println(" - Importación masiva - ");
+            System.out.println("Seleccione la colección destino:");
+            System.out.println("1 - Sucursales");
+            System.out.println("2 - Productos");
+            System.out.println("3 - Empleados");
+            System.out.println("4 - Vende");
+            System.out.println("5 - Volver");
+            opc = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese su opción: ");
+
+            switch (opc) {
+                case 1: {
+                    inputImportacion(controllerImportacion, "sucursales");
+                    break;
+                }
+                case 2: {
+                    inputImportacion(controllerImportacion, "productos");
+                    break;
+                }
+                case 3: {
+                    inputImportacion(controllerImportacion, "empleados");
+                    break;
+                }
+                case 4: {
+                    inputImportacion(controllerImportacion, "vende");
+                    break;
+                }
+                case 5: {
+                    System.out.println("Saliendo...");
+                    break;
+                }
+                default: {
+                    System.out.println("Opción incorrecta.");
+                    break;
+                }
+            }
+        } while (opc != 5);
+    }
+
+    private void inputImportacion(ControllerImportacion controllerImportacion, String coleccion) {
+        String ruta;
+        int tamanioLote;
+        int lotesEnParalelo;
+
+        // Entrada ruta del archivo
+        while (true) {
+            ruta = CFZValidatorUtils.solicitarEntradaPorTeclado("Ingrese la ruta del archivo (.csv, .jsonl o .bson de mongodump): ");
+            if (!ruta.isEmpty()) break;
+            else System.out.println("La ruta no puede estar vacía.");
+        }
+
+        // Entrada tamaño de lote
+        while (true) {
+            tamanioLote = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese el tamaño de lote (0 = " + ControllerImportacion.TAMANIO_LOTE_POR_DEFECTO + "): ");
+            if (tamanioLote >= 0) break;
+            else System.out.println("El tamaño de lote debe ser un número mayor o igual a 0.");
+        }
+
+        // Entrada lotes en paralelo
+        while (true) {
+            lotesEnParalelo = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese la cantidad de lotes a escribir en paralelo (1 = secuencial): ");
+            if (lotesEnParalelo >= 1) break;
+            else System.out.println("La cantidad de lotes en paralelo debe ser un número mayor o igual a 1.");
+        }
+
+        // Entrada sucursal a restaurar (los productos no pertenecen a una sucursal)
+        String sucursal = null;
+        if (!"productos".equals(coleccion)) {
+            sucursal = CFZValidatorUtils.solicitarEntradaPorTeclado("Ingrese la sucursal a importar (vacío = todas): ");
+            if (sucursal.isEmpty()) sucursal = null;
+        }
+
+        controllerImportacion.importar(coleccion, ruta, tamanioLote, lotesEnParalelo, sucursal);
+    }
+}
@@ -0,0 +1,58 @@
+package ar.edu.unlu.bdd.view;
+
+import ar.edu.unlu.bdd.controller.ControllerMigracion;
+import ar.edu.unlu.bdd.repository.Repositorios;
+import ar.edu.unlu.bdd.utils.CFZValidatorUtils;
+
+/**
+ * Vista para migrar las relaciones de vende entre el esquema de colección y el embebido.
+ */
+public class ViewMigracion {
+
+    public ViewMigracion(ControllerMigracion controllerMigracion, String esquemaActual) {
+        int opc;
+        do {
+            System.out.println("\n----------------------------------------------");
+            System.out.println(" - Migración de esquema de vende (actual: " + esquemaActual + ") - ");
+            System.out.println("1 - Colección 'vende' -> embebido en sucursales");
+            System.out.println("2 - Embebido en sucursales -> colección 'vende'");
+            System.out.println("3 - Volver");
+            opc = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese su opción: ");
+
+            switch (opc) {
+                case 1: {
+                    inputMigracion(controllerMigracion, Repositorios.ESQUEMA_EMBEBIDO);
+                    break;
+                }
+                case 2: {
+                    inputMigracion(controllerMigracion, Repositorios.ESQUEMA_COLECCION);
+                    break;
+                }
+                case 3: {
+                    System.out.println("Saliendo...");
+                    break;
+                }
+                default: {
+                    System.out.println("Opción incorrecta.");
+                    break;
+                }
+            }
+        } while (opc != 3);
+    }
+
+    private void inputMigracion(ControllerMigracion controllerMigracion, String esquemaDestino) {
+        int tamanioLote;
+
+        // Entrada tamaño de lote
+        while (true) {
+            tamanioLote = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese el tamaño de lote (0 = " + ControllerMigracion.TAMANIO_LOTE_POR_DEFECTO + "): ");
+            if (tamanioLote >= 0) break;
+            else System.out.println("El tamaño de lote debe ser un número mayor o igual a 0.");
+        }
+
+        String respuesta = CFZValidatorUtils.solicitarEntradaPorTeclado("¿Eliminar las relaciones del esquema de origen? (s/n): ");
+        boolean eliminarOrigen = "s".equalsIgnoreCase(respuesta) || "si".equalsIgnoreCase(respuesta);
+
+        controllerMigracion.migrar(esquemaDestino, tamanioLote, eliminarOrigen);
+    }
+}
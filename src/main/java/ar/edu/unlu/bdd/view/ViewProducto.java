@@ -3,6 +3,8 @@ package ar.edu.unlu.bdd.view;
 import ar.edu.unlu.bdd.controller.ControllerProducto;
 import ar.edu.unlu.bdd.utils.CFZValidatorUtils;
 import ar.edu.unlu.bdd.utils.Listado;
+import ar.edu.unlu.bdd.view.salida.Columnas;
+import ar.edu.unlu.bdd.view.salida.ListadoResultados;
 
 public class ViewProducto {
     public ViewProducto(ControllerProducto controllerProducto) {
@@ -78,7 +80,14 @@ public class ViewProducto {
             if (codigo > 0) break;
             else System.out.println("El código debe ser un número válido mayor a 0.");
         }
-        controllerProducto.baja(codigo);
+
+        // Baja en cascada: relaciones del producto con las sucursales
+        String cascada = CFZValidatorUtils.solicitarEntradaPorTeclado("¿Eliminar también sus relaciones con sucursales? (s/n): ");
+        if ("s".equalsIgnoreCase(cascada) || "si".equalsIgnoreCase(cascada)) {
+            controllerProducto.bajaEnCascada(codigo);
+        } else {
+            controllerProducto.baja(codigo);
+        }
     }
 
     private void inputModificacion(ControllerProducto controllerProducto) {
@@ -129,6 +138,6 @@ public class ViewProducto {
                 System.out.println("Debe ingresar un código válido (número) o 'todas' para consultar todos los productos.");
             }
         }
-        controllerProducto.consulta(entrada);
+        ListadoResultados.mostrar(controllerProducto.consulta(entrada), Columnas.PRODUCTO);
     }
 }
@@ -3,6 +3,8 @@ package ar.edu.unlu.bdd.view;
 import ar.edu.unlu.bdd.controller.ControllerSucursal;
 import ar.edu.unlu.bdd.utils.CFZValidatorUtils;
 import ar.edu.unlu.bdd.utils.Listado;
+import ar.edu.unlu.bdd.view.salida.Columnas;
+import ar.edu.unlu.bdd.view.salida.ListadoResultados;
 
 public class ViewSucursal {
     public ViewSucursal(ControllerSucursal controllerSucursal) {
@@ -68,7 +70,15 @@ public class ViewSucursal {
             if (!nombre.isEmpty() && nombre.length() <= 100) break;
             else System.out.println("El nombre no puede estar vacío y debe tener menos de 100 caracteres.");
         }
-        controllerSucursal.baja(nombre);
+
+        // Baja en cascada: relaciones con productos y empleados de la sucursal
+        String cascada = CFZValidatorUtils.solicitarEntradaPorTeclado("¿Eliminar también sus relaciones con productos y sus empleados? (s/n): ");
+        if ("s".equalsIgnoreCase(cascada) || "si".equalsIgnoreCase(cascada)) {
+            String destino = CFZValidatorUtils.solicitarEntradaPorTeclado("Sucursal a la que reasignar los empleados (vacío = eliminarlos): ");
+            controllerSucursal.bajaEnCascada(nombre, destino.isEmpty() ? null : destino);
+        } else {
+            controllerSucursal.baja(nombre);
+        }
     }
 
     private void inputModificacion(ControllerSucursal controllerSucursal) {
@@ -100,7 +110,7 @@ public class ViewSucursal {
             if (!nombre.isEmpty() && nombre.length() <= 100) break;
             else System.out.println("El nombre no puede estar vacío y debe tener menos de 100 caracteres.");
         }
-        controllerSucursal.consulta(nombre);
+        ListadoResultados.mostrar(controllerSucursal.consulta(nombre), Columnas.SUCURSAL);
 
     }
 }
\ No newline at end of file
@@ -1,8 +1,15 @@
 package ar.edu.unlu.bdd.view;
 
 import ar.edu.unlu.bdd.controller.ControllerVende;
+import ar.edu.unlu.bdd.repository.AjustePrecio;
+import ar.edu.unlu.bdd.repository.PeriodoVentas;
 import ar.edu.unlu.bdd.utils.CFZValidatorUtils;
 import ar.edu.unlu.bdd.utils.Listado;
+import ar.edu.unlu.bdd.view.salida.Columnas;
+import ar.edu.unlu.bdd.view.salida.ListadoResultados;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Vista para la gestión de relaciones Sucursal-Producto.
@@ -15,13 +22,19 @@ import ar.edu.unlu.bdd.utils.Listado;
  * - Baja: Eliminar la asociación
  * - Modificación: Cambiar qué producto vende una sucursal
  * - Consulta: Buscar relaciones por sucursal, producto o mostrar todas
+ * - Venta: Descontar stock de un producto o de un pedido de varias líneas
+ * - Resumen de ventas: Totales por hora o por día
+ * - Valoración de inventario: Valor del stock de cada sucursal
+ * - Stock total: Unidades de un producto en todas las sucursales
+ * - Ajuste masivo de precios: Porcentaje o monto fijo sobre una sucursal, un producto o un rango de precios
  */
 public class ViewVende {
 
     public ViewVende(ControllerVende controllerVende) {
         int opc;
         do {
-            Listado.listarMenu("Vende");
+            Listado.listarMenu("Vende", "Vender", "Registrar pedido", "Resumen de ventas", "Valoración de inventario",
+                    "Stock total de un producto", "Reconstruir stock por producto", "Ajuste masivo de precios");
             opc = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese su opción: ");
 
             switch (opc) {
@@ -42,15 +55,46 @@ public class ViewVende {
                     break;
                 }
                 case 5: {
+                    inputVenta(controllerVende);
+                    break;
+                }
+                case 6: {
+                    inputPedido(controllerVende);
+                    break;
+                }
+                case 7: {
+                    inputResumenVentas(controllerVende);
+                    break;
+                }
+                case 8: {
+                    System.out.println("\nVALORACIÓN de Inventario");
+                    System.out.println("======================================================");
+                    controllerVende.valoracionInventario();
+                    System.out.println();
+                    break;
+                }
+                case 9: {
+                    inputStockTotal(controllerVende);
+                    break;
+                }
+                case 10: {
+                    controllerVende.reconstruirStockPorProducto();
+                    break;
+                }
+                case 11: {
+                    inputAjustePrecios(controllerVende);
+                    break;
+                }
+                case 12: {
                     System.out.println("Saliendo del módulo Vende...");
                     break;
                 }
                 default: {
-                    System.out.println("Opción incorrecta. Por favor seleccione una opción válida (1-5).");
+                    System.out.println("Opción incorrecta. Por favor seleccione una opción válida (1-12).");
                     break;
                 }
             }
-        } while (opc != 5);
+        } while (opc != 12);
     }
 
     /**
@@ -194,7 +238,195 @@ public class ViewVende {
             else System.out.println("La consulta no puede estar vacía.");
         }
 
-        controllerVende.consulta(consulta);
+        ListadoResultados.mostrar(controllerVende.consulta(consulta), Columnas.VENDE);
         System.out.println();
     }
+
+    /**
+     * Maneja la entrada de datos para vender unidades de un producto en una sucursal.
+     */
+    private void inputVenta(ControllerVende controllerVende) {
+        System.out.println("\nVENTA de Producto");
+        System.out.println("======================================================");
+
+        String sucursal = solicitarSucursal();
+        int codigoProducto;
+        int cantidad;
+
+        // Entrada código producto
+        while (true) {
+            codigoProducto = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese el código del producto: ");
+            if (codigoProducto > 0) break;
+            else System.out.println("El código debe ser un número válido mayor a 0.");
+        }
+
+        // Entrada cantidad
+        while (true) {
+            cantidad = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese la cantidad a vender: ");
+            if (cantidad > 0) break;
+            else System.out.println("La cantidad debe ser un número mayor a 0.");
+        }
+
+        controllerVende.vender(sucursal, codigoProducto, cantidad);
+        System.out.println();
+    }
+
+    /**
+     * Maneja la entrada de las líneas de un pedido. Un código 0 termina la carga.
+     */
+    private void inputPedido(ControllerVende controllerVende) {
+        System.out.println("\nPEDIDO de Varios Productos");
+        System.out.println("======================================================");
+
+        String sucursal = solicitarSucursal();
+        Map<Integer, Integer> lineas = new LinkedHashMap<>();
+
+        while (true) {
+            int codigoProducto = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese el código del producto (0 = terminar): ");
+            if (codigoProducto == 0) break;
+            if (codigoProducto < 0) {
+                System.out.println("El código debe ser un número válido mayor a 0.");
+                continue;
+            }
+
+            int cantidad;
+            while (true) {
+                cantidad = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese la cantidad: ");
+                if (cantidad > 0) break;
+                else System.out.println("La cantidad debe ser un número mayor a 0.");
+            }
+            lineas.merge(codigoProducto, cantidad, Integer::sum);
+        }
+
+        if (lineas.isEmpty()) {
+            System.out.println("El pedido no tiene líneas.");
+            return;
+        }
+        controllerVende.venderPedido(sucursal, lineas);
+        System.out.println();
+    }
+
+    /**
+     * Maneja la entrada de datos para el resumen de ventas por hora o por día.
+     */
+    private void inputResumenVentas(ControllerVende controllerVende) {
+        System.out.println("\nRESUMEN de Ventas");
+        System.out.println("======================================================");
+
+        int opcionPeriodo;
+        int dias;
+
+        // Entrada período
+        while (true) {
+            opcionPeriodo = CFZValidatorUtils.solicitarNumeroPorTeclado("Agrupar por (1 = hora, 2 = día): ");
+            if (opcionPeriodo == 1 || opcionPeriodo == 2) break;
+            else System.out.println("Opción incorrecta. Ingrese 1 o 2.");
+        }
+
+        // Entrada sucursal (opcional)
+        String sucursal = CFZValidatorUtils.solicitarEntradaPorTeclado("Ingrese el nombre de la sucursal (vacío = todas): ");
+
+        // Entrada días
+        while (true) {
+            dias = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese la cantidad de días a resumir: ");
+            if (dias > 0) break;
+            else System.out.println("La cantidad de días debe ser un número mayor a 0.");
+        }
+
+        controllerVende.resumenVentas(opcionPeriodo == 1 ? PeriodoVentas.HORA : PeriodoVentas.DIA,
+                sucursal.isEmpty() ? null : sucursal, dias);
+        System.out.println();
+    }
+
+    /**
+     * Maneja la entrada de datos para consultar el stock total de un producto.
+     */
+    private void inputStockTotal(ControllerVende controllerVende) {
+        System.out.println("\nSTOCK TOTAL de Producto");
+        System.out.println("======================================================");
+
+        int codigoProducto;
+        while (true) {
+            codigoProducto = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese el código del producto: ");
+            if (codigoProducto > 0) break;
+            else System.out.println("El código debe ser un número válido mayor a 0.");
+        }
+
+        controllerVende.stockTotal(codigoProducto);
+        System.out.println();
+    }
+
+    /**
+     * Maneja la entrada de datos para un ajuste masivo de precios. Primero se simula el ajuste
+     * y solo se aplica si el usuario lo confirma después de ver cuántas relaciones alcanza.
+     */
+    private void inputAjustePrecios(ControllerVende controllerVende) {
+        System.out.println("\nAJUSTE MASIVO de Precios");
+        System.out.println("======================================================");
+
+        int opcionTipo;
+        double valor;
+        int codigoProducto;
+
+        // Entrada tipo de ajuste
+        while (true) {
+            opcionTipo = CFZValidatorUtils.solicitarNumeroPorTeclado("Tipo de ajuste (1 = porcentaje, 2 = monto fijo): ");
+            if (opcionTipo == 1 || opcionTipo == 2) break;
+            else System.out.println("Opción incorrecta. Ingrese 1 o 2.");
+        }
+        AjustePrecio.Tipo tipo = opcionTipo == 1 ? AjustePrecio.Tipo.PORCENTAJE : AjustePrecio.Tipo.FIJO;
+
+        // Entrada valor
+        while (true) {
+            valor = CFZValidatorUtils.solicitarDoublePorTeclado(tipo == AjustePrecio.Tipo.PORCENTAJE
+                    ? "Ingrese el porcentaje (negativo = descuento): " : "Ingrese el monto a sumar (negativo = descuento): $");
+            if (valor != 0 && (tipo == AjustePrecio.Tipo.FIJO || valor > -100)) break;
+            else System.out.println("El valor no puede ser 0 y un porcentaje debe ser mayor que -100.");
+        }
+
+        // Entrada filtros (opcionales)
+        String sucursal = CFZValidatorUtils.solicitarEntradaPorTeclado("Ingrese el nombre de la sucursal (vacío = todas): ");
+        while (true) {
+            codigoProducto = CFZValidatorUtils.solicitarNumeroPorTeclado("Ingrese el código del producto (0 = todos): ");
+            if (codigoProducto >= 0) break;
+            else System.out.println("El código debe ser un número mayor o igual a 0.");
+        }
+        Double precioDesde = solicitarPrecioOpcional("Precio actual desde (vacío = sin mínimo): $");
+        Double precioHasta = solicitarPrecioOpcional("Precio actual hasta (vacío = sin máximo): $");
+
+        String sucursalFiltro = sucursal.isEmpty() ? null : sucursal;
+        Integer productoFiltro = codigoProducto == 0 ? null : codigoProducto;
+        if (controllerVende.ajustarPrecios(tipo, valor, sucursalFiltro, productoFiltro, precioDesde, precioHasta, true)) {
+            String respuesta = CFZValidatorUtils.solicitarEntradaPorTeclado("¿Aplicar el ajuste? (s/n): ");
+            if ("s".equalsIgnoreCase(respuesta) || "si".equalsIgnoreCase(respuesta)) {
+                controllerVende.ajustarPrecios(tipo, valor, sucursalFiltro, productoFiltro, precioDesde, precioHasta, false);
+            }
+        }
+        System.out.println();
+    }
+
+    private Double solicitarPrecioOpcional(String mensaje) {
+        while (true) {
+            String entrada = CFZValidatorUtils.solicitarEntradaPorTeclado(mensaje);
+            if (entrada.isEmpty()) return null;
+            try {
+                double precio = Double.parseDouble(entrada.replace(',', '.'));
+                if (precio >= 0) return precio;
+            } catch (NumberFormatException e) {
+                // Se vuelve a pedir
+            }
+            System.out.println("El precio debe ser un número mayor o igual a 0.");
+        }
+    }
+
+    private String solicitarSucursal() {
+        String sucursal;
+        while (true) {
+            sucursal = CFZValidatorUtils.solicitarEntradaPorTeclado("Ingrese el nombre de la sucursal: ");
+            if (!sucursal.isEmpty() && sucursal.length() <= 100) break;
+            else
+                System.out.println("El nombre de la sucursal no puede estar vacío y debe tener menos de 100 caracteres.");
+        }
+        return sucursal;
+    }
 }
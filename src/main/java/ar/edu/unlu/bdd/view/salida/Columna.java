@@ -0,0 +1,39 @@
+package ar.edu.unlu.bdd.view.salida;
+
+import java.util.function.Function;
+
+/**
+ * Columna de un listado: el nombre del campo (encabezado CSV y clave JSON), el título
+ * y el ancho en la tabla, y cómo obtener el valor de cada fila.
+ *
+ * @param <T> tipo de las filas
+ */
+public final class Columna<T> {
+    private final String campo;
+    private final String titulo;
+    private final int ancho;
+    private final Function<T, Object> valor;
+
+    public Columna(String campo, String titulo, int ancho, Function<T, Object> valor) {
+        this.campo = campo;
+        this.titulo = titulo;
+        this.ancho = ancho;
+        this.valor = valor;
+    }
+
+    public String getCampo() {
+        return campo;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public int getAncho() {
+        return ancho;
+    }
+
+    public Object valorDe(T fila) {
+        return valor.apply(fila);
+    }
+}
@@ -0,0 +1,39 @@
+package ar.edu.unlu.bdd.view.salida;
+
+import ar.edu.unlu.bdd.entity.Empleado;
+import ar.edu.unlu.bdd.entity.Producto;
+import ar.edu.unlu.bdd.entity.Sucursal;
+import ar.edu.unlu.bdd.entity.Vende;
+
+import java.util.List;
+
+/**
+ * Columnas de los listados de cada entidad. Los nombres de los campos son los mismos que
+ * espera la importación masiva, así que una consulta en CSV o JSONL puede volver a importarse.
+ */
+public final class Columnas {
+
+    public static final List<Columna<Sucursal>> SUCURSAL = List.of(
+            new Columna<>("nombre", "Nombre", 25, Sucursal::getNombre),
+            new Columna<>("direccion", "Dirección", 40, Sucursal::getDireccion));
+
+    public static final List<Columna<Producto>> PRODUCTO = List.of(
+            new Columna<>("codigo", "Código", 10, Producto::getCodigo),
+            new Columna<>("descripcion", "Descripción", 40, Producto::getDescripcion),
+            new Columna<>("stock", "Stock", 8, Producto::getStock));
+
+    public static final List<Columna<Empleado>> EMPLEADO = List.of(
+            new Columna<>("dni", "DNI", 10, Empleado::getDni),
+            new Columna<>("nombre", "Nombre", 20, Empleado::getNombre),
+            new Columna<>("apellido", "Apellido", 20, Empleado::getApellido),
+            new Columna<>("sucursal", "Sucursal", 25, Empleado::getSucursal));
+
+    public static final List<Columna<Vende>> VENDE = List.of(
+            new Columna<>("sucursal", "Sucursal", 25, Vende::getSucursal),
+            new Columna<>("codigoProducto", "Producto", 10, Vende::getCodigoProducto),
+            new Columna<>("precio", "Precio", 12, Vende::getPrecio),
+            new Columna<>("stock", "Stock", 8, Vende::getStock));
+
+    private Columnas() {
+    }
+}
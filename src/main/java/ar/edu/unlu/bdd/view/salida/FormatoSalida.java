@@ -0,0 +1,30 @@
+package ar.edu.unlu.bdd.view.salida;
+
+/**
+ * Formato en el que se muestran los resultados de las consultas. Se elige con
+ * {@code -Dbdd.salida.formato=tabla|csv|jsonl}; por defecto, tabla.
+ */
+public enum FormatoSalida {
+    /** Columnas alineadas, con títulos, para leer en la consola. */
+    TABLA,
+    /** Una fila por línea con los nombres de los campos como encabezado, igual que el CSV de importación. */
+    CSV,
+    /** Un documento JSON por línea, igual que el JSONL de importación. */
+    JSONL;
+
+    /**
+     * @throws IllegalArgumentException si el nombre no corresponde a ningún formato
+     */
+    public static FormatoSalida desde(String nombre) {
+        for (FormatoSalida formato : values()) {
+            if (formato.name().equalsIgnoreCase(nombre.trim())) {
+                return formato;
+            }
+        }
+        throw new IllegalArgumentException("Formato de salida desconocido '" + nombre + "'. Valores válidos: tabla, csv, jsonl.");
+    }
+
+    public static FormatoSalida configurado() {
+        return desde(System.getProperty("bdd.salida.formato", "tabla"));
+    }
+}
@@ -0,0 +1,84 @@
+package ar.edu.unlu.bdd.view.salida;
+
+import ar.edu.unlu.bdd.repository.RecorridoPaginado;
+import ar.edu.unlu.bdd.repository.TiempoAgotadoException;
+import ar.edu.unlu.bdd.utils.Listado;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * Muestra en la consola el resultado de una consulta, página por página, con el formato de
+ * {@code bdd.salida.formato}. Las filas se leen del recorrido a medida que se escriben, así
+ * que nunca se carga el resultado completo en memoria.
+ * <p>
+ * En formato tabla, con un usuario en la consola, se pregunta antes de cada página siguiente;
+ * en CSV y JSONL se escribe todo sin decoraciones, para poder redirigir la salida a un archivo.
+ * Si una página supera el tiempo máximo de la consulta, se muestran las filas ya leídas y el aviso.
+ */
+public final class ListadoResultados {
+    private static final Logger logger = LoggerFactory.getLogger(ListadoResultados.class);
+
+    private ListadoResultados() {
+    }
+
+    /**
+     * @param recorrido Resultado de la consulta; si es null no se muestra nada
+     * @return cantidad de filas mostradas
+     */
+    public static <T> long mostrar(RecorridoPaginado<T> recorrido, List<Columna<T>> columnas) {
+        if (recorrido == null) {
+            return 0;
+        }
+        FormatoSalida formato;
+        try {
+            formato = FormatoSalida.configurado();
+        } catch (IllegalArgumentException e) {
+            logger.warn("{} Se usa el formato tabla.", e.getMessage());
+            formato = FormatoSalida.TABLA;
+        }
+        RenderizadorFilas<T> renderizador = new RenderizadorFilas<>(formato, columnas, System.out, Charset.defaultCharset());
+        try {
+            List<T> pagina = recorrido.siguientePagina();
+            if (pagina.isEmpty()) {
+                System.out.println("No se encontraron resultados.");
+                return 0;
+            }
+
+            if (formato == FormatoSalida.TABLA) {
+                System.out.println("Resultados de la consulta:");
+            }
+            renderizador.escribirEncabezado();
+            while (true) {
+                for (T fila : pagina) {
+                    renderizador.escribir(fila);
+                }
+                if (!recorrido.hayMasPaginas()) break;
+                if (formato == FormatoSalida.TABLA) {
+                    renderizador.vaciar();
+                    if (!Listado.solicitarSiguientePagina()) break;
+                }
+                pagina = recorrido.siguientePagina();
+            }
+            renderizador.vaciar();
+
+            if (formato == FormatoSalida.TABLA) {
+                System.out.println("Consulta finalizada. Filas: " + renderizador.getFilas());
+            }
+        } catch (TiempoAgotadoException e) {
+            // Las filas ya leídas se muestran igual; el resto de la consulta quedó cancelado
+            try {
+                renderizador.vaciar();
+            } catch (IOException ex) {
+                logger.error("Error al mostrar los resultados de la consulta: {}", ex.getMessage(), ex);
+            }
+            System.out.println("Error: " + e.getMessage() + " Filas mostradas: " + renderizador.getFilas() + ".");
+        } catch (Exception e) {
+            logger.error("Error al mostrar los resultados de la consulta: {}", e.getMessage(), e);
+        }
+        return renderizador.getFilas();
+    }
+}
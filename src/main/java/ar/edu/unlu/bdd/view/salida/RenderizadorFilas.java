@@ -0,0 +1,194 @@
+package ar.edu.unlu.bdd.view.salida;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * Escribe filas en el formato elegido acumulándolas en un buffer grande, que se vuelca al
+ * destino con una sola escritura cuando se llena, en lugar de un println por fila.
+ * <p>
+ * El buffer se vuelca siempre en el límite de una fila: con System.out como destino, cada
+ * escritura es atómica, así que las consultas que se ejecutan en paralelo (modo script)
+ * pueden intercalar bloques pero nunca cortar una línea. El destino no se cierra.
+ *
+ * @param <T> tipo de las filas
+ */
+public class RenderizadorFilas<T> implements AutoCloseable {
+
+    public static final int TAMANIO_BUFFER = Integer.getInteger("bdd.salida.tamanioBuffer", 64 * 1024);
+    private static final String SEPARADOR_TABLA = " | ";
+
+    private final FormatoSalida formato;
+    private final List<Columna<T>> columnas;
+    private final OutputStream destino;
+    private final Charset charset;
+    private final StringBuilder buffer = new StringBuilder(TAMANIO_BUFFER + 1024);
+    private long filas;
+    private long bytes;
+
+    public RenderizadorFilas(FormatoSalida formato, List<Columna<T>> columnas, OutputStream destino, Charset charset) {
+        this.formato = formato;
+        this.columnas = columnas;
+        this.destino = destino;
+        this.charset = charset;
+    }
+
+    /**
+     * Títulos y separador en la tabla, nombres de los campos en CSV; en JSONL no hay encabezado.
+     */
+    public void escribirEncabezado() throws IOException {
+        if (formato == FormatoSalida.TABLA) {
+            for (int i = 0; i < columnas.size(); i++) {
+                if (i > 0) buffer.append(SEPARADOR_TABLA);
+                rellenar(columnas.get(i).getTitulo(), columnas.get(i).getAncho(), i == columnas.size() - 1);
+            }
+            buffer.append('\n');
+            for (int i = 0; i < columnas.size(); i++) {
+                if (i > 0) buffer.append("-+-");
+                buffer.append("-".repeat(columnas.get(i).getAncho()));
+            }
+            buffer.append('\n');
+        } else if (formato == FormatoSalida.CSV) {
+            for (int i = 0; i < columnas.size(); i++) {
+                if (i > 0) buffer.append(',');
+                buffer.append(columnas.get(i).getCampo());
+            }
+            buffer.append('\n');
+        }
+        vaciarSiLleno();
+    }
+
+    public void escribir(T fila) throws IOException {
+        switch (formato) {
+            case TABLA:
+                for (int i = 0; i < columnas.size(); i++) {
+                    if (i > 0) buffer.append(SEPARADOR_TABLA);
+                    rellenar(String.valueOf(columnas.get(i).valorDe(fila)), columnas.get(i).getAncho(), i == columnas.size() - 1);
+                }
+                break;
+            case CSV:
+                for (int i = 0; i < columnas.size(); i++) {
+                    if (i > 0) buffer.append(',');
+                    escribirCsv(columnas.get(i).valorDe(fila));
+                }
+                break;
+            case JSONL:
+                buffer.append('{');
+                for (int i = 0; i < columnas.size(); i++) {
+                    if (i > 0) buffer.append(',');
+                    escribirJson(columnas.get(i).getCampo());
+                    buffer.append(':');
+                    Object valor = columnas.get(i).valorDe(fila);
+                    if (valor instanceof Number || valor instanceof Boolean) {
+                        buffer.append(valor);
+                    } else if (valor == null) {
+                        buffer.append("null");
+                    } else {
+                        escribirJson(valor.toString());
+                    }
+                }
+                buffer.append('}');
+                break;
+        }
+        buffer.append('\n');
+        filas++;
+        vaciarSiLleno();
+    }
+
+    /**
+     * Vuelca al destino las filas acumuladas, por ejemplo antes de pedirle algo al usuario.
+     */
+    public void vaciar() throws IOException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        byte[] contenido = buffer.toString().getBytes(charset);
+        destino.write(contenido);
+        destino.flush();
+        bytes += contenido.length;
+        buffer.setLength(0);
+    }
+
+    public long getFilas() {
+        return filas;
+    }
+
+    /**
+     * @return bytes volcados al destino hasta el momento, antes de cualquier compresión
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        vaciar();
+    }
+
+    private void vaciarSiLleno() throws IOException {
+        if (buffer.length() >= TAMANIO_BUFFER) {
+            vaciar();
+        }
+    }
+
+    private void rellenar(String texto, int ancho, boolean ultima) {
+        buffer.append(texto);
+        // La última columna no se rellena, para no dejar espacios al final de cada línea
+        for (int i = texto.length(); i < ancho && !ultima; i++) {
+            buffer.append(' ');
+        }
+    }
+
+    private void escribirCsv(Object valor) {
+        String texto = valor == null ? "" : valor.toString();
+        boolean requiereComillas = false;
+        for (int i = 0; i < texto.length() && !requiereComillas; i++) {
+            char c = texto.charAt(i);
+            requiereComillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!requiereComillas) {
+            buffer.append(texto);
+            return;
+        }
+        buffer.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"') buffer.append('"');
+            buffer.append(c);
+        }
+        buffer.append('"');
+    }
+
+    private void escribirJson(String texto) {
+        buffer.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"':
+                    buffer.append("\\\"");
+                    break;
+                case '\\':
+                    buffer.append("\\\\");
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                case '\t':
+                    buffer.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        buffer.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        buffer.append(c);
+                    }
+            }
+        }
+        buffer.append('"');
+    }
+}